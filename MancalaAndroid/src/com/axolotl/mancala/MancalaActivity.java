@@ -5,6 +5,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import android.app.Activity;
 import android.os.Bundle;
@@ -36,6 +40,9 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 	// the amount of time in milliseconds to show a message
 	private static final int COMPUTER_DELAY = 1000;
 	
+	// The time in milliseconds between checks for the computer's move
+	private static final int COMPUTER_POLL_DELAY = 100;
+	
 	// The time to highlight the changed hollows for
 	private static final int HIGHLIGHT_DELAY = 1000;
 	
@@ -65,6 +72,12 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 	// Handler for timer tasks
 	private Handler mHandler = new Handler();
 	
+	// The thread the computer thinks on, so that the UI thread is not blocked
+	private final ExecutorService mComputerThread = Executors.newSingleThreadExecutor();
+	
+	// The move the computer is thinking about, if any
+	private Future<Pit> mPendingComputerMove;
+	
 	// The message to show to the user once the play animation has completed
 	private String mMessageToShowAfterAnimation;
 	
@@ -157,12 +170,23 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 					
 				displayMessage(getResources().getString(R.string.thinking_text));
 				
-				// Make the computer take a bit of time before performing the move
+				// Start thinking straight away, but make the computer take a bit of time
+				// before performing the move
+				cancelComputerMove();
+				mPendingComputerMove = mMancalaGame.getPlayer2().playAsync(mComputerThread);
+				
 				mHandler.removeCallbacks(mComputerMove);
 	            mHandler.postDelayed(mComputerMove, COMPUTER_DELAY); 
 	            
 			} else {
+				
 				displayMessage("");
+				
+				// Let the computer think ahead while the player decides, which only
+				// makes it answer sooner as it plays the move it would have anyway
+				if (mMancalaGame.getGameMode() == GameMode.OnePlayer) {
+					mMancalaGame.getPlayer2().ponder();
+				}
 			}
 			
 			if (mMessageToShowAfterAnimation != null && mMessageToShowAfterAnimation.length() > 0) {
@@ -187,6 +211,8 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 		
 		Log.d(TAG, "setDifficulty: " + difficulty.toString());
 		
+		cancelComputerMove();
+		
 		mMancalaGame.newGame(mode, difficulty);		
 	}
 
@@ -254,6 +280,12 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 	 */
 	public void onGameComplete(FinalScore score) {
 		
+		cancelComputerMove();
+		
+		if (mMancalaGame.getGameMode() == GameMode.OnePlayer) {
+			mMancalaGame.getPlayer2().stopPondering();
+		}
+		
 		if (mMancalaBoard.isAnimating()) {
 			mGameCompleted = true;
 			mFinalScore = score;
@@ -303,6 +335,22 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 		outState.putString(GAME_STATE_KEY, gameState);
 	}
 	
+	/**
+	 * Stops the computer thinking when the activity goes away
+	 */
+	@Override
+	protected void onDestroy() {
+		
+		cancelComputerMove();
+		mComputerThread.shutdownNow();
+		
+		if (mMancalaGame.getPlayer2() != null) {
+			mMancalaGame.getPlayer2().stopPondering();
+		}
+		
+		super.onDestroy();
+	}
+	
 	/**
 	 * Callback method to clear the display text after a period of time
 	 */
@@ -317,9 +365,47 @@ public class MancalaActivity extends Activity implements GameListener, OnAnimati
 	 */
 	private Runnable mComputerMove = new Runnable() {
 	   public void run() {
-		   mMancalaGame.makeMove(mMancalaGame.getPlayer2().play());
+		   
+		   if (mPendingComputerMove == null) {
+			   return;
+		   }
+		   
+		   // Keep waiting if the computer is still thinking
+		   if (!mPendingComputerMove.isDone()) {
+			   mHandler.postDelayed(mComputerMove, COMPUTER_POLL_DELAY);
+			   return;
+		   }
+		   
+		   Pit move;
+		   
+		   try {
+			   move = mPendingComputerMove.get();
+		   } catch (InterruptedException e) {
+			   Thread.currentThread().interrupt();
+			   return;
+		   } catch (ExecutionException e) {
+			   Log.e(TAG, "The computer failed to choose a move", e.getCause());
+			   return;
+		   } finally {
+			   mPendingComputerMove = null;
+		   }
+		   
+		   mMancalaGame.makeMove(move);
 	   }
 	};
+	
+	/**
+	 * Stops the computer thinking about a move that is no longer needed
+	 */
+	private void cancelComputerMove() {
+		
+		mHandler.removeCallbacks(mComputerMove);
+		
+		if (mPendingComputerMove != null) {
+			mPendingComputerMove.cancel(true);
+			mPendingComputerMove = null;
+		}
+	}
 		
 	/**
 	 * Displays a message to the user
@@ -0,0 +1,34 @@
+package com.axolotl.mancala.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which reports the bytes allocated by each
+ * operation alongside its time.
+ *
+ * Usage: BenchmarkMain [pattern], where the pattern is a regular expression matching
+ * the benchmarks to run, such as MoveBenchmarks.  Everything is run if it is left out.
+ */
+public class BenchmarkMain {
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args The pattern of the benchmarks to run, if any
+	 *
+	 * @throws RunnerException If the benchmarks could not be run
+	 */
+	public static void main(String[] args) throws RunnerException {
+
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : BenchmarkMain.class.getPackage().getName() + ".*")
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
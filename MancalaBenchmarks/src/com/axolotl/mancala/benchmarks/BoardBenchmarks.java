@@ -0,0 +1,51 @@
+package com.axolotl.mancala.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.game.PlayerScore;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * Measures the board queries the strategy makes for every move
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+
+	/**
+	 * Lists the pits sown by player one's first hollow at the start of the game
+	 */
+	@Benchmark
+	public List<Pit> getNextPits(BoardState state) {
+		return state.board.getNextPits(state.firstHollow, PlayerNumber.One, state.marbles);
+	}
+
+	/**
+	 * Finds the hollow opposite player one's first hollow
+	 */
+	@Benchmark
+	public Pit getAdjacentPit(BoardState state) {
+		return state.board.getAdjacentPit(state.firstHollow);
+	}
+
+	/**
+	 * Adds up player one's marbles
+	 */
+	@Benchmark
+	public PlayerScore getScoreForPlayer(BoardState state) {
+		return state.board.getScoreForPlayer(PlayerNumber.One);
+	}
+}
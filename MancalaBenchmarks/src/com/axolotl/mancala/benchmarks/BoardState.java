@@ -0,0 +1,140 @@
+package com.axolotl.mancala.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.axolotl.mancala.game.FinalScore;
+import com.axolotl.mancala.game.GamePublisher;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+/**
+ * A board and strategy of the geometry given by the benchmark parameters, with a
+ * publisher that ignores every event but the end of the game
+ */
+@State(Scope.Thread)
+public class BoardState implements GamePublisher {
+
+	/**
+	 * The hollows on each side of the board
+	 */
+	@Param({ "4", "6", "8" })
+	public int hollows;
+
+	/**
+	 * The marbles in each hollow at the start of the game
+	 */
+	@Param({ "4", "6" })
+	public int marbles;
+
+	/**
+	 * The board
+	 */
+	public Board board;
+
+	/**
+	 * The strategy playing on the board
+	 */
+	public EgyptianStrategy strategy;
+
+	/**
+	 * Player one's first hollow
+	 */
+	public Pit firstHollow;
+
+	// Whether the game on the board is over
+	private boolean mGameOver;
+
+	/**
+	 * Creates the board and starts a game on it
+	 */
+	@Setup(Level.Trial)
+	public void setUpBoard() {
+
+		board = new BoardImpl();
+		strategy = new EgyptianStrategy(board);
+		strategy.setGamePublisher(this);
+
+		newGame();
+	}
+
+	/**
+	 * Puts the marbles back for a new game, with player one to move.  The strategy's
+	 * own reset is not used, as it always lays out the standard board.
+	 */
+	public void newGame() {
+
+		board.clear();
+		board.initialiseBoard(hollows, marbles);
+		strategy.setInitialPlayer(PlayerNumber.One);
+
+		firstHollow = board.getPlayersPits(PlayerNumber.One).get(0);
+		mGameOver = false;
+	}
+
+	/**
+	 * @return True once the game on the board is over
+	 */
+	public boolean isGameOver() {
+		return mGameOver;
+	}
+
+	/**
+	 * Picks one of the current player's hollows holding marbles at random
+	 *
+	 * @param random The source of the choice
+	 *
+	 * @return The index of the hollow among the current player's hollows
+	 */
+	public int chooseRandomMove(Random random) {
+
+		List<Pit> pits = board.getPlayersPits(strategy.getCurrentPlayer());
+
+		while (true) {
+			int move = random.nextInt(pits.size());
+			if (pits.get(move).getNumberOfMarbles() > 0) {
+				return move;
+			}
+		}
+	}
+
+	/**
+	 * Plays a move for the current player
+	 *
+	 * @param move The index of the hollow among the current player's hollows
+	 */
+	public void play(int move) {
+		strategy.makeMove(board.getPlayersPits(strategy.getCurrentPlayer()).get(move));
+	}
+
+	public void notifyGameRestored() {
+	}
+
+	public void notifyNewGame() {
+	}
+
+	public void notifyBoardChanged(List<Pit> changedPits) {
+	}
+
+	public void notifyPlayerHasAnotherTurn() {
+	}
+
+	public void notifyCapture(Pit capturedPit) {
+	}
+
+	public void notifyPlayerChanged(PlayerNumber newPlayer) {
+	}
+
+	public void notifyGameComplete(FinalScore score) {
+		mGameOver = true;
+	}
+}
@@ -0,0 +1,81 @@
+package com.axolotl.mancala.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+
+/**
+ * Measures the strategy's computer player choosing a move at each difficulty level
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComputerPlayerBenchmarks {
+
+	// The random moves played to reach the position the player moves from
+	private static final int OPENING_MOVES = 4;
+
+	/**
+	 * A player and a position a few moves into the game for it to move from
+	 */
+	@State(Scope.Thread)
+	public static class PlayerState extends BoardState {
+
+		/**
+		 * The level the player plays at
+		 */
+		@Param({ "Easy", "Medium", "Hard" })
+		public Difficulty level;
+
+		/**
+		 * The player to move
+		 */
+		public ComputerPlayer player;
+
+		/**
+		 * Plays the opening and creates the player
+		 */
+		@Setup(Level.Trial)
+		public void createPlayer() {
+
+			Random random = new Random(5);
+
+			// Start again in the unlikely case that the opening ends the game
+			do {
+				newGame();
+				for (int i = 0; i < OPENING_MOVES && !isGameOver(); i++) {
+					play(chooseRandomMove(random));
+				}
+			} while (isGameOver());
+
+			player = strategy.createAIPlayer(strategy.getCurrentPlayer(), level);
+			player.setSeed(1);
+		}
+	}
+
+	/**
+	 * Chooses a move, which leaves the board as it was
+	 */
+	@Benchmark
+	public Pit play(PlayerState state) {
+		return state.player.play();
+	}
+}
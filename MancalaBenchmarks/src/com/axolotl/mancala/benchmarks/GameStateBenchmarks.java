@@ -0,0 +1,96 @@
+package com.axolotl.mancala.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+/**
+ * Measures saving and restoring a game's state, as the app does whenever it is paused
+ * and resumed.  The game always uses the standard board, so these benchmarks are not
+ * parameterised by geometry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmarks {
+
+	/**
+	 * A two player game and its saved state
+	 */
+	@State(Scope.Thread)
+	public static class GameState {
+
+		/**
+		 * The game
+		 */
+		public GameImpl game;
+
+		/**
+		 * The state of the game before the move
+		 */
+		public String saved;
+
+		/**
+		 * The index of the hollow played among the pits
+		 */
+		public int move;
+
+		/**
+		 * Starts a game and saves its state
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+
+			game = new GameImpl();
+			game.setStrategy(new EgyptianStrategy(game.getBoard()));
+			game.newGame(GameMode.TwoPlayer, Difficulty.Easy);
+
+			saved = game.getGameState();
+			move = game.getBoard().getPits().indexOf(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+		}
+	}
+
+	/**
+	 * Restores the board and the player to move from a saved state
+	 */
+	@Benchmark
+	public GameImpl restoreGameState(GameState state) {
+		state.game.restoreGameState(state.saved);
+		return state.game;
+	}
+
+	/**
+	 * Restores the saved state and plays a move.  The state string is cached and built
+	 * again after every move, so the difference from restoreGameState is the cost of the
+	 * move and of building the string.
+	 */
+	@Benchmark
+	public String playAndGetGameState(GameState state) {
+
+		state.game.restoreGameState(state.saved);
+
+		Pit pit = state.game.getBoard().getPits().get(state.move);
+		state.game.makeMove(pit);
+
+		return state.game.getGameState();
+	}
+}
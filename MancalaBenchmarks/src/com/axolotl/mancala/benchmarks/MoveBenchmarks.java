@@ -0,0 +1,110 @@
+package com.axolotl.mancala.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures playing moves on the board through the strategy, one at a time and as
+ * whole games
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmarks {
+
+	/**
+	 * A game of random moves recorded in advance, replayed one move at a time so that
+	 * each move is measured from a real position without setting the board up again
+	 */
+	@State(Scope.Thread)
+	public static class ReplayState extends BoardState {
+
+		// The hollows played, relative to the player to move
+		private int[] mMoves;
+
+		// The next move to replay
+		private int mNext;
+
+		/**
+		 * Records a game of random moves
+		 */
+		@Setup(Level.Trial)
+		public void recordGame() {
+
+			Random random = new Random(17);
+			List<Integer> moves = new ArrayList<Integer>();
+
+			newGame();
+
+			while (!isGameOver()) {
+				int move = chooseRandomMove(random);
+				moves.add(Integer.valueOf(move));
+				play(move);
+			}
+
+			mMoves = new int[moves.size()];
+			for (int i = 0; i < mMoves.length; i++) {
+				mMoves[i] = moves.get(i).intValue();
+			}
+
+			newGame();
+			mNext = 0;
+		}
+
+		/**
+		 * Plays the next move of the game, starting it again once it is over
+		 */
+		public void playNextMove() {
+
+			if (mNext == mMoves.length) {
+				newGame();
+				mNext = 0;
+			}
+			play(mMoves[mNext++]);
+		}
+	}
+
+	/**
+	 * Plays one move, including a new game setup every game's worth of moves
+	 */
+	@Benchmark
+	public void makeMove(ReplayState state) {
+		state.playNextMove();
+	}
+
+	/**
+	 * Sets up a board and plays random moves on it until the game is over
+	 *
+	 * @return The number of moves played
+	 */
+	@Benchmark
+	public int playGame(BoardState state) {
+
+		Random random = new Random(state.hollows * 31 + state.marbles);
+		int moves = 0;
+
+		state.newGame();
+
+		while (!state.isGameOver()) {
+			state.play(state.chooseRandomMove(random));
+			moves++;
+		}
+		return moves;
+	}
+}
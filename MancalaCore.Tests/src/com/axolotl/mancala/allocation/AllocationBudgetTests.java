@@ -0,0 +1,240 @@
+package com.axolotl.mancala.allocation;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.mocks.CountingGamePublisher;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+/**
+ * Fails when an operation allocates more than its budget, so that extra garbage per
+ * move shows up as soon as it is added.  Each budget can be changed with a system
+ * property, for example -Dmancala.allocation.move=2000.
+ */
+public class AllocationBudgetTests {
+
+	// The games played to measure the moves
+	private static final int GAMES = 200;
+
+	// The games played against the Hard computer player to measure whole games
+	private static final int COMPUTER_GAMES = 5;
+
+	// The nodes searched to measure a decision, spread over as many decisions as the
+	// level's budget allows
+	private static final int DECISION_NODES = 2000000;
+
+	// The fewest decisions measured, so that the few the nodes allow at Hard are enough
+	// for an allocation made on only some of them to average out
+	private static final int MIN_DECISIONS = 40;
+
+	// The random moves played before a computer player is asked for a move
+	private static final int OPENING_MOVES = 4;
+
+	@Test
+	public void testMove() {
+
+		if (!AllocationMeter.isSupported()) {
+			return;
+		}
+
+		Board board = new BoardImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(board);
+		CountingGamePublisher publisher = new CountingGamePublisher();
+		strategy.setGamePublisher(publisher);
+
+		Random random = new Random(3);
+		long bytes = 0;
+		int moves = 0;
+
+		for (int game = 0; game < 2 * GAMES; game++) {
+
+			strategy.reset();
+			strategy.setInitialPlayer(PlayerNumber.One);
+			int completed = publisher.getGameCompleteCallCount();
+
+			while (publisher.getGameCompleteCallCount() == completed) {
+
+				Pit pit = chooseRandomMove(board, strategy, random);
+
+				// Only the second half of the games counts, once the code is warm
+				long before = AllocationMeter.getAllocatedBytes();
+				strategy.makeMove(pit);
+				long after = AllocationMeter.getAllocatedBytes();
+
+				if (game >= GAMES) {
+					bytes += after - before;
+					moves++;
+				}
+			}
+		}
+
+		assertWithinBudget("move", bytes / moves, 400);
+	}
+
+	@Test
+	public void testGameStateAfterMove() {
+
+		if (!AllocationMeter.isSupported()) {
+			return;
+		}
+
+		GameImpl game = new GameImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(game.getBoard());
+		game.setStrategy(strategy);
+
+		Random random = new Random(4);
+		long bytes = 0;
+		int moves = 0;
+
+		for (int played = 0; played < 2 * GAMES; played++) {
+
+			game.newGame(GameMode.TwoPlayer, Difficulty.Easy);
+
+			while (!isOver(game.getBoard())) {
+
+				Pit pit = chooseRandomMove(game.getBoard(), strategy, random);
+
+				long before = AllocationMeter.getAllocatedBytes();
+				game.makeMove(pit);
+				game.getGameState();
+				long after = AllocationMeter.getAllocatedBytes();
+
+				if (played >= GAMES) {
+					bytes += after - before;
+					moves++;
+				}
+			}
+		}
+
+		assertWithinBudget("gamemove", bytes / moves, 1200);
+	}
+
+	@Test
+	public void testEasyDecision() {
+		assertDecisionWithinBudget(Difficulty.Easy, 400);
+	}
+
+	@Test
+	public void testMediumDecision() {
+		assertDecisionWithinBudget(Difficulty.Medium, 400);
+	}
+
+	@Test
+	public void testHardDecision() {
+		assertDecisionWithinBudget(Difficulty.Hard, 400);
+	}
+
+	@Test
+	public void testWholeGame() {
+
+		if (!AllocationMeter.isSupported()) {
+			return;
+		}
+
+		final GameImpl game = new GameImpl();
+		final EgyptianStrategy strategy = new EgyptianStrategy(game.getBoard());
+		game.setStrategy(strategy);
+
+		final Random random = new Random(5);
+
+		long bytes = AllocationMeter.measure(new Runnable() {
+			public void run() {
+
+				// As the app does, restoring the game it has just started
+				game.newGame(GameMode.OnePlayer, Difficulty.Hard);
+				game.restoreGameState(game.getGameState());
+
+				while (!isOver(game.getBoard())) {
+					if (strategy.getCurrentPlayer() == PlayerNumber.Two) {
+						game.makeMove(game.getPlayer2().play());
+					} else {
+						game.makeMove(chooseRandomMove(game.getBoard(), strategy, random));
+					}
+				}
+			}
+		}, COMPUTER_GAMES);
+
+		// The first game at the level makes the player's tables, which later games share
+		assertWithinBudget("game", bytes, 150000);
+	}
+
+	/**
+	 * Checks the bytes allocated by the strategy's computer player choosing a move a
+	 * few moves into the game
+	 */
+	private static void assertDecisionWithinBudget(Difficulty level, long defaultBudget) {
+
+		if (!AllocationMeter.isSupported()) {
+			return;
+		}
+
+		Board board = new BoardImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(board);
+		CountingGamePublisher publisher = new CountingGamePublisher();
+		strategy.setGamePublisher(publisher);
+		strategy.reset();
+		strategy.setInitialPlayer(PlayerNumber.One);
+
+		Random random = new Random(6);
+
+		for (int i = 0; i < OPENING_MOVES; i++) {
+			strategy.makeMove(chooseRandomMove(board, strategy, random));
+		}
+
+		final ComputerPlayer player = strategy.createAIPlayer(strategy.getCurrentPlayer(), level);
+
+		long bytes = AllocationMeter.measure(new Runnable() {
+			public void run() {
+				player.play();
+			}
+		}, Math.max(MIN_DECISIONS, DECISION_NODES / level.getNodeBudget()));
+
+		assertWithinBudget("decision." + level.toString().toLowerCase(), bytes, defaultBudget);
+	}
+
+	/**
+	 * Fails if the bytes allocated by an operation are over its budget
+	 */
+	private static void assertWithinBudget(String name, long bytes, long defaultBudget) {
+
+		long budget = AllocationMeter.getBudget(name, defaultBudget);
+
+		Assert.assertTrue(name + " allocated " + bytes + " bytes, over its budget of " + budget, bytes <= budget);
+	}
+
+	/**
+	 * Picks one of the current player's hollows holding marbles at random
+	 */
+	private static Pit chooseRandomMove(Board board, MancalaStrategy strategy, Random random) {
+
+		List<Pit> pits = board.getPlayersPits(strategy.getCurrentPlayer());
+
+		while (true) {
+			Pit pit = pits.get(random.nextInt(pits.size()));
+			if (pit.getNumberOfMarbles() > 0) {
+				return pit;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether either player's hollows are all empty
+	 */
+	private static boolean isOver(Board board) {
+		return board.getScoreForPlayer(PlayerNumber.One).getNumberRemaining() == 0
+				|| board.getScoreForPlayer(PlayerNumber.Two).getNumberRemaining() == 0;
+	}
+}
@@ -0,0 +1,95 @@
+package com.axolotl.mancala.allocation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread, using the allocation counters
+ * of HotSpot's thread bean.  Budgets are read from system properties named
+ * mancala.allocation.<name>, so that a build can tighten them or a slower JVM can
+ * loosen them without changing the tests.
+ */
+class AllocationMeter {
+
+	// The prefix of the system properties holding the budgets
+	private static final String BUDGET_PROPERTY = "mancala.allocation.";
+
+	// The thread bean, or null if the JVM cannot count allocations
+	private static final com.sun.management.ThreadMXBean sThreads = createBean();
+
+	/**
+	 * @return True if the JVM counts the bytes allocated by each thread
+	 */
+	static boolean isSupported() {
+		return sThreads != null;
+	}
+
+	/**
+	 * Returns the bytes allocated so far by the current thread
+	 */
+	static long getAllocatedBytes() {
+		return sThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Runs an operation enough times to warm it up, then measures the bytes it
+	 * allocates each time on average
+	 *
+	 * @param operation The operation
+	 *
+	 * @param repetitions The times to run it for the measurement
+	 *
+	 * @return The bytes allocated per run
+	 */
+	static long measure(Runnable operation, int repetitions) {
+
+		for (int i = 0; i < repetitions; i++) {
+			operation.run();
+		}
+
+		// The counter allocates nothing itself once it has been called, so the
+		// difference is the operation's alone
+		getAllocatedBytes();
+		long before = getAllocatedBytes();
+
+		for (int i = 0; i < repetitions; i++) {
+			operation.run();
+		}
+		return (getAllocatedBytes() - before) / repetitions;
+	}
+
+	/**
+	 * Returns the budget for an operation
+	 *
+	 * @param name The name of the operation, as used in the property name
+	 *
+	 * @param defaultBytes The budget to use if no property is set
+	 *
+	 * @return The bytes the operation may allocate each time
+	 */
+	static long getBudget(String name, long defaultBytes) {
+		return Long.getLong(BUDGET_PROPERTY + name, defaultBytes).longValue();
+	}
+
+	/**
+	 * Gets the thread bean if allocation counting is available and turns it on
+	 */
+	private static com.sun.management.ThreadMXBean createBean() {
+
+		try {
+			Object bean = ManagementFactory.getThreadMXBean();
+
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+
+				com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+				if (threads.isThreadAllocatedMemorySupported()) {
+					threads.setThreadAllocatedMemoryEnabled(true);
+					return threads;
+				}
+			}
+		} catch (LinkageError e) {
+			// Not a HotSpot JVM, so there are no allocation counters
+		}
+		return null;
+	}
+}
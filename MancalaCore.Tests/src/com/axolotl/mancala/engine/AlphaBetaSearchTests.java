@@ -0,0 +1,265 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class AlphaBetaSearchTests {
+
+	@Test
+	public void testSearchToTheEndIsExact() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		Random random = new Random(5);
+		
+		for (int i = 0; i < 100; i++) {
+			
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 8);
+			
+			if (position.isGameOver()) {
+				continue;
+			}
+			
+			SearchResult result = search.search(position, 60);
+			
+			Assert.assertEquals(Evaluator.SEED * EndgameDatabaseTests.solve(position), result.getScore());
+			Assert.assertTrue(position.isLegal(result.getMove()));
+		}
+	}
+	
+	@Test
+	public void testStatistics() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		SearchResult result = search.search(Position.createInitial(6, 4), 8);
+		SearchStatistics statistics = search.getStatistics();
+		
+		Assert.assertEquals(result.getNodes(), statistics.getNodes());
+		Assert.assertEquals(8, statistics.getDepth());
+		Assert.assertTrue(statistics.getEvaluations() > 0);
+		Assert.assertTrue(statistics.getHits() > 0);
+		Assert.assertTrue(statistics.getHits() <= statistics.getProbes());
+		Assert.assertTrue(statistics.getCutoffs() > 0);
+		Assert.assertTrue(statistics.getBranchingFactor() > 1);
+		
+		// The counters start again for each search
+		search.search(Position.createInitial(6, 4), 2);
+		Assert.assertTrue(search.getStatistics().getNodes() < statistics.getNodes());
+	}
+	
+	@Test
+	public void testTableKeysKeepSearchesApart() {
+		
+		Position position = Position.createInitial(6, 4);
+		position.play(2);
+		position.play(5);
+		
+		TranspositionTable table = new TranspositionTable(1 << 16);
+		AlphaBetaSearch deep = new AlphaBetaSearch(table, new StoreEvaluator());
+		deep.setTableKey(1);
+		deep.search(position, 10);
+		
+		AlphaBetaSearch shallow = new AlphaBetaSearch(table, new StoreEvaluator());
+		shallow.setTableKey(2);
+		shallow.setNodeLimit(2000);
+		SearchResult shared = shallow.search(position, 60);
+		
+		// Searching with an empty table of its own gives the same result, so none of
+		// the deep search's entries were used
+		AlphaBetaSearch alone = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		alone.setTableKey(2);
+		alone.setNodeLimit(2000);
+		SearchResult fresh = alone.search(position, 60);
+		
+		Assert.assertEquals(fresh.getMove(), shared.getMove());
+		Assert.assertEquals(fresh.getScore(), shared.getScore());
+		Assert.assertEquals(fresh.getDepth(), shared.getDepth());
+		Assert.assertEquals(fresh.getNodes(), shared.getNodes());
+		Assert.assertEquals(alone.getStatistics().getHits(), shallow.getStatistics().getHits());
+	}
+	
+	@Test
+	public void testRegistryAddsSearches() {
+		
+		StatisticsRegistry registry = new StatisticsRegistry();
+		registry.record(new SearchStatistics(100, 50, 40, 10, 5, 4, 1000));
+		registry.record(new SearchStatistics(300, 150, 60, 30, 15, 6, 3000));
+		
+		SearchStatistics total = registry.getTotal();
+		
+		Assert.assertEquals(2, registry.getSearches());
+		Assert.assertEquals(400, total.getNodes());
+		Assert.assertEquals(0.4, total.getHitRate(), 1e-9);
+		Assert.assertEquals(6, total.getDepth());
+		Assert.assertEquals(5.0, registry.getAverageDepth(), 1e-9);
+		
+		registry.reset();
+		Assert.assertEquals(0, registry.getTotal().getNodes());
+		Assert.assertEquals(0.0, registry.getTotal().getBranchingFactor(), 1e-9);
+	}
+	
+	@Test
+	public void testRegistryBranchingFactorIsPerSearch() {
+		
+		// 100 nodes to depth 4 branch 100^(1/4) and 300 nodes to depth 6 branch 300^(1/6)
+		StatisticsRegistry registry = new StatisticsRegistry();
+		registry.record(new SearchStatistics(100, 50, 40, 10, 5, 4, 1000));
+		registry.record(new SearchStatistics(300, 150, 60, 30, 15, 6, 3000));
+		
+		double mean = (Math.pow(100, 0.25) + Math.pow(300, 1.0 / 6)) / 2;
+		Assert.assertEquals(mean, registry.getTotal().getBranchingFactor(), 1e-9);
+		
+		// Many more of the same searches leave it where it was
+		for (int i = 0; i < 1000; i++) {
+			registry.record(new SearchStatistics(100, 50, 40, 10, 5, 4, 1000));
+			registry.record(new SearchStatistics(300, 150, 60, 30, 15, 6, 3000));
+		}
+		
+		Assert.assertEquals(mean, registry.getTotal().getBranchingFactor(), 1e-9);
+		Assert.assertTrue(registry.toString().contains("branching 2.87"));
+	}
+	
+	@Test
+	public void testNodeLimit() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		search.setNodeLimit(5000);
+		
+		SearchResult result = search.search(Position.createInitial(6, 4), 40);
+		
+		Assert.assertTrue(result.getDepth() < 40);
+		Assert.assertTrue(search.getNodes() <= 5001);
+		Assert.assertTrue(Position.createInitial(6, 4).isLegal(result.getMove()));
+	}
+	
+	@Test
+	public void testPrefersExtraTurn() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		// From the start, the third hollow lands in the store and is the best first move
+		SearchResult result = search.search(Position.createInitial(6, 4), 1);
+		
+		Assert.assertEquals(2, result.getMove());
+		Assert.assertEquals(Evaluator.SEED, result.getScore());
+	}
+	
+	@Test
+	public void testPrincipalVariationSearchVisitsFewerNodes() {
+		
+		AlphaBetaSearch baseline = new AlphaBetaSearch(new TranspositionTable(1 << 20), new StoreEvaluator());
+		baseline.setPrincipalVariationSearch(false);
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 20), new StoreEvaluator());
+		
+		SearchResult expected = baseline.search(Position.createInitial(6, 4), 12);
+		SearchResult result = search.search(Position.createInitial(6, 4), 12);
+		
+		Assert.assertEquals(expected.getScore(), result.getScore());
+		Assert.assertTrue(result.getNodes() < expected.getNodes());
+	}
+	
+	@Test
+	public void testPrincipalVariationLeadsToScore() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		Evaluator evaluator = new StoreEvaluator();
+		Random random = new Random(6);
+		
+		for (int i = 0; i < 20; i++) {
+			
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 24);
+			
+			if (position.isGameOver()) {
+				continue;
+			}
+			
+			SearchResult result = search.search(position, 7);
+			int[] pv = result.getPrincipalVariation();
+			
+			Assert.assertEquals(result.getMove(), pv[0]);
+			
+			int side = position.getSideToMove();
+			Position leaf = position.copy();
+			
+			for (int move : pv) {
+				Assert.assertTrue(leaf.isLegal(move));
+				leaf.play(move);
+			}
+			
+			int score;
+			
+			if (leaf.isGameOver()) {
+				score = Evaluator.SEED * leaf.getTotalDifference(side);
+			} else {
+				Assert.assertEquals(7, pv.length);
+				score = leaf.getSideToMove() == side ? evaluator.evaluate(leaf) : -evaluator.evaluate(leaf);
+			}
+			
+			Assert.assertEquals(result.getScore(), score);
+		}
+	}
+	
+	@Test
+	public void testQuiescenceFindsBetterMoves() {
+		
+		EndgameSolver solver = new EndgameSolver(48, 0);
+		int[] loss = new int[2];
+		
+		for (int quiescence = 0; quiescence < 2; quiescence++) {
+			
+			AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+			search.setQuiescence(quiescence == 1);
+			Random random = new Random(41);
+			
+			for (int i = 0; i < 200; i++) {
+				
+				Position position = EndgameDatabaseTests.createRandomPosition(random, 16);
+				
+				if (position.isGameOver()) {
+					continue;
+				}
+				
+				int side = position.getSideToMove();
+				Position child = position.copy();
+				child.play(search.search(position, 1).getMove());
+				
+				int value;
+				if (child.isGameOver()) {
+					value = Evaluator.SEED * child.getTotalDifference(side);
+				} else {
+					value = solver.solve(child).getScore();
+					value = child.getSideToMove() == side ? value : -value;
+				}
+				
+				loss[quiescence] += solver.solve(position).getScore() - value;
+			}
+		}
+		
+		Assert.assertTrue(loss[1] < loss[0]);
+	}
+	
+	@Test
+	public void testQuiescenceLimits() {
+		
+		AlphaBetaSearch plain = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		search.setQuiescence(true);
+		
+		// With no plies to extend by, every leaf stands pat
+		search.setQuiescenceLimits(0, 256);
+		SearchResult expected = plain.search(Position.createInitial(6, 4), 6);
+		SearchResult result = search.search(Position.createInitial(6, 4), 6);
+		
+		Assert.assertEquals(expected.getScore(), result.getScore());
+		Assert.assertEquals(expected.getNodes(), result.getNodes());
+		
+		// Each of the six leaves of a one ply search may add at most three nodes
+		search.setQuiescenceLimits(8, 3);
+		result = search.search(Position.createInitial(6, 4), 1);
+		
+		Assert.assertTrue(result.getNodes() <= 1 + 6 + 6 * 3);
+	}
+}
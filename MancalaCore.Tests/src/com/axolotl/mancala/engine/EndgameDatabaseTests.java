@@ -0,0 +1,186 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class EndgameDatabaseTests {
+
+	@Test
+	public void testIndexRoundTrip() {
+		
+		EndgameIndex index = new EndgameIndex(3, 5);
+		Position position = new Position(3);
+		
+		// 6 hollows holding up to 5 seeds gives C(11, 6) positions
+		Assert.assertEquals(462, index.size());
+		
+		for (long i = 0; i < index.size(); i++) {
+			index.fill(i, position);
+			Assert.assertEquals(i, index.indexOf(position));
+		}
+	}
+	
+	@Test
+	public void testValuesAreExact() {
+		
+		EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(6, 6);
+		generator.setThreads(4);
+		generator.generate();
+		
+		EndgameDatabase database = generator.toDatabase();
+		Random random = new Random(99);
+		
+		for (int i = 0; i < 300; i++) {
+			
+			Position position = createRandomPosition(random, 6);
+			
+			Assert.assertEquals(solve(position), database.getFinalDifference(position));
+		}
+	}
+	
+	@Test
+	public void testFileRoundTrip() throws IOException {
+		
+		EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(6, 5);
+		generator.generate();
+		
+		File file = File.createTempFile("endgame", ".db");
+		file.deleteOnExit();
+		generator.write(file);
+		
+		EndgameDatabase database = EndgameDatabase.open(file);
+		Random random = new Random(3);
+		
+		Assert.assertEquals(5, database.getMaxSeeds());
+		Assert.assertEquals(6, database.getHollowsPerPlayer());
+		
+		for (int i = 0; i < 100; i++) {
+			Position position = createRandomPosition(random, 5);
+			Assert.assertEquals(generator.toDatabase().probe(position), database.probe(position));
+		}
+		
+		Assert.assertEquals(EndgameDatabase.UNKNOWN, database.probe(Position.createInitial(6, 4)));
+	}
+	
+	@Test
+	public void testComputerPlayerUsesDatabase() {
+		
+		EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(6, 6);
+		generator.generate();
+		EndgameDatabase database = generator.toDatabase();
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		Board board = game.getBoard();
+		Random random = new Random(11);
+		
+		for (int i = 0; i < 50; i++) {
+			
+			Position position = createRandomPosition(random, 6);
+			position.setSideToMove(1);
+			
+			if (position.isGameOver()) {
+				continue;
+			}
+			
+			game.restoreGameState(toGameState(position, Difficulty.Easy));
+			
+			ComputerPlayer player = game.getPlayer2();
+			player.addOracle(database);
+			
+			int move = board.getPlayersPits(PlayerNumber.Two).indexOf(player.play());
+			
+			Position child = position.copy();
+			child.play(move);
+			int value = child.isGameOver() ? child.getTotalDifference(1)
+					: (child.getSideToMove() == 1 ? solve(child) : -solve(child));
+			
+			Assert.assertEquals(solve(position), value);
+		}
+	}
+	
+	/**
+	 * Creates a random position with the given number of seeds in play
+	 */
+	static Position createRandomPosition(Random random, int seeds) {
+		
+		Position position = new Position(6);
+		
+		for (int i = 0; i < seeds; i++) {
+			int cell = random.nextInt(12);
+			cell = cell < 6 ? cell : cell + 1;
+			position.setSeeds(cell, position.getSeeds(cell) + 1);
+		}
+		
+		position.setSeeds(6, random.nextInt(20));
+		position.setSeeds(13, random.nextInt(20));
+		position.setSideToMove(random.nextInt(2));
+		return position;
+	}
+	
+	/**
+	 * Returns the exact final difference for the side to move by searching to the end
+	 */
+	static int solve(Position position) {
+		
+		int side = position.getSideToMove();
+		
+		if (position.isGameOver()) {
+			return position.getTotalDifference(side);
+		}
+		
+		int best = Integer.MIN_VALUE;
+		
+		for (int move = 0; move < 6; move++) {
+			
+			if (!position.isLegal(move)) {
+				continue;
+			}
+			
+			Position child = position.copy();
+			child.play(move);
+			
+			int value;
+			if (child.isGameOver()) {
+				value = child.getTotalDifference(side);
+			} else {
+				value = child.getSideToMove() == side ? solve(child) : -solve(child);
+			}
+			best = Math.max(best, value);
+		}
+		return best;
+	}
+	
+	/**
+	 * Builds a game state string for the position
+	 */
+	static String toGameState(Position position, Difficulty level) {
+		
+		StringBuilder builder = new StringBuilder();
+		builder.append("OnePlayer\t");
+		builder.append(level);
+		builder.append('\t');
+		builder.append(position.getPlayerToMove());
+		
+		for (int i = 0; i < position.getNumberOfCells(); i++) {
+			builder.append('\t');
+			builder.append(position.getSeeds(i));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,121 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class EndgameSolverTests {
+
+	@Test
+	public void testValuesAreExact() {
+
+		EndgameSolver solver = new EndgameSolver(48, 0);
+		Random random = new Random(5);
+
+		for (int i = 0; i < 100; i++) {
+
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 8);
+
+			if (position.isGameOver()) {
+				continue;
+			}
+
+			SearchResult result = solver.solve(position);
+			int expected = EndgameDatabaseTests.solve(position);
+
+			Assert.assertTrue(result.isProven());
+			Assert.assertEquals(Evaluator.SEED * expected, result.getScore());
+			Assert.assertEquals(expected, valueOf(position, result.getMove()));
+		}
+	}
+
+	@Test
+	public void testMemoIsKept() {
+
+		EndgameSolver solver = new EndgameSolver(48, 0);
+		Position position = EndgameDatabaseTests.createRandomPosition(new Random(8), 20);
+
+		SearchResult first = solver.solve(position);
+		SearchResult second = solver.solve(position);
+
+		Assert.assertEquals(first.getScore(), second.getScore());
+		Assert.assertTrue(second.getNodes() < first.getNodes());
+	}
+
+	@Test
+	public void testUnprovenWhenOutOfBudget() {
+
+		EndgameSolver solver = new EndgameSolver(48, 100);
+		Position position = EndgameDatabaseTests.createRandomPosition(new Random(3), 30);
+
+		Assert.assertFalse(solver.solve(position).isProven());
+		Assert.assertEquals(MoveOracle.NO_MOVE, solver.suggestMove(position));
+	}
+
+	@Test
+	public void testOnlySuggestsBelowThreshold() {
+
+		EndgameSolver solver = new EndgameSolver(10, 0);
+
+		Assert.assertEquals(MoveOracle.NO_MOVE, solver.suggestMove(Position.createInitial(6, 4)));
+		Assert.assertNull(solver.getLastResult());
+
+		Position position = EndgameDatabaseTests.createRandomPosition(new Random(4), 10);
+		Assert.assertTrue(solver.suggestMove(position) != MoveOracle.NO_MOVE);
+		Assert.assertTrue(solver.getLastResult().isProven());
+	}
+
+	@Test
+	public void testHardPlayerSolvesEndgame() {
+
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Hard);
+
+		Board board = game.getBoard();
+		Random random = new Random(17);
+
+		for (int i = 0; i < 30; i++) {
+
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 8);
+			position.setSideToMove(1);
+
+			if (position.isGameOver()) {
+				continue;
+			}
+
+			game.restoreGameState(EndgameDatabaseTests.toGameState(position, Difficulty.Hard));
+
+			ComputerPlayer player = game.getPlayer2();
+			int move = board.getPlayersPits(PlayerNumber.Two).indexOf(player.play());
+
+			Assert.assertEquals(EndgameDatabaseTests.solve(position), valueOf(position, move));
+		}
+	}
+
+	/**
+	 * Returns the exact final difference for the side to move after playing a move
+	 */
+	private static int valueOf(Position position, int move) {
+
+		int side = position.getSideToMove();
+		Position child = position.copy();
+		child.play(move);
+
+		if (child.isGameOver()) {
+			return child.getTotalDifference(side);
+		}
+		return child.getSideToMove() == side ? EndgameDatabaseTests.solve(child)
+				: -EndgameDatabaseTests.solve(child);
+	}
+}
@@ -0,0 +1,82 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+
+public class EngineServiceTests {
+
+	@Test
+	public void testConcurrentRequests() throws InterruptedException, ExecutionException {
+
+		EngineService service = new EngineService(4, new TranspositionTable(1 << 16));
+		Position[] positions = NeuralEvaluatorTests.createPositions(new Random(1), 200);
+		List<Future<EngineMove>> moves = new ArrayList<Future<EngineMove>>();
+
+		for (int i = 0; i < positions.length; i++) {
+			moves.add(service.requestMove(positions[i], i % 2 == 0 ? Difficulty.Easy : Difficulty.Medium));
+		}
+
+		for (int i = 0; i < positions.length; i++) {
+			EngineMove move = moves.get(i).get();
+			Assert.assertTrue(positions[i].isLegal(move.getMove()));
+			Assert.assertTrue(move.getStatistics().getNodes() > 0);
+		}
+
+		Assert.assertEquals(positions.length, service.getRequestCount());
+		service.shutdown();
+	}
+
+	@Test
+	public void testOraclesAnswerFirst() throws InterruptedException, ExecutionException {
+
+		EngineService service = new EngineService(2, new TranspositionTable(1 << 16));
+
+		// Always suggests the last hollow that can be played
+		service.addOracle(new MoveOracle() {
+			public int suggestMove(Position position) {
+				for (int move = position.getHollowsPerPlayer() - 1; move >= 0; move--) {
+					if (position.isLegal(move)) {
+						return move;
+					}
+				}
+				return NO_MOVE;
+			}
+		});
+
+		Assert.assertEquals(5, service.requestMove(Position.createInitial(6, 4), Difficulty.Hard).get().getMove());
+		service.shutdown();
+	}
+
+	@Test
+	public void testHardGamesAreSolved() throws InterruptedException, ExecutionException {
+
+		EngineService service = new EngineService(2, new TranspositionTable(1 << 16));
+
+		Position position = new Position(6);
+		position.setSeeds(1, 3);
+		position.setSeeds(4, 1);
+		position.setSeeds(5, 2);
+		position.setSeeds(8, 2);
+		position.setSeeds(11, 4);
+		position.setSeeds(6, 20);
+		position.setSeeds(13, 16);
+
+		int expected = new EndgameSolver().suggestMove(position);
+
+		Assert.assertTrue(expected != MoveOracle.NO_MOVE);
+		EngineMove move = service.requestMove(position, Difficulty.Hard).get();
+
+		Assert.assertEquals(expected, move.getMove());
+		Assert.assertNull(move.getStatistics());
+		service.shutdown();
+	}
+}
@@ -0,0 +1,47 @@
+package com.axolotl.mancala.engine;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class EvaluationTunerTests {
+
+	@Test
+	public void testFitReducesLoss() {
+
+		EvaluationTuner tuner = createTuner(2);
+		tuner.generate();
+
+		WeightedEvaluator evaluator = tuner.fit();
+
+		Assert.assertTrue(tuner.size() > 0);
+		Assert.assertTrue(tuner.getScale() > 0);
+		Assert.assertTrue(tuner.getFinalLoss() < tuner.getInitialLoss());
+		Assert.assertEquals(Evaluator.SEED, evaluator.getWeights()[WeightedEvaluator.STORES]);
+	}
+
+	@Test
+	public void testSameGamesWithAnyThreads() {
+
+		EvaluationTuner single = createTuner(1);
+		EvaluationTuner parallel = createTuner(3);
+
+		single.generate();
+		parallel.generate();
+
+		Assert.assertEquals(single.size(), parallel.size());
+		Assert.assertEquals(single.fit().toString(), parallel.fit().toString());
+	}
+
+	/**
+	 * Creates a tuner which plays a few quick games
+	 */
+	private static EvaluationTuner createTuner(int threads) {
+		EvaluationTuner tuner = new EvaluationTuner(6, 4);
+		tuner.setGames(40);
+		tuner.setNodeBudget(300);
+		tuner.setThreads(threads);
+		tuner.setSeed(9);
+		return tuner;
+	}
+}
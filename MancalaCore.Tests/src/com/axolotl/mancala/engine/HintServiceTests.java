@@ -0,0 +1,80 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class HintServiceTests {
+
+	@Test
+	public void testScoresLegalMoves() {
+
+		HintService service = new HintService(16, 2000);
+
+		Position position = new Position(6);
+		position.setSeeds(4, 1);
+		position.setSeeds(5, 1);
+		position.setSeeds(9, 3);
+
+		int[] scores = service.getScores(position, 10000);
+
+		for (int move = 0; move < 6; move++) {
+			Assert.assertEquals(position.isLegal(move), scores[move] != HintService.ILLEGAL);
+		}
+
+		// Playing the last hollow first earns another turn to play the other
+		Assert.assertTrue(scores[5] > scores[4]);
+	}
+
+	@Test
+	public void testRepeatedPositionIsCached() {
+
+		HintService service = new HintService(16, 2000);
+		Position position = Position.createInitial(6, 4);
+
+		int[] first = service.getScores(position, 10000);
+		int[] second = service.getScores(position.copy(), 0);
+
+		Assert.assertNotNull(second);
+		Assert.assertEquals(1, service.getHits());
+		Assert.assertEquals(1, service.getMisses());
+
+		for (int move = 0; move < 6; move++) {
+			Assert.assertEquals(first[move], second[move]);
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+
+		HintService service = new HintService(2, 200);
+		Position[] positions = NeuralEvaluatorTests.createPositions(new Random(2), 3);
+
+		service.getScores(positions[0], 10000);
+		service.getScores(positions[1], 10000);
+		service.getScores(positions[0], 0);
+		service.getScores(positions[2], 10000);
+
+		Assert.assertEquals(2, service.size());
+		Assert.assertTrue(service.contains(positions[0]));
+		Assert.assertFalse(service.contains(positions[1]));
+		Assert.assertTrue(service.contains(positions[2]));
+	}
+
+	@Test
+	public void testSlowAnalysisCarriesOn() throws InterruptedException {
+
+		HintService service = new HintService(16, 2000000);
+		Position position = Position.createInitial(6, 4);
+
+		long start = System.currentTimeMillis();
+
+		Assert.assertNull(service.getScores(position, 1));
+		Assert.assertTrue(System.currentTimeMillis() - start < 500);
+
+		Assert.assertNotNull(service.getScores(position, 60000));
+		Assert.assertTrue(service.contains(position));
+	}
+}
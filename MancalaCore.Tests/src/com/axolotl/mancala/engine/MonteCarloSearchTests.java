@@ -0,0 +1,99 @@
+package com.axolotl.mancala.engine;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class MonteCarloSearchTests {
+
+	@Test
+	public void testPlayoutBudget() {
+		
+		MonteCarloSearch search = new MonteCarloSearch(1, 10000);
+		search.setSeed(42);
+		
+		int move = search.search(Position.createInitial(6, 4), 2000, 0);
+		
+		Assert.assertTrue(move >= 0 && move < 6);
+		Assert.assertEquals(2000, search.getPlayoutCount());
+		Assert.assertTrue(search.getNodeCount() > 1);
+	}
+	
+	@Test
+	public void testSingleThreadedSearchIsRepeatable() {
+		
+		int[] first = new int[6];
+		int[] second = new int[6];
+		
+		MonteCarloSearch search = new MonteCarloSearch(1, 10000);
+		search.setSeed(7);
+		search.search(Position.createInitial(6, 4), 1000, 0);
+		search.getRootVisits(first);
+		
+		search.setSeed(7);
+		search.search(Position.createInitial(6, 4), 1000, 0);
+		search.getRootVisits(second);
+		
+		for (int i = 0; i < 6; i++) {
+			Assert.assertEquals(first[i], second[i]);
+		}
+	}
+	
+	@Test
+	public void testTakesWinningCapture() {
+		
+		// Player one can win by capturing the six seeds opposite the empty fifth hollow
+		Position position = new Position(6);
+		position.setSeeds(0, 4);
+		position.setSeeds(5, 1);
+		position.setSeeds(8, 6);
+		position.setSeeds(12, 1);
+		position.setSeeds(6, 10);
+		position.setSeeds(13, 16);
+		
+		MonteCarloSearch search = new MonteCarloSearch(4, 100000);
+		
+		int move = search.search(position, 20000, 0);
+		
+		Position child = position.copy();
+		child.play(move);
+		
+		Assert.assertEquals(1, Integer.signum(solve(child, 0)));
+	}
+	
+	@Test
+	public void testTimeBudget() {
+		
+		MonteCarloSearch search = new MonteCarloSearch(2, 1 << 20);
+		
+		long start = System.currentTimeMillis();
+		search.search(Position.createInitial(6, 4), 0, 100);
+		
+		Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+		Assert.assertTrue(search.getPlayoutCount() > 0);
+	}
+	
+	/**
+	 * Returns the sign of the exact result for the given side, by searching to the
+	 * end of the game
+	 */
+	private static int solve(Position position, int side) {
+		
+		if (position.isGameOver()) {
+			return Integer.signum(position.getTotalDifference(side));
+		}
+		
+		int[] moves = new int[position.getHollowsPerPlayer()];
+		int count = position.getLegalMoves(moves);
+		boolean maximise = position.getSideToMove() == side;
+		int best = maximise ? -2 : 2;
+		
+		for (int i = 0; i < count; i++) {
+			Position child = position.copy();
+			child.play(moves[i]);
+			int value = solve(child, side);
+			best = maximise ? Math.max(best, value) : Math.min(best, value);
+		}
+		return best;
+	}
+}
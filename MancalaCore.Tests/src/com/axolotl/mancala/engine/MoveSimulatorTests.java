@@ -0,0 +1,125 @@
+package com.axolotl.mancala.engine;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.mocks.CountingGamePublisher;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class MoveSimulatorTests {
+
+	@Test
+	public void testLapEndsWithCapture() {
+
+		Position position = Position.createInitial(6, 4);
+		position.setSeeds(0, 13);
+
+		// Thirteen seeds go once round the board and land in the emptied first hollow,
+		// capturing the opposite hollow and the seed sown into it
+		MoveSimulator simulator = new MoveSimulator(6);
+		simulator.load(position);
+
+		Assert.assertEquals(Position.CAPTURE, simulator.simulate(0));
+		Assert.assertTrue(simulator.isCapture());
+		Assert.assertFalse(simulator.isExtraTurn());
+		Assert.assertEquals(1, simulator.getSownIntoStore());
+		Assert.assertEquals(5, simulator.getCapturedSeeds());
+		Assert.assertEquals(7, simulator.getStoreGain());
+
+		// The loaded position is left as it was
+		Assert.assertEquals(13, position.getSeeds(0));
+	}
+
+	@Test
+	public void testOutcomesMatchSowing() {
+
+		Random random = new Random(77);
+		MoveSimulator simulator = new MoveSimulator(6);
+		int[] moves = new int[6];
+
+		for (int i = 0; i < 500; i++) {
+
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 4 + random.nextInt(44));
+
+			if (position.isGameOver()) {
+				continue;
+			}
+
+			simulator.load(position);
+			int side = position.getSideToMove();
+			int count = position.getLegalMoves(moves);
+
+			for (int j = 0; j < count; j++) {
+
+				Position expected = position.copy();
+				int result = expected.play(moves[j]);
+
+				Assert.assertEquals(result, simulator.simulate(moves[j]));
+				Assert.assertEquals(expected, simulator.getPosition());
+				Assert.assertEquals(countSownIntoStore(position, moves[j]), simulator.getSownIntoStore());
+				Assert.assertEquals(expected.getStoreSeeds(side) - position.getStoreSeeds(side), simulator.getStoreGain());
+
+				if (simulator.isCapture()) {
+					Assert.assertEquals(simulator.getStoreGain(), simulator.getSownIntoStore() + simulator.getCapturedSeeds() + 1);
+				} else {
+					Assert.assertEquals(0, simulator.getCapturedSeeds());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBoardIsNotChanged() {
+
+		Board board = new BoardImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(board);
+		CountingGamePublisher publisher = new CountingGamePublisher();
+		strategy.setGamePublisher(publisher);
+		strategy.reset();
+
+		Position before = Position.fromBoard(board, PlayerNumber.One);
+		MoveSimulator simulator = new MoveSimulator(6);
+		simulator.load(board, PlayerNumber.One);
+
+		List<Pit> pits = board.getPlayersPits(PlayerNumber.One);
+
+		for (int move = 0; move < pits.size(); move++) {
+			simulator.simulate(move);
+		}
+
+		Assert.assertEquals(before, Position.fromBoard(board, PlayerNumber.One));
+		Assert.assertEquals(0, publisher.getGameCompleteCallCount());
+	}
+
+	/**
+	 * Counts the seeds a move sows into the mover's store one seed at a time
+	 */
+	private static int countSownIntoStore(Position position, int move) {
+
+		int hollows = position.getHollowsPerPlayer();
+		int base = position.getSideToMove() * (hollows + 1);
+		int ownStore = base + hollows;
+		int opponentStore = (ownStore + hollows + 1) % position.getNumberOfCells();
+		int index = base + move;
+		int sown = 0;
+
+		for (int seeds = position.getSeeds(index); seeds > 0;) {
+			index = (index + 1) % position.getNumberOfCells();
+			if (index != opponentStore) {
+				seeds--;
+				if (index == ownStore) {
+					sown++;
+				}
+			}
+		}
+		return sown;
+	}
+}
@@ -0,0 +1,85 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class NTupleEvaluatorTests {
+
+	@Test
+	public void testZeroWeightsMatchStores() {
+
+		NTupleEvaluator network = new NTupleEvaluator(6);
+		StoreEvaluator stores = new StoreEvaluator();
+
+		Assert.assertEquals(14, network.getTupleCount());
+		for (Position position : NeuralEvaluatorTests.createPositions(new Random(1), 50)) {
+			Assert.assertEquals(stores.evaluate(position), network.evaluate(position));
+		}
+	}
+
+	@Test
+	public void testScoresFromSideToMove() {
+
+		NTupleEvaluator network = createRandomNetwork(2);
+
+		Position position = Position.createInitial(6, 4);
+		position.play(2);
+		position.setSideToMove(0);
+
+		Position mirrored = new Position(6);
+		for (int cell = 0; cell < mirrored.getNumberOfCells(); cell++) {
+			mirrored.setSeeds((cell + 7) % 14, position.getSeeds(cell));
+		}
+		mirrored.setSideToMove(1);
+
+		Assert.assertEquals(network.evaluate(position), network.evaluate(mirrored));
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+
+		NTupleEvaluator network = createRandomNetwork(3);
+		File file = File.createTempFile("ntuple", ".bin");
+
+		try {
+			network.write(file);
+
+			Assert.assertEquals(16 + 14 + 8 * 3 + 6 * 2 + 2 * network.getWeightCount(), file.length());
+
+			NTupleEvaluator read = NTupleEvaluator.read(file);
+
+			Assert.assertEquals(network.getWeightCount(), read.getWeightCount());
+			for (Position position : NeuralEvaluatorTests.createPositions(new Random(4), 50)) {
+				Assert.assertEquals(network.evaluate(position), read.evaluate(position));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsMissingCell() {
+		new NTupleEvaluator(6, new int[][] { { 0, 14 } });
+	}
+
+	/**
+	 * Creates a network with random weights of up to a few seeds
+	 */
+	private static NTupleEvaluator createRandomNetwork(long seed) {
+
+		NTupleEvaluator network = new NTupleEvaluator(6);
+		float[] weights = new float[network.getWeightCount()];
+		Random random = new Random(seed);
+
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = (random.nextFloat() * 2 - 1) * 3;
+		}
+		network.setWeights(weights);
+		return network;
+	}
+}
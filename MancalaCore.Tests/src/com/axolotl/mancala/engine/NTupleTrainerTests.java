@@ -0,0 +1,53 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class NTupleTrainerTests {
+
+	@Test
+	public void testTrainingIsRepeatable() {
+
+		NTupleTrainer first = new NTupleTrainer(6, 4);
+		first.setGames(100);
+		first.setGamesPerRound(16);
+		first.setThreads(1);
+		first.train();
+
+		NTupleTrainer second = new NTupleTrainer(6, 4);
+		second.setGames(100);
+		second.setGamesPerRound(16);
+		second.setThreads(3);
+		second.train();
+
+		NTupleEvaluator expected = first.toEvaluator();
+		NTupleEvaluator actual = second.toEvaluator();
+
+		for (Position position : NeuralEvaluatorTests.createPositions(new Random(5), 50)) {
+			Assert.assertEquals(expected.evaluate(position), actual.evaluate(position));
+		}
+	}
+
+	@Test
+	public void testTrainingLearns() {
+
+		NTupleTrainer trainer = new NTupleTrainer(6, 4);
+		trainer.setGames(200);
+		trainer.setThreads(2);
+		trainer.train();
+
+		NTupleEvaluator network = trainer.toEvaluator();
+		StoreEvaluator stores = new StoreEvaluator();
+		int changed = 0;
+
+		for (Position position : NeuralEvaluatorTests.createPositions(new Random(6), 50)) {
+			if (network.evaluate(position) != stores.evaluate(position)) {
+				changed++;
+			}
+		}
+		Assert.assertTrue(changed > 25);
+	}
+}
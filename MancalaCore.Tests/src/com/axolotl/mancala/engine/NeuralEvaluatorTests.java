@@ -0,0 +1,120 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class NeuralEvaluatorTests {
+
+	@Test
+	public void testBatchMatchesSingle() {
+
+		NeuralEvaluator network = new NeuralEvaluator(6, 16, 3);
+		Position[] positions = createPositions(new Random(4), 50);
+		int[] scores = new int[positions.length];
+
+		network.evaluate(positions, positions.length, scores);
+
+		for (int i = 0; i < positions.length; i++) {
+			Assert.assertEquals(network.evaluate(positions[i]), scores[i]);
+		}
+	}
+
+	@Test
+	public void testScoresFromSideToMove() {
+
+		NeuralEvaluator network = new NeuralEvaluator(6, 16, 5);
+
+		Position position = Position.createInitial(6, 4);
+		position.play(2);
+		position.setSideToMove(0);
+
+		Position mirrored = new Position(6);
+		for (int cell = 0; cell < mirrored.getNumberOfCells(); cell++) {
+			mirrored.setSeeds((cell + 7) % 14, position.getSeeds(cell));
+		}
+		mirrored.setSideToMove(1);
+
+		Assert.assertEquals(network.evaluate(position), network.evaluate(mirrored));
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+
+		NeuralEvaluator network = new NeuralEvaluator(6, 8, 7);
+		File file = File.createTempFile("network", ".bin");
+
+		try {
+			network.write(file);
+
+			NeuralEvaluator read = NeuralEvaluator.read(file);
+
+			Assert.assertEquals(8, read.getHidden());
+			for (Position position : createPositions(new Random(8), 20)) {
+				Assert.assertEquals(network.evaluate(position), read.evaluate(position));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testBatchSearchMatchesSingle() {
+
+		for (int mode = 0; mode < 4; mode++) {
+
+			boolean byTurns = (mode & 1) != 0;
+			boolean quiescence = (mode & 2) != 0;
+
+			AlphaBetaSearch single = new AlphaBetaSearch(new TranspositionTable(1 << 14), new NeuralEvaluator(6, 16, 9));
+			AlphaBetaSearch batched = new AlphaBetaSearch(new TranspositionTable(1 << 14), new NeuralEvaluator(6, 16, 9));
+
+			batched.setBatchEvaluation(true);
+
+			for (AlphaBetaSearch search : new AlphaBetaSearch[] { single, batched }) {
+				search.setSearchByTurns(byTurns);
+				search.setQuiescence(quiescence);
+			}
+
+			Position position = Position.createInitial(6, 4);
+			SearchResult expected = single.search(position, byTurns ? 3 : 6);
+			SearchResult actual = batched.search(position, byTurns ? 3 : 6);
+
+			Assert.assertEquals(expected.getMove(), actual.getMove());
+			Assert.assertEquals(expected.getScore(), actual.getScore());
+			Assert.assertEquals(expected.getNodes(), actual.getNodes());
+		}
+	}
+
+	/**
+	 * Creates positions reached by random moves, none of which are over
+	 */
+	static Position[] createPositions(Random random, int count) {
+
+		Position[] positions = new Position[count];
+		int[] moves = new int[6];
+
+		for (int i = 0; i < count; i++) {
+
+			Position position = Position.createInitial(6, 4);
+			int plies = random.nextInt(20);
+
+			for (int ply = 0; ply < plies; ply++) {
+
+				Position next = position.copy();
+				next.play(moves[random.nextInt(position.getLegalMoves(moves))]);
+
+				if (next.isGameOver()) {
+					break;
+				}
+				position = next;
+			}
+			positions[i] = position;
+		}
+		return positions;
+	}
+}
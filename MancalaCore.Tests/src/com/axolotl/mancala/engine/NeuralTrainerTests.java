@@ -0,0 +1,48 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class NeuralTrainerTests {
+
+	@Test
+	public void testTrainingReducesError() {
+
+		SelfPlayGenerator data = new SelfPlayGenerator(6, 4);
+		data.setGames(30);
+		data.setNodeBudget(300);
+		data.setThreads(2);
+		data.generate();
+
+		NeuralEvaluator network = new NeuralEvaluator(6, 16, 1);
+		NeuralTrainer trainer = new NeuralTrainer(network);
+		trainer.setEpochs(10);
+
+		double before = trainer.getError(data);
+		trainer.train(data);
+
+		Assert.assertTrue(trainer.getError(data) < before / 2);
+	}
+
+	@Test
+	public void testTrainingIsRepeatable() {
+
+		SelfPlayGenerator data = new SelfPlayGenerator(6, 4);
+		data.setGames(10);
+		data.setNodeBudget(300);
+		data.generate();
+
+		NeuralEvaluator first = new NeuralEvaluator(6, 8, 2);
+		NeuralEvaluator second = new NeuralEvaluator(6, 8, 2);
+
+		new NeuralTrainer(first).train(data);
+		new NeuralTrainer(second).train(data);
+
+		for (Position position : NeuralEvaluatorTests.createPositions(new Random(3), 20)) {
+			Assert.assertEquals(first.evaluate(position), second.evaluate(position));
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class OpeningBookTests {
+
+	@Test
+	public void testBookMatchesSearch() throws IOException {
+		
+		OpeningBookBuilder builder = new OpeningBookBuilder(6, 4);
+		builder.setBookPly(2);
+		builder.setSearchDepth(6);
+		builder.setThreads(2);
+		builder.build();
+		
+		File file = File.createTempFile("opening", ".book");
+		file.deleteOnExit();
+		builder.write(file);
+		
+		OpeningBook book = OpeningBook.open(file);
+		Assert.assertEquals(builder.size(), book.size());
+		
+		Position start = Position.createInitial(6, 4);
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		SearchResult result = search.search(start, 6);
+		
+		Assert.assertEquals(result.getMove(), book.suggestMove(start));
+		Assert.assertEquals(Integer.valueOf(result.getScore()), book.getScore(start));
+		
+		// Every position one move in is also in the book
+		for (int move = 0; move < 6; move++) {
+			Position child = start.copy();
+			child.play(move);
+			Assert.assertTrue(book.suggestMove(child) != MoveOracle.NO_MOVE);
+		}
+		
+		// A position deep into the game is not
+		Position late = Position.createInitial(6, 2);
+		Assert.assertEquals(MoveOracle.NO_MOVE, book.suggestMove(late));
+		Assert.assertNull(book.getScore(late));
+	}
+	
+	@Test
+	public void testIllegalBookedMoveIsIgnored() {
+		
+		Position position = Position.createInitial(6, 4);
+		position.setSeeds(3, 0);
+		
+		// A single record booking the empty fourth hollow
+		ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + OpeningBook.RECORD_SIZE);
+		buffer.putInt(0, OpeningBook.MAGIC);
+		buffer.putInt(4, OpeningBook.VERSION);
+		buffer.putInt(8, 6);
+		buffer.putInt(12, 1);
+		buffer.putLong(OpeningBook.HEADER_SIZE, position.hash());
+		buffer.putShort(OpeningBook.HEADER_SIZE + 14, (short) 3);
+		
+		OpeningBook book = new OpeningBook(buffer);
+		
+		Assert.assertEquals(Integer.valueOf(0), book.getScore(position));
+		Assert.assertEquals(MoveOracle.NO_MOVE, book.suggestMove(position));
+	}
+	
+	@Test
+	public void testComputerPlayerUsesBook() {
+		
+		OpeningBookBuilder builder = new OpeningBookBuilder(6, 4);
+		builder.setBookPly(0);
+		builder.setSearchDepth(4);
+		builder.build();
+		OpeningBook book = builder.toBook();
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		game.getStrategy().setInitialPlayer(PlayerNumber.Two);
+		
+		ComputerPlayer player = game.getPlayer2();
+		player.addOracle(book);
+		
+		Position start = Position.createInitial(6, 4);
+		start.setSideToMove(1);
+		int expected = book.suggestMove(start);
+		
+		for (int i = 0; i < 10; i++) {
+			Assert.assertSame(game.getBoard().getPlayersPits(PlayerNumber.Two).get(expected), player.play());
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.axolotl.mancala.engine;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.mocks.CountingGamePublisher;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Marble;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class PerftTests {
+
+	@Test
+	public void testCountsMatchStrategy() {
+
+		Board board = new BoardImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(board);
+		CountingGamePublisher publisher = new CountingGamePublisher();
+		strategy.setGamePublisher(publisher);
+		strategy.reset();
+		strategy.setInitialPlayer(PlayerNumber.One);
+
+		Perft perft = new Perft();
+		perft.setThreads(2);
+
+		for (int depth = 1; depth <= 5; depth++) {
+			long expected = countOnBoard(board, strategy, publisher, depth);
+			Assert.assertEquals(expected, perft.count(Position.createInitial(6, 4), depth).getLeaves());
+		}
+	}
+
+	@Test
+	public void testCountsDoNotDependOnThreads() {
+
+		Perft single = new Perft();
+		single.setThreads(1);
+		single.setCountDistinct(true);
+
+		Perft several = new Perft();
+		several.setThreads(3);
+		several.setCountDistinct(true);
+
+		for (int turns = 0; turns < 2; turns++) {
+
+			single.setTurns(turns == 1);
+			several.setTurns(turns == 1);
+
+			PerftResult expected = single.count(Position.createInitial(6, 4), 5);
+			PerftResult actual = several.count(Position.createInitial(6, 4), 5);
+
+			Assert.assertEquals(expected.getLeaves(), actual.getLeaves());
+			Assert.assertEquals(expected.getNodes(), actual.getNodes());
+			Assert.assertEquals(expected.getDistinct(), actual.getDistinct());
+			Assert.assertTrue(actual.getDistinct() <= actual.getLeaves());
+		}
+	}
+
+	@Test
+	public void testTurnsCollapseExtraTurns() {
+
+		Perft perft = new Perft();
+		perft.setTurns(true);
+
+		// Five of the first sowings end the turn, and the sixth earns another
+		// move with five sowings to follow it
+		Assert.assertEquals(10, perft.count(Position.createInitial(6, 4), 1).getLeaves());
+		Assert.assertEquals(116, perft.count(Position.createInitial(6, 4), 2).getLeaves());
+
+		perft.setTurns(false);
+		Assert.assertEquals(6, perft.count(Position.createInitial(6, 4), 1).getLeaves());
+		Assert.assertEquals(-1, perft.count(Position.createInitial(6, 4), 1).getDistinct());
+	}
+
+	/**
+	 * Counts the lines of play by making every move on a real board, putting the
+	 * marbles back after each one
+	 */
+	private static long countOnBoard(Board board, EgyptianStrategy strategy, CountingGamePublisher publisher, int depth) {
+
+		PlayerNumber player = strategy.getCurrentPlayer();
+		List<Pit> hollows = board.getPlayersPits(player);
+
+		if (depth == 0 || isEmpty(board.getPlayersPits(PlayerNumber.One)) || isEmpty(board.getPlayersPits(PlayerNumber.Two))) {
+			return 1;
+		}
+
+		List<Pit> pits = board.getPits();
+		Marble[][] saved = new Marble[pits.size()][];
+
+		for (int i = 0; i < pits.size(); i++) {
+			saved[i] = pits.get(i).removeAll();
+			pits.get(i).addAll(saved[i]);
+		}
+
+		long leaves = 0;
+
+		for (int move = 0; move < hollows.size(); move++) {
+
+			if (hollows.get(move).getNumberOfMarbles() == 0) {
+				continue;
+			}
+
+			strategy.makeMove(hollows.get(move));
+			leaves += countOnBoard(board, strategy, publisher, depth - 1);
+
+			for (int i = 0; i < pits.size(); i++) {
+				pits.get(i).removeAll();
+				pits.get(i).addAll(saved[i]);
+			}
+			strategy.setInitialPlayer(player);
+		}
+		return leaves;
+	}
+
+	/**
+	 * Returns whether all the given hollows are empty
+	 */
+	private static boolean isEmpty(List<Pit> hollows) {
+		for (Pit hollow : hollows) {
+			if (hollow.getNumberOfMarbles() > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,55 @@
+package com.axolotl.mancala.engine;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class PondererTests {
+
+	@Test
+	public void testInterruptedStopWaitsForThread() throws InterruptedException {
+		
+		// Scores so slowly that the search takes a long time to notice it was aborted
+		Evaluator slow = new Evaluator() {
+			public int evaluate(Position position) {
+				long end = System.nanoTime() + 200000;
+				while (System.nanoTime() < end) {
+					// Busy wait, as sleeping would be cut short by an interrupt
+				}
+				return Evaluator.SEED * position.getStoreDifference(position.getSideToMove());
+			}
+		};
+		
+		Set<Thread> before = getPonderingThreads();
+		Ponderer ponderer = new Ponderer(new TranspositionTable(1 << 16), slow, 30);
+		ponderer.start(Position.createInitial(6, 4));
+		Thread.sleep(50);
+		
+		Set<Thread> started = getPonderingThreads();
+		started.removeAll(before);
+		Assert.assertEquals(1, started.size());
+		
+		Thread.currentThread().interrupt();
+		ponderer.stop();
+		
+		Assert.assertTrue(Thread.interrupted());
+		Assert.assertFalse(ponderer.isPondering());
+		
+		// The thread has finished rather than been forgotten, so a new one cannot
+		// share the search with it
+		Assert.assertFalse(started.iterator().next().isAlive());
+	}
+	
+	private static Set<Thread> getPonderingThreads() {
+		Set<Thread> threads = new HashSet<Thread>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("Ponderer") && thread.isAlive()) {
+				threads.add(thread);
+			}
+		}
+		return threads;
+	}
+}
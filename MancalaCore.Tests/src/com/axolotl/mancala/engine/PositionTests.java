@@ -0,0 +1,94 @@
+package com.axolotl.mancala.engine;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.mocks.CountingGamePublisher;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class PositionTests {
+
+	@Test
+	public void testInitialPosition() {
+		
+		Position position = Position.createInitial(6, 4);
+		
+		Assert.assertEquals(14, position.getNumberOfCells());
+		Assert.assertEquals(48, position.getSeedsInPlay());
+		Assert.assertEquals(PlayerNumber.One, position.getPlayerToMove());
+		Assert.assertFalse(position.isGameOver());
+	}
+	
+	@Test
+	public void testExtraTurn() {
+		
+		Position position = Position.createInitial(6, 4);
+		
+		// Four seeds from the third hollow land in the store
+		Assert.assertTrue(position.isExtraTurnMove(2));
+		Assert.assertEquals(Position.EXTRA_TURN, position.play(2));
+		Assert.assertEquals(0, position.getSideToMove());
+		Assert.assertEquals(1, position.getStoreSeeds(0));
+	}
+	
+	@Test
+	public void testCapture() {
+		
+		Position position = Position.createInitial(6, 4);
+		position.setSeeds(4, 0);
+		position.setSeeds(0, 4);
+		
+		// Sowing from the first hollow ends in the empty fifth hollow
+		Assert.assertEquals(Position.CAPTURE, position.play(0));
+		Assert.assertEquals(0, position.getSeeds(4));
+		Assert.assertEquals(0, position.getSeeds(8));
+		Assert.assertEquals(5, position.getStoreSeeds(0));
+		Assert.assertEquals(1, position.getSideToMove());
+	}
+	
+	@Test
+	public void testPositionMatchesStrategy() {
+		
+		Random random = new Random(1234);
+		int[] moves = new int[6];
+		
+		for (int game = 0; game < 200; game++) {
+			
+			Board board = new BoardImpl();
+			EgyptianStrategy strategy = new EgyptianStrategy(board);
+			CountingGamePublisher publisher = new CountingGamePublisher();
+			strategy.setGamePublisher(publisher);
+			strategy.reset();
+			
+			Position position = Position.fromBoard(board, PlayerNumber.One);
+			
+			while (publisher.getGameCompleteCallCount() == 0) {
+				
+				int count = position.getLegalMoves(moves);
+				int move = moves[random.nextInt(count)];
+				
+				List<Pit> pits = board.getPlayersPits(strategy.getCurrentPlayer());
+				strategy.makeMove(pits.get(move));
+				boolean extraTurn = position.isExtraTurnMove(move);
+				boolean capture = position.isCaptureMove(move);
+				int result = position.play(move);
+				
+				if ((result & Position.GAME_OVER) == 0) {
+					Assert.assertEquals(extraTurn, (result & Position.EXTRA_TURN) != 0);
+					Assert.assertEquals(capture, (result & Position.CAPTURE) != 0);
+				}
+				
+				Assert.assertEquals(publisher.getGameCompleteCallCount() > 0, (result & Position.GAME_OVER) != 0);
+				Assert.assertEquals(Position.fromBoard(board, strategy.getCurrentPlayer()), position);
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class ProofNumberSearchTests {
+
+	@Test
+	public void testOutcomesAreExact() {
+
+		ProofNumberSearch search = new ProofNumberSearch(1 << 16);
+		Random random = new Random(21);
+
+		for (int i = 0; i < 150; i++) {
+
+			Position position = createCloseGame(random);
+
+			if (position.isGameOver()) {
+				continue;
+			}
+
+			ProofResult result = search.prove(position);
+			int expected = EndgameDatabaseTests.solve(position);
+
+			Assert.assertEquals(outcomeOf(expected), result.getOutcome());
+
+			if (expected >= 0) {
+				Assert.assertEquals(Integer.signum(expected), valueOf(position, result.getMove()));
+			} else {
+				Assert.assertEquals(MoveOracle.NO_MOVE, result.getMove());
+			}
+		}
+	}
+
+	@Test
+	public void testTinyTableStillProves() {
+
+		ProofNumberSearch large = new ProofNumberSearch(1 << 16);
+		ProofNumberSearch tiny = new ProofNumberSearch(16);
+		Random random = new Random(22);
+
+		for (int i = 0; i < 40; i++) {
+
+			Position position = createCloseGame(random);
+
+			if (!position.isGameOver()) {
+				Assert.assertEquals(large.prove(position).getOutcome(), tiny.prove(position).getOutcome());
+			}
+		}
+	}
+
+	@Test
+	public void testProvesThroughExtraTurns() {
+
+		// Every move player one has earns an extra turn, so the proof has to follow
+		// runs of moves by the same side, and only starting from the last hollow wins
+		Position position = new Position(6);
+		position.setSeeds(3, 3);
+		position.setSeeds(4, 2);
+		position.setSeeds(5, 1);
+		position.setSeeds(6, 10);
+		position.setSeeds(9, 4);
+		position.setSeeds(12, 1);
+		position.setSeeds(13, 10);
+		position.setSideToMove(0);
+
+		ProofResult result = new ProofNumberSearch(1 << 12).prove(position);
+
+		Assert.assertEquals(ProofOutcome.Win, result.getOutcome());
+		Assert.assertEquals(5, result.getMove());
+		Assert.assertEquals(1, EndgameDatabaseTests.solve(position));
+	}
+
+	@Test
+	public void testUnknownWhenOutOfBudget() {
+
+		ProofNumberSearch search = new ProofNumberSearch(1 << 12);
+		search.setNodeLimit(50);
+
+		ProofResult result = search.prove(Position.createInitial(6, 4));
+
+		Assert.assertEquals(ProofOutcome.Unknown, result.getOutcome());
+		Assert.assertFalse(result.isProven());
+		Assert.assertEquals(MoveOracle.NO_MOVE, search.suggestMove(Position.createInitial(6, 4)));
+	}
+
+	@Test
+	public void testComputerPlayerUsesProof() {
+
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+
+		Board board = game.getBoard();
+		ProofNumberSearch search = new ProofNumberSearch(1 << 16);
+		Random random = new Random(23);
+
+		for (int i = 0; i < 30; i++) {
+
+			Position position = createCloseGame(random);
+			position.setSideToMove(1);
+
+			if (position.isGameOver() || EndgameDatabaseTests.solve(position) < 0) {
+				continue;
+			}
+
+			game.restoreGameState(EndgameDatabaseTests.toGameState(position, Difficulty.Easy));
+
+			ComputerPlayer player = game.getPlayer2();
+			player.addOracle(search);
+
+			int move = board.getPlayersPits(PlayerNumber.Two).indexOf(player.play());
+
+			Assert.assertEquals(Integer.signum(EndgameDatabaseTests.solve(position)), valueOf(position, move));
+		}
+	}
+
+	/**
+	 * Creates a random endgame where the stores are close enough for the result to be
+	 * in doubt
+	 */
+	private static Position createCloseGame(Random random) {
+		Position position = EndgameDatabaseTests.createRandomPosition(random, 8);
+		position.setSeeds(13, Math.max(0, position.getSeeds(6) + random.nextInt(9) - 4));
+		return position;
+	}
+
+	/**
+	 * Returns the outcome for a final difference
+	 */
+	private static ProofOutcome outcomeOf(int difference) {
+		return difference > 0 ? ProofOutcome.Win : (difference < 0 ? ProofOutcome.Loss : ProofOutcome.Draw);
+	}
+
+	/**
+	 * Returns the sign of the exact final difference for the side to move after playing
+	 * a move
+	 */
+	private static int valueOf(Position position, int move) {
+
+		int side = position.getSideToMove();
+		Position child = position.copy();
+		child.play(move);
+
+		int value;
+
+		if (child.isGameOver()) {
+			value = child.getTotalDifference(side);
+		} else {
+			value = child.getSideToMove() == side ? EndgameDatabaseTests.solve(child)
+					: -EndgameDatabaseTests.solve(child);
+		}
+		return Integer.signum(value);
+	}
+}
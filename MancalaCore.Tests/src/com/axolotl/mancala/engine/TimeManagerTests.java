@@ -0,0 +1,108 @@
+package com.axolotl.mancala.engine;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.mocks.ManualTimeManager;
+
+public class TimeManagerTests {
+
+	@Test
+	public void testMiddlegameGetsMoreTime() {
+
+		TimeManager manager = new TimeManager(60000);
+
+		Position middlegame = new Position(6);
+		for (int hollow = 0; hollow < 6; hollow++) {
+			middlegame.setSeeds(hollow, 2);
+			middlegame.setSeeds(hollow + 7, 2);
+		}
+		middlegame.setSeeds(6, 12);
+		middlegame.setSeeds(13, 12);
+
+		Assert.assertTrue(manager.allocate(middlegame) > manager.allocate(Position.createInitial(6, 4)));
+	}
+
+	@Test
+	public void testForcedMoveUsesNoTime() {
+
+		TimeManager manager = new TimeManager(1000);
+
+		Position position = new Position(6);
+		position.setSeeds(3, 2);
+		position.setSeeds(8, 5);
+
+		Assert.assertFalse(manager.startMove(position));
+
+		TimeDecision decision = manager.endMove(0);
+
+		Assert.assertEquals(TimeDecision.Reason.Forced, decision.getReason());
+		Assert.assertEquals(0, decision.getLimit());
+		Assert.assertEquals(1, manager.getDecisions().size());
+	}
+
+	@Test
+	public void testStableMoveStopsEarly() {
+
+		ManualTimeManager manager = new ManualTimeManager(4000);
+
+		Assert.assertTrue(manager.startMove(Position.createInitial(6, 4)));
+		Assert.assertEquals(250, manager.getTarget());
+
+		for (int depth = 1; depth <= 3; depth++) {
+			Assert.assertFalse(manager.shouldStop(new SearchResult(2, 100, depth, 0)));
+		}
+
+		// Past half the target the next iteration would still finish in time, but the
+		// move has not changed for three iterations
+		manager.advance(70);
+
+		Assert.assertTrue(manager.shouldStop(new SearchResult(2, 100, 4, 0)));
+		Assert.assertEquals(TimeDecision.Reason.Stable, manager.endMove(4).getReason());
+	}
+
+	@Test
+	public void testScoreDropExtendsTarget() {
+
+		ManualTimeManager manager = new ManualTimeManager(4000);
+
+		manager.startMove(Position.createInitial(6, 4));
+		long target = manager.getTarget();
+
+		Assert.assertFalse(manager.shouldStop(new SearchResult(2, 500, 1, 0)));
+		Assert.assertFalse(manager.shouldStop(new SearchResult(2, 200, 2, 0)));
+		Assert.assertFalse(manager.shouldStop(new SearchResult(3, 300, 3, 0)));
+		Assert.assertEquals(2 * target, manager.getTarget());
+
+		TimeDecision decision = manager.endMove(3);
+
+		Assert.assertTrue(decision.isExtended());
+		Assert.assertEquals(0, decision.getUsed());
+		Assert.assertEquals(4000, manager.getRemaining());
+	}
+
+	@Test
+	public void testTimeUsedComesOffTheClock() {
+
+		ManualTimeManager manager = new ManualTimeManager(4000);
+
+		manager.startMove(Position.createInitial(6, 4));
+		manager.advance(100);
+		Assert.assertFalse(manager.shouldStop(new SearchResult(2, 100, 1, 0)));
+
+		TimeDecision decision = manager.endMove(1);
+
+		Assert.assertEquals(100, decision.getUsed());
+		Assert.assertEquals(TimeDecision.Reason.Complete, decision.getReason());
+		Assert.assertEquals(3900, manager.getRemaining());
+
+		// A move that runs past its limit is recorded as such
+		manager.startMove(Position.createInitial(6, 4));
+		long limit = manager.getLimit();
+		manager.advance(limit);
+
+		Assert.assertEquals(TimeDecision.Reason.Limit, manager.endMove(1).getReason());
+		Assert.assertEquals(3900 - limit, manager.getRemaining());
+	}
+}
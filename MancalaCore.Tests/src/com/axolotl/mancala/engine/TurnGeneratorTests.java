@@ -0,0 +1,161 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TurnGeneratorTests {
+
+	@Test
+	public void testTurnsReplayToTheirPositions() {
+		
+		TurnGenerator generator = new TurnGenerator(6);
+		Random random = new Random(31);
+		
+		for (int i = 0; i < 200; i++) {
+			
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 4 + random.nextInt(40));
+			
+			if (position.isGameOver()) {
+				continue;
+			}
+			
+			int side = position.getSideToMove();
+			int count = generator.generate(position);
+			Set<Position> seen = new HashSet<Position>();
+			
+			for (int turn = 0; turn < count; turn++) {
+				
+				Position replay = position.copy();
+				int[] moves = generator.getMoves(turn);
+				
+				for (int j = 0; j < moves.length; j++) {
+					
+					// Every sowing but the last must earn another move
+					Assert.assertEquals(side, replay.getSideToMove());
+					Assert.assertFalse(replay.isGameOver());
+					replay.play(moves[j]);
+				}
+				
+				Assert.assertTrue(replay.isGameOver() || replay.getSideToMove() != side);
+				Assert.assertEquals(replay, generator.getPosition(turn));
+				Assert.assertEquals(replay.hash(), generator.getHash(turn));
+				Assert.assertTrue(seen.add(replay));
+			}
+			
+			Assert.assertEquals(collectChains(position).size(), count + countDuplicates(position));
+		}
+	}
+	
+	@Test
+	public void testTranspositionsAreRemoved() {
+		
+		// Two of the hundreds of chains of extra turns from this position reach the
+		// same position
+		int[] seeds = { 6, 5, 2, 1, 2, 1, 0, 0, 4, 1, 1, 2, 0, 0 };
+		Position position = new Position(6);
+		for (int cell = 0; cell < seeds.length; cell++) {
+			position.setSeeds(cell, seeds[cell]);
+		}
+		
+		List<Position> chains = collectChains(position);
+		int count = new TurnGenerator(6).generate(position);
+		
+		Assert.assertEquals(new HashSet<Position>(chains).size(), count);
+		Assert.assertEquals(chains.size() - 1, count);
+	}
+	
+	@Test
+	public void testSearchByTurnsToTheEndIsExact() {
+		
+		AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(1 << 16), new StoreEvaluator());
+		search.setSearchByTurns(true);
+		Random random = new Random(32);
+		
+		for (int i = 0; i < 100; i++) {
+			
+			Position position = EndgameDatabaseTests.createRandomPosition(random, 8);
+			
+			if (position.isGameOver()) {
+				continue;
+			}
+			
+			SearchResult result = search.search(position, 40);
+			
+			Assert.assertEquals(Evaluator.SEED * EndgameDatabaseTests.solve(position), result.getScore());
+			
+			// The principal variation is made of single moves, ending at the game's end
+			Position leaf = position.copy();
+			for (int move : result.getPrincipalVariation()) {
+				Assert.assertTrue(leaf.isLegal(move));
+				leaf.play(move);
+			}
+			Assert.assertTrue(leaf.isGameOver());
+			Assert.assertEquals(result.getMove(), result.getPrincipalVariation()[0]);
+		}
+	}
+	
+	@Test
+	public void testSearchByTurnsIsCheaper() {
+		
+		// Fourteen single moves from the start are at most seven turns for each side
+		AlphaBetaSearch moves = new AlphaBetaSearch(new TranspositionTable(1 << 20), new StoreEvaluator());
+		AlphaBetaSearch turns = new AlphaBetaSearch(new TranspositionTable(1 << 20), new StoreEvaluator());
+		turns.setSearchByTurns(true);
+		
+		SearchResult byMoves = moves.search(Position.createInitial(6, 4), 14);
+		SearchResult byTurns = turns.search(Position.createInitial(6, 4), 7);
+		
+		Assert.assertTrue(byTurns.getNodes() < byMoves.getNodes());
+		
+		// The principal variation covers all seven turns
+		Position position = Position.createInitial(6, 4);
+		int turnCount = 0;
+		
+		for (int move : byTurns.getPrincipalVariation()) {
+			int side = position.getSideToMove();
+			position.play(move);
+			if (position.getSideToMove() != side) {
+				turnCount++;
+			}
+		}
+		Assert.assertEquals(7, turnCount);
+	}
+	
+	/**
+	 * Returns the position at the end of every chain of moves, including duplicates
+	 */
+	private static List<Position> collectChains(Position position) {
+		List<Position> chains = new ArrayList<Position>();
+		collectChains(position, position.getSideToMove(), chains);
+		return chains;
+	}
+	
+	private static void collectChains(Position position, int side, List<Position> chains) {
+		for (int move = 0; move < position.getHollowsPerPlayer(); move++) {
+			if (position.isLegal(move)) {
+				Position child = position.copy();
+				child.play(move);
+				if (!child.isGameOver() && child.getSideToMove() == side) {
+					collectChains(child, side, chains);
+				} else {
+					chains.add(child);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of chains that repeat the position of an earlier chain
+	 */
+	private static int countDuplicates(Position position) {
+		List<Position> chains = collectChains(position);
+		return chains.size() - new HashSet<Position>(chains).size();
+	}
+}
@@ -0,0 +1,75 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class WeightedEvaluatorTests {
+
+	@Test
+	public void testFeatures() {
+
+		Position position = new Position(6);
+		position.setSeeds(1, 5);
+		position.setSeeds(2, 1);
+		position.setSeeds(4, 2);
+		position.setSeeds(6, 7);
+		position.setSeeds(9, 3);
+		position.setSeeds(13, 4);
+		position.setSideToMove(0);
+
+		int[] features = new int[WeightedEvaluator.FEATURES];
+		WeightedEvaluator.extractFeatures(position, features);
+
+		Assert.assertEquals(3, features[WeightedEvaluator.STORES]);
+		Assert.assertEquals(5, features[WeightedEvaluator.HOLLOW_SEEDS]);
+
+		// Hollows 1 and 4 end in the store, while player two has none that do
+		Assert.assertEquals(2, features[WeightedEvaluator.EXTRA_TURNS]);
+
+		// Hollow 2 lands in empty hollow 3 opposite player two's 3 seeds
+		Assert.assertEquals(4, features[WeightedEvaluator.CAPTURES]);
+		Assert.assertEquals(-2, features[WeightedEvaluator.EMPTY_HOLLOWS]);
+		Assert.assertEquals(1, features[WeightedEvaluator.TEMPO]);
+
+		position.setSideToMove(1);
+		WeightedEvaluator.extractFeatures(position, features);
+
+		Assert.assertEquals(-3, features[WeightedEvaluator.STORES]);
+		Assert.assertEquals(-4, features[WeightedEvaluator.CAPTURES]);
+		Assert.assertEquals(1, features[WeightedEvaluator.TEMPO]);
+	}
+
+	@Test
+	public void testDefaultMatchesStoreEvaluator() {
+
+		Position position = Position.createInitial(6, 4);
+		position.play(2);
+		position.play(3);
+
+		Assert.assertEquals(new StoreEvaluator().evaluate(position), new WeightedEvaluator().evaluate(position));
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+
+		WeightedEvaluator evaluator = new WeightedEvaluator(new int[] { 100, 3, 40, 25, -60, 80 });
+		File file = File.createTempFile("weights", ".properties");
+
+		try {
+			evaluator.write(file, "test");
+
+			WeightedEvaluator read = WeightedEvaluator.read(file);
+			Position position = Position.createInitial(6, 4);
+			position.play(1);
+
+			Assert.assertEquals(evaluator.toString(), read.toString());
+			Assert.assertEquals(evaluator.evaluate(position), read.evaluate(position));
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -1,17 +1,46 @@
 package com.axolotl.mancala.game;
 
+import java.util.List;
+
 import junit.framework.Assert;
 
 import org.junit.Test;
 
 import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.engine.HintService;
+import com.axolotl.mancala.engine.Position;
 import com.axolotl.mancala.mocks.CountingGamePublisher;
+import com.axolotl.mancala.mocks.ManualTimeManager;
 import com.axolotl.mancala.model.Board;
 import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.AlphaBetaPlayer;
+import com.axolotl.mancala.strategies.ComputerPlayer;
 import com.axolotl.mancala.strategies.EgyptianStrategy;
 
 public class GameTests {
 
+	@Test
+	public void testHintsAreRankedBestFirst() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.setHintService(new HintService(16, 2000));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Easy);
+		
+		List<Hint> hints = game.getHints(10000);
+		
+		Assert.assertEquals(6, hints.size());
+		for (int i = 0; i < hints.size(); i++) {
+			Assert.assertEquals(PlayerNumber.One, hints.get(i).getPit().getPlayerNumber());
+			if (i > 0) {
+				Assert.assertTrue(hints.get(i - 1).getScore() >= hints.get(i).getScore());
+			}
+		}
+		
+		// The third hollow earns another turn, so it should be suggested first
+		Assert.assertSame(game.getBoard().getPlayersPits(PlayerNumber.One).get(2), hints.get(0).getPit());
+	}
+	
 	@Test
 	public void testGameStrategy() {
 		
@@ -53,6 +82,77 @@ public class GameTests {
 		}
 	}
 	
+	@Test
+	public void testOnePlayerComputerPonders() throws InterruptedException {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		// As the app does, while player one decides
+		ComputerPlayer computer = game.getPlayer2();
+		computer.ponder();
+		
+		while (((AlphaBetaPlayer) computer).isPondering()) {
+			Thread.sleep(10);
+		}
+		
+		game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+		game.makeMove(computer.play());
+		
+		Assert.assertEquals(1, ((AlphaBetaPlayer) computer).getPonderHits());
+	}
+	
+	@Test
+	public void testNewGameResetsComputerClock() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		
+		ManualTimeManager clock = new ManualTimeManager(1000);
+		game.setTimeManager(clock);
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		Assert.assertSame(clock, game.getPlayer2().getTimeManager());
+		
+		// Spend some of the first game's time
+		clock.startMove(Position.createInitial(6, 4));
+		clock.advance(300);
+		clock.endMove(1);
+		Assert.assertEquals(700, clock.getRemaining());
+		
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		Assert.assertSame(clock, game.getPlayer2().getTimeManager());
+		Assert.assertEquals(1000, clock.getRemaining());
+		Assert.assertTrue(clock.getDecisions().isEmpty());
+	}
+	
+	@Test
+	public void testComputerPlayerSeedIsDrawnPerGameAndRestored() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		long seed = game.getSeed();
+		Assert.assertEquals(seed, game.getPlayer2().getSeed());
+		
+		game.makeMove(game.getBoard().getPits().get(2));
+		String state = game.getGameState();
+		
+		// A new game draws a new seed
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		Assert.assertTrue(game.getSeed() != seed);
+		Assert.assertEquals(game.getSeed(), game.getPlayer2().getSeed());
+		
+		// Restoring brings back the saved game's seed
+		game.restoreGameState(state);
+		Assert.assertEquals(seed, game.getSeed());
+		Assert.assertEquals(seed, game.getPlayer2().getSeed());
+		Assert.assertEquals(state, game.getGameState());
+	}
+	
 	private static Game createAndStartGame() {
 		
 		Game game = new GameImpl();
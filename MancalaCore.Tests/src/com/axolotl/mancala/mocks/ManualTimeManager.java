@@ -0,0 +1,29 @@
+package com.axolotl.mancala.mocks;
+
+import com.axolotl.mancala.engine.TimeManager;
+
+/**
+ * A time manager whose clock only moves when it is told to
+ */
+public class ManualTimeManager extends TimeManager {
+
+	private long now;
+
+	public ManualTimeManager(long gameMillis) {
+		super(gameMillis);
+	}
+
+	/**
+	 * Moves the clock on
+	 *
+	 * @param millis The milliseconds to move it on by
+	 */
+	public void advance(long millis) {
+		now += millis;
+	}
+
+	@Override
+	protected long now() {
+		return now;
+	}
+}
@@ -0,0 +1,321 @@
+package com.axolotl.mancala.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.engine.SearchListener;
+import com.axolotl.mancala.engine.SearchResult;
+import com.axolotl.mancala.engine.StatisticsRegistry;
+import com.axolotl.mancala.engine.StoreEvaluator;
+import com.axolotl.mancala.engine.TimeDecision;
+import com.axolotl.mancala.engine.TimeManager;
+import com.axolotl.mancala.engine.TranspositionTable;
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.AlphaBetaPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+
+public class AlphaBetaPlayerTests {
+
+	@Test
+	public void testPonderedMoveIsReused() throws InterruptedException {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Hard);
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 6,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		// Player one is to move, so the computer can think ahead
+		player.ponder();
+		
+		while (player.isPondering()) {
+			Thread.sleep(10);
+		}
+		
+		// The first hollow does not earn player one another turn
+		game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+		Assert.assertEquals(PlayerNumber.Two, game.getStrategy().getCurrentPlayer());
+		
+		Pit pondered = player.play();
+		Assert.assertEquals(1, player.getPonderHits());
+		
+		AlphaBetaPlayer fresh = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 6,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		Assert.assertSame(fresh.play(), pondered);
+		Assert.assertEquals(fresh.getLastResult().getScore(), player.getLastResult().getScore());
+	}
+	
+	@Test
+	public void testLevelPlayerPondersWithoutChangingItsMove() throws InterruptedException {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Medium);
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Medium);
+		player.ponder();
+		
+		while (player.isPondering()) {
+			Thread.sleep(10);
+		}
+		
+		game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+		
+		Pit pondered = player.play();
+		Assert.assertEquals(1, player.getPonderHits());
+		
+		// The budgeted search from an empty table gives the same answer
+		AlphaBetaPlayer fresh = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Medium);
+		
+		Assert.assertSame(fresh.play(), pondered);
+		Assert.assertEquals(fresh.getLastResult().getScore(), player.getLastResult().getScore());
+		Assert.assertEquals(fresh.getLastResult().getDepth(), player.getLastResult().getDepth());
+		Assert.assertEquals(0, fresh.getPonderHits());
+	}
+	
+	@Test
+	public void testInterruptedStopStillWaitsForPondering() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Hard);
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 30,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		player.ponder();
+		
+		// As when a move played in the background is cancelled with interruption
+		Thread.currentThread().interrupt();
+		player.stopPondering();
+		
+		Assert.assertTrue(Thread.interrupted());
+		Assert.assertFalse(player.isPondering());
+	}
+	
+	@Test
+	public void testStopPondering() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Hard);
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 30,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		player.ponder();
+		player.stopPondering();
+		
+		Assert.assertFalse(player.isPondering());
+	}
+	
+	@Test
+	public void testPlayAsyncReportsProgress() throws InterruptedException, ExecutionException {
+		
+		GameImpl game = createGame();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 6,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		final List<SearchResult> progress = new ArrayList<SearchResult>();
+		
+		Pit move = player.playAsync(executor, new SearchListener() {
+			public void onIteration(SearchResult result) {
+				progress.add(result);
+			}
+		}).get();
+		
+		executor.shutdown();
+		
+		Assert.assertEquals(6, progress.size());
+		for (int i = 0; i < progress.size(); i++) {
+			Assert.assertEquals(i + 1, progress.get(i).getDepth());
+		}
+		
+		SearchResult last = progress.get(progress.size() - 1);
+		Assert.assertEquals(player.getLastResult().getMove(), last.getMove());
+		Assert.assertEquals(game.getBoard().getPlayersPits(PlayerNumber.Two).get(last.getMove()), move);
+		
+		AlphaBetaPlayer fresh = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 6,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		Assert.assertSame(fresh.play(), move);
+	}
+	
+	@Test
+	public void testCancelStopsSearch() throws InterruptedException {
+		
+		GameImpl game = createGame();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Hard, 60,
+				new TranspositionTable(1 << 16), new StoreEvaluator());
+		
+		final CountDownLatch started = new CountDownLatch(1);
+		
+		Future<Pit> future = player.playAsync(executor, new SearchListener() {
+			public void onIteration(SearchResult result) {
+				started.countDown();
+			}
+		});
+		
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		Assert.assertTrue(future.cancel(true));
+		
+		executor.shutdown();
+		
+		Assert.assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+		Assert.assertTrue(future.isCancelled());
+	}
+	
+	@Test
+	public void testBudgetPlayerIsDeterministic() {
+		
+		GameImpl game = createGame();
+		String state = game.getGameState();
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Medium);
+		int first = game.getBoard().getPlayersPits(PlayerNumber.Two).indexOf(player.play());
+		SearchResult result = player.getLastResult();
+		
+		Assert.assertTrue(result.getNodes() <= Difficulty.Medium.getNodeBudget() + 1);
+		
+		// Searching another position first must not change the move
+		game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.Two).get(first));
+		while (game.getStrategy().getCurrentPlayer() == PlayerNumber.One) {
+			game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(5));
+		}
+		player.play();
+		
+		game.restoreGameState(state);
+		
+		Assert.assertEquals(first, game.getBoard().getPlayersPits(PlayerNumber.Two).indexOf(player.play()));
+		Assert.assertEquals(result.getScore(), player.getLastResult().getScore());
+		Assert.assertEquals(result.getNodes(), player.getLastResult().getNodes());
+	}
+	
+	@Test
+	public void testStrategyPlayersShareSearchWithoutChangingMoves() throws InterruptedException {
+		
+		GameImpl game = createGame();
+		String state = game.getGameState();
+		EgyptianStrategy strategy = (EgyptianStrategy) game.getStrategy();
+		
+		AlphaBetaPlayer own = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Medium);
+		int expected = game.getBoard().getPlayersPits(PlayerNumber.Two).indexOf(own.play());
+		
+		// An earlier game's player searches and ponders another position
+		AlphaBetaPlayer earlier = (AlphaBetaPlayer) strategy.createAIPlayer(PlayerNumber.Two, Difficulty.Medium);
+		game.makeMove(earlier.play());
+		while (game.getStrategy().getCurrentPlayer() == PlayerNumber.Two) {
+			game.makeMove(earlier.play());
+		}
+		earlier.ponder();
+		Thread.sleep(50);
+		earlier.stopPondering();
+		
+		game.restoreGameState(state);
+		AlphaBetaPlayer later = (AlphaBetaPlayer) strategy.createAIPlayer(PlayerNumber.Two, Difficulty.Medium);
+		
+		List<Pit> pits = game.getBoard().getPlayersPits(PlayerNumber.Two);
+		Assert.assertEquals(expected, pits.indexOf(later.play()));
+		Assert.assertEquals(own.getLastResult().getScore(), later.getLastResult().getScore());
+		Assert.assertEquals(own.getLastResult().getNodes(), later.getLastResult().getNodes());
+		Assert.assertEquals(0, later.getPonderHits());
+	}
+	
+	@Test
+	public void testTimeManagedGameKeepsToClock() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Hard);
+		
+		AlphaBetaPlayer[] players = new AlphaBetaPlayer[2];
+		
+		for (PlayerNumber number : PlayerNumber.values()) {
+			AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), number, Difficulty.Hard, 60,
+					new TranspositionTable(1 << 16), new StoreEvaluator());
+			player.setTimeManager(new TimeManager(500));
+			players[number.ordinal()] = player;
+		}
+		
+		int moves = 0;
+		PlayerNumber next = game.getStrategy().getCurrentPlayer();
+		
+		while (!Position.fromBoard(game.getBoard(), next).isGameOver()) {
+			game.makeMove(players[next.ordinal()].play());
+			next = game.getStrategy().getCurrentPlayer();
+			moves++;
+		}
+		
+		int decisions = 0;
+		
+		// The time taken depends on the machine, so only the bookkeeping is checked
+		for (AlphaBetaPlayer player : players) {
+			
+			long used = 0;
+			
+			for (TimeDecision decision : player.getTimeManager().getDecisions()) {
+				Assert.assertTrue(decision.getTarget() <= decision.getLimit());
+				Assert.assertEquals(decision.getLimit() == 0, decision.getReason() == TimeDecision.Reason.Forced);
+				used += decision.getUsed();
+				decisions++;
+			}
+			Assert.assertEquals(Math.max(0, 500 - used), player.getTimeManager().getRemaining());
+		}
+		
+		Assert.assertEquals(moves, decisions);
+	}
+	
+	@Test
+	public void testStatisticsAfterPlay() {
+		
+		GameImpl game = createGame();
+		StatisticsRegistry registry = new StatisticsRegistry();
+		
+		AlphaBetaPlayer player = new AlphaBetaPlayer(game.getBoard(), PlayerNumber.Two, Difficulty.Medium);
+		player.setStatisticsRegistry(registry);
+		
+		Assert.assertNull(player.getLastStatistics());
+		
+		player.play();
+		
+		Assert.assertEquals(player.getLastResult().getNodes(), player.getLastStatistics().getNodes());
+		Assert.assertEquals(player.getLastResult().getDepth(), player.getLastStatistics().getDepth());
+		Assert.assertEquals(1, registry.getSearches());
+		Assert.assertEquals(player.getLastStatistics().getNodes(), registry.getTotal().getNodes());
+	}
+	
+	/**
+	 * Creates a game with player two to move
+	 */
+	private static GameImpl createGame() {
+		
+		GameImpl game = new GameImpl();
+		game.setStrategy(new EgyptianStrategy(game.getBoard()));
+		game.newGame(GameMode.TwoPlayer, Difficulty.Hard);
+		
+		// The first hollow does not earn player one another turn
+		game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+		return game;
+	}
+}
@@ -4,11 +4,19 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 
+import com.axolotl.mancala.engine.EngineService;
+import com.axolotl.mancala.engine.TranspositionTable;
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.GameImpl;
+import com.axolotl.mancala.game.GameMode;
 import com.axolotl.mancala.game.GamePublisher;
+import com.axolotl.mancala.game.PlayerNumber;
 import com.axolotl.mancala.mocks.CountingGamePublisher;
 import com.axolotl.mancala.model.Board;
 import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
 import com.axolotl.mancala.strategies.EgyptianStrategy;
+import com.axolotl.mancala.strategies.ServicePlayer;
 
 public class EgyptianStrategyTests {
 
@@ -74,4 +82,35 @@ public class EgyptianStrategyTests {
         
         Assert.assertEquals(1, publisher.getGameCompleteCallCount());
 	}
+	
+	@Test
+	public void testEngineServicePlaysForGames() {
+		
+		EngineService service = new EngineService(2, new TranspositionTable(1 << 16));
+		
+		for (int i = 0; i < 3; i++) {
+			
+			GameImpl game = new GameImpl();
+			EgyptianStrategy strategy = new EgyptianStrategy(game.getBoard());
+			strategy.setEngineService(service);
+			game.setStrategy(strategy);
+			game.newGame(GameMode.OnePlayer, Difficulty.Medium);
+			
+			Assert.assertTrue(game.getPlayer2() instanceof ServicePlayer);
+			
+			// The first hollow does not earn player one another turn
+			game.makeMove(game.getBoard().getPlayersPits(PlayerNumber.One).get(0));
+			
+			Pit move = game.getPlayer2().play();
+			
+			Assert.assertEquals(PlayerNumber.Two, move.getPlayerNumber());
+			Assert.assertTrue(move.getNumberOfMarbles() > 0);
+			
+			// The worker's search is recorded against the player
+			Assert.assertTrue(game.getPlayer2().getLastStatistics().getNodes() > 0);
+		}
+		
+		Assert.assertEquals(3, service.getRequestCount());
+		service.shutdown();
+	}
 }
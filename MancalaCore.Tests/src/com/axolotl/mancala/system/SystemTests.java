@@ -1,5 +1,6 @@
 package com.axolotl.mancala.system;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.Assert;
@@ -61,6 +62,48 @@ public class SystemTests {
 		Assert.assertEquals(48, total);			
 	}
 
+	@Test
+	public void testSeededGamesRepeat() {
+		
+		List<Integer> first = playSeededGame(3, 4);
+		
+		Assert.assertEquals(first, playSeededGame(3, 4));
+		Assert.assertFalse(first.equals(playSeededGame(5, 6)));
+	}
+	
+	/**
+	 * Plays a game between two easy scoring computer players and returns the hollows played
+	 */
+	private static List<Integer> playSeededGame(long seedOne, long seedTwo) {
+		
+		Game game = new GameImpl();
+		GameListenerImpl listener = new SystemTests().new GameListenerImpl();
+		game.addGameListener(listener);
+		
+		// The scoring players choose between equally good moves with the seed
+		EgyptianStrategy strategy = new EgyptianStrategy(game.getBoard());
+		strategy.setScoringPlayers(true);
+		game.setStrategy(strategy);
+		game.newGame(GameMode.OnePlayer, Difficulty.Easy);
+		
+		ComputerPlayer p1 = strategy.createAIPlayer(PlayerNumber.One, Difficulty.Easy);
+		ComputerPlayer p2 = game.getPlayer2();
+		p1.setSeed(seedOne);
+		p2.setSeed(seedTwo);
+		
+		List<Integer> moves = new ArrayList<Integer>();
+		
+		while (!listener.isCompleted()) {
+			
+			PlayerNumber nextPlayer = game.getStrategy().getCurrentPlayer();
+			Pit move = (nextPlayer == PlayerNumber.One ? p1 : p2).play();
+			
+			moves.add(game.getBoard().getPits().indexOf(move));
+			game.makeMove(move);
+		}
+		return moves;
+	}
+
 	class GameListenerImpl implements GameListener {
 
 		private boolean completed = false;
@@ -0,0 +1,51 @@
+package com.axolotl.mancala.tournament;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class HistogramTests {
+
+	@Test
+	public void testGrowsBothWays() {
+
+		Histogram histogram = new Histogram();
+		histogram.add(5);
+		histogram.add(-3);
+		histogram.add(20, 2);
+		histogram.add(-40);
+
+		Assert.assertEquals(5, histogram.getTotal());
+		Assert.assertEquals(-40, histogram.getMinimum());
+		Assert.assertEquals(20, histogram.getMaximum());
+		Assert.assertEquals(2, histogram.getCount(20));
+		Assert.assertEquals(1, histogram.getCount(-3));
+		Assert.assertEquals(0, histogram.getCount(0));
+		Assert.assertEquals(0, histogram.getCount(1000));
+		Assert.assertEquals(0.4, histogram.getMean(), 1e-9);
+	}
+
+	@Test
+	public void testMergeAndPercentiles() {
+
+		Histogram low = new Histogram();
+		Histogram high = new Histogram();
+
+		for (int value = 1; value <= 50; value++) {
+			low.add(value);
+			high.add(value + 50);
+		}
+
+		low.merge(high);
+
+		Assert.assertEquals(100, low.getTotal());
+		Assert.assertEquals(50.5, low.getMean(), 1e-9);
+		Assert.assertEquals(50, low.getPercentile(0.5));
+		Assert.assertEquals(100, low.getPercentile(1));
+		Assert.assertEquals(1, low.getPercentile(0));
+
+		// The variance of the numbers 1 to 100
+		Assert.assertEquals(841.67, low.getVariance(), 0.01);
+		Assert.assertEquals(1.96 * Math.sqrt(841.67 / 100), low.getMeanError(), 0.01);
+	}
+}
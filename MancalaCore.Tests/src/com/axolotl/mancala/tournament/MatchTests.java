@@ -0,0 +1,71 @@
+package com.axolotl.mancala.tournament;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+public class MatchTests {
+
+	@Test
+	public void testStrongerCandidatePassesEarly() {
+
+		Match match = new Match("Hard", createFactory(Difficulty.Hard), "Easy", createFactory(Difficulty.Easy));
+		match.setThreads(3);
+		match.setMaxGames(1000);
+
+		Sprt sprt = new Sprt(0, 100, 0.05, 0.05);
+		TournamentResult result = match.run(sprt);
+
+		Assert.assertEquals(Sprt.Verdict.Passed, sprt.getVerdict());
+		Assert.assertTrue(sprt.getLogLikelihoodRatio() >= sprt.getUpperBound());
+		Assert.assertEquals(sprt.getGames(), result.getGames(0));
+		Assert.assertEquals(sprt.getWins(), result.getWins(0, 1));
+		Assert.assertTrue(sprt.getGames() < 100);
+	}
+
+	@Test
+	public void testEqualPlayersFail() {
+
+		Match match = new Match("Easy", createFactory(Difficulty.Easy), "Easy", createFactory(Difficulty.Easy));
+		match.setThreads(2);
+		match.setMaxGames(5000);
+
+		Sprt sprt = new Sprt(0, 100, 0.05, 0.05);
+		match.run(sprt);
+
+		Assert.assertEquals(Sprt.Verdict.Failed, sprt.getVerdict());
+		Assert.assertTrue(sprt.getLogLikelihoodRatio() <= sprt.getLowerBound());
+		Assert.assertEquals(sprt.getGames(), sprt.getWins() + sprt.getDraws() + sprt.getLosses());
+		Assert.assertTrue(sprt.getGames() < 5000);
+	}
+
+	@Test
+	public void testWithoutTestPlaysEveryGame() {
+
+		Match match = new Match("Medium", createFactory(Difficulty.Medium), "Easy", createFactory(Difficulty.Easy));
+		match.setThreads(2);
+		match.setMaxGames(11);
+
+		TournamentResult result = match.run();
+
+		Assert.assertEquals(12, result.getGames(0));
+		Assert.assertEquals(12, result.getGames(1));
+	}
+
+	/**
+	 * Creates a factory for the strategy's players at the given level
+	 */
+	private static PlayerFactory createFactory(final Difficulty level) {
+		return new PlayerFactory() {
+			public ComputerPlayer createPlayer(Board board, MancalaStrategy strategy, PlayerNumber player) {
+				return strategy.createAIPlayer(player, level);
+			}
+		};
+	}
+}
@@ -0,0 +1,97 @@
+package com.axolotl.mancala.tournament;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+public class SimulationTests {
+
+	@Test
+	public void testTotalsDoNotDependOnThreads() {
+
+		GameStatistics single = createSimulation(1).run(300);
+		GameStatistics several = createSimulation(4).run(300);
+
+		Assert.assertEquals(300, single.getGames());
+		Assert.assertEquals(single.getFirstPlayerWins(), several.getFirstPlayerWins());
+		Assert.assertEquals(single.getDraws(), several.getDraws());
+
+		for (int difference = -48; difference <= 48; difference++) {
+			Assert.assertEquals(single.getScoreDifferences().getCount(difference),
+					several.getScoreDifferences().getCount(difference));
+		}
+
+		Assert.assertEquals(single.getGameLengths().getMean(), several.getGameLengths().getMean(), 1e-9);
+		Assert.assertEquals(single.getCaptures().getMean(), several.getCaptures().getMean(), 1e-9);
+	}
+
+	@Test
+	public void testStatisticsAreConsistent() {
+
+		GameStatistics statistics = createSimulation(2).run(400);
+
+		Assert.assertEquals(400, statistics.getGames());
+		Histogram differences = statistics.getScoreDifferences();
+		long wins = 0;
+
+		for (int difference = 1; difference <= 48; difference++) {
+			wins += differences.getCount(difference);
+		}
+
+		Assert.assertEquals(statistics.getFirstPlayerWins(), wins);
+		Assert.assertEquals(statistics.getDraws(), differences.getCount(0));
+		Assert.assertEquals(400, statistics.getGameLengths().getTotal());
+
+		// Both totals are even, so the difference between them is too
+		Assert.assertEquals(0, differences.getMinimum() & 1);
+		Assert.assertTrue(statistics.getGameLengths().getMinimum() > 0);
+
+		double[] interval = statistics.getFirstPlayerWinRateInterval();
+
+		Assert.assertTrue(interval[0] < statistics.getFirstPlayerWinRate());
+		Assert.assertTrue(interval[1] > statistics.getFirstPlayerWinRate());
+	}
+
+	@Test
+	public void testMergeMatchesOneAccumulator() {
+
+		GameStatistics first = createSimulation(1).run(50);
+		GameStatistics second = createSimulation(1).run(50);
+		GameStatistics merged = new GameStatistics();
+
+		merged.merge(first);
+		merged.merge(second);
+
+		Assert.assertEquals(100, merged.getGames());
+		Assert.assertEquals(2 * first.getFirstPlayerWins(), merged.getFirstPlayerWins());
+		Assert.assertEquals(first.getGameLengths().getMean(), merged.getGameLengths().getMean(), 1e-9);
+		Assert.assertEquals(first.getGameLengths().getMaximum(), merged.getGameLengths().getMaximum());
+	}
+
+	/**
+	 * Creates a simulation of games between two easy strategy players, from random
+	 * openings
+	 */
+	private static Simulation createSimulation(int threads) {
+
+		PlayerFactory easy = new PlayerFactory() {
+			public ComputerPlayer createPlayer(Board board, MancalaStrategy strategy, PlayerNumber player) {
+				return strategy.createAIPlayer(player, Difficulty.Easy);
+			}
+		};
+
+		Simulation simulation = new Simulation(easy, easy);
+		simulation.setThreads(threads);
+		simulation.setSeed(5);
+
+		// The players search, so they play the same game every time from the same start
+		simulation.setOpeningMoves(Tournament.DEFAULT_OPENING_MOVES);
+		return simulation;
+	}
+}
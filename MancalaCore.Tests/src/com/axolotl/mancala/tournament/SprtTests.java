@@ -0,0 +1,56 @@
+package com.axolotl.mancala.tournament;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class SprtTests {
+
+	@Test
+	public void testBounds() {
+
+		Sprt sprt = new Sprt(0, 50, 0.05, 0.05);
+
+		Assert.assertEquals(Math.log(0.05 / 0.95), sprt.getLowerBound(), 1e-9);
+		Assert.assertEquals(-sprt.getLowerBound(), sprt.getUpperBound(), 1e-9);
+		Assert.assertEquals(0, sprt.getLogLikelihoodRatio(), 1e-9);
+		Assert.assertEquals(Sprt.Verdict.Undecided, sprt.getVerdict());
+	}
+
+	@Test
+	public void testClearWinnerPasses() {
+
+		Sprt sprt = new Sprt(0, 50, 0.05, 0.05);
+
+		// Three wins in every four games is worth about 190 Elo
+		for (int game = 0; sprt.getVerdict() == Sprt.Verdict.Undecided; game++) {
+			sprt.record(game % 4 == 3 ? 0 : 1);
+		}
+
+		Assert.assertEquals(Sprt.Verdict.Passed, sprt.getVerdict());
+		Assert.assertTrue(sprt.getGames() < 100);
+
+		// Games after the verdict are ignored
+		int games = sprt.getGames();
+		Assert.assertEquals(Sprt.Verdict.Passed, sprt.record(0));
+		Assert.assertEquals(games, sprt.getGames());
+	}
+
+	@Test
+	public void testEvenMatchFails() {
+
+		Sprt sprt = new Sprt(0, 50, 0.05, 0.05);
+
+		for (int game = 0; sprt.getVerdict() == Sprt.Verdict.Undecided; game++) {
+			sprt.record(game % 3 == 0 ? 0.5 : game % 3 == 1 ? 1 : 0);
+		}
+
+		Assert.assertEquals(Sprt.Verdict.Failed, sprt.getVerdict());
+		Assert.assertTrue(sprt.getLogLikelihoodRatio() <= sprt.getLowerBound());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testHypothesesMustDiffer() {
+		new Sprt(10, 10, 0.05, 0.05);
+	}
+}
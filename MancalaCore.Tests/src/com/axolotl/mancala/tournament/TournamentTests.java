@@ -0,0 +1,87 @@
+package com.axolotl.mancala.tournament;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+public class TournamentTests {
+
+	@Test
+	public void testResultsDoNotDependOnThreads() {
+
+		TournamentResult single = createTournament(1).run();
+		TournamentResult several = createTournament(3).run();
+
+		for (int i = 0; i < 3; i++) {
+
+			// Each entrant plays ten games against each of the other two
+			Assert.assertEquals(20, single.getGames(i));
+
+			for (int j = 0; j < 3; j++) {
+				Assert.assertEquals(single.getWins(i, j), several.getWins(i, j));
+				Assert.assertEquals(single.getDraws(i, j), several.getDraws(i, j));
+				Assert.assertEquals(single.getWins(i, j), single.getLosses(j, i));
+			}
+		}
+	}
+
+	@Test
+	public void testStrongerPlayerRatesHigher() {
+
+		TournamentResult result = createTournament(2).run();
+
+		Assert.assertEquals(20, result.getGames(2));
+		Assert.assertTrue(result.toString().contains("Hard"));
+		Assert.assertTrue(result.getScore(2) > result.getScore(0));
+		Assert.assertTrue(result.getElo(2) > result.getElo(0));
+		Assert.assertTrue(result.getElo(2, 0) > 0);
+		Assert.assertEquals(-result.getElo(2, 0), result.getElo(0, 2), 1e-9);
+	}
+
+	@Test
+	public void testElo() {
+
+		Assert.assertEquals(0, TournamentResult.toElo(0.5), 1e-9);
+		Assert.assertEquals(-TournamentResult.toElo(0.75), TournamentResult.toElo(0.25), 1e-9);
+		Assert.assertEquals(191, TournamentResult.toElo(0.75), 1);
+
+		// More games narrow the interval
+		double few = TournamentResult.getEloError(10, 10, 10);
+		double many = TournamentResult.getEloError(100, 100, 100);
+
+		Assert.assertTrue(many < few);
+		Assert.assertEquals(few / Math.sqrt(10), many, 2);
+
+		// A clean sweep still leaves room for doubt
+		double sweep = TournamentResult.getEloError(10, 0, 0);
+
+		Assert.assertTrue(sweep > 100);
+		Assert.assertTrue(TournamentResult.toElo(1) - 2 * sweep < TournamentResult.toElo(0.9));
+	}
+
+	/**
+	 * Creates a tournament between the easy, medium and hard strategy players
+	 */
+	private static Tournament createTournament(int threads) {
+
+		Tournament tournament = new Tournament();
+		tournament.setThreads(threads);
+		tournament.setGamesPerPairing(10);
+		tournament.setSeed(99);
+
+		for (final Difficulty level : Difficulty.values()) {
+			tournament.addEntrant(level.toString(), new PlayerFactory() {
+				public ComputerPlayer createPlayer(Board board, MancalaStrategy strategy, PlayerNumber player) {
+					return strategy.createAIPlayer(player, level);
+				}
+			});
+		}
+		return tournament;
+	}
+}
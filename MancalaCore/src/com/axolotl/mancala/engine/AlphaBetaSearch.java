@@ -0,0 +1,821 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * An iterative deepening alpha-beta search over egyptian rules positions.
+ *
+ * The search is written in negamax form.  A move that earns an extra turn leaves the
+ * same side to move, so its score is taken as it is rather than negated, and the
+ * window is passed through unchanged.  Each move played counts as one ply of depth,
+ * whichever side plays it.
+ *
+ * Alternatively the depth can be counted in complete turns, with each chain of extra
+ * turns generated as a single macro move by a TurnGenerator.  Every child then has the
+ * other side to move, and chains that end in the same position are only searched
+ * once.  A transposition table should not be shared between searches that count depth
+ * in different ways.
+ *
+ * With quiescence enabled, the leaves are not scored straight away.  Instead the
+ * search carries on with only the moves that capture or earn an extra turn, until none
+ * are left, so that a big swing just past the horizon is not missed.  The side to move
+ * may always stand pat on the evaluation rather than play one of those moves, and the
+ * quiescence stage is limited in depth and nodes for each leaf.
+ *
+ * If the evaluator is a BatchEvaluator, batch evaluation can be turned on so that the
+ * children of each node one ply above the leaves are scored together before any of
+ * them is searched.  The scores are the same as scoring each leaf on its own, so only
+ * the speed changes.
+ *
+ * By default it is a principal variation search: the first move at each node is
+ * searched with the full window, and the rest with a null window that only shows
+ * whether they are better, re-searching any that are.  Each iteration after the first
+ * starts with an aspiration window around the previous score, widening it when the
+ * score falls outside.  Both can be turned off to give a plain full window search.
+ *
+ * A search instance is not thread safe, but several instances may share one
+ * transposition table.
+ */
+public class AlphaBetaSearch {
+
+	/**
+	 * The deepest the search will go, counting extra turns, or counting complete turns
+	 * when searching by turns
+	 */
+	public static final int MAX_PLY = 128;
+
+	// A score larger than any real score
+	private static final int INFINITY = 1000000;
+
+	// The number of nodes between checks of the clock
+	private static final int CHECK_INTERVAL = 4096;
+
+	// The initial margin either side of the previous score for aspiration windows
+	private static final int ASPIRATION_WINDOW = Evaluator.SEED;
+
+	// The default limit on the plies searched past each leaf
+	private static final int QUIESCENCE_PLY = 8;
+
+	// The default limit on the nodes searched past each leaf
+	private static final int QUIESCENCE_NODES = 256;
+
+	// Marks a node whose evaluation has not been worked out in advance
+	private static final int NOT_EVALUATED = Integer.MIN_VALUE;
+
+	// The table of previous results
+	private final TranspositionTable mTable;
+
+	// Scores the leaves
+	private final Evaluator mEvaluator;
+
+	// The same evaluator if it can score the leaves in batches, otherwise null
+	private final BatchEvaluator mBatchEvaluator;
+
+	// Whether to score the leaves in batches
+	private boolean mBatchEvaluation;
+
+	// The children of the node at each ply, when its leaves are scored in a batch
+	private Position[][] mChildren;
+
+	// The batch score of each child of the node at each ply
+	private int[][] mLeafScores;
+
+	// The positions handed to the batch evaluator, and their scores
+	private Position[] mBatch = new Position[0];
+	private int[] mBatchScores = new int[0];
+
+	// The position at each ply
+	private Position[] mStack;
+
+	// The moves generated at each ply
+	private int[][] mMoves;
+
+	// The ordering keys for the moves at each ply
+	private int[][] mOrder;
+
+	// The principal variation found below each ply
+	private int[][] mPv;
+
+	// The length of the principal variation below each ply
+	private int[] mPvLength;
+
+	// The principal variation of the deepest completed iteration, and its length
+	private final int[] mBestPv = new int[MAX_PLY + 1];
+	private int mBestPvLength;
+
+	// Whether to use null windows and aspiration windows
+	private boolean mPrincipalVariationSearch = true;
+
+	// Whether to search complete turns rather than single moves
+	private boolean mSearchByTurns;
+
+	// Generates the turns at each ply when searching by turns
+	private TurnGenerator[] mTurns;
+
+	// Whether to extend the leaves with captures and extra turns
+	private boolean mQuiescence;
+
+	// The most plies searched past each leaf
+	private int mQuiescencePly = QUIESCENCE_PLY;
+
+	// The most nodes searched past each leaf
+	private int mQuiescenceNodeLimit = QUIESCENCE_NODES;
+
+	// The nodes searched past the current leaf
+	private int mQuiescenceNodes;
+
+	// The best move found at the root by the current iteration
+	private int mRootMove;
+
+	// The number of nodes visited by the current search
+	private long mNodes;
+
+	// The work counted by the current search, kept in plain fields as a search only
+	// ever runs on one thread at a time
+	private long mEvaluations;
+	private long mProbes;
+	private long mHits;
+	private long mCutoffs;
+
+	// The statistics of the last search
+	private SearchStatistics mStatistics;
+
+	// The node budget, or 0 for none
+	private long mNodeLimit;
+
+	// Xor'd into each position's hash to make its key in the table
+	private long mTableKey;
+
+	// The time budget in milliseconds, or 0 for none
+	private long mTimeLimit;
+
+	// The time at which the current search must stop
+	private long mDeadline;
+
+	// Set when the current search has run out of budget
+	private boolean mStopped;
+
+	// Set by another thread to stop the current search
+	private volatile boolean mAborted;
+
+	// Told about each completed iteration, or null
+	private SearchListener mListener;
+
+	/**
+	 * Constructs a new search
+	 *
+	 * @param table The transposition table to use
+	 *
+	 * @param evaluator The evaluator used to score the leaves
+	 */
+	public AlphaBetaSearch(TranspositionTable table, Evaluator evaluator) {
+		mTable = table;
+		mEvaluator = evaluator;
+		mBatchEvaluator = evaluator instanceof BatchEvaluator ? (BatchEvaluator) evaluator : null;
+	}
+
+	/**
+	 * Sets the maximum number of nodes each search may visit
+	 *
+	 * @param nodes The budget, or 0 for none
+	 */
+	public void setNodeLimit(long nodes) {
+		mNodeLimit = nodes;
+	}
+
+	/**
+	 * Sets a value xor'd into each position's hash before the table is used, so that
+	 * searches sharing a table but set up differently, such as with different budgets,
+	 * keep their entries apart
+	 *
+	 * @param key The value, or 0 to use the hashes as they are, the default
+	 */
+	public void setTableKey(long key) {
+		mTableKey = key;
+	}
+
+	/**
+	 * Sets the maximum time each search may take
+	 *
+	 * @param millis The budget in milliseconds, or 0 for none
+	 */
+	public void setTimeLimit(long millis) {
+		mTimeLimit = millis;
+	}
+
+	/**
+	 * Chooses between a principal variation search with aspiration windows, and a
+	 * plain alpha-beta search with a full window at every node
+	 *
+	 * @param enabled True for a principal variation search, the default
+	 */
+	public void setPrincipalVariationSearch(boolean enabled) {
+		mPrincipalVariationSearch = enabled;
+	}
+
+	/**
+	 * Chooses whether each ply of depth is a single move, or a complete turn including
+	 * any extra turns
+	 *
+	 * @param enabled True to search complete turns, false for single moves, the default
+	 */
+	public void setSearchByTurns(boolean enabled) {
+		mSearchByTurns = enabled;
+	}
+
+	/**
+	 * Chooses whether the leaves are extended with captures and extra turns until the
+	 * position is quiet
+	 *
+	 * @param enabled True to extend the leaves, false to score them as they are, the
+	 *        default
+	 */
+	public void setQuiescence(boolean enabled) {
+		mQuiescence = enabled;
+	}
+
+	/**
+	 * Limits the quiescence search past each leaf
+	 *
+	 * @param plies The most plies to extend each leaf by
+	 *
+	 * @param nodes The most nodes to search past each leaf
+	 */
+	public void setQuiescenceLimits(int plies, int nodes) {
+		mQuiescencePly = plies;
+		mQuiescenceNodeLimit = nodes;
+	}
+
+	/**
+	 * Sets whether the leaves below each node are scored in one batch, if the evaluator
+	 * is a BatchEvaluator.  A batch includes leaves that a cutoff would have skipped, so
+	 * this only pays off when batches are much faster than single positions.
+	 *
+	 * @param enabled True to score the leaves in batches
+	 */
+	public void setBatchEvaluation(boolean enabled) {
+		mBatchEvaluation = enabled;
+	}
+
+	/**
+	 * Sets the listener told about each completed iteration
+	 *
+	 * @param listener The listener, or null for none
+	 */
+	public void setListener(SearchListener listener) {
+		mListener = listener;
+	}
+
+	/**
+	 * Stops the search currently running on another thread.  The search returns the
+	 * result of its last completed iteration.  Interrupting the thread running the
+	 * search has the same effect.
+	 */
+	public void abort() {
+		mAborted = true;
+	}
+
+	/**
+	 * @return The transposition table used by this search
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return mTable;
+	}
+
+	/**
+	 * @return The number of nodes visited by the last search
+	 */
+	public long getNodes() {
+		return mNodes;
+	}
+
+	/**
+	 * @return The work done by the last search, or null if there has not been one
+	 */
+	public SearchStatistics getStatistics() {
+		return mStatistics;
+	}
+
+	/**
+	 * Searches the position to the given depth, deepening one ply at a time until the
+	 * depth is reached or the budget runs out
+	 *
+	 * @param root The position to search, which must not be over
+	 *
+	 * @param maxDepth The depth to search to, at most MAX_PLY
+	 *
+	 * @return The result of the deepest completed iteration, with its principal
+	 *         variation
+	 */
+	public SearchResult search(Position root, int maxDepth) {
+
+		final long start = System.nanoTime();
+
+		prepare(root);
+
+		int bestMove = firstLegalMove(root);
+		int bestScore = 0;
+		int completedDepth = 0;
+
+		for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+
+			int alpha = -INFINITY;
+			int beta = INFINITY;
+			int delta = ASPIRATION_WINDOW;
+
+			if (mPrincipalVariationSearch && depth > 1) {
+				alpha = bestScore - delta;
+				beta = bestScore + delta;
+			}
+
+			int score;
+
+			while (true) {
+
+				score = search(mStack[0], depth, alpha, beta, 0, NOT_EVALUATED);
+
+				if (mStopped) {
+					break;
+				}
+
+				// Widen whichever side of the window the score fell outside
+				if (score <= alpha) {
+					alpha = Math.max(-INFINITY, score - delta);
+				} else if (score >= beta) {
+					beta = Math.min(INFINITY, score + delta);
+				} else {
+					break;
+				}
+				delta *= 2;
+			}
+
+			if (mStopped) {
+				break;
+			}
+
+			bestMove = mRootMove;
+			bestScore = score;
+			completedDepth = depth;
+
+			// Kept aside, as the next iteration overwrites the variation as it goes
+			mBestPvLength = mPvLength[0];
+			System.arraycopy(mPv[0], 0, mBestPv, 0, mBestPvLength);
+
+			if (mListener != null) {
+				mListener.onIteration(new SearchResult(bestMove, bestScore, completedDepth, mNodes, false, mBestPv,
+						mBestPvLength));
+			}
+		}
+
+		mStatistics = new SearchStatistics(mNodes, mEvaluations, mProbes, mHits, mCutoffs, completedDepth,
+				System.nanoTime() - start);
+
+		return new SearchResult(bestMove, bestScore, completedDepth, mNodes, false, completedDepth > 0 ? mBestPv
+				: null, mBestPvLength);
+	}
+
+	/**
+	 * Resets the counters and copies the root into the stack
+	 */
+	private void prepare(Position root) {
+
+		if (mStack == null || mStack[0].getHollowsPerPlayer() != root.getHollowsPerPlayer()) {
+
+			int hollows = root.getHollowsPerPlayer();
+			mStack = new Position[MAX_PLY + 1];
+			mMoves = new int[MAX_PLY + 1][hollows];
+			mOrder = new int[MAX_PLY + 1][hollows];
+			mPv = new int[MAX_PLY + 1][MAX_PLY + 1];
+			mPvLength = new int[MAX_PLY + 1];
+			mTurns = new TurnGenerator[MAX_PLY + 1];
+			mChildren = new Position[MAX_PLY + 1][];
+			mLeafScores = new int[MAX_PLY + 1][hollows];
+
+			for (int i = 0; i < mStack.length; i++) {
+				mStack[i] = new Position(hollows);
+				mTurns[i] = new TurnGenerator(hollows);
+			}
+		}
+
+		mStack[0].copyFrom(root);
+		mNodes = 0;
+		mEvaluations = 0;
+		mProbes = 0;
+		mHits = 0;
+		mCutoffs = 0;
+		mStopped = false;
+		mAborted = false;
+		mDeadline = mTimeLimit > 0 ? System.currentTimeMillis() + mTimeLimit : Long.MAX_VALUE;
+	}
+
+	/**
+	 * The recursive alpha-beta search.  The evaluation is the position's score if it
+	 * was scored in a batch, or NOT_EVALUATED.
+	 */
+	private int search(Position position, int depth, int alpha, int beta, int ply, int evaluation) {
+
+		mPvLength[ply] = 0;
+
+		if (++mNodes % CHECK_INTERVAL == 0) {
+			checkBudget();
+		}
+
+		if (mStopped || (mNodeLimit > 0 && mNodes > mNodeLimit)) {
+			mStopped = true;
+			return 0;
+		}
+
+		final int side = position.getSideToMove();
+
+		if (position.isGameOver()) {
+			return Evaluator.SEED * position.getTotalDifference(side);
+		}
+
+		if (ply >= MAX_PLY) {
+			return evaluate(position);
+		}
+
+		if (depth <= 0) {
+			if (!mQuiescence) {
+				return evaluation != NOT_EVALUATED ? evaluation : evaluate(position);
+			}
+			mQuiescenceNodes = 0;
+			return quiesce(position, alpha, beta, ply, 0, evaluation);
+		}
+
+		final long hash = position.hash() ^ mTableKey;
+		final long entry = mTable.probe(hash);
+		final boolean pvNode = beta - alpha > 1;
+		int hashMove = -1;
+
+		mProbes++;
+
+		if (entry != TranspositionTable.MISSING) {
+
+			mHits++;
+
+			hashMove = TranspositionTable.getMove(entry);
+
+			// Cutting off at nodes on the principal variation would leave it incomplete
+			boolean cutoff = !mPrincipalVariationSearch || !pvNode;
+
+			if (ply > 0 && cutoff && TranspositionTable.getDepth(entry) >= depth) {
+
+				int stored = TranspositionTable.getScore(entry);
+				int bound = TranspositionTable.getBound(entry);
+
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+					return stored;
+				}
+			}
+		}
+
+		// When searching by turns, the moves are the indexes of the generated turns
+		final TurnGenerator turns = mSearchByTurns ? mTurns[ply] : null;
+		final int count = turns != null ? orderTurns(position, turns, ply, hashMove)
+				: orderMoves(position, mMoves[ply], mOrder[ply], hashMove);
+		final int[] moves = mMoves[ply];
+		final int originalAlpha = alpha;
+
+		// Score all the leaves below this node together
+		final int[] leafScores = depth == 1 && mBatchEvaluation && mBatchEvaluator != null
+				? evaluateChildren(position, turns, count, ply) : null;
+
+		int bestScore = -INFINITY;
+		int bestMove = -1;
+
+		for (int i = 0; i < count; i++) {
+
+			final Position child;
+			final int move;
+
+			if (turns != null) {
+				child = turns.getPosition(moves[i]);
+				move = turns.getMove(moves[i], 0);
+			} else if (leafScores != null) {
+				child = mChildren[ply][i];
+				move = moves[i];
+			} else {
+				child = mStack[ply + 1];
+				child.copyFrom(position);
+				child.play(moves[i]);
+				move = moves[i];
+			}
+
+			// The side only stays the same after an extra turn, or when the game ends
+			final boolean sameSide = child.getSideToMove() == side;
+			final int leafScore = leafScores != null ? leafScores[i] : NOT_EVALUATED;
+			int score;
+
+			if (i > 0 && mPrincipalVariationSearch) {
+
+				// Only find out whether the move beats the best so far
+				score = sameSide ? search(child, depth - 1, alpha, alpha + 1, ply + 1, leafScore)
+						: -search(child, depth - 1, -alpha - 1, -alpha, ply + 1, leafScore);
+
+				if (score > alpha && score < beta && !mStopped) {
+					score = sameSide ? search(child, depth - 1, alpha, beta, ply + 1, leafScore)
+							: -search(child, depth - 1, -beta, -alpha, ply + 1, leafScore);
+				}
+			} else {
+				score = sameSide ? search(child, depth - 1, alpha, beta, ply + 1, leafScore)
+						: -search(child, depth - 1, -beta, -alpha, ply + 1, leafScore);
+			}
+
+			if (mStopped) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+
+				if (score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, turns, moves[i]);
+
+					if (alpha >= beta) {
+						mCutoffs++;
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+				: (bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT);
+
+		mTable.store(hash, bestMove, depth, bound, bestScore);
+
+		if (ply == 0) {
+			mRootMove = bestMove;
+		}
+
+		return bestScore;
+	}
+
+	/**
+	 * Plays each move from a node one ply above the leaves and scores the resulting
+	 * positions in one batch, leaving finished games unscored
+	 *
+	 * @return The score of each child, in the order of the moves
+	 */
+	private int[] evaluateChildren(Position position, TurnGenerator turns, int count, int ply) {
+
+		final int[] moves = mMoves[ply];
+
+		if (mLeafScores[ply].length < count) {
+			mLeafScores[ply] = new int[count];
+		}
+		if (mBatch.length < count) {
+			mBatch = new Position[count];
+			mBatchScores = new int[count];
+		}
+		if (turns == null && mChildren[ply] == null) {
+			mChildren[ply] = new Position[position.getHollowsPerPlayer()];
+			for (int i = 0; i < mChildren[ply].length; i++) {
+				mChildren[ply][i] = new Position(position.getHollowsPerPlayer());
+			}
+		}
+
+		final int[] scores = mLeafScores[ply];
+		int size = 0;
+
+		for (int i = 0; i < count; i++) {
+
+			Position child;
+
+			if (turns != null) {
+				child = turns.getPosition(moves[i]);
+			} else {
+				child = mChildren[ply][i];
+				child.copyFrom(position);
+				child.play(moves[i]);
+			}
+
+			// Remember where in the batch each child went
+			if (child.isGameOver()) {
+				scores[i] = NOT_EVALUATED;
+			} else {
+				scores[i] = size;
+				mBatch[size++] = child;
+			}
+		}
+
+		mBatchEvaluator.evaluate(mBatch, size, mBatchScores);
+		mEvaluations += size;
+
+		for (int i = 0; i < count; i++) {
+			if (scores[i] != NOT_EVALUATED) {
+				scores[i] = mBatchScores[scores[i]];
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Searches only the captures and extra turns from a leaf, standing pat on the
+	 * evaluation when that is better.  The evaluation is the leaf's score if it was
+	 * scored in a batch, or NOT_EVALUATED.
+	 */
+	private int quiesce(Position position, int alpha, int beta, int ply, int quiescencePly, int evaluation) {
+
+		final int side = position.getSideToMove();
+
+		if (position.isGameOver()) {
+			return Evaluator.SEED * position.getTotalDifference(side);
+		}
+
+		final int standPat = evaluation != NOT_EVALUATED ? evaluation : evaluate(position);
+
+		if (standPat >= beta || quiescencePly >= mQuiescencePly || ply >= MAX_PLY) {
+			return standPat;
+		}
+
+		if (standPat > alpha) {
+			alpha = standPat;
+		}
+
+		final int[] moves = mMoves[ply];
+		final int count = orderMoves(position, moves, mOrder[ply], -1);
+		final Position child = mStack[ply + 1];
+
+		int bestScore = standPat;
+
+		for (int i = 0; i < count; i++) {
+
+			if (!position.isExtraTurnMove(moves[i]) && !position.isCaptureMove(moves[i])) {
+				continue;
+			}
+
+			if (++mQuiescenceNodes > mQuiescenceNodeLimit) {
+				break;
+			}
+
+			if (++mNodes % CHECK_INTERVAL == 0) {
+				checkBudget();
+			}
+
+			if (mStopped || (mNodeLimit > 0 && mNodes > mNodeLimit)) {
+				mStopped = true;
+				return 0;
+			}
+
+			child.copyFrom(position);
+			child.play(moves[i]);
+
+			int score = child.getSideToMove() == side
+					? quiesce(child, alpha, beta, ply + 1, quiescencePly + 1, NOT_EVALUATED)
+					: -quiesce(child, -beta, -alpha, ply + 1, quiescencePly + 1, NOT_EVALUATED);
+
+			if (mStopped) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+				bestScore = score;
+
+				if (score > alpha) {
+					alpha = score;
+
+					if (alpha >= beta) {
+						mCutoffs++;
+						break;
+					}
+				}
+			}
+		}
+
+		return bestScore;
+	}
+
+	/**
+	 * Generates the legal moves, ordered with the hash move first, then extra turns,
+	 * then captures
+	 *
+	 * @return The number of moves
+	 */
+	private int orderMoves(Position position, int[] moves, int[] keys, int hashMove) {
+
+		int count = position.getLegalMoves(moves);
+
+		for (int i = 0; i < count; i++) {
+
+			int move = moves[i];
+			int key = move;
+
+			if (move == hashMove) {
+				key += 1000;
+			} else if (position.isExtraTurnMove(move)) {
+				// Nearest the store first, as that leaves the other extra turns intact
+				key += 500;
+			} else if (position.isCaptureMove(move)) {
+				key += 250;
+			}
+
+			// Insertion sort, highest key first
+			int j = i;
+			while (j > 0 && keys[j - 1] < key) {
+				keys[j] = keys[j - 1];
+				moves[j] = moves[j - 1];
+				j--;
+			}
+			keys[j] = key;
+			moves[j] = move;
+		}
+		return count;
+	}
+
+	/**
+	 * Generates the turns, ordered with those starting with the hash move first, then
+	 * by the seeds they put in the store.  The indexes of the turns are left in the
+	 * moves for the ply.
+	 *
+	 * @return The number of turns
+	 */
+	private int orderTurns(Position position, TurnGenerator turns, int ply, int hashMove) {
+
+		final int count = turns.generate(position);
+		final int side = position.getSideToMove();
+		final int stored = position.getStoreDifference(side);
+
+		if (mMoves[ply].length < count) {
+			mMoves[ply] = new int[count * 2];
+			mOrder[ply] = new int[count * 2];
+		}
+
+		final int[] moves = mMoves[ply];
+		final int[] keys = mOrder[ply];
+
+		for (int i = 0; i < count; i++) {
+
+			int key = turns.getPosition(i).getStoreDifference(side) - stored;
+
+			if (turns.getMove(i, 0) == hashMove) {
+				key += 1000;
+			}
+
+			// Insertion sort, highest key first, keeping the generated order for ties
+			int j = i;
+			while (j > 0 && keys[j - 1] < key) {
+				keys[j] = keys[j - 1];
+				moves[j] = moves[j - 1];
+				j--;
+			}
+			keys[j] = key;
+			moves[j] = i;
+		}
+		return count;
+	}
+
+	/**
+	 * Makes the principal variation at a ply the given move or turn followed by the
+	 * variation below it
+	 */
+	private void updatePrincipalVariation(int ply, TurnGenerator turns, int move) {
+
+		final int[] pv = mPv[ply];
+		int length = 0;
+
+		if (turns != null) {
+			for (int j = 0; j < turns.getLength(move) && length < pv.length; j++) {
+				pv[length++] = turns.getMove(move, j);
+			}
+		} else {
+			pv[length++] = move;
+		}
+
+		int tail = Math.min(mPvLength[ply + 1], pv.length - length);
+		System.arraycopy(mPv[ply + 1], 0, pv, length, tail);
+		mPvLength[ply] = length + tail;
+	}
+
+	/**
+	 * Scores a leaf with the evaluator, counting the evaluation
+	 */
+	private int evaluate(Position position) {
+		mEvaluations++;
+		return mEvaluator.evaluate(position);
+	}
+
+	/**
+	 * Stops the search if the time has run out or it has been aborted or interrupted
+	 */
+	private void checkBudget() {
+		if (mAborted || Thread.currentThread().isInterrupted() || System.currentTimeMillis() > mDeadline) {
+			mStopped = true;
+		}
+	}
+
+	/**
+	 * Returns the first move that can be played, used if no iteration completes
+	 */
+	private static int firstLegalMove(Position position) {
+		for (int move = 0; move < position.getHollowsPerPlayer(); move++) {
+			if (position.isLegal(move)) {
+				return move;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,20 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * An evaluator which is faster when given several positions at once.  The alpha-beta
+ * search hands it all the children of a node one ply above the leaves in one call.
+ */
+public interface BatchEvaluator extends Evaluator {
+
+	/**
+	 * Scores several positions, each from the point of view of its side to move.  The
+	 * scores must be the same as evaluating each position on its own.
+	 *
+	 * @param positions The positions, none of which may be over
+	 *
+	 * @param count The number of positions to score
+	 *
+	 * @param scores The array to receive the scores, in hundredths of a seed
+	 */
+	void evaluate(Position[] positions, int count, int[] scores);
+}
@@ -0,0 +1,191 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A table of exact results for every position with only a few seeds left in play,
+ * as written by the EndgameDatabaseGenerator.
+ *
+ * The file is memory mapped, so opening it is cheap and the operating system only
+ * pages in the parts that are used.  Each position is a single byte, found directly
+ * from its EndgameIndex, holding the number of seeds the side to move will collect
+ * from the hollows minus the number its opponent will collect, with best play from
+ * both sides.  The stores do not affect the play, so they are not part of the index.
+ */
+public class EndgameDatabase implements MoveOracle {
+
+	/**
+	 * Returned by probe when the position is not in the table
+	 */
+	public static final int UNKNOWN = Integer.MIN_VALUE;
+
+	// Identifies the file format ("MEDB")
+	static final int MAGIC = 0x4D454442;
+
+	// The file format version
+	static final int VERSION = 1;
+
+	// The number of bytes before the first value
+	static final int HEADER_SIZE = 16;
+
+	// The index used to locate each position
+	private final EndgameIndex mIndex;
+
+	// The values, starting at HEADER_SIZE
+	private final ByteBuffer mValues;
+
+	/**
+	 * Constructs a database over the given buffer
+	 *
+	 * @param index The index used to build the table
+	 *
+	 * @param values The file contents, including the header
+	 */
+	EndgameDatabase(EndgameIndex index, ByteBuffer values) {
+		mIndex = index;
+		mValues = values;
+	}
+
+	/**
+	 * Opens a database file by memory mapping it
+	 *
+	 * @param file The file written by the generator
+	 *
+	 * @return The database
+	 *
+	 * @throws IOException If the file cannot be read or is not a database
+	 */
+	public static EndgameDatabase open(File file) throws IOException {
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+		try {
+
+			FileChannel channel = raf.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+				throw new IOException("Not an endgame database: " + file);
+			}
+
+			EndgameIndex index = new EndgameIndex(buffer.getInt(8), buffer.getInt(12));
+
+			if (buffer.limit() != HEADER_SIZE + index.size()) {
+				throw new IOException("Truncated endgame database: " + file);
+			}
+
+			return new EndgameDatabase(index, buffer);
+
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * @return The largest number of seeds in play held by the table
+	 */
+	public int getMaxSeeds() {
+		return mIndex.getMaxSeeds();
+	}
+
+	/**
+	 * @return The number of hollows per player that the table was built for
+	 */
+	public int getHollowsPerPlayer() {
+		return mIndex.getHollowsPerPlayer();
+	}
+
+	/**
+	 * Determines whether the table holds the given position
+	 *
+	 * @param position The position to test
+	 *
+	 * @return True if the position can be probed
+	 */
+	public boolean covers(Position position) {
+		return position.getHollowsPerPlayer() == mIndex.getHollowsPerPlayer()
+				&& position.getSeedsInPlay() <= mIndex.getMaxSeeds();
+	}
+
+	/**
+	 * Returns the number of seeds left in play that the side to move will collect, less
+	 * the number its opponent will collect, with best play
+	 *
+	 * @param position The position to look up
+	 *
+	 * @return The value, or UNKNOWN if the position is not covered
+	 */
+	public int probe(Position position) {
+		if (!covers(position)) {
+			return UNKNOWN;
+		}
+		return mValues.get(HEADER_SIZE + (int) mIndex.indexOf(position));
+	}
+
+	/**
+	 * Returns the final difference in totals for the side to move, with best play
+	 *
+	 * @param position The position to look up
+	 *
+	 * @return The side to move's final total less its opponent's, or UNKNOWN if the
+	 *         position is not covered
+	 */
+	public int getFinalDifference(Position position) {
+		int value = probe(position);
+		if (value == UNKNOWN) {
+			return UNKNOWN;
+		}
+		return position.getStoreDifference(position.getSideToMove()) + value;
+	}
+
+	/**
+	 * Returns the move with the best exact result, if the position is covered
+	 *
+	 * @param position The position, which must not be over
+	 *
+	 * @return The best hollow to play, or NO_MOVE
+	 */
+	@Override
+	public int suggestMove(Position position) {
+
+		if (!covers(position) || position.isGameOver()) {
+			return NO_MOVE;
+		}
+
+		final int side = position.getSideToMove();
+		Position child = new Position(position.getHollowsPerPlayer());
+		int bestMove = NO_MOVE;
+		int bestValue = Integer.MIN_VALUE;
+
+		for (int move = 0; move < position.getHollowsPerPlayer(); move++) {
+
+			if (!position.isLegal(move)) {
+				continue;
+			}
+
+			child.copyFrom(position);
+			child.play(move);
+
+			int value;
+
+			if (child.isGameOver()) {
+				value = child.getTotalDifference(side);
+			} else {
+				value = getFinalDifference(child);
+				if (child.getSideToMove() != side) {
+					value = -value;
+				}
+			}
+
+			if (value > bestValue) {
+				bestValue = value;
+				bestMove = move;
+			}
+		}
+		return bestMove;
+	}
+}
@@ -0,0 +1,293 @@
+package com.axolotl.mancala.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Builds an EndgameDatabase by solving every position with up to a given number of
+ * seeds in play.
+ *
+ * Seeds only ever leave play, and a move that keeps the same number in play moves
+ * seeds strictly closer to the mover's store, so the positions form an acyclic graph.
+ * The table is therefore solved backwards one seed count at a time: every move that
+ * removes seeds leads to a level that is already complete, and the few moves that do
+ * not are solved on demand within the current level.  Each level is split into
+ * chunks that are solved in parallel.  Two threads may occasionally solve the same
+ * position, but as both write the same value this is harmless.
+ *
+ * Usage: EndgameDatabaseGenerator file maxSeeds [hollowsPerPlayer] [threads]
+ */
+public class EndgameDatabaseGenerator {
+
+	// Marks a value that has not been solved yet
+	private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+	// The number of positions solved by each task
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	// The index over the positions being solved
+	private final EndgameIndex mIndex;
+
+	// The solved values
+	private final byte[] mValues;
+
+	// The number of threads to solve with
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructs a new generator
+	 *
+	 * @param hollowsPerPlayer The number of hollows on each side of the board
+	 *
+	 * @param maxSeeds The largest number of seeds in play to solve
+	 */
+	public EndgameDatabaseGenerator(int hollowsPerPlayer, int maxSeeds) {
+
+		if (maxSeeds < 0 || maxSeeds > Byte.MAX_VALUE) {
+			throw new MancalaException("maxSeeds must be between 0 and " + Byte.MAX_VALUE);
+		}
+
+		mIndex = new EndgameIndex(hollowsPerPlayer, maxSeeds);
+
+		if (mIndex.size() > Integer.MAX_VALUE - EndgameDatabase.HEADER_SIZE) {
+			throw new MancalaException("Too many positions for " + maxSeeds + " seeds");
+		}
+
+		mValues = new byte[(int) mIndex.size()];
+	}
+
+	/**
+	 * Sets the number of threads used to solve each level
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * @return The number of positions in the table
+	 */
+	public long getPositionCount() {
+		return mIndex.size();
+	}
+
+	/**
+	 * Solves every position in the table
+	 */
+	public void generate() {
+
+		Arrays.fill(mValues, UNSOLVED);
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+
+			for (int seeds = 0; seeds <= mIndex.getMaxSeeds(); seeds++) {
+
+				List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+				long end = mIndex.getOffset(seeds + 1);
+
+				for (long start = mIndex.getOffset(seeds); start < end; start += CHUNK_SIZE) {
+					tasks.add(new Solver(start, Math.min(end, start + CHUNK_SIZE)));
+				}
+
+				// Wait for the whole level before starting the next
+				for (Future<Void> result : executor.invokeAll(tasks)) {
+					result.get();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Endgame generation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Endgame generation failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the generated table as a database, without writing it to disk
+	 *
+	 * @return The database
+	 */
+	public EndgameDatabase toDatabase() {
+		ByteBuffer buffer = ByteBuffer.allocate(EndgameDatabase.HEADER_SIZE + mValues.length);
+		writeHeader(buffer);
+		buffer.put(mValues);
+		return new EndgameDatabase(mIndex, buffer);
+	}
+
+	/**
+	 * Writes the generated table to a file that can be opened by EndgameDatabase
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(EndgameDatabase.HEADER_SIZE);
+			writeHeader(header);
+			output.write(header.array());
+			output.write(mValues);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Writes the file header into the buffer
+	 */
+	private void writeHeader(ByteBuffer buffer) {
+		buffer.putInt(EndgameDatabase.MAGIC);
+		buffer.putInt(EndgameDatabase.VERSION);
+		buffer.putInt(mIndex.getHollowsPerPlayer());
+		buffer.putInt(mIndex.getMaxSeeds());
+	}
+
+	/**
+	 * Solves a range of positions within a single level
+	 */
+	private class Solver implements Callable<Void> {
+
+		// The first index to solve
+		private final long mStart;
+
+		// The index after the last to solve
+		private final long mEnd;
+
+		// Scratch positions, one for each level of recursion
+		private final List<Position> mScratch = new ArrayList<Position>();
+
+		Solver(long start, long end) {
+			mStart = start;
+			mEnd = end;
+		}
+
+		@Override
+		public Void call() {
+			for (long index = mStart; index < mEnd; index++) {
+				solve((int) index, 0);
+			}
+			return null;
+		}
+
+		/**
+		 * Returns the value of the position with the given index, solving it first if
+		 * needed
+		 */
+		private int solve(int index, int depth) {
+
+			byte known = mValues[index];
+
+			if (known != UNSOLVED) {
+				return known;
+			}
+
+			Position position = getScratch(2 * depth);
+			Position child = getScratch(2 * depth + 1);
+			mIndex.fill(index, position);
+
+			int value;
+
+			if (position.isGameOver()) {
+
+				// Each player keeps the seeds on their own side
+				value = position.getSeedsOnSide(0) - position.getSeedsOnSide(1);
+
+			} else {
+
+				value = Integer.MIN_VALUE;
+
+				for (int move = 0; move < position.getHollowsPerPlayer(); move++) {
+
+					if (!position.isLegal(move)) {
+						continue;
+					}
+
+					child.copyFrom(position);
+					child.play(move);
+
+					int outcome = child.getStoreSeeds(0) - child.getStoreSeeds(1);
+
+					if (child.isGameOver()) {
+						outcome += child.getSeedsOnSide(0) - child.getSeedsOnSide(1);
+					} else {
+
+						int childIndex = (int) mIndex.indexOf(child);
+						boolean extraTurn = child.getSideToMove() == 0;
+						int childValue = solve(childIndex, depth + 1);
+						outcome += extraTurn ? childValue : -childValue;
+					}
+
+					value = Math.max(value, outcome);
+				}
+			}
+
+			mValues[index] = (byte) value;
+			return value;
+		}
+
+		/**
+		 * Returns the scratch position for the given slot, creating it if needed
+		 */
+		private Position getScratch(int slot) {
+			while (mScratch.size() <= slot) {
+				mScratch.add(new Position(mIndex.getHollowsPerPlayer()));
+			}
+			return mScratch.get(slot);
+		}
+	}
+
+	/**
+	 * Generates a database file from the command line
+	 *
+	 * @param args The file, maximum seeds, and optionally the hollows per player and
+	 *        number of threads
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 2) {
+			System.err.println("Usage: EndgameDatabaseGenerator file maxSeeds [hollowsPerPlayer] [threads]");
+			System.exit(1);
+		}
+
+		int maxSeeds = Integer.parseInt(args[1]);
+		int hollows = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+
+		EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(hollows, maxSeeds);
+
+		if (args.length > 3) {
+			generator.setThreads(Integer.parseInt(args[3]));
+		}
+
+		long start = System.currentTimeMillis();
+		generator.generate();
+		generator.write(new File(args[0]));
+
+		System.out.println("Solved " + generator.getPositionCount() + " positions in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+}
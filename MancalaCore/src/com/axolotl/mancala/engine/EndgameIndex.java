@@ -0,0 +1,160 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Maps the hollow contents of a position to a dense index, using the combinatorial
+ * number system.
+ *
+ * The hollows are read from the point of view of the side to move (its own hollows
+ * first, then the opponent's), and the stores are ignored.  Positions are grouped by
+ * the number of seeds in play, so every position with k seeds has a lower index than
+ * any position with k + 1 seeds.
+ */
+class EndgameIndex {
+
+	// The number of hollows on each side
+	private final int mHollows;
+
+	// The number of hollows on the whole board
+	private final int mCells;
+
+	// The largest number of seeds indexed
+	private final int mMaxSeeds;
+
+	// mWays[s][p] is the number of ways of placing s seeds into p hollows
+	private final long[][] mWays;
+
+	// The index of the first position with k seeds in play
+	private final long[] mOffsets;
+
+	/**
+	 * Constructs a new index
+	 *
+	 * @param hollowsPerPlayer The number of hollows on each side
+	 *
+	 * @param maxSeeds The largest number of seeds in play to index
+	 */
+	EndgameIndex(int hollowsPerPlayer, int maxSeeds) {
+
+		mHollows = hollowsPerPlayer;
+		mCells = 2 * hollowsPerPlayer;
+		mMaxSeeds = maxSeeds;
+		mWays = new long[maxSeeds + 1][mCells + 1];
+
+		for (int s = 0; s <= maxSeeds; s++) {
+			mWays[s][1] = 1;
+			for (int p = 2; p <= mCells; p++) {
+				// Either the first hollow is empty, or it holds at least one seed
+				mWays[s][p] = mWays[s][p - 1] + (s > 0 ? mWays[s - 1][p] : 0);
+			}
+		}
+
+		mOffsets = new long[maxSeeds + 2];
+		for (int k = 0; k <= maxSeeds; k++) {
+			mOffsets[k + 1] = mOffsets[k] + mWays[k][mCells];
+		}
+	}
+
+	/**
+	 * @return The largest number of seeds in play that is indexed
+	 */
+	int getMaxSeeds() {
+		return mMaxSeeds;
+	}
+
+	/**
+	 * @return The number of hollows on each side
+	 */
+	int getHollowsPerPlayer() {
+		return mHollows;
+	}
+
+	/**
+	 * @return The total number of positions indexed
+	 */
+	long size() {
+		return mOffsets[mMaxSeeds + 1];
+	}
+
+	/**
+	 * Returns the index of the first position with the given number of seeds in play
+	 *
+	 * @param seeds The number of seeds, up to getMaxSeeds() + 1
+	 *
+	 * @return The index
+	 */
+	long getOffset(int seeds) {
+		return mOffsets[seeds];
+	}
+
+	/**
+	 * Returns the index of a position, which must have no more than getMaxSeeds() seeds
+	 * in play
+	 *
+	 * @param position The position to index
+	 *
+	 * @return The index
+	 */
+	long indexOf(Position position) {
+
+		final int side = position.getSideToMove();
+		int remaining = position.getSeedsInPlay();
+		long index = mOffsets[remaining];
+
+		for (int i = 0; i < mCells - 1; i++) {
+
+			int seeds = i < mHollows ? position.getHollowSeeds(side, i)
+					: position.getHollowSeeds(1 - side, i - mHollows);
+
+			// Skip every arrangement that puts fewer seeds in this hollow
+			for (int v = 0; v < seeds; v++) {
+				index += mWays[remaining - v][mCells - i - 1];
+			}
+			remaining -= seeds;
+		}
+		return index;
+	}
+
+	/**
+	 * Sets the hollows of the position to those given by the index, with player one to
+	 * move and both stores empty
+	 *
+	 * @param index The index of the position
+	 *
+	 * @param position The position to fill in
+	 */
+	void fill(long index, Position position) {
+
+		int seeds = 0;
+		while (index >= mOffsets[seeds + 1]) {
+			seeds++;
+		}
+
+		long rank = index - mOffsets[seeds];
+		int remaining = seeds;
+
+		for (int i = 0; i < mCells - 1; i++) {
+
+			int v = 0;
+			while (rank >= mWays[remaining - v][mCells - i - 1]) {
+				rank -= mWays[remaining - v][mCells - i - 1];
+				v++;
+			}
+
+			position.setSeeds(toCell(i), v);
+			remaining -= v;
+		}
+
+		position.setSeeds(toCell(mCells - 1), remaining);
+		position.setSeeds(mHollows, 0);
+		position.setSeeds(2 * mHollows + 1, 0);
+		position.setSideToMove(0);
+	}
+
+	/**
+	 * Converts an index hollow number (player one's hollows then player two's) to a
+	 * board cell
+	 */
+	private int toCell(int hollow) {
+		return hollow < mHollows ? hollow : hollow + 1;
+	}
+}
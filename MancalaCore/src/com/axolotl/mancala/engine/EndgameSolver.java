@@ -0,0 +1,358 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Solves positions with few seeds left in play exactly, by searching every line to
+ * the end of the game.
+ *
+ * The stores never affect the play, so the solver works on the seeds left in the
+ * hollows: the value of a position is the number of those seeds the side to move
+ * will collect, less the number its opponent will collect.  Each child's stores are
+ * emptied before it is searched, which lets positions reached with different store
+ * counts share one entry in the memo table.  Because the values are exact they stay
+ * valid for the rest of the game, so the memo is kept from one solve to the next.
+ *
+ * A solve that runs out of budget reports that it is not proven, and as an oracle the
+ * solver then leaves the move to the player.
+ *
+ * A solver instance is not thread safe.
+ */
+public class EndgameSolver implements MoveOracle {
+
+	/**
+	 * The number of seeds in play at or below which the solver takes over by default
+	 */
+	public static final int DEFAULT_THRESHOLD = 24;
+
+	/**
+	 * The node budget used by default, enough to finish well within a normal move
+	 */
+	public static final long DEFAULT_NODE_LIMIT = 1000000;
+
+	// The size of the memo table in megabytes
+	private static final int TABLE_MEGABYTES = 4;
+
+	// The number of nodes between checks of the clock
+	private static final int CHECK_INTERVAL = 4096;
+
+	// The seeds in play at or below which suggestMove solves
+	private final int mThreshold;
+
+	// The node budget, or 0 for none
+	private final long mNodeLimit;
+
+	// The time budget in milliseconds, or 0 for none
+	private long mTimeLimit;
+
+	// The memo of solved values, keyed by the position with empty stores
+	private final TranspositionTable mTable;
+
+	// Exact values for the smallest positions, if available
+	private EndgameDatabase mDatabase;
+
+	// The position at each ply
+	private Position[] mStack;
+
+	// The moves generated at each ply
+	private int[][] mMoves;
+
+	// The ordering keys for the moves at each ply
+	private int[][] mOrder;
+
+	// The best move found at the root
+	private int mRootMove;
+
+	// The number of nodes visited by the current solve
+	private long mNodes;
+
+	// The deepest ply reached by the current solve
+	private int mMaxPly;
+
+	// The time at which the current solve must stop
+	private long mDeadline;
+
+	// Set when the current solve has run out of budget
+	private boolean mStopped;
+
+	// The result of the last solve
+	private SearchResult mLastResult;
+
+	/**
+	 * Constructs a solver with the default threshold and budget
+	 */
+	public EndgameSolver() {
+		this(DEFAULT_THRESHOLD, DEFAULT_NODE_LIMIT);
+	}
+
+	/**
+	 * Constructs a new solver
+	 *
+	 * @param threshold The number of seeds in play at or below which the solver
+	 *        suggests moves
+	 *
+	 * @param nodeLimit The most nodes a single solve may visit, or 0 for no limit
+	 */
+	public EndgameSolver(int threshold, long nodeLimit) {
+		mThreshold = threshold;
+		mNodeLimit = nodeLimit;
+		mTable = TranspositionTable.withMegabytes(TABLE_MEGABYTES);
+	}
+
+	/**
+	 * Sets the maximum time a single solve may take.  A solve also gives up if its
+	 * thread is interrupted.
+	 *
+	 * @param millis The budget in milliseconds, or 0 for none
+	 */
+	public void setTimeLimit(long millis) {
+		mTimeLimit = millis;
+	}
+
+	/**
+	 * Sets a database of exact values used to cut the search short
+	 *
+	 * @param database The database, or null for none
+	 */
+	public void setEndgameDatabase(EndgameDatabase database) {
+		mDatabase = database;
+	}
+
+	/**
+	 * @return The number of seeds in play at or below which the solver suggests moves
+	 */
+	public int getThreshold() {
+		return mThreshold;
+	}
+
+	/**
+	 * @return The result of the last solve, or null if there has not been one
+	 */
+	public SearchResult getLastResult() {
+		return mLastResult;
+	}
+
+	/**
+	 * Returns the proven best move once few enough seeds are in play
+	 *
+	 * @param position The position, with the computer to move
+	 *
+	 * @return The hollow to play, or NO_MOVE if the position has too many seeds or
+	 *         could not be solved within the budget
+	 */
+	@Override
+	public int suggestMove(Position position) {
+
+		if (position.isGameOver() || position.getSeedsInPlay() > mThreshold) {
+			return NO_MOVE;
+		}
+
+		SearchResult result = solve(position);
+		return result.isProven() ? result.getMove() : NO_MOVE;
+	}
+
+	/**
+	 * Searches the position to the end of the game
+	 *
+	 * @param root The position to solve, which must not be over
+	 *
+	 * @return The move that maximises the final difference in totals, with the score
+	 *         being that difference in hundredths of a seed.  The result is proven
+	 *         unless the budget ran out, in which case the move is NO_MOVE.
+	 */
+	public SearchResult solve(Position root) {
+
+		prepare(root);
+
+		final int side = root.getSideToMove();
+		final int bound = root.getSeedsInPlay() + 1;
+		final int value = solve(mStack[0], -bound, bound, 0);
+
+		if (mStopped) {
+			mLastResult = new SearchResult(NO_MOVE, 0, mMaxPly, mNodes, false);
+		} else {
+			int difference = root.getStoreDifference(side) + value;
+			mLastResult = new SearchResult(mRootMove, Evaluator.SEED * difference, mMaxPly, mNodes, true);
+		}
+		return mLastResult;
+	}
+
+	/**
+	 * Resets the counters and copies the root into the stack with its stores emptied
+	 */
+	private void prepare(Position root) {
+
+		if (mStack == null || mStack[0].getHollowsPerPlayer() != root.getHollowsPerPlayer()) {
+
+			int hollows = root.getHollowsPerPlayer();
+			mStack = new Position[AlphaBetaSearch.MAX_PLY + 1];
+			mMoves = new int[AlphaBetaSearch.MAX_PLY + 1][hollows];
+			mOrder = new int[AlphaBetaSearch.MAX_PLY + 1][hollows];
+
+			for (int i = 0; i < mStack.length; i++) {
+				mStack[i] = new Position(hollows);
+			}
+
+			mTable.clear();
+		}
+
+		mStack[0].copyFrom(root);
+		emptyStores(mStack[0]);
+
+		mRootMove = NO_MOVE;
+		mNodes = 0;
+		mMaxPly = 0;
+		mStopped = false;
+		mDeadline = mTimeLimit > 0 ? System.currentTimeMillis() + mTimeLimit : Long.MAX_VALUE;
+	}
+
+	/**
+	 * The recursive search, returning the value of the seeds in the hollows for the
+	 * side to move.  The position's stores are always empty.
+	 */
+	private int solve(Position position, int alpha, int beta, int ply) {
+
+		if (++mNodes % CHECK_INTERVAL == 0
+				&& (System.currentTimeMillis() > mDeadline || Thread.currentThread().isInterrupted())) {
+			mStopped = true;
+		}
+
+		// Running out of stack leaves the line unsolved, so it counts as out of budget
+		if (mStopped || (mNodeLimit > 0 && mNodes > mNodeLimit) || ply >= AlphaBetaSearch.MAX_PLY) {
+			mStopped = true;
+			return 0;
+		}
+
+		if (ply > mMaxPly) {
+			mMaxPly = ply;
+		}
+
+		final int side = position.getSideToMove();
+
+		if (ply > 0 && mDatabase != null && mDatabase.covers(position)) {
+			return mDatabase.probe(position);
+		}
+
+		final long hash = position.hash();
+		final long entry = mTable.probe(hash);
+		int hashMove = NO_MOVE;
+
+		if (entry != TranspositionTable.MISSING) {
+
+			hashMove = TranspositionTable.getMove(entry);
+
+			if (ply > 0) {
+
+				int stored = TranspositionTable.getScore(entry);
+				int bound = TranspositionTable.getBound(entry);
+
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+					return stored;
+				}
+			}
+		}
+
+		final int[] moves = mMoves[ply];
+		final int count = orderMoves(position, moves, mOrder[ply], hashMove);
+		final Position child = mStack[ply + 1];
+		final int originalAlpha = alpha;
+
+		int bestValue = Integer.MIN_VALUE;
+		int bestMove = moves[0];
+
+		for (int i = 0; i < count; i++) {
+
+			child.copyFrom(position);
+			child.play(moves[i]);
+
+			// The seeds this move puts in the stores are banked, and the rest is searched
+			int gain = child.getStoreDifference(side);
+			int value;
+
+			if (child.isGameOver()) {
+				value = gain + child.getSeedsOnSide(side) - child.getSeedsOnSide(1 - side);
+			} else {
+				emptyStores(child);
+
+				if (child.getSideToMove() == side) {
+					value = gain + solve(child, alpha - gain, beta - gain, ply + 1);
+				} else {
+					value = gain - solve(child, gain - beta, gain - alpha, ply + 1);
+				}
+			}
+
+			if (mStopped) {
+				return 0;
+			}
+
+			if (value > bestValue) {
+				bestValue = value;
+				bestMove = moves[i];
+
+				if (value > alpha) {
+					alpha = value;
+
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = bestValue <= originalAlpha ? TranspositionTable.UPPER_BOUND
+				: (bestValue >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT);
+
+		mTable.store(hash, bestMove, 0, bound, bestValue);
+
+		if (ply == 0) {
+			mRootMove = bestMove;
+		}
+
+		return bestValue;
+	}
+
+	/**
+	 * Generates the legal moves, ordered with the memo move first, then extra turns,
+	 * then captures
+	 *
+	 * @return The number of moves
+	 */
+	private static int orderMoves(Position position, int[] moves, int[] keys, int hashMove) {
+
+		int count = position.getLegalMoves(moves);
+
+		for (int i = 0; i < count; i++) {
+
+			int move = moves[i];
+			int key = move;
+
+			if (move == hashMove) {
+				key += 1000;
+			} else if (position.isExtraTurnMove(move)) {
+				key += 500;
+			} else if (position.isCaptureMove(move)) {
+				key += 250;
+			}
+
+			// Insertion sort, highest key first
+			int j = i;
+			while (j > 0 && keys[j - 1] < key) {
+				keys[j] = keys[j - 1];
+				moves[j] = moves[j - 1];
+				j--;
+			}
+			keys[j] = key;
+			moves[j] = move;
+		}
+		return count;
+	}
+
+	/**
+	 * Empties both stores, leaving the seeds in the hollows
+	 */
+	private static void emptyStores(Position position) {
+		int hollows = position.getHollowsPerPlayer();
+		position.setSeeds(hollows, 0);
+		position.setSeeds(2 * hollows + 1, 0);
+	}
+}
@@ -0,0 +1,45 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * A move chosen by the EngineService, with the work done by the search that chose it
+ */
+public class EngineMove {
+
+	// The hollow to play relative to the side to move
+	private final int mMove;
+
+	// The work done by the search, or null if an oracle chose the move
+	private final SearchStatistics mStatistics;
+
+	/**
+	 * Constructs a new move
+	 *
+	 * @param move The hollow to play relative to the side to move
+	 *
+	 * @param statistics The work done by the search, or null if an oracle chose the move
+	 */
+	public EngineMove(int move, SearchStatistics statistics) {
+		mMove = move;
+		mStatistics = statistics;
+	}
+
+	/**
+	 * @return The hollow to play relative to the side to move
+	 */
+	public int getMove() {
+		return mMove;
+	}
+
+	/**
+	 * @return The work done by the search that chose the move, or null if an oracle
+	 *         chose it without searching
+	 */
+	public SearchStatistics getStatistics() {
+		return mStatistics;
+	}
+
+	@Override
+	public String toString() {
+		return "move " + mMove + (mStatistics != null ? " " + mStatistics : "");
+	}
+}
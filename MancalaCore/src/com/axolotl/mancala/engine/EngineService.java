@@ -0,0 +1,211 @@
+package com.axolotl.mancala.engine;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.game.Difficulty;
+
+/**
+ * Chooses computer moves for any number of games from a fixed pool of worker threads,
+ * so that a server running thousands of games at once does not need a search, a
+ * transposition table and an endgame solver for each of them.
+ *
+ * All the workers share one transposition table, which needs no locking, and the
+ * oracles added to the service, which must be safe to use from several threads at
+ * once, as the endgame database and opening book are.  Each worker keeps its own
+ * search and endgame solver.  A request carries only the position and the difficulty,
+ * so the memory used does not grow with the number of games.
+ *
+ * Each move searches within the node budget of its difficulty level, as the
+ * AlphaBetaPlayer does, and hard games are finished by the endgame solver.  Each level
+ * keys its entries in the table differently, so an easy search never finds the deeper
+ * entries of a hard one and plays above its level.  As the table is shared and never
+ * cleared, a move can depend on what other games at its level have searched, so unlike
+ * a single budgeted player the service is not repeatable.
+ */
+public class EngineService {
+
+	/**
+	 * The size of the shared transposition table used by default, in megabytes
+	 */
+	public static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+	// Runs the requests
+	private final ExecutorService mExecutor;
+
+	// The transposition table shared by every worker
+	private final TranspositionTable mTable;
+
+	// The oracles consulted before searching, shared by every worker
+	private final List<MoveOracle> mOracles = new CopyOnWriteArrayList<MoveOracle>();
+
+	// The search and solver of each worker thread
+	private final ThreadLocal<Worker> mWorkers = new ThreadLocal<Worker>() {
+		@Override
+		protected Worker initialValue() {
+			return new Worker(mTable);
+		}
+	};
+
+	// The number of moves chosen
+	private final AtomicInteger mRequests = new AtomicInteger();
+
+	// Adds up the work done by the workers' searches
+	private final StatisticsRegistry mStatistics = new StatisticsRegistry();
+
+	/**
+	 * Constructs a service with a table of the default size
+	 *
+	 * @param threads The number of worker threads
+	 */
+	public EngineService(int threads) {
+		this(threads, TranspositionTable.withMegabytes(DEFAULT_TABLE_MEGABYTES));
+	}
+
+	/**
+	 * Constructs a service
+	 *
+	 * @param threads The number of worker threads
+	 *
+	 * @param table The transposition table shared by the workers
+	 */
+	public EngineService(int threads, TranspositionTable table) {
+
+		mTable = table;
+
+		// Daemon threads, so an idle service does not keep the process alive
+		mExecutor = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+
+			private final AtomicInteger mCount = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "engine-" + mCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Adds an oracle that is asked for a move before searching.  The oracle is used
+	 * by every worker at once, so it must be thread safe.
+	 *
+	 * @param oracle The oracle to add
+	 */
+	public void addOracle(MoveOracle oracle) {
+		mOracles.add(oracle);
+	}
+
+	/**
+	 * @return The transposition table shared by the workers
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return mTable;
+	}
+
+	/**
+	 * @return The number of moves chosen so far
+	 */
+	public int getRequestCount() {
+		return mRequests.get();
+	}
+
+	/**
+	 * @return The totals of the work done by the searches so far
+	 */
+	public StatisticsRegistry getStatistics() {
+		return mStatistics;
+	}
+
+	/**
+	 * Asks for a move to be chosen by the next free worker.  Cancelling the future
+	 * with interruption stops the search.
+	 *
+	 * @param position The position to move from, which must not be over.  It is copied,
+	 *        so the caller may change it once this returns.
+	 *
+	 * @param level The difficulty level to play at
+	 *
+	 * @return The hollow to play relative to the side to move, with the work done by
+	 *         the search that chose it, once it is chosen
+	 */
+	public Future<EngineMove> requestMove(Position position, final Difficulty level) {
+
+		if (position.isGameOver()) {
+			throw new IllegalArgumentException("The game is over");
+		}
+
+		final Position root = position.copy();
+
+		return mExecutor.submit(new Callable<EngineMove>() {
+			public EngineMove call() {
+				mRequests.incrementAndGet();
+				return mWorkers.get().chooseMove(root, level, mOracles, mStatistics);
+			}
+		});
+	}
+
+	/**
+	 * Stops accepting requests.  Requests already made are still answered.
+	 */
+	public void shutdown() {
+		mExecutor.shutdown();
+	}
+
+	/**
+	 * The search and solver owned by one worker thread
+	 */
+	private static class Worker {
+
+		// Searches the positions, sharing the service's table
+		private final AlphaBetaSearch mSearch;
+
+		// Finishes hard games exactly
+		private final EndgameSolver mSolver = new EndgameSolver();
+
+		Worker(TranspositionTable table) {
+			mSearch = new AlphaBetaSearch(table, new StoreEvaluator());
+			mSearch.setSearchByTurns(true);
+			mSearch.setQuiescence(true);
+		}
+
+		EngineMove chooseMove(Position position, Difficulty level, List<MoveOracle> oracles,
+				StatisticsRegistry statistics) {
+
+			for (MoveOracle oracle : oracles) {
+				int move = oracle.suggestMove(position);
+				if (move != MoveOracle.NO_MOVE) {
+					return new EngineMove(move, null);
+				}
+			}
+
+			if (level == Difficulty.Hard) {
+				int move = mSolver.suggestMove(position);
+				if (move != MoveOracle.NO_MOVE) {
+					return new EngineMove(move, null);
+				}
+			}
+
+			mSearch.setNodeLimit(level.getNodeBudget());
+			mSearch.setTableKey(getTableKey(level));
+			int move = mSearch.search(position, AlphaBetaSearch.MAX_PLY - 1).getMove();
+
+			statistics.record(mSearch.getStatistics());
+			return new EngineMove(move, mSearch.getStatistics());
+		}
+
+		/**
+		 * Returns the value that keeps a level's entries in the shared table apart from
+		 * the other levels'
+		 */
+		private static long getTableKey(Difficulty level) {
+			return (level.ordinal() + 1) * 0x9E3779B97F4A7C15L;
+		}
+	}
+}
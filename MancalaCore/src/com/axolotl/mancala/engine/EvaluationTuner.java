@@ -0,0 +1,409 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Fits the weights of a WeightedEvaluator to the results of self-play games.
+ *
+ * The games are played in parallel by a SelfPlayGenerator.  Every position reached by
+ * the search is labelled with the result of its game for the side to move: 1 for a win,
+ * a half for a draw and 0 for a loss.
+ *
+ * The weights are then fitted by minimising the logistic loss of the predicted result,
+ * 1 / (1 + e^-(k * score)), against the labels, in the manner of Texel tuning.  The
+ * store weight is held at one seed, so the fitted scores stay comparable with the exact
+ * scores of finished games.  The scale k is fitted first with only the stores counted,
+ * then the other weights are fitted by Newton's method with k held fixed.
+ *
+ * Usage: EvaluationTuner file [games] [nodes] [threads]
+ */
+public class EvaluationTuner {
+
+	// The most Newton steps taken by a fit
+	private static final int MAX_ITERATIONS = 50;
+
+	// A fit stops once no weight changes by more than this many seeds
+	private static final double TOLERANCE = 1e-6;
+
+	// Keeps the weights of rare features from growing without bound
+	private static final double REGULARISATION = 1e-4;
+
+	// Plays the games
+	private final SelfPlayGenerator mGenerator;
+
+	// The features of each labelled position, FEATURES to a position
+	private int[] mFeatures;
+
+	// The result of each labelled position for the side to move
+	private double[] mLabels;
+
+	// The fitted scale from score in seeds to the logit of the result
+	private double mScale;
+
+	// The loss with only the stores counted, and after the fit
+	private double mInitialLoss;
+	private double mFinalLoss;
+
+	/**
+	 * Constructs a tuner for the given board
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param seedsPerHollow The seeds initially in each hollow
+	 */
+	public EvaluationTuner(int hollowsPerPlayer, int seedsPerHollow) {
+		mGenerator = new SelfPlayGenerator(hollowsPerPlayer, seedsPerHollow);
+	}
+
+	/**
+	 * Sets the number of self-play games
+	 *
+	 * @param games The number of games
+	 */
+	public void setGames(int games) {
+		mGenerator.setGames(games);
+	}
+
+	/**
+	 * Sets the nodes searched for each self-play move
+	 *
+	 * @param nodes The node budget
+	 */
+	public void setNodeBudget(int nodes) {
+		mGenerator.setNodeBudget(nodes);
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of each game.  Positions
+	 * reached by random moves are not labelled.
+	 *
+	 * @param plies The number of random moves
+	 */
+	public void setRandomPlies(int plies) {
+		mGenerator.setRandomPlies(plies);
+	}
+
+	/**
+	 * Sets the number of threads used to play the games
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mGenerator.setThreads(threads);
+	}
+
+	/**
+	 * Sets the seed for the random opening moves.  The same seed gives the same games
+	 * whatever the number of threads.
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mGenerator.setSeed(seed);
+	}
+
+	/**
+	 * @return The number of labelled positions
+	 */
+	public int size() {
+		return mLabels == null ? 0 : mLabels.length;
+	}
+
+	/**
+	 * @return The fitted scale from a score in seeds to the logit of the result
+	 */
+	public double getScale() {
+		return mScale;
+	}
+
+	/**
+	 * @return The mean loss with only the stores counted
+	 */
+	public double getInitialLoss() {
+		return mInitialLoss;
+	}
+
+	/**
+	 * @return The mean loss with the fitted weights
+	 */
+	public double getFinalLoss() {
+		return mFinalLoss;
+	}
+
+	/**
+	 * Plays the self-play games and labels their positions
+	 */
+	public void generate() {
+
+		mGenerator.generate();
+
+		int count = mGenerator.size();
+		mFeatures = new int[count * WeightedEvaluator.FEATURES];
+		mLabels = new double[count];
+
+		int[] features = new int[WeightedEvaluator.FEATURES];
+
+		for (int i = 0; i < count; i++) {
+
+			WeightedEvaluator.extractFeatures(mGenerator.getPosition(i), features);
+			System.arraycopy(features, 0, mFeatures, i * WeightedEvaluator.FEATURES, features.length);
+
+			int result = mGenerator.getResult(i);
+			mLabels[i] = result > 0 ? 1 : (result < 0 ? 0 : 0.5);
+		}
+	}
+
+	/**
+	 * Fits the weights to the labelled positions
+	 *
+	 * @return An evaluator with the fitted weights
+	 */
+	public WeightedEvaluator fit() {
+
+		if (mLabels == null) {
+			throw new MancalaException("No positions have been generated");
+		}
+
+		final int n = WeightedEvaluator.FEATURES;
+		double[] weights = new double[n];
+		weights[WeightedEvaluator.STORES] = 1;
+
+		mScale = fitScale();
+		mInitialLoss = getLoss(weights);
+
+		double[] gradient = new double[n];
+		double[][] hessian = new double[n][n];
+
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+
+			accumulate(weights, gradient, hessian);
+
+			// The store weight is fixed, so its row and column are left out
+			double[][] a = new double[n - 1][n - 1];
+			double[] b = new double[n - 1];
+
+			for (int i = 1; i < n; i++) {
+				b[i - 1] = gradient[i] + REGULARISATION * weights[i];
+				for (int j = 1; j < n; j++) {
+					a[i - 1][j - 1] = hessian[i][j] + (i == j ? REGULARISATION : 0);
+				}
+			}
+
+			double[] step = solve(a, b);
+			double largest = 0;
+
+			for (int i = 1; i < n; i++) {
+				weights[i] -= step[i - 1];
+				largest = Math.max(largest, Math.abs(step[i - 1]));
+			}
+
+			if (largest < TOLERANCE) {
+				break;
+			}
+		}
+
+		mFinalLoss = getLoss(weights);
+
+		int[] fitted = new int[n];
+		for (int i = 0; i < n; i++) {
+			fitted[i] = (int) Math.round(Evaluator.SEED * weights[i]);
+		}
+		fitted[WeightedEvaluator.STORES] = Evaluator.SEED;
+
+		return new WeightedEvaluator(fitted);
+	}
+
+	/**
+	 * Fits the scale by Newton's method with only the stores counted
+	 */
+	private double fitScale() {
+
+		double scale = 0.1;
+
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+
+			double gradient = 0;
+			double curvature = 0;
+
+			for (int i = 0; i < mLabels.length; i++) {
+				double stores = mFeatures[i * WeightedEvaluator.FEATURES + WeightedEvaluator.STORES];
+				double p = sigmoid(scale * stores);
+				gradient += (p - mLabels[i]) * stores;
+				curvature += p * (1 - p) * stores * stores;
+			}
+
+			if (curvature <= 0) {
+				break;
+			}
+
+			double step = gradient / curvature;
+			scale -= step;
+
+			if (Math.abs(step) < TOLERANCE) {
+				break;
+			}
+		}
+		return scale;
+	}
+
+	/**
+	 * Computes the mean gradient and Hessian of the loss with respect to the weights
+	 */
+	private void accumulate(double[] weights, double[] gradient, double[][] hessian) {
+
+		final int n = weights.length;
+
+		for (int i = 0; i < n; i++) {
+			gradient[i] = 0;
+			for (int j = 0; j < n; j++) {
+				hessian[i][j] = 0;
+			}
+		}
+
+		for (int s = 0; s < mLabels.length; s++) {
+
+			int offset = s * n;
+			double p = sigmoid(mScale * score(weights, offset));
+			double error = (p - mLabels[s]) * mScale;
+			double curvature = p * (1 - p) * mScale * mScale;
+
+			for (int i = 0; i < n; i++) {
+				double fi = mFeatures[offset + i];
+				gradient[i] += error * fi;
+				for (int j = 0; j < n; j++) {
+					hessian[i][j] += curvature * fi * mFeatures[offset + j];
+				}
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			gradient[i] /= mLabels.length;
+			for (int j = 0; j < n; j++) {
+				hessian[i][j] /= mLabels.length;
+			}
+		}
+	}
+
+	/**
+	 * Returns the mean logistic loss of the given weights, which are in seeds
+	 */
+	private double getLoss(double[] weights) {
+
+		double loss = 0;
+
+		for (int s = 0; s < mLabels.length; s++) {
+
+			// Clamp the prediction so that a confident miss does not give an infinite loss
+			double p = Math.min(1 - 1e-12, Math.max(1e-12, sigmoid(mScale * score(weights, s * weights.length))));
+			loss -= mLabels[s] * Math.log(p) + (1 - mLabels[s]) * Math.log(1 - p);
+		}
+		return loss / mLabels.length;
+	}
+
+	/**
+	 * Returns the score in seeds of the labelled position starting at the given offset
+	 */
+	private double score(double[] weights, int offset) {
+		double score = 0;
+		for (int i = 0; i < weights.length; i++) {
+			score += weights[i] * mFeatures[offset + i];
+		}
+		return score;
+	}
+
+	/**
+	 * The logistic function
+	 */
+	private static double sigmoid(double x) {
+		return 1 / (1 + Math.exp(-x));
+	}
+
+	/**
+	 * Solves a small linear system by Gaussian elimination with partial pivoting
+	 */
+	private static double[] solve(double[][] a, double[] b) {
+
+		final int n = b.length;
+
+		for (int column = 0; column < n; column++) {
+
+			int pivot = column;
+			for (int row = column + 1; row < n; row++) {
+				if (Math.abs(a[row][column]) > Math.abs(a[pivot][column])) {
+					pivot = row;
+				}
+			}
+
+			double[] swapRow = a[column];
+			a[column] = a[pivot];
+			a[pivot] = swapRow;
+
+			double swap = b[column];
+			b[column] = b[pivot];
+			b[pivot] = swap;
+
+			for (int row = column + 1; row < n; row++) {
+				double factor = a[row][column] / a[column][column];
+				for (int k = column; k < n; k++) {
+					a[row][k] -= factor * a[column][k];
+				}
+				b[row] -= factor * b[column];
+			}
+		}
+
+		double[] x = new double[n];
+
+		for (int row = n - 1; row >= 0; row--) {
+			double sum = b[row];
+			for (int k = row + 1; k < n; k++) {
+				sum -= a[row][k] * x[k];
+			}
+			x[row] = sum / a[row][row];
+		}
+		return x;
+	}
+
+	/**
+	 * Tunes the weights for the standard board from the command line
+	 *
+	 * @param args The weights file to write, and optionally the number of games, the
+	 *        nodes per move and the number of threads
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.err.println("Usage: EvaluationTuner file [games] [nodes] [threads]");
+			System.exit(1);
+		}
+
+		EvaluationTuner tuner = new EvaluationTuner(6, 4);
+
+		if (args.length > 1) {
+			tuner.setGames(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			tuner.setNodeBudget(Integer.parseInt(args[2]));
+		}
+		if (args.length > 3) {
+			tuner.setThreads(Integer.parseInt(args[3]));
+		}
+
+		long start = System.currentTimeMillis();
+		tuner.generate();
+
+		System.out.println("Labelled " + tuner.size() + " positions in "
+				+ (System.currentTimeMillis() - start) + "ms");
+
+		WeightedEvaluator evaluator = tuner.fit();
+		evaluator.write(new File(args[0]), "Fitted to " + tuner.size() + " positions");
+
+		System.out.println("Loss " + tuner.getInitialLoss() + " to " + tuner.getFinalLoss() + " with scale "
+				+ tuner.getScale());
+		System.out.println(evaluator);
+	}
+}
@@ -0,0 +1,26 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Estimates how good a position is for the side to move, for use at the leaves of a
+ * search.
+ *
+ * Scores are measured in hundredths of a seed, so that a finished game scores
+ * SEED times the final difference in totals.
+ */
+public interface Evaluator {
+
+	/**
+	 * The score of a single seed
+	 */
+	int SEED = 100;
+
+	/**
+	 * Returns the score of a position that is not over, from the point of view of the
+	 * side to move
+	 *
+	 * @param position The position to score
+	 *
+	 * @return The score in hundredths of a seed
+	 */
+	int evaluate(Position position);
+}
@@ -0,0 +1,296 @@
+package com.axolotl.mancala.engine;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Scores every move in a position to suggest moves to human players.
+ *
+ * Each move is scored by a node limited alpha-beta search of the position it leads
+ * to.  The analyses are kept in a cache of limited size keyed by position, dropping
+ * the least recently used, as players often reach the same positions.  Positions not
+ * in the cache are analysed on a background thread, and a caller that cannot wait for
+ * the analysis to finish is told it is not ready yet, while the analysis carries on
+ * and is cached for the next request.
+ *
+ * The service is thread safe and can be shared between games.
+ */
+public class HintService {
+
+	/**
+	 * The score given to a hollow that cannot be played
+	 */
+	public static final int ILLEGAL = Integer.MIN_VALUE;
+
+	/**
+	 * The number of positions cached by default
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * The nodes searched for each move by default
+	 */
+	public static final int DEFAULT_NODES_PER_MOVE = 20000;
+
+	// The size of the transposition table
+	private static final int TABLE_ENTRIES = 1 << 16;
+
+	// The service shared by games that are not given one
+	private static HintService sDefault;
+
+	// The analyses, by position hash, least recently used first.  The map keeps the
+	// order entries were put in, and a use puts its entry back at the end, so that
+	// looking an entry up does not count as a use by itself.
+	private final Map<Long, Analysis> mCache;
+
+	// The analyses still running, by position hash
+	private final Map<Long, Future<Analysis>> mPending = new HashMap<Long, Future<Analysis>>();
+
+	// Runs the analyses one at a time
+	private final ExecutorService mExecutor;
+
+	// Searches each move, used only on the executor's thread
+	private final AlphaBetaSearch mSearch;
+
+	// The nodes searched for each move
+	private final int mNodesPerMove;
+
+	// The requests answered from the cache, and those that were not
+	private int mHits;
+	private int mMisses;
+
+	/**
+	 * Constructs a service with the default cache size and search budget
+	 */
+	public HintService() {
+		this(DEFAULT_CAPACITY, DEFAULT_NODES_PER_MOVE);
+	}
+
+	/**
+	 * Constructs a service
+	 *
+	 * @param capacity The number of positions to cache
+	 *
+	 * @param nodesPerMove The nodes searched for each move
+	 */
+	public HintService(final int capacity, int nodesPerMove) {
+
+		mNodesPerMove = nodesPerMove;
+
+		mCache = new LinkedHashMap<Long, Analysis>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Analysis> eldest) {
+				return size() > capacity;
+			}
+		};
+
+		mSearch = new AlphaBetaSearch(new TranspositionTable(TABLE_ENTRIES), new StoreEvaluator());
+		mSearch.setSearchByTurns(true);
+		mSearch.setQuiescence(true);
+		mSearch.setNodeLimit(nodesPerMove);
+
+		mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "hints");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Returns the service shared by the games that are not given one of their own,
+	 * creating it the first time
+	 *
+	 * @return The shared service
+	 */
+	public static synchronized HintService getDefault() {
+		if (sDefault == null) {
+			sDefault = new HintService();
+		}
+		return sDefault;
+	}
+
+	/**
+	 * @return The nodes searched for each move
+	 */
+	public int getNodesPerMove() {
+		return mNodesPerMove;
+	}
+
+	/**
+	 * Scores each move in a position, waiting at most the given time for an analysis
+	 * that is not cached
+	 *
+	 * @param position The position, which must not be over.  It is copied, so the
+	 *        caller may change it once this returns.
+	 *
+	 * @param maxMillis The longest to wait, or 0 to return at once if the position is
+	 *        not cached
+	 *
+	 * @return The score of each hollow for the side to move, in hundredths of a seed,
+	 *         or ILLEGAL for hollows that cannot be played.  Null if the analysis was
+	 *         not ready in time, in which case it carries on in the background.
+	 */
+	public int[] getScores(Position position, long maxMillis) {
+
+		if (position.isGameOver()) {
+			throw new IllegalArgumentException("The game is over");
+		}
+
+		final Long key = Long.valueOf(position.hash());
+		Future<Analysis> pending;
+
+		synchronized (this) {
+
+			Analysis cached = mCache.get(key);
+
+			if (cached != null && cached.mPosition.equals(position)) {
+				mCache.remove(key);
+				mCache.put(key, cached);
+				mHits++;
+				return cached.mScores.clone();
+			}
+
+			mMisses++;
+			pending = mPending.get(key);
+
+			if (pending == null) {
+				pending = submit(key, position.copy());
+			}
+		}
+
+		try {
+			Analysis analysis = pending.get(maxMillis, TimeUnit.MILLISECONDS);
+			return analysis.mPosition.equals(position) ? analysis.mScores.clone() : null;
+		} catch (TimeoutException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			throw new MancalaException("Could not analyse the position", e.getCause());
+		}
+	}
+
+	/**
+	 * @return The number of requests answered from the cache
+	 */
+	public synchronized int getHits() {
+		return mHits;
+	}
+
+	/**
+	 * @return The number of requests that were not in the cache
+	 */
+	public synchronized int getMisses() {
+		return mMisses;
+	}
+
+	/**
+	 * @return The number of positions in the cache
+	 */
+	public synchronized int size() {
+		return mCache.size();
+	}
+
+	/**
+	 * Returns whether a position's analysis is cached, without counting it as a use
+	 *
+	 * @param position The position
+	 *
+	 * @return True if the position is cached
+	 */
+	public synchronized boolean contains(Position position) {
+		Analysis analysis = mCache.get(Long.valueOf(position.hash()));
+		return analysis != null && analysis.mPosition.equals(position);
+	}
+
+	/**
+	 * Starts analysing a position in the background, caching the result when done
+	 */
+	private Future<Analysis> submit(final Long key, final Position position) {
+
+		Future<Analysis> future = mExecutor.submit(new Callable<Analysis>() {
+			public Analysis call() {
+
+				try {
+					Analysis analysis = new Analysis(position, analyse(position));
+
+					synchronized (HintService.this) {
+						mCache.put(key, analysis);
+					}
+					return analysis;
+				} finally {
+					// A failed analysis is not cached, and the next request tries again
+					synchronized (HintService.this) {
+						mPending.remove(key);
+					}
+				}
+			}
+		});
+
+		mPending.put(key, future);
+		return future;
+	}
+
+	/**
+	 * Scores each move by searching the position it leads to
+	 */
+	private int[] analyse(Position position) {
+
+		final int side = position.getSideToMove();
+		int[] scores = new int[position.getHollowsPerPlayer()];
+		Position child = new Position(position.getHollowsPerPlayer());
+
+		for (int move = 0; move < scores.length; move++) {
+
+			if (!position.isLegal(move)) {
+				scores[move] = ILLEGAL;
+				continue;
+			}
+
+			child.copyFrom(position);
+			child.play(move);
+
+			if (child.isGameOver()) {
+				scores[move] = Evaluator.SEED * child.getTotalDifference(side);
+			} else {
+				int score = mSearch.search(child, AlphaBetaSearch.MAX_PLY - 1).getScore();
+				scores[move] = child.getSideToMove() == side ? score : -score;
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * The scores of the moves in a position
+	 */
+	private static class Analysis {
+
+		// The position analysed
+		private final Position mPosition;
+
+		// The score of each hollow
+		private final int[] mScores;
+
+		Analysis(Position position, int[] scores) {
+			mPosition = position;
+			mScores = scores;
+		}
+	}
+}
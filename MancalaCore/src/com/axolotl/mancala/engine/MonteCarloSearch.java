@@ -0,0 +1,438 @@
+package com.axolotl.mancala.engine;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Monte Carlo tree search over egyptian rules positions, using UCT to select moves
+ * and random playouts to evaluate the leaves.
+ *
+ * The tree is stored in flat arrays indexed by node number rather than as node objects,
+ * and the children of a node always occupy a contiguous block.  Several threads may
+ * search the same tree at once: each visit is counted on the way down, before the
+ * playout result is known, which acts as a virtual loss and steers the other threads
+ * towards different lines.
+ *
+ * Values are stored in half points (2 for a win, 1 for a draw) from the point of view
+ * of the player who made the move leading to the node.
+ */
+public class MonteCarloSearch {
+
+	// The exploration constant used by UCT
+	private static final double EXPLORATION = 1.4;
+
+	// The number of visits a leaf needs before it is expanded
+	private static final int EXPANSION_THRESHOLD = 2;
+
+	// Marks a node whose children have not been created
+	private static final int UNEXPANDED = -1;
+
+	// Marks a node that is being expanded by another thread
+	private static final int EXPANDING = -2;
+
+	// Marks a node that can never be expanded (terminal, or the tree is full)
+	private static final int LEAF = -3;
+
+	// The maximum number of nodes that the tree can hold
+	private final int mCapacity;
+
+	// The number of threads that search the tree
+	private final int mThreads;
+
+	// The index of the first child of each node, or one of the markers above
+	private final AtomicIntegerArray mFirstChild;
+
+	// The number of children of each node
+	private final byte[] mChildCount;
+
+	// The move leading to each node
+	private final byte[] mMove;
+
+	// The number of visits through each node, including those still in progress
+	private final AtomicIntegerArray mVisits;
+
+	// The sum of the playout results through each node, in half points
+	private final AtomicLongArray mValue;
+
+	// The number of nodes currently allocated
+	private final AtomicInteger mNodeCount = new AtomicInteger();
+
+	// The number of playouts started for the current search
+	private final AtomicInteger mPlayouts = new AtomicInteger();
+
+	// The number of playouts completed by the current search
+	private final AtomicInteger mCompleted = new AtomicInteger();
+
+	// Set when the thread that started the current search is interrupted
+	private volatile boolean mCancelled;
+
+	// Whether playouts prefer moves that earn an extra turn
+	private boolean mGuidedPlayouts = true;
+
+	// The seed used for the random number generators
+	private long mSeed = System.nanoTime();
+
+	// The exact results used to end playouts early, if any
+	private EndgameDatabase mEndgameDatabase;
+
+	/**
+	 * Constructs a new search
+	 *
+	 * @param threads The number of threads to search with
+	 *
+	 * @param capacity The maximum number of nodes in the tree
+	 */
+	public MonteCarloSearch(int threads, int capacity) {
+		mThreads = Math.max(1, threads);
+		mCapacity = capacity;
+		mFirstChild = new AtomicIntegerArray(capacity);
+		mChildCount = new byte[capacity];
+		mMove = new byte[capacity];
+		mVisits = new AtomicIntegerArray(capacity);
+		mValue = new AtomicLongArray(capacity);
+	}
+
+	/**
+	 * Sets whether playouts should always take an available extra turn rather than
+	 * choosing uniformly at random
+	 *
+	 * @param guided True to use guided playouts
+	 */
+	public void setGuidedPlayouts(boolean guided) {
+		mGuidedPlayouts = guided;
+	}
+
+	/**
+	 * Sets the seed for the random number generators used by the playouts
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Sets an endgame database.  Playouts stop as soon as they reach a position in the
+	 * database and take its exact result instead.
+	 *
+	 * @param database The endgame database, or null for none
+	 */
+	public void setEndgameDatabase(EndgameDatabase database) {
+		mEndgameDatabase = database;
+	}
+
+	/**
+	 * @return The number of playouts made by the last search
+	 */
+	public int getPlayoutCount() {
+		return mCompleted.get();
+	}
+
+	/**
+	 * @return The number of tree nodes created by the last search
+	 */
+	public int getNodeCount() {
+		return Math.min(mNodeCount.get(), mCapacity);
+	}
+
+	/**
+	 * Searches the given position and returns the most visited move.  The search stops
+	 * when either budget runs out, or early if the calling thread is interrupted.
+	 *
+	 * @param root The position to search, which must not be over
+	 *
+	 * @param maxPlayouts The maximum number of playouts, or 0 for no limit
+	 *
+	 * @param maxMillis The maximum time to search for, or 0 for no limit
+	 *
+	 * @return The hollow to play, relative to the side to move
+	 */
+	public int search(final Position root, final int maxPlayouts, final long maxMillis) {
+
+		if (maxPlayouts <= 0 && maxMillis <= 0) {
+			throw new IllegalArgumentException("A playout or time budget is required");
+		}
+
+		reset();
+
+		mCancelled = false;
+
+		final long deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1000000L : Long.MAX_VALUE;
+		final int playoutLimit = maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE;
+
+		if (mThreads == 1) {
+			new Worker(root, 0).run(playoutLimit, deadline);
+		} else {
+
+			Thread[] threads = new Thread[mThreads];
+
+			for (int t = 0; t < mThreads; t++) {
+				final Worker worker = new Worker(root, t);
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						worker.run(playoutLimit, deadline);
+					}
+				}, "MonteCarloSearch-" + t);
+				threads[t].start();
+			}
+
+			boolean interrupted = false;
+
+			for (Thread thread : threads) {
+				while (thread.isAlive()) {
+					try {
+						thread.join();
+					} catch (InterruptedException e) {
+						// Stop the workers, then wait for them to finish
+						interrupted = true;
+						mCancelled = true;
+					}
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return getBestMove(root);
+	}
+
+	/**
+	 * Returns the visit count of each root move from the last search
+	 *
+	 * @param visits The array to receive the counts, indexed by hollow
+	 */
+	public void getRootVisits(int[] visits) {
+		for (int i = 0; i < visits.length; i++) {
+			visits[i] = 0;
+		}
+		int first = mFirstChild.get(0);
+		if (first >= 0) {
+			for (int c = first; c < first + mChildCount[0]; c++) {
+				visits[mMove[c]] = mVisits.get(c);
+			}
+		}
+	}
+
+	/**
+	 * Clears the nodes used by the previous search and creates the root
+	 */
+	private void reset() {
+		int used = getNodeCount();
+		for (int i = 0; i < used; i++) {
+			mFirstChild.set(i, UNEXPANDED);
+			mChildCount[i] = 0;
+			mVisits.set(i, 0);
+			mValue.set(i, 0);
+		}
+		mFirstChild.set(0, UNEXPANDED);
+		mNodeCount.set(1);
+		mPlayouts.set(0);
+		mCompleted.set(0);
+	}
+
+	/**
+	 * Picks the most visited root move, falling back to the first legal move if the
+	 * root was never expanded
+	 */
+	private int getBestMove(Position root) {
+
+		int first = mFirstChild.get(0);
+
+		if (first < 0) {
+			int[] moves = new int[root.getHollowsPerPlayer()];
+			root.getLegalMoves(moves);
+			return moves[0];
+		}
+
+		int best = first;
+		for (int c = first + 1; c < first + mChildCount[0]; c++) {
+			if (mVisits.get(c) > mVisits.get(best)) {
+				best = c;
+			}
+		}
+		return mMove[best];
+	}
+
+	/**
+	 * Creates the children of a node, returning false if the tree is full
+	 */
+	private boolean expand(int node, Position position, int[] moves) {
+
+		int count = position.getLegalMoves(moves);
+		int first = mNodeCount.getAndAdd(count);
+
+		if (first + count > mCapacity) {
+			mFirstChild.set(node, LEAF);
+			return false;
+		}
+
+		for (int i = 0; i < count; i++) {
+			mFirstChild.set(first + i, UNEXPANDED);
+			mMove[first + i] = (byte) moves[i];
+		}
+
+		mChildCount[node] = (byte) count;
+		mFirstChild.set(node, first);
+		return true;
+	}
+
+	/**
+	 * Chooses the child with the highest upper confidence bound
+	 */
+	private int select(int node, int first) {
+
+		int end = first + mChildCount[node];
+		double logVisits = Math.log(Math.max(1, mVisits.get(node)));
+		double bestBound = Double.NEGATIVE_INFINITY;
+		int best = first;
+
+		for (int c = first; c < end; c++) {
+
+			int visits = mVisits.get(c);
+
+			if (visits == 0) {
+				return c;
+			}
+
+			double mean = mValue.get(c) / (2.0 * visits);
+			double bound = mean + EXPLORATION * Math.sqrt(logVisits / visits);
+
+			if (bound > bestBound) {
+				bestBound = bound;
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Performs the searches for a single thread
+	 */
+	private class Worker {
+
+		// The root position
+		private final Position mRoot;
+
+		// The position being walked down the tree and played out
+		private final Position mScratch;
+
+		// The nodes visited on the current iteration
+		private final int[] mPath = new int[1024];
+
+		// The side that made the move into each node on the path
+		private final int[] mMovers = new int[1024];
+
+		// A buffer for move generation
+		private final int[] mMoves;
+
+		// The random number generator for this thread
+		private final Random mRandom;
+
+		Worker(Position root, int index) {
+			mRoot = root;
+			mScratch = new Position(root.getHollowsPerPlayer());
+			mMoves = new int[root.getHollowsPerPlayer()];
+			mRandom = new Random(mSeed + index * 0x9E3779B97F4A7C15L);
+		}
+
+		void run(int playoutLimit, long deadline) {
+
+			while (mPlayouts.incrementAndGet() <= playoutLimit) {
+
+				if ((mPlayouts.get() & 31) == 0
+						&& (System.nanoTime() > deadline || mCancelled || Thread.currentThread().isInterrupted())) {
+					break;
+				}
+
+				iterate();
+				mCompleted.incrementAndGet();
+			}
+		}
+
+		private void iterate() {
+
+			Position position = mScratch;
+			position.copyFrom(mRoot);
+
+			int node = 0;
+			int depth = 0;
+			mPath[0] = 0;
+			mVisits.incrementAndGet(0);
+
+			// Walk down the tree, counting each visit as we go
+			while (!position.isGameOver() && depth < mPath.length - 1) {
+
+				int first = mFirstChild.get(node);
+
+				if (first < 0) {
+					if (first != UNEXPANDED || mVisits.get(node) <= EXPANSION_THRESHOLD
+							|| !mFirstChild.compareAndSet(node, UNEXPANDED, EXPANDING)
+							|| !expand(node, position, mMoves)) {
+						break;
+					}
+					first = mFirstChild.get(node);
+				}
+
+				int child = select(node, first);
+				mMovers[++depth] = position.getSideToMove();
+				position.play(mMove[child]);
+				mPath[depth] = child;
+				mVisits.incrementAndGet(child);
+				node = child;
+			}
+
+			int winner = playout(position);
+
+			// Back up the result, scored for the player who moved into each node
+			for (int d = 1; d <= depth; d++) {
+				int reward = winner < 0 ? 1 : (winner == mMovers[d] ? 2 : 0);
+				mValue.addAndGet(mPath[d], reward);
+			}
+		}
+
+		/**
+		 * Plays random moves until the end of the game, or until the endgame database
+		 * knows the result, returning the winning side or -1 for a draw
+		 */
+		private int playout(Position position) {
+
+			final EndgameDatabase database = mEndgameDatabase;
+
+			while (!position.isGameOver()) {
+
+				if (database != null && database.covers(position)) {
+					int difference = database.getFinalDifference(position);
+					int side = position.getSideToMove();
+					return difference > 0 ? side : (difference < 0 ? 1 - side : -1);
+				}
+
+				int count = position.getLegalMoves(mMoves);
+				int move = -1;
+
+				if (mGuidedPlayouts) {
+
+					// Take the extra turn nearest the store, which leaves the others intact
+					for (int i = count - 1; i >= 0; i--) {
+						if (position.isExtraTurnMove(mMoves[i])) {
+							move = mMoves[i];
+							break;
+						}
+					}
+				}
+
+				if (move < 0) {
+					move = mMoves[mRandom.nextInt(count)];
+				}
+
+				position.play(move);
+			}
+
+			int difference = position.getTotalDifference(0);
+			return difference > 0 ? 0 : (difference < 0 ? 1 : -1);
+		}
+	}
+}
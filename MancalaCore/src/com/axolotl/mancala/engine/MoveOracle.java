@@ -0,0 +1,23 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * A source of moves that can be trusted without searching, such as a precomputed
+ * table.  Computer players consult their oracles before choosing a move themselves.
+ */
+public interface MoveOracle {
+
+	/**
+	 * Returned when the oracle has no move for a position
+	 */
+	int NO_MOVE = -1;
+
+	/**
+	 * Returns the move to play in the given position
+	 *
+	 * @param position The position, with the computer to move
+	 *
+	 * @return The hollow to play relative to the side to move, or NO_MOVE if the oracle
+	 *         does not know the position
+	 */
+	int suggestMove(Position position);
+}
@@ -0,0 +1,154 @@
+package com.axolotl.mancala.engine;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+
+/**
+ * Plays candidate moves on a scratch copy of a position to see what they would do,
+ * for move scoring heuristics that look one move ahead.
+ *
+ * A move is sown exactly as the strategy would sow it, laps included, so the extra
+ * turns and captures it reports are the ones the move really makes.  The position is
+ * read from the board once and every move is played on a copy, so the live board is
+ * never changed and no game events are raised.  Once constructed the simulator does
+ * not allocate.
+ */
+public final class MoveSimulator {
+
+	// The position the moves are played from
+	private final Position mRoot;
+
+	// The position after the last move simulated
+	private final Position mScratch;
+
+	// The flags returned by the last move, as returned by Position.play
+	private int mResult;
+
+	// The seeds the last move sowed into the mover's store
+	private int mSownIntoStore;
+
+	// The opponent's seeds taken by the last move's capture
+	private int mCapturedSeeds;
+
+	/**
+	 * Constructs a simulator
+	 *
+	 * @param hollowsPerPlayer The number of hollows on each side of the board
+	 */
+	public MoveSimulator(int hollowsPerPlayer) {
+		mRoot = new Position(hollowsPerPlayer);
+		mScratch = new Position(hollowsPerPlayer);
+	}
+
+	/**
+	 * @return The number of hollows on each side of the board
+	 */
+	public int getHollowsPerPlayer() {
+		return mRoot.getHollowsPerPlayer();
+	}
+
+	/**
+	 * Reads the position to play moves from off a board
+	 *
+	 * @param board The board, which must have the simulator's number of hollows
+	 *
+	 * @param playerToMove The player whose moves are simulated
+	 */
+	public void load(Board board, PlayerNumber playerToMove) {
+		mRoot.load(board, playerToMove);
+	}
+
+	/**
+	 * Sets the position to play moves from
+	 *
+	 * @param position The position, which is copied
+	 */
+	public void load(Position position) {
+		mRoot.copyFrom(position);
+	}
+
+	/**
+	 * Plays a move on a copy of the loaded position
+	 *
+	 * @param move The hollow to play relative to the side to move, which must hold
+	 *        seeds
+	 *
+	 * @return The outcome flags, as returned by Position.play
+	 */
+	public int simulate(int move) {
+
+		if (!mRoot.isLegal(move)) {
+			throw new IllegalArgumentException("Hollow " + move + " cannot be played");
+		}
+
+		final int hollows = mRoot.getHollowsPerPlayer();
+		final int side = mRoot.getSideToMove();
+		final int seeds = mRoot.getHollowSeeds(side, move);
+
+		// A lap passes every cell but the opponent's store, so the seeds reach the
+		// mover's store once and then again with every full lap
+		int toStore = hollows - move;
+		mSownIntoStore = seeds < toStore ? 0 : 1 + (seeds - toStore) / (2 * hollows + 1);
+
+		mScratch.copyFrom(mRoot);
+		mResult = mScratch.play(move);
+
+		// The rest of the store's gain came from the capture, one seed of it the
+		// mover's own
+		int gained = mScratch.getStoreSeeds(side) - mRoot.getStoreSeeds(side);
+		mCapturedSeeds = isCapture() ? gained - mSownIntoStore - 1 : 0;
+
+		return mResult;
+	}
+
+	/**
+	 * @return The position after the last move simulated
+	 */
+	public Position getPosition() {
+		return mScratch;
+	}
+
+	/**
+	 * @return True if the last move earned another turn
+	 */
+	public boolean isExtraTurn() {
+		return (mResult & Position.EXTRA_TURN) != 0;
+	}
+
+	/**
+	 * @return True if the last move captured the opposing hollow
+	 */
+	public boolean isCapture() {
+		return (mResult & Position.CAPTURE) != 0;
+	}
+
+	/**
+	 * @return True if the last move ended the game
+	 */
+	public boolean isGameOver() {
+		return (mResult & Position.GAME_OVER) != 0;
+	}
+
+	/**
+	 * @return The seeds the last move sowed into the mover's store, not counting any
+	 *         it captured
+	 */
+	public int getSownIntoStore() {
+		return mSownIntoStore;
+	}
+
+	/**
+	 * @return The opponent's seeds taken by the last move's capture, or 0 if it did
+	 *         not capture
+	 */
+	public int getCapturedSeeds() {
+		return mCapturedSeeds;
+	}
+
+	/**
+	 * @return The seeds the last move added to the mover's store in all
+	 */
+	public int getStoreGain() {
+		return mScratch.getStoreSeeds(mRoot.getSideToMove()) - mRoot.getStoreSeeds(mRoot.getSideToMove());
+	}
+}
@@ -0,0 +1,331 @@
+package com.axolotl.mancala.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An n-tuple network evaluator.  Each tuple is a small group of cells, and the seed
+ * counts in those cells, capped at LEVELS - 1, index a table of weights.  A position
+ * scores the store difference plus the weight each tuple's table holds for it, so an
+ * evaluation costs one table read for each tuple.
+ *
+ * The cells of a tuple are counted from the side to move: its hollows first, then its
+ * store, then the opponent's hollows and store.  By default there is a tuple for each
+ * run of three neighbouring hollows on either side, and one for each hollow and the
+ * hollow opposite it.
+ *
+ * The weights are trained by the NTupleTrainer and kept in a compact binary file, two
+ * bytes to a weight, that is read into memory when the evaluator is loaded.
+ */
+public class NTupleEvaluator implements Evaluator {
+
+	// Identifies the file format ("MNTN")
+	static final int MAGIC = 0x4D4E544E;
+
+	// The file format version
+	static final int VERSION = 1;
+
+	/**
+	 * The number of distinct seed counts a cell can show to a tuple
+	 */
+	public static final int LEVELS = 16;
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The cells of each tuple, counted from the side to move
+	private final int[][] mTuples;
+
+	// Where each tuple's table starts in the weights
+	private final int[] mOffsets;
+
+	// The weight of every entry of every table, in hundredths of a seed
+	private final int[] mWeights;
+
+	// The seed count of each cell, counted from the side to move and capped
+	private final int[] mLevels;
+
+	/**
+	 * Constructs an evaluator with the default tuples and all its weights zero, which
+	 * scores positions the same as the StoreEvaluator
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 */
+	public NTupleEvaluator(int hollowsPerPlayer) {
+		this(hollowsPerPlayer, createDefaultTuples(hollowsPerPlayer));
+	}
+
+	/**
+	 * Constructs an evaluator with the given tuples and all its weights zero
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param tuples The cells of each tuple, counted from the side to move
+	 */
+	public NTupleEvaluator(int hollowsPerPlayer, int[][] tuples) {
+
+		mHollows = hollowsPerPlayer;
+		mTuples = new int[tuples.length][];
+		mOffsets = new int[tuples.length + 1];
+		mLevels = new int[2 * hollowsPerPlayer + 2];
+
+		for (int t = 0; t < tuples.length; t++) {
+
+			for (int cell : tuples[t]) {
+				if (cell < 0 || cell >= mLevels.length) {
+					throw new IllegalArgumentException("Tuple " + t + " has no cell " + cell);
+				}
+			}
+
+			mTuples[t] = tuples[t].clone();
+			mOffsets[t + 1] = mOffsets[t] + getTableSize(tuples[t].length);
+		}
+
+		mWeights = new int[mOffsets[tuples.length]];
+	}
+
+	/**
+	 * Reads an evaluator written by write
+	 *
+	 * @param file The weights file
+	 *
+	 * @return The evaluator
+	 *
+	 * @throws IOException If the file cannot be read or is not an n-tuple network
+	 */
+	public static NTupleEvaluator read(File file) throws IOException {
+
+		InputStream input = new FileInputStream(file);
+
+		try {
+			return read(input);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Reads an evaluator written by write, such as one packaged with an application
+	 *
+	 * @param stream The stream to read from, which is left open
+	 *
+	 * @return The evaluator
+	 *
+	 * @throws IOException If the stream cannot be read or is not an n-tuple network
+	 */
+	public static NTupleEvaluator read(InputStream stream) throws IOException {
+
+		DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+
+		try {
+
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException("Not an n-tuple network");
+			}
+
+			int hollows = input.readInt();
+			int[][] tuples = new int[input.readInt()][];
+
+			for (int t = 0; t < tuples.length; t++) {
+				tuples[t] = new int[input.readUnsignedByte()];
+				for (int i = 0; i < tuples[t].length; i++) {
+					tuples[t][i] = input.readUnsignedByte();
+				}
+			}
+
+			NTupleEvaluator evaluator;
+
+			try {
+				evaluator = new NTupleEvaluator(hollows, tuples);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Invalid n-tuple network: " + e.getMessage());
+			}
+
+			for (int i = 0; i < evaluator.mWeights.length; i++) {
+				evaluator.mWeights[i] = input.readShort();
+			}
+			return evaluator;
+
+		} catch (EOFException e) {
+			throw new IOException("Truncated n-tuple network");
+		}
+	}
+
+	/**
+	 * Writes the tuples and weights to a file that can be read back by read
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(mHollows);
+			output.writeInt(mTuples.length);
+
+			for (int[] tuple : mTuples) {
+				output.writeByte(tuple.length);
+				for (int cell : tuple) {
+					output.writeByte(cell);
+				}
+			}
+
+			for (int weight : mWeights) {
+				output.writeShort(weight);
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * @return The hollows on each side of the board
+	 */
+	public int getHollowsPerPlayer() {
+		return mHollows;
+	}
+
+	/**
+	 * @return The number of tuples
+	 */
+	public int getTupleCount() {
+		return mTuples.length;
+	}
+
+	/**
+	 * @return The number of weights in all the tables
+	 */
+	public int getWeightCount() {
+		return mWeights.length;
+	}
+
+	/**
+	 * Returns the store difference plus the weight of each tuple
+	 */
+	@Override
+	public int evaluate(Position position) {
+
+		final int[] levels = mLevels;
+		final int[][] tuples = mTuples;
+
+		measure(position, levels);
+
+		int score = SEED * position.getStoreDifference(position.getSideToMove());
+
+		for (int t = 0; t < tuples.length; t++) {
+			score += mWeights[mOffsets[t] + index(tuples[t], levels)];
+		}
+		return score;
+	}
+
+	/**
+	 * Works out the entry each tuple reads for a position
+	 *
+	 * @param position The position
+	 *
+	 * @param levels Working space, one element for each cell
+	 *
+	 * @param entries The array to receive the index of each tuple's entry among all the
+	 *        weights
+	 */
+	void getEntries(Position position, int[] levels, int[] entries) {
+
+		measure(position, levels);
+
+		for (int t = 0; t < mTuples.length; t++) {
+			entries[t] = mOffsets[t] + index(mTuples[t], levels);
+		}
+	}
+
+	/**
+	 * Replaces the weights with the given ones, rounded to hundredths of a seed and
+	 * limited to the range that can be written
+	 *
+	 * @param weights The weights in seeds, one for each entry of every table
+	 */
+	void setWeights(float[] weights) {
+		for (int i = 0; i < mWeights.length; i++) {
+			int weight = Math.round(weights[i] * SEED);
+			mWeights[i] = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, weight));
+		}
+	}
+
+	/**
+	 * Returns the tuples used by default: each run of three neighbouring hollows on
+	 * either side, and each hollow with the hollow opposite it
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @return The cells of each tuple, counted from the side to move
+	 */
+	public static int[][] createDefaultTuples(int hollowsPerPlayer) {
+
+		final int runs = Math.max(0, hollowsPerPlayer - 2);
+		int[][] tuples = new int[2 * runs + hollowsPerPlayer][];
+		int t = 0;
+
+		for (int side = 0; side < 2; side++) {
+			int first = side * (hollowsPerPlayer + 1);
+			for (int i = 0; i < runs; i++) {
+				tuples[t++] = new int[] { first + i, first + i + 1, first + i + 2 };
+			}
+		}
+
+		for (int i = 0; i < hollowsPerPlayer; i++) {
+			tuples[t++] = new int[] { i, 2 * hollowsPerPlayer - i };
+		}
+		return tuples;
+	}
+
+	/**
+	 * Writes the capped seed count of each cell, counted from the side to move
+	 */
+	private void measure(Position position, int[] levels) {
+
+		final int cells = levels.length;
+		final int first = position.getSideToMove() * (mHollows + 1);
+
+		for (int i = 0; i < cells; i++) {
+			int cell = first + i;
+			if (cell >= cells) {
+				cell -= cells;
+			}
+			levels[i] = Math.min(LEVELS - 1, position.getSeeds(cell));
+		}
+	}
+
+	/**
+	 * Returns the entry of a tuple's table for the given cell levels
+	 */
+	private static int index(int[] tuple, int[] levels) {
+		int index = 0;
+		for (int i = 0; i < tuple.length; i++) {
+			index = index * LEVELS + levels[tuple[i]];
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the number of entries in the table of a tuple with the given length
+	 */
+	private static int getTableSize(int length) {
+		int size = 1;
+		for (int i = 0; i < length; i++) {
+			size *= LEVELS;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,349 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Trains the weights of an NTupleEvaluator by temporal difference learning from games
+ * it plays against itself.
+ *
+ * Each move is chosen by looking one move ahead with the current weights, or at random
+ * now and then so that the games explore.  Once a game is over, every position in it
+ * is moved towards its lambda-return, a blend of the values of the positions that
+ * followed it and the final result, which is offline TD(lambda).
+ *
+ * The games are played in rounds.  The games of a round are played in parallel against
+ * the same weights, and their updates are applied in game order once the round is
+ * over, so the same seed trains the same weights whatever the number of threads.
+ *
+ * Usage: NTupleTrainer file [games] [threads]
+ */
+public class NTupleTrainer {
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The seeds initially in each hollow
+	private final int mSeeds;
+
+	// Gives the tuples and works out which entries a position reads
+	private final NTupleEvaluator mNetwork;
+
+	// The weights being trained, in seeds
+	private final float[] mWeights;
+
+	// The number of games to play
+	private int mGames = 100000;
+
+	// The number of games played against the same weights
+	private int mGamesPerRound = 64;
+
+	// The fraction of each error corrected, shared between the tuples
+	private float mLearningRate = 0.01f;
+
+	// How far back each result is carried, from 0 for one step to 1 for the final result
+	private float mLambda = 0.7f;
+
+	// The chance of a random move
+	private double mExploration = 0.1;
+
+	// The number of threads to play with
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The seed from which each game's random moves are derived
+	private long mSeed = 1;
+
+	/**
+	 * Constructs a trainer for the default tuples
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param seedsPerHollow The seeds initially in each hollow
+	 */
+	public NTupleTrainer(int hollowsPerPlayer, int seedsPerHollow) {
+		mHollows = hollowsPerPlayer;
+		mSeeds = seedsPerHollow;
+		mNetwork = new NTupleEvaluator(hollowsPerPlayer);
+		mWeights = new float[mNetwork.getWeightCount()];
+	}
+
+	/**
+	 * Sets the number of games to play
+	 *
+	 * @param games The number of games
+	 */
+	public void setGames(int games) {
+		mGames = games;
+	}
+
+	/**
+	 * Sets the number of games played in parallel against the same weights
+	 *
+	 * @param games The number of games in each round
+	 */
+	public void setGamesPerRound(int games) {
+		mGamesPerRound = Math.max(1, games);
+	}
+
+	/**
+	 * Sets the size of each update, as the fraction of a position's error that is
+	 * corrected by one visit to it
+	 *
+	 * @param rate The learning rate
+	 */
+	public void setLearningRate(float rate) {
+		mLearningRate = rate;
+	}
+
+	/**
+	 * Sets how far back each result is carried
+	 *
+	 * @param lambda From 0, learning only from the next position, to 1, learning only
+	 *        from the final result
+	 */
+	public void setLambda(float lambda) {
+		mLambda = lambda;
+	}
+
+	/**
+	 * Sets the chance of playing a random move instead of the best one
+	 *
+	 * @param exploration The chance, from 0 to 1
+	 */
+	public void setExploration(double exploration) {
+		mExploration = exploration;
+	}
+
+	/**
+	 * Sets the number of threads used to play the games
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the seed for the random moves
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Plays the games, learning from each round as it finishes
+	 */
+	public void train() {
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (int first = 0; first < mGames; first += mGamesPerRound) {
+
+				List<Callable<Update>> games = new ArrayList<Callable<Update>>();
+
+				for (int game = first; game < Math.min(mGames, first + mGamesPerRound); game++) {
+					final int index = game;
+					games.add(new Callable<Update>() {
+						public Update call() {
+							return playGame(index);
+						}
+					});
+				}
+
+				// Apply the updates in game order once every game has finished with the weights
+				for (Future<Update> result : executor.invokeAll(games)) {
+					result.get().apply(mWeights);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Training interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Training failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns an evaluator with the trained weights
+	 *
+	 * @return The evaluator
+	 */
+	public NTupleEvaluator toEvaluator() {
+		NTupleEvaluator evaluator = new NTupleEvaluator(mHollows);
+		evaluator.setWeights(mWeights);
+		return evaluator;
+	}
+
+	/**
+	 * Plays one game with the current weights and works out its updates
+	 */
+	private Update playGame(int game) {
+
+		final int tuples = mNetwork.getTupleCount();
+		final int[] levels = new int[2 * mHollows + 2];
+		final int[] moves = new int[mHollows];
+		final int[] childEntries = new int[tuples];
+
+		Random random = new Random(mSeed + game * 0x9E3779B97F4A7C15L);
+		Position position = Position.createInitial(mHollows, mSeeds);
+		position.setSideToMove(game & 1);
+		Position child = new Position(mHollows);
+
+		List<int[]> entries = new ArrayList<int[]>();
+		List<Float> values = new ArrayList<Float>();
+		List<Integer> sides = new ArrayList<Integer>();
+
+		while (!position.isGameOver()) {
+
+			int[] read = new int[tuples];
+			mNetwork.getEntries(position, levels, read);
+
+			int side = position.getSideToMove();
+			entries.add(read);
+			sides.add(Integer.valueOf(side));
+			values.add(Float.valueOf(value(position, read)));
+
+			int count = position.getLegalMoves(moves);
+			int move;
+
+			if (random.nextDouble() < mExploration) {
+				move = moves[random.nextInt(count)];
+			} else {
+
+				move = moves[0];
+				float best = Float.NEGATIVE_INFINITY;
+
+				for (int i = 0; i < count; i++) {
+
+					child.copyFrom(position);
+					child.play(moves[i]);
+
+					float score;
+
+					if (child.isGameOver()) {
+						score = child.getTotalDifference(side);
+					} else {
+						mNetwork.getEntries(child, levels, childEntries);
+						float value = value(child, childEntries);
+						score = child.getSideToMove() == side ? value : -value;
+					}
+
+					if (score > best) {
+						best = score;
+						move = moves[i];
+					}
+				}
+			}
+			position.play(move);
+		}
+
+		// Work back from the result, with every value seen from player one's side
+		final int count = entries.size();
+		Update update = new Update(count, tuples);
+		float target = position.getTotalDifference(0);
+		float rate = mLearningRate / tuples;
+
+		for (int t = count - 1; t >= 0; t--) {
+
+			float sign = sides.get(t).intValue() == 0 ? 1 : -1;
+			float value = sign * values.get(t).floatValue();
+
+			update.set(t, entries.get(t), rate * (target - value) * sign);
+
+			target = (1 - mLambda) * value + mLambda * target;
+		}
+		return update;
+	}
+
+	/**
+	 * Returns the value of a position for its side to move, in seeds
+	 */
+	private float value(Position position, int[] entries) {
+		float value = position.getStoreDifference(position.getSideToMove());
+		for (int i = 0; i < entries.length; i++) {
+			value += mWeights[entries[i]];
+		}
+		return value;
+	}
+
+	/**
+	 * The changes a game makes to the weights
+	 */
+	private static class Update {
+
+		// The entries read by each position
+		private final int[] mEntries;
+
+		// The change to the entries of each position
+		private final float[] mDeltas;
+
+		// The number of tuples
+		private final int mTuples;
+
+		Update(int positions, int tuples) {
+			mEntries = new int[positions * tuples];
+			mDeltas = new float[positions];
+			mTuples = tuples;
+		}
+
+		void set(int position, int[] entries, float delta) {
+			System.arraycopy(entries, 0, mEntries, position * mTuples, mTuples);
+			mDeltas[position] = delta;
+		}
+
+		void apply(float[] weights) {
+			for (int i = 0; i < mEntries.length; i++) {
+				weights[mEntries[i]] += mDeltas[i / mTuples];
+			}
+		}
+	}
+
+	/**
+	 * Trains a network for the standard board from the command line
+	 *
+	 * @param args The weights file to write, and optionally the number of games and the
+	 *        number of threads
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.err.println("Usage: NTupleTrainer file [games] [threads]");
+			System.exit(1);
+		}
+
+		NTupleTrainer trainer = new NTupleTrainer(6, 4);
+
+		if (args.length > 1) {
+			trainer.setGames(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			trainer.setThreads(Integer.parseInt(args[2]));
+		}
+
+		long start = System.currentTimeMillis();
+		trainer.train();
+
+		NTupleEvaluator evaluator = trainer.toEvaluator();
+		evaluator.write(new File(args[0]));
+
+		System.out.println("Trained " + evaluator.getWeightCount() + " weights in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+}
@@ -0,0 +1,348 @@
+package com.axolotl.mancala.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * An evaluator which scores a position with a small neural network: the seed counts
+ * of every cell, starting with the side to move's hollows, feed one hidden layer of
+ * rectified linear units, which feed a single output giving the score in seeds.
+ *
+ * The weights are plain float arrays.  Batches are worked through one layer at a time
+ * with the positions in the innermost loop, so that each weight is read once per batch
+ * and the loops are simple enough for the JIT compiler to vectorise.  An instance is
+ * not thread safe, as it keeps its working arrays between calls.
+ *
+ * The weights can be trained from self-play games by the NeuralTrainer and saved to a
+ * small binary file.
+ */
+public class NeuralEvaluator implements BatchEvaluator {
+
+	// Identifies the file format ("MNNE")
+	static final int MAGIC = 0x4D4E4E45;
+
+	// The file format version
+	static final int VERSION = 1;
+
+	// Scales the seed counts to keep the inputs near one
+	static final float INPUT_SCALE = 0.25f;
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The number of inputs, one for each cell
+	private final int mInputs;
+
+	// The number of hidden units
+	private final int mHidden;
+
+	// The weights into each hidden unit, one row of inputs for each unit
+	final float[] mHiddenWeights;
+
+	// The bias of each hidden unit
+	final float[] mHiddenBiases;
+
+	// The weight of each hidden unit in the output
+	final float[] mOutputWeights;
+
+	// The bias of the output, as a one element array so the trainer can update it
+	final float[] mOutputBias;
+
+	// The inputs and hidden activations of a single position
+	private final float[] mInput;
+	private final float[] mActivation;
+
+	// The inputs, hidden activations and outputs of a batch, position by position
+	// within each input or unit
+	private float[] mBatchInputs = new float[0];
+	private float[] mBatchActivations = new float[0];
+	private float[] mBatchOutputs = new float[0];
+
+	/**
+	 * Constructs a network with small random weights
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param hidden The number of hidden units
+	 *
+	 * @param seed The seed for the initial weights
+	 */
+	public NeuralEvaluator(int hollowsPerPlayer, int hidden, long seed) {
+
+		this(hollowsPerPlayer, hidden);
+
+		Random random = new Random(seed);
+		float range = (float) Math.sqrt(6.0 / mInputs);
+
+		for (int i = 0; i < mHiddenWeights.length; i++) {
+			mHiddenWeights[i] = (random.nextFloat() * 2 - 1) * range;
+		}
+
+		range = (float) Math.sqrt(6.0 / mHidden);
+
+		for (int i = 0; i < mOutputWeights.length; i++) {
+			mOutputWeights[i] = (random.nextFloat() * 2 - 1) * range;
+		}
+	}
+
+	/**
+	 * Constructs a network with all its weights zero
+	 */
+	private NeuralEvaluator(int hollowsPerPlayer, int hidden) {
+		mHollows = hollowsPerPlayer;
+		mInputs = 2 * hollowsPerPlayer + 2;
+		mHidden = hidden;
+		mHiddenWeights = new float[mHidden * mInputs];
+		mHiddenBiases = new float[mHidden];
+		mOutputWeights = new float[mHidden];
+		mOutputBias = new float[1];
+		mInput = new float[mInputs];
+		mActivation = new float[mHidden];
+	}
+
+	/**
+	 * Reads a network written by write
+	 *
+	 * @param file The weights file
+	 *
+	 * @return The network
+	 *
+	 * @throws IOException If the file cannot be read or is not a network
+	 */
+	public static NeuralEvaluator read(File file) throws IOException {
+
+		DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+		try {
+
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException("Not a neural evaluator: " + file);
+			}
+
+			NeuralEvaluator network = new NeuralEvaluator(input.readInt(), input.readInt());
+
+			readFloats(input, network.mHiddenWeights);
+			readFloats(input, network.mHiddenBiases);
+			readFloats(input, network.mOutputWeights);
+			readFloats(input, network.mOutputBias);
+
+			return network;
+
+		} catch (EOFException e) {
+			throw new IOException("Truncated neural evaluator: " + file);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Writes the network to a file that can be read back by read
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(mHollows);
+			output.writeInt(mHidden);
+			writeFloats(output, mHiddenWeights);
+			writeFloats(output, mHiddenBiases);
+			writeFloats(output, mOutputWeights);
+			writeFloats(output, mOutputBias);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * @return The hollows on each side of the board
+	 */
+	public int getHollowsPerPlayer() {
+		return mHollows;
+	}
+
+	/**
+	 * @return The number of inputs
+	 */
+	public int getInputs() {
+		return mInputs;
+	}
+
+	/**
+	 * @return The number of hidden units
+	 */
+	public int getHidden() {
+		return mHidden;
+	}
+
+	/**
+	 * Scores a single position
+	 */
+	@Override
+	public int evaluate(Position position) {
+
+		encode(position, mInput, 0, 1);
+
+		return toScore(forward(mInput, mActivation));
+	}
+
+	/**
+	 * Scores a batch of positions a layer at a time
+	 */
+	@Override
+	public void evaluate(Position[] positions, int count, int[] scores) {
+
+		if (count == 0) {
+			return;
+		}
+
+		if (mBatchOutputs.length < count) {
+			mBatchInputs = new float[mInputs * count];
+			mBatchActivations = new float[mHidden * count];
+			mBatchOutputs = new float[count];
+		}
+
+		final float[] inputs = mBatchInputs;
+		final float[] activations = mBatchActivations;
+		final float[] outputs = mBatchOutputs;
+
+		for (int b = 0; b < count; b++) {
+			encode(positions[b], inputs, b, count);
+		}
+
+		for (int j = 0; j < mHidden; j++) {
+
+			final int row = j * mInputs;
+			final int unit = j * count;
+			final float bias = mHiddenBiases[j];
+
+			for (int b = 0; b < count; b++) {
+				activations[unit + b] = bias;
+			}
+
+			for (int i = 0; i < mInputs; i++) {
+
+				final float weight = mHiddenWeights[row + i];
+				final int input = i * count;
+
+				for (int b = 0; b < count; b++) {
+					activations[unit + b] += weight * inputs[input + b];
+				}
+			}
+		}
+
+		final float outputBias = mOutputBias[0];
+
+		for (int b = 0; b < count; b++) {
+			outputs[b] = outputBias;
+		}
+
+		for (int j = 0; j < mHidden; j++) {
+
+			final float weight = mOutputWeights[j];
+			final int unit = j * count;
+
+			for (int b = 0; b < count; b++) {
+				outputs[b] += weight * Math.max(0f, activations[unit + b]);
+			}
+		}
+
+		for (int b = 0; b < count; b++) {
+			scores[b] = toScore(outputs[b]);
+		}
+	}
+
+	/**
+	 * Works out the hidden activations and output for one encoded position
+	 *
+	 * @param input The inputs
+	 *
+	 * @param activation The array to receive the hidden activations, before the units
+	 *        are rectified
+	 *
+	 * @return The output in seeds
+	 */
+	float forward(float[] input, float[] activation) {
+
+		float output = mOutputBias[0];
+
+		for (int j = 0; j < mHidden; j++) {
+
+			final int row = j * mInputs;
+			float sum = mHiddenBiases[j];
+
+			for (int i = 0; i < mInputs; i++) {
+				sum += mHiddenWeights[row + i] * input[i];
+			}
+
+			activation[j] = sum;
+			output += mOutputWeights[j] * Math.max(0f, sum);
+		}
+		return output;
+	}
+
+	/**
+	 * Writes the inputs for a position, starting with the side to move's hollows and
+	 * store
+	 *
+	 * @param position The position
+	 *
+	 * @param input The array to receive the inputs
+	 *
+	 * @param offset The index of the first input
+	 *
+	 * @param stride The distance between consecutive inputs
+	 */
+	void encode(Position position, float[] input, int offset, int stride) {
+
+		final int cells = position.getNumberOfCells();
+		final int first = position.getSideToMove() * (mHollows + 1);
+
+		for (int i = 0; i < mInputs; i++) {
+			int cell = first + i;
+			if (cell >= cells) {
+				cell -= cells;
+			}
+			input[offset + i * stride] = position.getSeeds(cell) * INPUT_SCALE;
+		}
+	}
+
+	/**
+	 * Converts an output in seeds to a score
+	 */
+	private static int toScore(float output) {
+		return Math.round(output * SEED);
+	}
+
+	/**
+	 * Reads an array of floats
+	 */
+	private static void readFloats(DataInputStream input, float[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = input.readFloat();
+		}
+	}
+
+	/**
+	 * Writes an array of floats
+	 */
+	private static void writeFloats(DataOutputStream output, float[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			output.writeFloat(values[i]);
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Trains a NeuralEvaluator to predict the final difference in totals of the positions
+ * from self-play games.
+ *
+ * Training is mini-batch stochastic gradient descent with momentum on the squared
+ * error in seeds, passing over the positions in a shuffled order for a number of
+ * epochs.  The order is seeded, so the same data and seed train the same network.
+ *
+ * Usage: NeuralTrainer file [games] [nodes] [epochs] [threads]
+ */
+public class NeuralTrainer {
+
+	// How much of the previous step is carried into the next
+	private static final float MOMENTUM = 0.9f;
+
+	// The network being trained
+	private final NeuralEvaluator mNetwork;
+
+	// The number of passes over the data
+	private int mEpochs = 20;
+
+	// The number of positions in each step
+	private int mBatchSize = 32;
+
+	// The size of each step
+	private float mLearningRate = 0.0005f;
+
+	// The seed for the order the positions are visited in
+	private long mSeed = 1;
+
+	// The summed gradients of the current batch
+	private final float[] mHiddenWeightGradients;
+	private final float[] mHiddenBiasGradients;
+	private final float[] mOutputWeightGradients;
+	private final float[] mOutputBiasGradient = new float[1];
+
+	// The momentum of each weight
+	private final float[] mHiddenWeightVelocities;
+	private final float[] mHiddenBiasVelocities;
+	private final float[] mOutputWeightVelocities;
+	private final float[] mOutputBiasVelocity = new float[1];
+
+	// The inputs and hidden activations of the position being trained on
+	private final float[] mInput;
+	private final float[] mActivation;
+
+	/**
+	 * Constructs a trainer for the given network
+	 *
+	 * @param network The network, whose weights are updated in place
+	 */
+	public NeuralTrainer(NeuralEvaluator network) {
+		mNetwork = network;
+		mHiddenWeightGradients = new float[network.mHiddenWeights.length];
+		mHiddenBiasGradients = new float[network.mHiddenBiases.length];
+		mOutputWeightGradients = new float[network.mOutputWeights.length];
+		mHiddenWeightVelocities = new float[network.mHiddenWeights.length];
+		mHiddenBiasVelocities = new float[network.mHiddenBiases.length];
+		mOutputWeightVelocities = new float[network.mOutputWeights.length];
+		mInput = new float[network.getInputs()];
+		mActivation = new float[network.getHidden()];
+	}
+
+	/**
+	 * Sets the number of passes over the data
+	 *
+	 * @param epochs The number of epochs
+	 */
+	public void setEpochs(int epochs) {
+		mEpochs = epochs;
+	}
+
+	/**
+	 * Sets the number of positions in each step
+	 *
+	 * @param size The batch size
+	 */
+	public void setBatchSize(int size) {
+		mBatchSize = Math.max(1, size);
+	}
+
+	/**
+	 * Sets the size of each step
+	 *
+	 * @param rate The learning rate
+	 */
+	public void setLearningRate(float rate) {
+		mLearningRate = rate;
+	}
+
+	/**
+	 * Sets the seed for the order the positions are visited in
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Trains the network on the positions from self-play games
+	 *
+	 * @param data The generated games
+	 *
+	 * @return The mean squared error in seeds over the last epoch
+	 */
+	public double train(SelfPlayGenerator data) {
+
+		if (data.getHollowsPerPlayer() != mNetwork.getHollowsPerPlayer()) {
+			throw new IllegalArgumentException("Expected " + mNetwork.getHollowsPerPlayer() + " hollows per player");
+		}
+
+		final int count = data.size();
+		final int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+
+		Random random = new Random(mSeed);
+		double error = 0;
+
+		for (int epoch = 0; epoch < mEpochs; epoch++) {
+
+			// Shuffle the positions so the batches mix different games
+			for (int i = count - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int swap = order[i];
+				order[i] = order[j];
+				order[j] = swap;
+			}
+
+			error = 0;
+
+			for (int start = 0; start < count; start += mBatchSize) {
+
+				int end = Math.min(count, start + mBatchSize);
+
+				for (int i = start; i < end; i++) {
+					error += accumulate(data.getPosition(order[i]), data.getResult(order[i]));
+				}
+				step(end - start);
+			}
+
+			error /= Math.max(1, count);
+		}
+		return error;
+	}
+
+	/**
+	 * Returns the mean squared error in seeds of the network over some positions
+	 *
+	 * @param data The generated games
+	 *
+	 * @return The mean squared error
+	 */
+	public double getError(SelfPlayGenerator data) {
+
+		double error = 0;
+
+		for (int i = 0; i < data.size(); i++) {
+			mNetwork.encode(data.getPosition(i), mInput, 0, 1);
+			double difference = mNetwork.forward(mInput, mActivation) - data.getResult(i);
+			error += difference * difference;
+		}
+		return error / Math.max(1, data.size());
+	}
+
+	/**
+	 * Adds the gradients of the squared error for one position to the batch
+	 *
+	 * @return The squared error
+	 */
+	private double accumulate(Position position, int result) {
+
+		final NeuralEvaluator network = mNetwork;
+		final int inputs = network.getInputs();
+
+		network.encode(position, mInput, 0, 1);
+
+		float difference = network.forward(mInput, mActivation) - result;
+
+		mOutputBiasGradient[0] += difference;
+
+		for (int j = 0; j < mActivation.length; j++) {
+
+			if (mActivation[j] <= 0) {
+				continue;
+			}
+
+			mOutputWeightGradients[j] += difference * mActivation[j];
+
+			float delta = difference * network.mOutputWeights[j];
+			int row = j * inputs;
+
+			mHiddenBiasGradients[j] += delta;
+			for (int i = 0; i < inputs; i++) {
+				mHiddenWeightGradients[row + i] += delta * mInput[i];
+			}
+		}
+		return difference * difference;
+	}
+
+	/**
+	 * Applies the averaged gradients of a batch and clears them
+	 */
+	private void step(int size) {
+
+		float rate = mLearningRate / size;
+
+		update(mNetwork.mHiddenWeights, mHiddenWeightGradients, mHiddenWeightVelocities, rate);
+		update(mNetwork.mHiddenBiases, mHiddenBiasGradients, mHiddenBiasVelocities, rate);
+		update(mNetwork.mOutputWeights, mOutputWeightGradients, mOutputWeightVelocities, rate);
+		update(mNetwork.mOutputBias, mOutputBiasGradient, mOutputBiasVelocity, rate);
+	}
+
+	/**
+	 * Moves some weights against their gradients with momentum, then clears the
+	 * gradients
+	 */
+	private static void update(float[] weights, float[] gradients, float[] velocities, float rate) {
+		for (int i = 0; i < weights.length; i++) {
+			velocities[i] = MOMENTUM * velocities[i] - rate * gradients[i];
+			weights[i] += velocities[i];
+			gradients[i] = 0;
+		}
+	}
+
+	/**
+	 * Trains a network for the standard board from the command line
+	 *
+	 * @param args The weights file to write, and optionally the number of games, the
+	 *        nodes per move, the number of epochs and the number of threads
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.err.println("Usage: NeuralTrainer file [games] [nodes] [epochs] [threads]");
+			System.exit(1);
+		}
+
+		SelfPlayGenerator data = new SelfPlayGenerator(6, 4);
+		NeuralEvaluator network = new NeuralEvaluator(6, 32, 1);
+		NeuralTrainer trainer = new NeuralTrainer(network);
+
+		if (args.length > 1) {
+			data.setGames(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			data.setNodeBudget(Integer.parseInt(args[2]));
+		}
+		if (args.length > 3) {
+			trainer.setEpochs(Integer.parseInt(args[3]));
+		}
+		if (args.length > 4) {
+			data.setThreads(Integer.parseInt(args[4]));
+		}
+
+		long start = System.currentTimeMillis();
+		data.generate();
+
+		System.out.println("Generated " + data.size() + " positions in "
+				+ (System.currentTimeMillis() - start) + "ms");
+
+		double initial = trainer.getError(data);
+		double error = trainer.train(data);
+		network.write(new File(args[0]));
+
+		System.out.println("Mean squared error " + initial + " to " + error + " seeds");
+	}
+}
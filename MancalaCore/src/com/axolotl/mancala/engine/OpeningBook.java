@@ -0,0 +1,156 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A book of precomputed moves for the opening positions, as written by the
+ * OpeningBookBuilder.
+ *
+ * The file is a header followed by fixed size records sorted by position hash.  It is
+ * memory mapped rather than read, so opening a book costs nothing up front, and each
+ * lookup is a binary search over the mapped records.
+ */
+public class OpeningBook implements MoveOracle {
+
+	// Identifies the file format ("MOBK")
+	static final int MAGIC = 0x4D4F424B;
+
+	// The file format version
+	static final int VERSION = 1;
+
+	// The number of bytes before the first record
+	static final int HEADER_SIZE = 16;
+
+	// The size of a record: hash (8), score (4), depth (2), move (2)
+	static final int RECORD_SIZE = 16;
+
+	// The hollows per player the book was built for
+	private final int mHollows;
+
+	// The mapped file
+	private final ByteBuffer mBuffer;
+
+	// The number of records
+	private final int mCount;
+
+	/**
+	 * Constructs a book over the given buffer
+	 *
+	 * @param buffer The file contents, including the header
+	 */
+	OpeningBook(ByteBuffer buffer) {
+		mBuffer = buffer;
+		mHollows = buffer.getInt(8);
+		mCount = buffer.getInt(12);
+	}
+
+	/**
+	 * Opens a book file by memory mapping it
+	 *
+	 * @param file The file written by the builder
+	 *
+	 * @return The book
+	 *
+	 * @throws IOException If the file cannot be read or is not a book
+	 */
+	public static OpeningBook open(File file) throws IOException {
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+		try {
+
+			FileChannel channel = raf.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+				throw new IOException("Not an opening book: " + file);
+			}
+
+			if (buffer.limit() != HEADER_SIZE + (long) buffer.getInt(12) * RECORD_SIZE) {
+				throw new IOException("Truncated opening book: " + file);
+			}
+
+			return new OpeningBook(buffer);
+
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * @return The number of positions in the book
+	 */
+	public int size() {
+		return mCount;
+	}
+
+	/**
+	 * Returns the booked move for a position
+	 *
+	 * @param position The position, with the computer to move
+	 *
+	 * @return The hollow to play, or NO_MOVE if the position is not in the book or the
+	 *         booked move cannot be played in it, as when another position shares its
+	 *         hash or the book was built for other rules
+	 */
+	@Override
+	public int suggestMove(Position position) {
+
+		int record = find(position);
+
+		if (record < 0) {
+			return NO_MOVE;
+		}
+
+		int move = mBuffer.getShort(record + 14);
+		return move >= 0 && move < mHollows && position.isLegal(move) ? move : NO_MOVE;
+	}
+
+	/**
+	 * Returns the booked score for a position
+	 *
+	 * @param position The position to look up
+	 *
+	 * @return The score for the side to move, or null if the position is not in the book
+	 */
+	public Integer getScore(Position position) {
+		int record = find(position);
+		return record < 0 ? null : Integer.valueOf(mBuffer.getInt(record + 8));
+	}
+
+	/**
+	 * Binary searches the records for the position's hash
+	 *
+	 * @return The offset of the record, or -1 if not found
+	 */
+	private int find(Position position) {
+
+		if (position.getHollowsPerPlayer() != mHollows) {
+			return -1;
+		}
+
+		long hash = position.hash();
+		int low = 0;
+		int high = mCount - 1;
+
+		while (low <= high) {
+
+			int middle = (low + high) >>> 1;
+			int offset = HEADER_SIZE + middle * RECORD_SIZE;
+			long key = mBuffer.getLong(offset);
+
+			if (key < hash) {
+				low = middle + 1;
+			} else if (key > hash) {
+				high = middle - 1;
+			} else {
+				return offset;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,308 @@
+package com.axolotl.mancala.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Builds an OpeningBook by searching every position within a few plies of the start
+ * of the game, with either player moving first.
+ *
+ * The positions are searched in parallel, each thread with its own search and
+ * transposition table, and written out sorted by hash.
+ *
+ * Usage: OpeningBookBuilder file [bookPly] [searchDepth] [threads]
+ */
+public class OpeningBookBuilder {
+
+	// The size of each thread's transposition table in megabytes
+	private static final int TABLE_MEGABYTES = 16;
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The seeds initially in each hollow
+	private final int mSeeds;
+
+	// The number of plies from the start to include
+	private int mBookPly = 6;
+
+	// The depth each position is searched to
+	private int mSearchDepth = 14;
+
+	// The number of threads to search with
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The positions in the book
+	private final List<Position> mPositions = new ArrayList<Position>();
+
+	// The hash, score, depth and move of each position, once built
+	private long[] mHashes;
+	private int[] mScores;
+	private int[] mDepths;
+	private int[] mMoves;
+
+	/**
+	 * Constructs a builder for the given board
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param seedsPerHollow The seeds initially in each hollow
+	 */
+	public OpeningBookBuilder(int hollowsPerPlayer, int seedsPerHollow) {
+		mHollows = hollowsPerPlayer;
+		mSeeds = seedsPerHollow;
+	}
+
+	/**
+	 * Sets how many plies from the start of the game the book covers
+	 *
+	 * @param ply The number of plies, counting each extra turn
+	 */
+	public void setBookPly(int ply) {
+		mBookPly = ply;
+	}
+
+	/**
+	 * Sets the depth that each book position is searched to
+	 *
+	 * @param depth The search depth
+	 */
+	public void setSearchDepth(int depth) {
+		mSearchDepth = depth;
+	}
+
+	/**
+	 * Sets the number of threads used to search the positions
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * @return The number of positions in the book
+	 */
+	public int size() {
+		return mPositions.size();
+	}
+
+	/**
+	 * Finds and searches the book positions
+	 */
+	public void build() {
+
+		collectPositions();
+
+		final int count = mPositions.size();
+		mHashes = new long[count];
+		mScores = new int[count];
+		mDepths = new int[count];
+		mMoves = new int[count];
+
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<Void>() {
+				public Void call() {
+
+					AlphaBetaSearch search = new AlphaBetaSearch(
+							TranspositionTable.withMegabytes(TABLE_MEGABYTES), new StoreEvaluator());
+
+					for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+
+						Position position = mPositions.get(i);
+						SearchResult result = search.search(position, mSearchDepth);
+
+						mHashes[i] = position.hash();
+						mScores[i] = result.getScore();
+						mDepths[i] = result.getDepth();
+						mMoves[i] = result.getMove();
+					}
+					return null;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (Future<Void> result : executor.invokeAll(workers)) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Opening book build interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Opening book build failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the built book without writing it to disk
+	 *
+	 * @return The book
+	 */
+	public OpeningBook toBook() {
+		return new OpeningBook(ByteBuffer.wrap(toBytes()));
+	}
+
+	/**
+	 * Writes the built book to a file that can be opened by OpeningBook
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+
+		try {
+			output.write(toBytes());
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Walks the game tree from both starting positions, keeping each distinct position
+	 * that is not over
+	 */
+	private void collectPositions() {
+
+		mPositions.clear();
+		Set<Position> seen = new HashSet<Position>();
+		List<Position> frontier = new ArrayList<Position>();
+
+		for (int side = 0; side < 2; side++) {
+			Position start = Position.createInitial(mHollows, mSeeds);
+			start.setSideToMove(side);
+			if (seen.add(start)) {
+				frontier.add(start);
+			}
+		}
+
+		for (int ply = 0; ply <= mBookPly && !frontier.isEmpty(); ply++) {
+
+			mPositions.addAll(frontier);
+
+			if (ply == mBookPly) {
+				break;
+			}
+
+			List<Position> next = new ArrayList<Position>();
+
+			for (Position position : frontier) {
+				for (int move = 0; move < mHollows; move++) {
+
+					if (!position.isLegal(move)) {
+						continue;
+					}
+
+					Position child = position.copy();
+					child.play(move);
+
+					if (!child.isGameOver() && seen.add(child)) {
+						next.add(child);
+					}
+				}
+			}
+			frontier = next;
+		}
+	}
+
+	/**
+	 * Encodes the book, sorting the records by hash
+	 */
+	private byte[] toBytes() {
+
+		if (mHashes == null) {
+			throw new MancalaException("The book has not been built");
+		}
+
+		Integer[] order = new Integer[mHashes.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = Integer.valueOf(i);
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				long x = mHashes[a.intValue()];
+				long y = mHashes[b.intValue()];
+				return x < y ? -1 : (x > y ? 1 : 0);
+			}
+		});
+
+		ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + order.length * OpeningBook.RECORD_SIZE);
+		buffer.putInt(OpeningBook.MAGIC);
+		buffer.putInt(OpeningBook.VERSION);
+		buffer.putInt(mHollows);
+		buffer.putInt(order.length);
+
+		for (Integer index : order) {
+			int i = index.intValue();
+			buffer.putLong(mHashes[i]);
+			buffer.putInt(mScores[i]);
+			buffer.putShort((short) mDepths[i]);
+			buffer.putShort((short) mMoves[i]);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Builds a book for the standard board from the command line
+	 *
+	 * @param args The file, and optionally the book ply, search depth and number of
+	 *        threads
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.err.println("Usage: OpeningBookBuilder file [bookPly] [searchDepth] [threads]");
+			System.exit(1);
+		}
+
+		OpeningBookBuilder builder = new OpeningBookBuilder(6, 4);
+
+		if (args.length > 1) {
+			builder.setBookPly(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			builder.setSearchDepth(Integer.parseInt(args[2]));
+		}
+		if (args.length > 3) {
+			builder.setThreads(Integer.parseInt(args[3]));
+		}
+
+		long start = System.currentTimeMillis();
+		builder.build();
+		builder.write(new File(args[0]));
+
+		System.out.println("Searched " + builder.size() + " positions in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+}
@@ -0,0 +1,287 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Counts the lines of play to a given depth from a position, to check a move
+ * generator against another and to measure its speed.
+ *
+ * A line ends after the given number of moves, or sooner if the game ends, and each
+ * line counts as one leaf.  Moves are either single sowings, so that an extra turn is
+ * a move of its own, or complete turns as produced by the TurnGenerator, where the
+ * chains of extra turns that reach the same position count as one turn.  The number
+ * of distinct positions at the leaves can be counted as well.
+ *
+ * The tree is split a couple of moves below the root into subtrees that are counted
+ * in parallel, so the counts do not depend on the number of threads.
+ *
+ * Usage: Perft depth [threads] [turns]
+ */
+public class Perft {
+
+	// The depth below the root at which the tree is split into subtrees
+	private static final int SPLIT_DEPTH = 2;
+
+	// The number of threads to count with
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// Whether each move is a complete turn rather than a single sowing
+	private boolean mTurns;
+
+	// Whether to count the distinct positions at the leaves
+	private boolean mCountDistinct;
+
+	/**
+	 * Sets the number of threads used to count the subtrees
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets whether each move is a complete turn, with its chain of extra turns, rather
+	 * than a single sowing
+	 *
+	 * @param turns True to count complete turns
+	 */
+	public void setTurns(boolean turns) {
+		mTurns = turns;
+	}
+
+	/**
+	 * Sets whether to count the distinct positions at the leaves, which needs memory
+	 * for every one of them
+	 *
+	 * @param countDistinct True to count the distinct positions
+	 */
+	public void setCountDistinct(boolean countDistinct) {
+		mCountDistinct = countDistinct;
+	}
+
+	/**
+	 * Counts the lines of play from a position
+	 *
+	 * @param root The position to count from
+	 *
+	 * @param depth The number of moves in each line
+	 *
+	 * @return The counts
+	 */
+	public PerftResult count(Position root, int depth) {
+
+		final long start = System.nanoTime();
+
+		// Split the tree into subtrees, counting the lines that end above the split
+		final List<Position> subtrees = new ArrayList<Position>();
+		final Counter top = new Counter(root.getHollowsPerPlayer(), depth);
+		final int split = Math.min(SPLIT_DEPTH, depth);
+
+		top.split(root, split, subtrees);
+
+		final int remaining = depth - split;
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Counter>> workers = new ArrayList<Callable<Counter>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<Counter>() {
+				public Counter call() {
+
+					Counter counter = new Counter(top.mHollows, remaining);
+
+					for (int i = next.getAndIncrement(); i < subtrees.size(); i = next.getAndIncrement()) {
+						counter.count(subtrees.get(i), remaining, 0);
+					}
+					return counter;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (Future<Counter> result : executor.invokeAll(workers)) {
+				top.add(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Perft interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Perft failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		return new PerftResult(depth, top.mLeaves, mCountDistinct ? top.mDistinct.size() : -1, top.mNodes,
+				System.nanoTime() - start);
+	}
+
+	/**
+	 * Counts the lines in some subtrees on one thread
+	 */
+	private class Counter {
+
+		// The hollows on each side of the board
+		private final int mHollows;
+
+		// The positions and moves at each depth below the subtree's root
+		private final Position[] mStack;
+		private final int[][] mMoves;
+		private final TurnGenerator[] mGenerators;
+
+		// The positions visited, and the lines counted
+		private long mNodes;
+		private long mLeaves;
+
+		// Copies of the positions at the leaves, if they are wanted, compared cell by
+		// cell so that two positions sharing a hash are still counted apart
+		private final Set<Position> mDistinct = new HashSet<Position>();
+
+		Counter(int hollows, int depth) {
+
+			mHollows = hollows;
+			mStack = new Position[depth + 1];
+			mMoves = new int[depth + 1][hollows];
+			mGenerators = new TurnGenerator[depth + 1];
+
+			for (int i = 0; i <= depth; i++) {
+				mStack[i] = new Position(hollows);
+				mGenerators[i] = new TurnGenerator(hollows);
+			}
+		}
+
+		/**
+		 * Counts the lines of the given depth from a position
+		 */
+		void count(Position position, int depth, int ply) {
+
+			mNodes++;
+
+			if (depth == 0 || position.isGameOver()) {
+				leaf(position);
+				return;
+			}
+
+			if (mTurns) {
+
+				TurnGenerator turns = mGenerators[ply];
+				int count = turns.generate(position);
+
+				for (int i = 0; i < count; i++) {
+					count(turns.getPosition(i), depth - 1, ply + 1);
+				}
+
+			} else {
+
+				int[] moves = mMoves[ply];
+				int count = position.getLegalMoves(moves);
+				Position child = mStack[ply + 1];
+
+				for (int i = 0; i < count; i++) {
+					child.copyFrom(position);
+					child.play(moves[i]);
+					count(child, depth - 1, ply + 1);
+				}
+			}
+		}
+
+		/**
+		 * Walks the top of the tree, keeping a copy of each position at the split depth
+		 * and counting the lines that end above it
+		 */
+		void split(Position position, int depth, List<Position> subtrees) {
+
+			if (depth == 0) {
+				subtrees.add(position.copy());
+				return;
+			}
+
+			mNodes++;
+
+			if (position.isGameOver()) {
+				leaf(position);
+				return;
+			}
+
+			if (mTurns) {
+
+				TurnGenerator turns = new TurnGenerator(mHollows);
+				int count = turns.generate(position);
+
+				for (int i = 0; i < count; i++) {
+					split(turns.getPosition(i), depth - 1, subtrees);
+				}
+
+			} else {
+
+				int[] moves = new int[mHollows];
+				int count = position.getLegalMoves(moves);
+
+				for (int i = 0; i < count; i++) {
+					Position child = position.copy();
+					child.play(moves[i]);
+					split(child, depth - 1, subtrees);
+				}
+			}
+		}
+
+		/**
+		 * Counts a line ending at a position
+		 */
+		private void leaf(Position position) {
+			mLeaves++;
+			if (mCountDistinct && !mDistinct.contains(position)) {
+				mDistinct.add(position.copy());
+			}
+		}
+
+		/**
+		 * Adds the counts of another counter to this one
+		 */
+		void add(Counter other) {
+			mNodes += other.mNodes;
+			mLeaves += other.mLeaves;
+			mDistinct.addAll(other.mDistinct);
+		}
+	}
+
+	/**
+	 * Counts the lines from the initial position of the standard board from the
+	 * command line, for each depth up to the one given
+	 *
+	 * @param args The depth, and optionally the number of threads and "turns" to count
+	 *        complete turns
+	 */
+	public static void main(String[] args) {
+
+		if (args.length < 1) {
+			System.err.println("Usage: Perft depth [threads] [turns]");
+			System.exit(1);
+		}
+
+		Perft perft = new Perft();
+
+		if (args.length > 1) {
+			perft.setThreads(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			perft.setTurns("turns".equals(args[2]));
+		}
+
+		for (int depth = 1; depth <= Integer.parseInt(args[0]); depth++) {
+			System.out.println(perft.count(Position.createInitial(6, 4), depth));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The counts made by Perft
+ */
+public class PerftResult {
+
+	// The number of moves in each line
+	private final int mDepth;
+
+	// The number of lines
+	private final long mLeaves;
+
+	// The number of distinct positions at the ends of the lines, or -1 if not counted
+	private final long mDistinct;
+
+	// The number of positions visited
+	private final long mNodes;
+
+	// The time taken, in nanoseconds
+	private final long mElapsedNanos;
+
+	/**
+	 * Constructs a new result
+	 *
+	 * @param depth The number of moves in each line
+	 *
+	 * @param leaves The number of lines
+	 *
+	 * @param distinct The number of distinct positions at the ends of the lines, or -1
+	 *        if they were not counted
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param elapsedNanos The time taken, in nanoseconds
+	 */
+	public PerftResult(int depth, long leaves, long distinct, long nodes, long elapsedNanos) {
+		mDepth = depth;
+		mLeaves = leaves;
+		mDistinct = distinct;
+		mNodes = nodes;
+		mElapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return The number of moves in each line
+	 */
+	public int getDepth() {
+		return mDepth;
+	}
+
+	/**
+	 * @return The number of lines, including those cut short by the end of the game
+	 */
+	public long getLeaves() {
+		return mLeaves;
+	}
+
+	/**
+	 * @return The number of distinct positions at the ends of the lines, or -1 if they
+	 *         were not counted
+	 */
+	public long getDistinct() {
+		return mDistinct;
+	}
+
+	/**
+	 * @return The number of positions visited
+	 */
+	public long getNodes() {
+		return mNodes;
+	}
+
+	/**
+	 * @return The time taken, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return mElapsedNanos;
+	}
+
+	/**
+	 * @return The positions visited per second
+	 */
+	public double getNodesPerSecond() {
+		return mElapsedNanos == 0 ? 0 : mNodes * 1e9 / mElapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "depth " + mDepth + " leaves " + mLeaves + (mDistinct >= 0 ? " distinct " + mDistinct : "")
+				+ " nodes " + mNodes + " time " + mElapsedNanos / 1000000 + "ms "
+				+ Math.round(getNodesPerSecond()) + " nodes/s";
+	}
+}
@@ -0,0 +1,251 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thinks about the computer's next move while its opponent is still deciding.
+ *
+ * Given a position with the opponent to move, the ponderer works out every position
+ * the opponent's turn could leave (following any extra turns), and searches them in
+ * order of how good they look for the opponent.  The results are kept until the next
+ * call to start, and because the search shares the player's transposition table,
+ * even replies that were not finished leave useful entries behind.
+ *
+ * A player that searches within a node budget from an empty table each move must be
+ * given a ponderer with a table of its own, of the same size, and the same budget.
+ * Each reply is then searched exactly as the player would search it, from a cleared
+ * table, so a pondered result is the move the player would have chosen anyway.
+ *
+ * The searching is done on a single low priority daemon thread.
+ */
+public class Ponderer {
+
+	// The most positions that will be pondered for a single turn
+	private static final int MAX_REPLIES = 64;
+
+	// The search used while pondering
+	private final AlphaBetaSearch mSearch;
+
+	// Used to order the opponent's replies
+	private final Evaluator mEvaluator;
+
+	// The depth each reply is searched to
+	private final int mDepth;
+
+	// The nodes each reply is searched for from an empty table, or 0 to search to the
+	// full depth with the table as it is
+	private long mNodeLimit;
+
+	// The completed results, keyed by the position with the computer to move
+	private final Map<Position, SearchResult> mResults = new ConcurrentHashMap<Position, SearchResult>();
+
+	// The thread currently pondering, if any
+	private Thread mThread;
+
+	// Set to ask the pondering thread to finish
+	private volatile boolean mStopping;
+
+	// The number of times a pondered result has been used
+	private int mHits;
+
+	/**
+	 * Constructs a new ponderer
+	 *
+	 * @param table The transposition table, normally shared with the player's search
+	 *
+	 * @param evaluator The evaluator used by the player
+	 *
+	 * @param depth The depth the player searches to
+	 */
+	public Ponderer(TranspositionTable table, Evaluator evaluator, int depth) {
+		mSearch = new AlphaBetaSearch(table, evaluator);
+		mEvaluator = evaluator;
+		mDepth = depth;
+	}
+
+	/**
+	 * Chooses whether the depth counts single moves or complete turns, which must match
+	 * the player's own search
+	 *
+	 * @param enabled True to search complete turns
+	 */
+	public void setSearchByTurns(boolean enabled) {
+		mSearch.setSearchByTurns(enabled);
+	}
+
+	/**
+	 * Chooses whether the leaves are extended with captures and extra turns, which
+	 * must match the player's own search
+	 *
+	 * @param enabled True to extend the leaves
+	 */
+	public void setQuiescence(boolean enabled) {
+		mSearch.setQuiescence(enabled);
+	}
+
+	/**
+	 * Sets the node budget of the player's search from an empty table, which the
+	 * replies are then searched with.  The table must not be shared with the player.
+	 *
+	 * @param nodes The budget, or 0 to search each reply to the full depth, the default
+	 */
+	public void setNodeLimit(long nodes) {
+		mNodeLimit = nodes;
+		mSearch.setNodeLimit(nodes);
+	}
+
+	/**
+	 * Starts pondering in the background, stopping any previous pondering first
+	 *
+	 * @param opponentToMove The current position, with the opponent to move
+	 */
+	public synchronized void start(Position opponentToMove) {
+
+		stop();
+		mResults.clear();
+		mStopping = false;
+
+		final Position root = opponentToMove.copy();
+
+		mThread = new Thread(new Runnable() {
+			public void run() {
+				ponder(root);
+			}
+		}, "Ponderer");
+
+		mThread.setDaemon(true);
+		mThread.setPriority(Thread.MIN_PRIORITY);
+		mThread.start();
+	}
+
+	/**
+	 * Stops pondering and waits for the background thread to finish.  The wait goes on
+	 * if the calling thread is interrupted, as the search may not be shared with a new
+	 * pondering thread, and the interrupt is restored once the thread has finished.
+	 */
+	public synchronized void stop() {
+
+		if (mThread == null) {
+			return;
+		}
+
+		mStopping = true;
+		boolean interrupted = false;
+
+		// Keep aborting, in case a new search started after the last abort
+		while (mThread.isAlive()) {
+			mSearch.abort();
+			try {
+				mThread.join(10);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		mThread = null;
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return True if the background thread is still searching
+	 */
+	public synchronized boolean isPondering() {
+		return mThread != null && mThread.isAlive();
+	}
+
+	/**
+	 * Returns the pondered result for a position, if one was completed
+	 *
+	 * @param computerToMove The position after the opponent's turn
+	 *
+	 * @return The result, or null if the position was not pondered to full depth, or
+	 *         within the full budget
+	 */
+	public SearchResult getResult(Position computerToMove) {
+
+		SearchResult result = mResults.get(computerToMove);
+
+		if (result != null) {
+			mHits++;
+		}
+		return result;
+	}
+
+	/**
+	 * @return The number of times a pondered result has been returned
+	 */
+	public int getHits() {
+		return mHits;
+	}
+
+	/**
+	 * Searches each position the opponent's turn could lead to, most likely first
+	 */
+	private void ponder(Position root) {
+
+		List<Position> replies = collectReplies(root);
+
+		// Order by how good each reply looks for the opponent
+		final int count = replies.size();
+		int[] scores = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			scores[i] = -mEvaluator.evaluate(replies.get(i));
+		}
+
+		for (int i = 1; i < count; i++) {
+			for (int j = i; j > 0 && scores[j - 1] < scores[j]; j--) {
+				int score = scores[j];
+				scores[j] = scores[j - 1];
+				scores[j - 1] = score;
+				Position position = replies.get(j);
+				replies.set(j, replies.get(j - 1));
+				replies.set(j - 1, position);
+			}
+		}
+
+		for (Position reply : replies) {
+
+			if (mStopping) {
+				return;
+			}
+
+			if (mNodeLimit > 0) {
+				mSearch.getTranspositionTable().clear();
+			}
+
+			SearchResult result = mSearch.search(reply, mDepth);
+
+			// A budgeted search that ran out of nodes is finished, but one that was
+			// aborted is not, and neither is one short of the full depth
+			if (mNodeLimit > 0 ? mStopping : result.getDepth() < mDepth) {
+				return;
+			}
+
+			mResults.put(reply, result);
+		}
+	}
+
+	/**
+	 * Collects the distinct positions at the end of the opponent's turn that are not over
+	 */
+	private List<Position> collectReplies(Position position) {
+
+		TurnGenerator turns = new TurnGenerator(position.getHollowsPerPlayer());
+		int count = turns.generate(position);
+		List<Position> replies = new ArrayList<Position>();
+
+		for (int i = 0; i < count && replies.size() < MAX_REPLIES; i++) {
+			if (!turns.getPosition(i).isGameOver()) {
+				replies.add(turns.getPosition(i).copy());
+			}
+		}
+		return replies;
+	}
+}
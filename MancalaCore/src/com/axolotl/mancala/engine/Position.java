@@ -0,0 +1,495 @@
+package com.axolotl.mancala.engine;
+
+import java.util.List;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * A compact model of a mancala position using the egyptian rules, used by the
+ * computer players when looking ahead.
+ *
+ * The seeds are held in a single array of cells, in the same order as
+ * Board.getPits(): player one's hollows, player one's store, player two's hollows
+ * and finally player two's store.  Moves are given as the index of a hollow relative
+ * to the side to move, so move i matches board.getPlayersPits(player).get(i).
+ *
+ * Unlike the Board, playing a move on a position does not allocate and does not
+ * raise any game events, which makes it suitable for use in tight search loops.
+ */
+public final class Position {
+
+	/**
+	 * Returned by play when the move had no special outcome
+	 */
+	public static final int NORMAL = 0;
+
+	/**
+	 * Flag returned by play when the last seed landed in the mover's store
+	 */
+	public static final int EXTRA_TURN = 1;
+
+	/**
+	 * Flag returned by play when the move captured the opposing hollow
+	 */
+	public static final int CAPTURE = 2;
+
+	/**
+	 * Flag returned by play when the move ended the game
+	 */
+	public static final int GAME_OVER = 4;
+
+	// The number of hollows on each side of the board
+	private final int mHollows;
+
+	// The seed count for each hollow and store
+	private final int[] mCells;
+
+	// The side to move, 0 for player one and 1 for player two
+	private int mSide;
+
+	/**
+	 * Constructs an empty position
+	 *
+	 * @param hollowsPerPlayer The number of hollows on each side of the board
+	 */
+	public Position(int hollowsPerPlayer) {
+		mHollows = hollowsPerPlayer;
+		mCells = new int[2 * hollowsPerPlayer + 2];
+	}
+
+	/**
+	 * Creates a position with the given number of seeds in each hollow, and player one
+	 * to move
+	 *
+	 * @param hollowsPerPlayer The number of hollows on each side of the board
+	 *
+	 * @param seedsPerHollow The initial seeds in each hollow
+	 *
+	 * @return The starting position
+	 */
+	public static Position createInitial(int hollowsPerPlayer, int seedsPerHollow) {
+		Position position = new Position(hollowsPerPlayer);
+		for (int i = 0; i < hollowsPerPlayer; i++) {
+			position.mCells[i] = seedsPerHollow;
+			position.mCells[hollowsPerPlayer + 1 + i] = seedsPerHollow;
+		}
+		return position;
+	}
+
+	/**
+	 * Creates a position from the current state of the board
+	 *
+	 * @param board The board to copy
+	 *
+	 * @param playerToMove The player whose turn it is
+	 *
+	 * @return The position
+	 */
+	public static Position fromBoard(Board board, PlayerNumber playerToMove) {
+		Position position = new Position(board.getNumberOfHollowsPerPlayer());
+		position.load(board, playerToMove);
+		return position;
+	}
+
+	/**
+	 * Copies the seed counts from the board into this position
+	 *
+	 * @param board The board to copy, which must have the same number of hollows
+	 *
+	 * @param playerToMove The player whose turn it is
+	 */
+	public void load(Board board, PlayerNumber playerToMove) {
+		List<Pit> pits = board.getPits();
+		for (int i = 0; i < mCells.length; i++) {
+			mCells[i] = pits.get(i).getNumberOfMarbles();
+		}
+		mSide = playerToMove == PlayerNumber.One ? 0 : 1;
+	}
+
+	/**
+	 * Copies the state of another position of the same size into this one
+	 *
+	 * @param other The position to copy
+	 */
+	public void copyFrom(Position other) {
+		System.arraycopy(other.mCells, 0, mCells, 0, mCells.length);
+		mSide = other.mSide;
+	}
+
+	/**
+	 * Returns a new copy of this position
+	 *
+	 * @return The copy
+	 */
+	public Position copy() {
+		Position position = new Position(mHollows);
+		position.copyFrom(this);
+		return position;
+	}
+
+	/**
+	 * @return The number of hollows on each side of the board
+	 */
+	public int getHollowsPerPlayer() {
+		return mHollows;
+	}
+
+	/**
+	 * @return The number of cells (hollows and stores) on the board
+	 */
+	public int getNumberOfCells() {
+		return mCells.length;
+	}
+
+	/**
+	 * @return The side to move, 0 for player one and 1 for player two
+	 */
+	public int getSideToMove() {
+		return mSide;
+	}
+
+	/**
+	 * Sets the side to move
+	 *
+	 * @param side 0 for player one and 1 for player two
+	 */
+	public void setSideToMove(int side) {
+		mSide = side;
+	}
+
+	/**
+	 * @return The player whose turn it is
+	 */
+	public PlayerNumber getPlayerToMove() {
+		return mSide == 0 ? PlayerNumber.One : PlayerNumber.Two;
+	}
+
+	/**
+	 * Returns the seeds in the given cell
+	 *
+	 * @param cell The cell index, in board order
+	 *
+	 * @return The number of seeds
+	 */
+	public int getSeeds(int cell) {
+		return mCells[cell];
+	}
+
+	/**
+	 * Sets the seeds in the given cell
+	 *
+	 * @param cell The cell index, in board order
+	 *
+	 * @param seeds The number of seeds
+	 */
+	public void setSeeds(int cell, int seeds) {
+		mCells[cell] = seeds;
+	}
+
+	/**
+	 * Returns the seeds in one of a side's hollows
+	 *
+	 * @param side The side, 0 or 1
+	 *
+	 * @param hollow The hollow index relative to that side
+	 *
+	 * @return The number of seeds
+	 */
+	public int getHollowSeeds(int side, int hollow) {
+		return mCells[side * (mHollows + 1) + hollow];
+	}
+
+	/**
+	 * Returns the seeds in a side's store
+	 *
+	 * @param side The side, 0 or 1
+	 *
+	 * @return The number of seeds in the store
+	 */
+	public int getStoreSeeds(int side) {
+		return mCells[side * (mHollows + 1) + mHollows];
+	}
+
+	/**
+	 * Returns the seeds left in a side's hollows
+	 *
+	 * @param side The side, 0 or 1
+	 *
+	 * @return The number of seeds still in play on that side
+	 */
+	public int getSeedsOnSide(int side) {
+		int base = side * (mHollows + 1);
+		int total = 0;
+		for (int i = 0; i < mHollows; i++) {
+			total += mCells[base + i];
+		}
+		return total;
+	}
+
+	/**
+	 * @return The number of seeds still in play on both sides of the board
+	 */
+	public int getSeedsInPlay() {
+		return getSeedsOnSide(0) + getSeedsOnSide(1);
+	}
+
+	/**
+	 * @return True if either side has run out of seeds
+	 */
+	public boolean isGameOver() {
+		return getSeedsOnSide(0) == 0 || getSeedsOnSide(1) == 0;
+	}
+
+	/**
+	 * Returns the difference between the final totals (store plus remaining seeds) of
+	 * the given side and its opponent.  Once the game is over this is the final result.
+	 *
+	 * @param side The side to score for
+	 *
+	 * @return The total for side minus the total for the opponent
+	 */
+	public int getTotalDifference(int side) {
+		int mine = getStoreSeeds(side) + getSeedsOnSide(side);
+		int theirs = getStoreSeeds(1 - side) + getSeedsOnSide(1 - side);
+		return mine - theirs;
+	}
+
+	/**
+	 * Returns the difference between the stores of the given side and its opponent
+	 *
+	 * @param side The side to score for
+	 *
+	 * @return The store for side minus the store for the opponent
+	 */
+	public int getStoreDifference(int side) {
+		return getStoreSeeds(side) - getStoreSeeds(1 - side);
+	}
+
+	/**
+	 * Determines whether the side to move can play the given hollow
+	 *
+	 * @param move The hollow index relative to the side to move
+	 *
+	 * @return True if the hollow contains seeds
+	 */
+	public boolean isLegal(int move) {
+		return move >= 0 && move < mHollows && mCells[mSide * (mHollows + 1) + move] > 0;
+	}
+
+	/**
+	 * Writes the legal moves for the side to move into the given array
+	 *
+	 * @param moves The array to receive the moves, at least getHollowsPerPlayer() long
+	 *
+	 * @return The number of moves written
+	 */
+	public int getLegalMoves(int[] moves) {
+		int base = mSide * (mHollows + 1);
+		int count = 0;
+		for (int i = 0; i < mHollows; i++) {
+			if (mCells[base + i] > 0) {
+				moves[count++] = i;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Determines whether the given move would end in the mover's store, without
+	 * playing it
+	 *
+	 * @param move The hollow index relative to the side to move
+	 *
+	 * @return True if the move earns another turn
+	 */
+	public boolean isExtraTurnMove(int move) {
+		int seeds = mCells[mSide * (mHollows + 1) + move];
+		return seeds > 0 && seeds % (2 * mHollows + 1) == mHollows - move;
+	}
+
+	/**
+	 * Determines whether the given move would capture the opposing hollow, without
+	 * playing it
+	 *
+	 * @param move The hollow index relative to the side to move
+	 *
+	 * @return True if the last seed lands alone in one of the mover's hollows with seeds
+	 *         opposite
+	 */
+	public boolean isCaptureMove(int move) {
+
+		final int base = mSide * (mHollows + 1);
+		final int origin = base + move;
+		final int ring = 2 * mHollows + 1;
+		final int seeds = mCells[origin];
+
+		if (seeds == 0) {
+			return false;
+		}
+
+		// Every cell on the ring gets one seed per full lap, and the first few get one more
+		final int laps = seeds / ring;
+		final int extra = seeds % ring;
+		final int landing = extra == 0 ? origin : stepAround(origin, extra);
+
+		if (landing < base || landing >= base + mHollows) {
+			return false;
+		}
+
+		int landed = (landing == origin ? 0 : mCells[landing]) + laps + (extra > 0 ? 1 : 0);
+
+		if (landed != 1) {
+			return false;
+		}
+
+		int opposite = 2 * mHollows - landing;
+		int opposed = mCells[opposite] + laps + (extra > 0 && distanceAround(origin, opposite) <= extra ? 1 : 0);
+		return opposed > 0;
+	}
+
+	/**
+	 * Plays the given hollow for the side to move, using the egyptian rules.  The side
+	 * to move is switched unless the move earns another turn or ends the game.
+	 *
+	 * @param move The hollow index relative to the side to move, which must be legal
+	 *
+	 * @return A combination of the EXTRA_TURN, CAPTURE and GAME_OVER flags
+	 */
+	public int play(int move) {
+
+		final int[] cells = mCells;
+		final int base = mSide * (mHollows + 1);
+		final int ownStore = base + mHollows;
+		final int opponentStore = (1 - mSide) * (mHollows + 1) + mHollows;
+
+		int index = base + move;
+		int seeds = cells[index];
+		cells[index] = 0;
+
+		// Sow the seeds anti-clockwise, skipping the opponent's store
+		while (seeds > 0) {
+			index++;
+			if (index == cells.length) {
+				index = 0;
+			}
+			if (index != opponentStore) {
+				cells[index]++;
+				seeds--;
+			}
+		}
+
+		if (isGameOver()) {
+			return GAME_OVER;
+		}
+
+		if (index == ownStore) {
+			return EXTRA_TURN;
+		}
+
+		int result = NORMAL;
+
+		// A single seed in one of the mover's own hollows captures the opposite hollow
+		if (index >= base && index < ownStore && cells[index] == 1) {
+
+			int adjacent = 2 * mHollows - index;
+
+			if (cells[adjacent] > 0) {
+
+				cells[ownStore] += cells[adjacent] + 1;
+				cells[adjacent] = 0;
+				cells[index] = 0;
+				result = CAPTURE;
+
+				if (isGameOver()) {
+					return result | GAME_OVER;
+				}
+			}
+		}
+
+		mSide = 1 - mSide;
+		return result;
+	}
+
+	/**
+	 * Returns the cell reached by sowing the given number of seeds from a cell, skipping
+	 * the opponent's store
+	 */
+	private int stepAround(int cell, int steps) {
+		final int opponentStore = (1 - mSide) * (mHollows + 1) + mHollows;
+		while (steps > 0) {
+			cell = cell + 1 == mCells.length ? 0 : cell + 1;
+			if (cell != opponentStore) {
+				steps--;
+			}
+		}
+		return cell;
+	}
+
+	/**
+	 * Returns the number of seeds sown from one cell before one lands in another,
+	 * skipping the opponent's store
+	 */
+	private int distanceAround(int from, int to) {
+		final int opponentStore = (1 - mSide) * (mHollows + 1) + mHollows;
+		int distance = 0;
+		int cell = from;
+		do {
+			cell = cell + 1 == mCells.length ? 0 : cell + 1;
+			if (cell != opponentStore) {
+				distance++;
+			}
+		} while (cell != to);
+		return distance;
+	}
+
+	/**
+	 * Returns a 64 bit hash of the seed counts and the side to move
+	 *
+	 * @return The hash
+	 */
+	public long hash() {
+		long h = mSide == 0 ? 0x9E3779B97F4A7C15L : 0xC2B2AE3D27D4EB4FL;
+		for (int i = 0; i < mCells.length; i++) {
+			h = (h ^ mCells[i]) * 0x100000001B3L;
+			h ^= h >>> 29;
+		}
+		h *= 0xBF58476D1CE4E5B9L;
+		return h ^ (h >>> 32);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Position)) {
+			return false;
+		}
+		Position other = (Position) obj;
+		if (other.mSide != mSide || other.mCells.length != mCells.length) {
+			return false;
+		}
+		for (int i = 0; i < mCells.length; i++) {
+			if (other.mCells[i] != mCells[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = hash();
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(mSide == 0 ? "One" : "Two");
+		for (int i = 0; i < mCells.length; i++) {
+			builder.append(i == 0 ? ':' : ',');
+			builder.append(mCells[i]);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,468 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * A depth-first proof number (df-pn) search that proves whether a position is won,
+ * drawn or lost for the side to move.
+ *
+ * Each run proves or disproves a single goal: that the side to move at the root
+ * finishes with a final difference in totals above a target.  Positions with the
+ * root side to move are OR nodes, where one proven move is enough, and positions with
+ * the opponent to move are AND nodes, where every move must be proven.  An extra turn
+ * leaves the same side to move, so the child keeps its parent's node type and a run
+ * of extra turns is handled like any other line.  A win is proven against a target of
+ * zero, and a draw against a target of minus one.
+ *
+ * The proof and disproof numbers are kept in a fixed size table of two entry buckets,
+ * and when a bucket is full the entry with the least work behind it is replaced, so
+ * memory stays bounded however long the search runs.  Positions can never repeat,
+ * since seeds only cross to the other side through a store, so the search does not
+ * need to guard against cycles.
+ *
+ * The search can be run on its own, or added to a ComputerPlayer as an oracle, where
+ * it suggests the winning or drawing move whenever one is proven within the budget.
+ *
+ * Usage: ProofNumberSearch player seeds... [nodes]
+ */
+public class ProofNumberSearch implements MoveOracle {
+
+	// A proof or disproof number larger than any real one
+	private static final int INFINITY = 100000000;
+
+	// The number of nodes between checks of the clock
+	private static final int CHECK_INTERVAL = 4096;
+
+	// The size of an entry in bytes: key (8), proof (4), disproof (4), work (4)
+	private static final int ENTRY_SIZE = 20;
+
+	// The keys of the table entries
+	private final long[] mKeys;
+
+	// The proof numbers of the table entries
+	private final int[] mProof;
+
+	// The disproof numbers of the table entries
+	private final int[] mDisproof;
+
+	// The number of nodes expanded below each table entry
+	private final int[] mWork;
+
+	// Masks a hash down to the first slot of a bucket
+	private final int mMask;
+
+	// The node budget for each run, or 0 for none
+	private long mNodeLimit;
+
+	// The time budget for a whole proof, or 0 for none
+	private long mTimeLimit;
+
+	// The seeds in play at or below which suggestMove searches
+	private int mThreshold = Integer.MAX_VALUE;
+
+	// The children of the position at each ply
+	private Position[][] mChildren = new Position[0][];
+
+	// The moves leading to the children at each ply
+	private int[][] mMoves = new int[0][];
+
+	// The proof numbers of the children at each ply
+	private int[][] mProofs = new int[0][];
+
+	// The disproof numbers of the children at each ply
+	private int[][] mDisproofs = new int[0][];
+
+	// The side to move at the root of the current run
+	private int mRootSide;
+
+	// The final difference the root side must beat
+	private int mTarget;
+
+	// The move that proves the root, once found
+	private int mRootMove;
+
+	// The number of nodes expanded by the current run
+	private long mNodes;
+
+	// The time at which the current proof must stop
+	private long mDeadline;
+
+	// Set when the current run has run out of budget
+	private boolean mStopped;
+
+	// The proof and disproof numbers of the last position looked up or searched
+	private int mLastProof;
+	private int mLastDisproof;
+
+	/**
+	 * Constructs a search with the given number of table entries, rounded down to a
+	 * power of two
+	 *
+	 * @param entries The number of entries
+	 */
+	public ProofNumberSearch(int entries) {
+		int size = Integer.highestOneBit(Math.max(2, entries));
+		mKeys = new long[size];
+		mProof = new int[size];
+		mDisproof = new int[size];
+		mWork = new int[size];
+		mMask = (size - 1) & ~1;
+	}
+
+	/**
+	 * Creates a search whose table uses roughly the given amount of memory
+	 *
+	 * @param megabytes The size of the table in megabytes
+	 *
+	 * @return The search
+	 */
+	public static ProofNumberSearch withMegabytes(int megabytes) {
+		return new ProofNumberSearch(megabytes * (1024 * 1024 / ENTRY_SIZE));
+	}
+
+	/**
+	 * Sets the maximum number of nodes each run may expand.  Proving a draw or loss
+	 * takes two runs.
+	 *
+	 * @param nodes The budget, or 0 for none
+	 */
+	public void setNodeLimit(long nodes) {
+		mNodeLimit = nodes;
+	}
+
+	/**
+	 * Sets the maximum time a proof may take.  A proof also gives up if its thread is
+	 * interrupted.
+	 *
+	 * @param millis The budget in milliseconds, or 0 for none
+	 */
+	public void setTimeLimit(long millis) {
+		mTimeLimit = millis;
+	}
+
+	/**
+	 * Sets the number of seeds in play above which suggestMove does not search, so
+	 * that an oracle does not spend its budget on positions it cannot prove
+	 *
+	 * @param seeds The number of seeds in play
+	 */
+	public void setThreshold(int seeds) {
+		mThreshold = seeds;
+	}
+
+	/**
+	 * @return The number of entries in the table
+	 */
+	public int size() {
+		return mKeys.length;
+	}
+
+	/**
+	 * Returns the winning move, or failing that the drawing move, if one is proven
+	 *
+	 * @param position The position, with the computer to move
+	 *
+	 * @return The hollow to play, or NO_MOVE if the position is lost or not proven
+	 */
+	@Override
+	public int suggestMove(Position position) {
+
+		if (position.isGameOver() || position.getSeedsInPlay() > mThreshold) {
+			return NO_MOVE;
+		}
+		return prove(position).getMove();
+	}
+
+	/**
+	 * Proves the value of a position for the side to move
+	 *
+	 * @param root The position to prove
+	 *
+	 * @return The outcome, with the move that achieves it for a win or a draw
+	 */
+	public ProofResult prove(Position root) {
+
+		if (root.isGameOver()) {
+			int difference = root.getTotalDifference(root.getSideToMove());
+			return new ProofResult(difference > 0 ? ProofOutcome.Win
+					: (difference < 0 ? ProofOutcome.Loss : ProofOutcome.Draw), NO_MOVE, 0);
+		}
+
+		mDeadline = mTimeLimit > 0 ? System.currentTimeMillis() + mTimeLimit : Long.MAX_VALUE;
+
+		int proof = run(root, 0);
+		long nodes = mNodes;
+
+		if (proof == 0) {
+			return new ProofResult(ProofOutcome.Win, mRootMove, nodes);
+		}
+
+		if (!mStopped) {
+
+			proof = run(root, -1);
+			nodes += mNodes;
+
+			if (proof == 0) {
+				return new ProofResult(ProofOutcome.Draw, mRootMove, nodes);
+			}
+
+			if (!mStopped) {
+				return new ProofResult(ProofOutcome.Loss, NO_MOVE, nodes);
+			}
+		}
+
+		return new ProofResult(ProofOutcome.Unknown, NO_MOVE, nodes);
+	}
+
+	/**
+	 * Runs the search for a single goal
+	 *
+	 * @return The proof number of the root, which is 0 if the goal was proven
+	 */
+	private int run(Position root, int target) {
+
+		clear();
+
+		mRootSide = root.getSideToMove();
+		mTarget = target;
+		mRootMove = NO_MOVE;
+		mNodes = 0;
+		mStopped = false;
+
+		mid(root, root.hash(), INFINITY, INFINITY, 0);
+
+		return mStopped ? INFINITY : mLastProof;
+	}
+
+	/**
+	 * Expands a node until its proof number reaches thresholdProof or its disproof
+	 * number reaches thresholdDisproof, then stores both in the table and leaves them
+	 * in mLastProof and mLastDisproof
+	 */
+	private void mid(Position position, long hash, int thresholdProof, int thresholdDisproof, int ply) {
+
+		if (++mNodes % CHECK_INTERVAL == 0
+				&& (System.currentTimeMillis() > mDeadline || Thread.currentThread().isInterrupted())) {
+			mStopped = true;
+		}
+
+		if (mStopped || (mNodeLimit > 0 && mNodes > mNodeLimit)) {
+			mStopped = true;
+			return;
+		}
+
+		final long startNodes = mNodes;
+		final boolean orNode = position.getSideToMove() == mRootSide;
+
+		ensurePly(ply, position.getHollowsPerPlayer());
+
+		final Position[] children = mChildren[ply];
+		final int[] moves = mMoves[ply];
+		final int[] proofs = mProofs[ply];
+		final int[] disproofs = mDisproofs[ply];
+		final int count = position.getLegalMoves(moves);
+
+		// The children's numbers are kept here rather than looked up each time, as
+		// with a small table they may already have been replaced
+		for (int i = 0; i < count; i++) {
+			children[i].copyFrom(position);
+			children[i].play(moves[i]);
+			lookup(children[i], children[i].hash());
+			proofs[i] = mLastProof;
+			disproofs[i] = mLastDisproof;
+		}
+
+		int proof;
+		int disproof;
+		int best;
+
+		while (true) {
+
+			// At an OR node the proof number is the smallest of the children's, and the
+			// disproof number the sum.  At an AND node it is the other way around.
+			best = 0;
+			int bestValue = INFINITY + 1;
+			int bestOther = 0;
+			int secondValue = INFINITY;
+			int sum = 0;
+
+			for (int i = 0; i < count; i++) {
+
+				int value = orNode ? proofs[i] : disproofs[i];
+				int other = orNode ? disproofs[i] : proofs[i];
+
+				sum = Math.min(INFINITY, sum + other);
+
+				if (value < bestValue) {
+					secondValue = bestValue;
+					bestValue = value;
+					bestOther = other;
+					best = i;
+				} else if (value < secondValue) {
+					secondValue = value;
+				}
+			}
+
+			proof = orNode ? bestValue : sum;
+			disproof = orNode ? sum : bestValue;
+
+			if (proof >= thresholdProof || disproof >= thresholdDisproof || mStopped) {
+				break;
+			}
+
+			// Search the most promising child until it falls well behind the second
+			// best, rather than just behind it, so a small table is not thrashed by
+			// switching back and forth between two children
+			int limit = (int) Math.min(INFINITY, Math.max(secondValue + 1L, secondValue + (long) secondValue / 4));
+
+			if (orNode) {
+				mid(children[best], children[best].hash(), Math.min(thresholdProof, limit),
+						thresholdDisproof - disproof + bestOther, ply + 1);
+			} else {
+				mid(children[best], children[best].hash(), thresholdProof - proof + bestOther,
+						Math.min(thresholdDisproof, limit), ply + 1);
+			}
+
+			proofs[best] = mLastProof;
+			disproofs[best] = mLastDisproof;
+		}
+
+		if (ply == 0 && proof == 0) {
+			mRootMove = moves[best];
+		}
+
+		if (!mStopped) {
+			store(hash, proof, disproof, mNodes - startNodes);
+		}
+
+		mLastProof = proof;
+		mLastDisproof = disproof;
+	}
+
+	/**
+	 * Finds the proof and disproof numbers of a position, leaving them in mLastProof
+	 * and mLastDisproof
+	 */
+	private void lookup(Position position, long hash) {
+
+		if (position.isGameOver()) {
+			boolean won = position.getTotalDifference(mRootSide) > mTarget;
+			mLastProof = won ? 0 : INFINITY;
+			mLastDisproof = won ? INFINITY : 0;
+			return;
+		}
+
+		int slot = (int) hash & mMask;
+
+		for (int i = slot; i < slot + 2; i++) {
+			if (mKeys[i] == hash && mWork[i] > 0) {
+				mLastProof = mProof[i];
+				mLastDisproof = mDisproof[i];
+				return;
+			}
+		}
+
+		mLastProof = 1;
+		mLastDisproof = 1;
+	}
+
+	/**
+	 * Stores the numbers for a position, replacing the entry in its bucket with the
+	 * least work behind it
+	 */
+	private void store(long hash, int proof, int disproof, long nodes) {
+
+		int slot = (int) hash & mMask;
+		int work = (int) Math.min(Integer.MAX_VALUE, nodes);
+
+		if (mKeys[slot + 1] == hash || (mKeys[slot] != hash && mWork[slot + 1] < mWork[slot])) {
+			slot++;
+		}
+
+		mKeys[slot] = hash;
+		mProof[slot] = proof;
+		mDisproof[slot] = disproof;
+		mWork[slot] = Math.max(1, work);
+	}
+
+	/**
+	 * Removes every entry
+	 */
+	private void clear() {
+		for (int i = 0; i < mKeys.length; i++) {
+			mKeys[i] = 0;
+			mWork[i] = 0;
+		}
+	}
+
+	/**
+	 * Makes sure there are children allocated for the given ply
+	 */
+	private void ensurePly(int ply, int hollows) {
+
+		if (ply < mChildren.length && mChildren[ply][0].getHollowsPerPlayer() == hollows) {
+			return;
+		}
+
+		int length = Math.max(ply + 1, mChildren.length * 2);
+		Position[][] children = new Position[length][];
+		int[][] moves = new int[length][];
+		int[][] proofs = new int[length][];
+		int[][] disproofs = new int[length][];
+
+		for (int i = 0; i < length; i++) {
+
+			if (i < mChildren.length && mChildren[i][0].getHollowsPerPlayer() == hollows) {
+				children[i] = mChildren[i];
+				moves[i] = mMoves[i];
+				proofs[i] = mProofs[i];
+				disproofs[i] = mDisproofs[i];
+				continue;
+			}
+
+			children[i] = new Position[hollows];
+			for (int j = 0; j < hollows; j++) {
+				children[i][j] = new Position(hollows);
+			}
+			moves[i] = new int[hollows];
+			proofs[i] = new int[hollows];
+			disproofs[i] = new int[hollows];
+		}
+
+		mChildren = children;
+		mMoves = moves;
+		mProofs = proofs;
+		mDisproofs = disproofs;
+	}
+
+	/**
+	 * Proves a position given on the command line
+	 *
+	 * @param args The player to move (One or Two), the seeds in each cell in board
+	 *        order, and optionally a node budget
+	 */
+	public static void main(String[] args) {
+
+		if (args.length < 5) {
+			System.err.println("Usage: ProofNumberSearch player seeds... [nodes]");
+			System.exit(1);
+		}
+
+		int cells = (args.length - 1) % 2 == 0 ? args.length - 1 : args.length - 2;
+		Position position = new Position(cells / 2 - 1);
+
+		for (int i = 0; i < cells; i++) {
+			position.setSeeds(i, Integer.parseInt(args[i + 1]));
+		}
+		position.setSideToMove("Two".equals(args[0]) ? 1 : 0);
+
+		ProofNumberSearch search = withMegabytes(64);
+
+		if (cells < args.length - 1) {
+			search.setNodeLimit(Long.parseLong(args[args.length - 1]));
+		}
+
+		long start = System.currentTimeMillis();
+		ProofResult result = search.prove(position);
+
+		System.out.println(position + ": " + result + " in " + (System.currentTimeMillis() - start) + "ms");
+	}
+}
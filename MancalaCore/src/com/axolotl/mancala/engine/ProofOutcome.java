@@ -0,0 +1,28 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The game theoretic value of a position for the side to move, as found by the
+ * ProofNumberSearch
+ */
+public enum ProofOutcome {
+
+	/**
+	 * The side to move can force a win
+	 */
+	Win,
+
+	/**
+	 * The side to move can force a draw, but not a win
+	 */
+	Draw,
+
+	/**
+	 * The opponent can force a win
+	 */
+	Loss,
+
+	/**
+	 * The search ran out of budget before proving anything
+	 */
+	Unknown
+}
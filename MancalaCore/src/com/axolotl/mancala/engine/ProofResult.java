@@ -0,0 +1,65 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The outcome of a proof number search
+ */
+public class ProofResult {
+
+	// The proven value of the position
+	private final ProofOutcome mOutcome;
+
+	// The move that achieves the outcome
+	private final int mMove;
+
+	// The number of positions expanded
+	private final long mNodes;
+
+	/**
+	 * Constructs a new result
+	 *
+	 * @param outcome The proven value of the position for the side to move
+	 *
+	 * @param move The move that achieves a win or draw, or MoveOracle.NO_MOVE
+	 *
+	 * @param nodes The number of positions expanded
+	 */
+	public ProofResult(ProofOutcome outcome, int move, long nodes) {
+		mOutcome = outcome;
+		mMove = move;
+		mNodes = nodes;
+	}
+
+	/**
+	 * @return The proven value of the position for the side to move
+	 */
+	public ProofOutcome getOutcome() {
+		return mOutcome;
+	}
+
+	/**
+	 * @return The move that achieves a win or draw, relative to the side to move, or
+	 *         MoveOracle.NO_MOVE for a loss or an unknown result
+	 */
+	public int getMove() {
+		return mMove;
+	}
+
+	/**
+	 * @return The number of positions expanded
+	 */
+	public long getNodes() {
+		return mNodes;
+	}
+
+	/**
+	 * @return True if the outcome was proven
+	 */
+	public boolean isProven() {
+		return mOutcome != ProofOutcome.Unknown;
+	}
+
+	@Override
+	public String toString() {
+		return mOutcome + " move " + mMove + " nodes " + mNodes;
+	}
+}
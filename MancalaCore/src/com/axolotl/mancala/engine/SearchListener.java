@@ -0,0 +1,17 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Receives the progress of a search as it deepens.  The listener is called on the
+ * thread running the search, so it should return quickly and must not change the
+ * position being searched.
+ */
+public interface SearchListener {
+
+	/**
+	 * Called each time the search completes another iteration
+	 *
+	 * @param result The best move so far, with the depth reached and the principal
+	 *        variation
+	 */
+	void onIteration(SearchResult result);
+}
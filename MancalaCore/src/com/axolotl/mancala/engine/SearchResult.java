@@ -0,0 +1,165 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The outcome of a search
+ */
+public class SearchResult {
+
+	// The best move found
+	private final int mMove;
+
+	// The score of the best move, from the point of view of the side to move
+	private final int mScore;
+
+	// The deepest iteration that completed
+	private final int mDepth;
+
+	// The number of positions visited
+	private final long mNodes;
+
+	// Whether the score is the exact result of the game with best play
+	private final boolean mProven;
+
+	// The expected line of play, starting with the best move
+	private final int[] mPrincipalVariation;
+
+	/**
+	 * Constructs a new result
+	 *
+	 * @param move The best move, relative to the side to move
+	 *
+	 * @param score The score of the best move
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param nodes The number of positions visited
+	 */
+	public SearchResult(int move, int score, int depth, long nodes) {
+		this(move, score, depth, nodes, false, null);
+	}
+
+	/**
+	 * Constructs a new result
+	 *
+	 * @param move The best move, relative to the side to move
+	 *
+	 * @param score The score of the best move
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param proven True if the score is the exact result of the game
+	 */
+	public SearchResult(int move, int score, int depth, long nodes, boolean proven) {
+		this(move, score, depth, nodes, proven, null);
+	}
+
+	/**
+	 * Constructs a new result
+	 *
+	 * @param move The best move, relative to the side to move
+	 *
+	 * @param score The score of the best move
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param proven True if the score is the exact result of the game
+	 *
+	 * @param principalVariation The expected line of play starting with the best move,
+	 *        or null if only the best move is known
+	 */
+	public SearchResult(int move, int score, int depth, long nodes, boolean proven, int[] principalVariation) {
+		this(move, score, depth, nodes, proven, principalVariation,
+				principalVariation != null ? principalVariation.length : 0);
+	}
+
+	/**
+	 * Constructs a new result from the start of a line of play, such as a buffer
+	 * reused by the search
+	 *
+	 * @param move The best move, relative to the side to move
+	 *
+	 * @param score The score of the best move
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param proven True if the score is the exact result of the game
+	 *
+	 * @param principalVariation Holds the expected line of play starting with the
+	 *        best move, or null if only the best move is known
+	 *
+	 * @param length The number of moves of the line to copy
+	 */
+	public SearchResult(int move, int score, int depth, long nodes, boolean proven, int[] principalVariation,
+			int length) {
+		mMove = move;
+		mScore = score;
+		mDepth = depth;
+		mNodes = nodes;
+		mProven = proven;
+
+		if (principalVariation != null) {
+			mPrincipalVariation = new int[length];
+			System.arraycopy(principalVariation, 0, mPrincipalVariation, 0, length);
+		} else {
+			mPrincipalVariation = move < 0 ? new int[0] : new int[] { move };
+		}
+	}
+
+	/**
+	 * @return The best move, relative to the side to move
+	 */
+	public int getMove() {
+		return mMove;
+	}
+
+	/**
+	 * @return The score of the best move, in hundredths of a seed
+	 */
+	public int getScore() {
+		return mScore;
+	}
+
+	/**
+	 * @return The deepest iteration that completed
+	 */
+	public int getDepth() {
+		return mDepth;
+	}
+
+	/**
+	 * @return The number of positions visited
+	 */
+	public long getNodes() {
+		return mNodes;
+	}
+
+	/**
+	 * Returns the line of play the search expects, with each move relative to the side
+	 * to move at that point.  Extra turns appear as consecutive moves by the same side.
+	 *
+	 * @return The moves, starting with the best move
+	 */
+	public int[] getPrincipalVariation() {
+		return mPrincipalVariation.clone();
+	}
+
+	/**
+	 * @return True if the score is the exact result of the game with best play, rather
+	 *         than an estimate
+	 */
+	public boolean isProven() {
+		return mProven;
+	}
+
+	@Override
+	public String toString() {
+		return "move " + mMove + " score " + mScore + " depth " + mDepth + " nodes " + mNodes
+				+ (mProven ? " proven" : "");
+	}
+}
@@ -0,0 +1,173 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The work done by a search: the positions visited, the leaves scored, the use made of
+ * the transposition table, the cutoffs found, the depth reached and the time taken
+ */
+public class SearchStatistics {
+
+	// The number of positions visited
+	private final long mNodes;
+
+	// The number of positions scored by the evaluator
+	private final long mEvaluations;
+
+	// The number of transposition table lookups, and those that found an entry
+	private final long mProbes;
+	private final long mHits;
+
+	// The number of nodes at which a move failed high
+	private final long mCutoffs;
+
+	// The deepest iteration that completed
+	private final int mDepth;
+
+	// The time taken, in nanoseconds
+	private final long mElapsedNanos;
+
+	// The effective branching factor
+	private final double mBranchingFactor;
+
+	/**
+	 * Constructs a new record
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param evaluations The number of positions scored by the evaluator
+	 *
+	 * @param probes The number of transposition table lookups
+	 *
+	 * @param hits The number of lookups that found an entry
+	 *
+	 * @param cutoffs The number of nodes at which a move failed high
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param elapsedNanos The time taken, in nanoseconds
+	 */
+	public SearchStatistics(long nodes, long evaluations, long probes, long hits, long cutoffs, int depth,
+			long elapsedNanos) {
+		this(nodes, evaluations, probes, hits, cutoffs, depth, elapsedNanos,
+				depth == 0 || nodes == 0 ? 0 : Math.pow(nodes, 1.0 / depth));
+	}
+
+	/**
+	 * Constructs a new record whose branching factor is known, such as the mean over
+	 * many searches, which could not be worked out from their total nodes
+	 *
+	 * @param nodes The number of positions visited
+	 *
+	 * @param evaluations The number of positions scored by the evaluator
+	 *
+	 * @param probes The number of transposition table lookups
+	 *
+	 * @param hits The number of lookups that found an entry
+	 *
+	 * @param cutoffs The number of nodes at which a move failed high
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param elapsedNanos The time taken, in nanoseconds
+	 *
+	 * @param branchingFactor The effective branching factor
+	 */
+	public SearchStatistics(long nodes, long evaluations, long probes, long hits, long cutoffs, int depth,
+			long elapsedNanos, double branchingFactor) {
+		mNodes = nodes;
+		mEvaluations = evaluations;
+		mProbes = probes;
+		mHits = hits;
+		mCutoffs = cutoffs;
+		mDepth = depth;
+		mElapsedNanos = elapsedNanos;
+		mBranchingFactor = branchingFactor;
+	}
+
+	/**
+	 * @return The number of positions visited
+	 */
+	public long getNodes() {
+		return mNodes;
+	}
+
+	/**
+	 * @return The number of positions scored by the evaluator
+	 */
+	public long getEvaluations() {
+		return mEvaluations;
+	}
+
+	/**
+	 * @return The number of transposition table lookups
+	 */
+	public long getProbes() {
+		return mProbes;
+	}
+
+	/**
+	 * @return The number of transposition table lookups that found an entry
+	 */
+	public long getHits() {
+		return mHits;
+	}
+
+	/**
+	 * @return The number of nodes at which a move failed high
+	 */
+	public long getCutoffs() {
+		return mCutoffs;
+	}
+
+	/**
+	 * @return The deepest iteration that completed
+	 */
+	public int getDepth() {
+		return mDepth;
+	}
+
+	/**
+	 * @return The time taken, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return mElapsedNanos;
+	}
+
+	/**
+	 * @return The time taken, in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return mElapsedNanos / 1000000;
+	}
+
+	/**
+	 * @return The fraction of transposition table lookups that found an entry
+	 */
+	public double getHitRate() {
+		return mProbes == 0 ? 0 : (double) mHits / mProbes;
+	}
+
+	/**
+	 * @return The positions visited per second
+	 */
+	public double getNodesPerSecond() {
+		return mElapsedNanos == 0 ? 0 : mNodes * 1e9 / mElapsedNanos;
+	}
+
+	/**
+	 * Returns the effective branching factor, the number of children each node would
+	 * need for a uniform tree of the depth reached to hold the nodes visited
+	 *
+	 * @return The effective branching factor, or 0 if no iteration completed
+	 */
+	public double getBranchingFactor() {
+		return mBranchingFactor;
+	}
+
+	@Override
+	public String toString() {
+		return "nodes " + mNodes + " evaluations " + mEvaluations + " probes " + mProbes + " hits " + mHits
+				+ " cutoffs " + mCutoffs + " depth " + mDepth + " time " + getElapsedMillis() + "ms "
+				+ Math.round(getNodesPerSecond()) + " nodes/s branching "
+				+ Math.round(getBranchingFactor() * 100) / 100.0;
+	}
+}
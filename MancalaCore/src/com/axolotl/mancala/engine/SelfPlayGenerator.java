@@ -0,0 +1,245 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Plays games between two node limited alpha-beta searches and keeps every position
+ * the search was asked about, together with the final result of its game, as training
+ * data for the learned evaluators.
+ *
+ * The games are played in parallel, each starting with a few random moves so that the
+ * games differ.  The random moves are seeded per game and the transposition table is
+ * cleared before each move, so the same seed gives the same positions in the same
+ * order whatever the number of threads.
+ */
+public class SelfPlayGenerator {
+
+	// The size of each thread's transposition table
+	private static final int TABLE_ENTRIES = 1 << 14;
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The seeds initially in each hollow
+	private final int mSeeds;
+
+	// The number of games
+	private int mGames = 2000;
+
+	// The nodes searched for each move
+	private int mNodeBudget = 2000;
+
+	// The number of random moves at the start of each game
+	private int mRandomPlies = 4;
+
+	// The number of threads to play with
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The seed from which each game's random moves are derived
+	private long mSeed = 1;
+
+	// The positions reached, in game order
+	private Position[] mPositions;
+
+	// The final difference in totals for the side to move in each position
+	private int[] mResults;
+
+	/**
+	 * Constructs a generator for the given board
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 *
+	 * @param seedsPerHollow The seeds initially in each hollow
+	 */
+	public SelfPlayGenerator(int hollowsPerPlayer, int seedsPerHollow) {
+		mHollows = hollowsPerPlayer;
+		mSeeds = seedsPerHollow;
+	}
+
+	/**
+	 * Sets the number of games
+	 *
+	 * @param games The number of games
+	 */
+	public void setGames(int games) {
+		mGames = games;
+	}
+
+	/**
+	 * Sets the nodes searched for each move
+	 *
+	 * @param nodes The node budget
+	 */
+	public void setNodeBudget(int nodes) {
+		mNodeBudget = nodes;
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of each game.  Positions
+	 * reached by random moves are not kept.
+	 *
+	 * @param plies The number of random moves
+	 */
+	public void setRandomPlies(int plies) {
+		mRandomPlies = plies;
+	}
+
+	/**
+	 * Sets the number of threads used to play the games
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the seed for the random opening moves
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * @return The hollows on each side of the board
+	 */
+	public int getHollowsPerPlayer() {
+		return mHollows;
+	}
+
+	/**
+	 * @return The number of positions kept
+	 */
+	public int size() {
+		return mPositions == null ? 0 : mPositions.length;
+	}
+
+	/**
+	 * Returns a kept position, which must not be changed
+	 *
+	 * @param index The index of the position
+	 *
+	 * @return The position
+	 */
+	public Position getPosition(int index) {
+		return mPositions[index];
+	}
+
+	/**
+	 * @param index The index of the position
+	 *
+	 * @return The final difference in totals for the side to move in the position
+	 */
+	public int getResult(int index) {
+		return mResults[index];
+	}
+
+	/**
+	 * Plays the games
+	 */
+	public void generate() {
+
+		final Position[][] positions = new Position[mGames][];
+		final int[][] results = new int[mGames][];
+		final AtomicInteger next = new AtomicInteger();
+
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<Void>() {
+				public Void call() {
+
+					AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_ENTRIES),
+							new StoreEvaluator());
+					search.setNodeLimit(mNodeBudget);
+					search.setSearchByTurns(true);
+					search.setQuiescence(true);
+
+					for (int game = next.getAndIncrement(); game < mGames; game = next.getAndIncrement()) {
+						playGame(search, game, positions, results);
+					}
+					return null;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (Future<Void> result : executor.invokeAll(workers)) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Self-play interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Self-play failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		// Gather the positions in game order, so the data does not depend on the threads
+		int count = 0;
+		for (int[] game : results) {
+			count += game.length;
+		}
+
+		mPositions = new Position[count];
+		mResults = new int[count];
+
+		int offset = 0;
+		for (int game = 0; game < mGames; game++) {
+			System.arraycopy(positions[game], 0, mPositions, offset, positions[game].length);
+			System.arraycopy(results[game], 0, mResults, offset, results[game].length);
+			offset += results[game].length;
+		}
+	}
+
+	/**
+	 * Plays one game, storing its positions and their results
+	 */
+	private void playGame(AlphaBetaSearch search, int game, Position[][] positions, int[][] results) {
+
+		Random random = new Random(mSeed + game * 0x9E3779B97F4A7C15L);
+		Position position = Position.createInitial(mHollows, mSeeds);
+		position.setSideToMove(game & 1);
+
+		int[] moves = new int[mHollows];
+		List<Position> kept = new ArrayList<Position>();
+
+		for (int ply = 0; !position.isGameOver(); ply++) {
+
+			int move;
+
+			if (ply < mRandomPlies) {
+				move = moves[random.nextInt(position.getLegalMoves(moves))];
+			} else {
+				kept.add(position.copy());
+				search.getTranspositionTable().clear();
+				move = search.search(position, AlphaBetaSearch.MAX_PLY - 1).getMove();
+			}
+			position.play(move);
+		}
+
+		int difference = position.getTotalDifference(0);
+
+		positions[game] = kept.toArray(new Position[kept.size()]);
+		results[game] = new int[kept.size()];
+
+		for (int i = 0; i < kept.size(); i++) {
+			results[game][i] = kept.get(i).getSideToMove() == 0 ? difference : -difference;
+		}
+	}
+}
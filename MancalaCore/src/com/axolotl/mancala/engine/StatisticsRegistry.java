@@ -0,0 +1,92 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Adds up the statistics of many searches, such as all those made by the computer
+ * players of a server.  Each search counts its own work without synchronisation and
+ * is recorded here once it finishes, so the registry costs one short lock per search.
+ */
+public class StatisticsRegistry {
+
+	// The number of searches recorded
+	private long mSearches;
+
+	// The totals of the recorded searches
+	private long mNodes;
+	private long mEvaluations;
+	private long mProbes;
+	private long mHits;
+	private long mCutoffs;
+	private long mDepths;
+	private long mElapsedNanos;
+
+	// The sum of the branching factors of the recorded searches
+	private double mBranchingFactors;
+
+	// The deepest iteration completed by any search
+	private int mMaxDepth;
+
+	/**
+	 * Adds a search to the totals
+	 *
+	 * @param statistics The statistics of the search
+	 */
+	public synchronized void record(SearchStatistics statistics) {
+		mSearches++;
+		mNodes += statistics.getNodes();
+		mEvaluations += statistics.getEvaluations();
+		mProbes += statistics.getProbes();
+		mHits += statistics.getHits();
+		mCutoffs += statistics.getCutoffs();
+		mDepths += statistics.getDepth();
+		mElapsedNanos += statistics.getElapsedNanos();
+		mBranchingFactors += statistics.getBranchingFactor();
+		mMaxDepth = Math.max(mMaxDepth, statistics.getDepth());
+	}
+
+	/**
+	 * @return The number of searches recorded
+	 */
+	public synchronized long getSearches() {
+		return mSearches;
+	}
+
+	/**
+	 * @return The mean depth completed by the recorded searches
+	 */
+	public synchronized double getAverageDepth() {
+		return mSearches == 0 ? 0 : (double) mDepths / mSearches;
+	}
+
+	/**
+	 * Returns the totals of all the recorded searches.  The depth of the totals is the
+	 * deepest any search reached, and the branching factor is the mean of the searches,
+	 * as the total nodes of many searches say nothing about the shape of any one tree.
+	 *
+	 * @return The totals
+	 */
+	public synchronized SearchStatistics getTotal() {
+		return new SearchStatistics(mNodes, mEvaluations, mProbes, mHits, mCutoffs, mMaxDepth, mElapsedNanos,
+				mSearches == 0 ? 0 : mBranchingFactors / mSearches);
+	}
+
+	/**
+	 * Forgets every search recorded so far
+	 */
+	public synchronized void reset() {
+		mSearches = 0;
+		mNodes = 0;
+		mEvaluations = 0;
+		mProbes = 0;
+		mHits = 0;
+		mCutoffs = 0;
+		mDepths = 0;
+		mElapsedNanos = 0;
+		mBranchingFactors = 0;
+		mMaxDepth = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return mSearches + " searches, " + getTotal();
+	}
+}
@@ -0,0 +1,16 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * The simplest evaluator, which scores a position by the difference between the
+ * stores
+ */
+public class StoreEvaluator implements Evaluator {
+
+	/**
+	 * Returns the store difference for the side to move
+	 */
+	@Override
+	public int evaluate(Position position) {
+		return SEED * position.getStoreDifference(position.getSideToMove());
+	}
+}
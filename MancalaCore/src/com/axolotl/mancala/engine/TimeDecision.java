@@ -0,0 +1,143 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * A record of how the TimeManager spent the time for one move, kept so that its
+ * constants can be tuned from real games
+ */
+public class TimeDecision {
+
+	/**
+	 * Why the search for a move stopped
+	 */
+	public enum Reason {
+
+		/**
+		 * There was only one legal move, so no search was needed
+		 */
+		Forced,
+
+		/**
+		 * The best move had not changed for several iterations
+		 */
+		Stable,
+
+		/**
+		 * The next iteration would not have finished within the target time
+		 */
+		Target,
+
+		/**
+		 * The search reached the hard limit for the move
+		 */
+		Limit,
+
+		/**
+		 * The search finished on its own, or the move was found without searching
+		 */
+		Complete
+	}
+
+	// The seeds left in the hollows when the move was chosen
+	private final int mSeedsInPlay;
+
+	// The time the manager aimed to spend, in milliseconds
+	private final long mTarget;
+
+	// The time the search could not go beyond, in milliseconds
+	private final long mLimit;
+
+	// The time actually spent, in milliseconds
+	private final long mUsed;
+
+	// The deepest iteration that completed, or 0 if there was no search
+	private final int mDepth;
+
+	// Whether the target was extended because the score dropped
+	private final boolean mExtended;
+
+	// Why the search stopped
+	private final Reason mReason;
+
+	/**
+	 * Constructs a new record
+	 *
+	 * @param seedsInPlay The seeds left in the hollows
+	 *
+	 * @param target The time the manager aimed to spend
+	 *
+	 * @param limit The time the search could not go beyond
+	 *
+	 * @param used The time actually spent
+	 *
+	 * @param depth The deepest iteration that completed
+	 *
+	 * @param extended True if the target was extended because the score dropped
+	 *
+	 * @param reason Why the search stopped
+	 */
+	public TimeDecision(int seedsInPlay, long target, long limit, long used, int depth, boolean extended, Reason reason) {
+		mSeedsInPlay = seedsInPlay;
+		mTarget = target;
+		mLimit = limit;
+		mUsed = used;
+		mDepth = depth;
+		mExtended = extended;
+		mReason = reason;
+	}
+
+	/**
+	 * @return The seeds left in the hollows when the move was chosen
+	 */
+	public int getSeedsInPlay() {
+		return mSeedsInPlay;
+	}
+
+	/**
+	 * @return The time the manager aimed to spend, in milliseconds, including any
+	 *         extension
+	 */
+	public long getTarget() {
+		return mTarget;
+	}
+
+	/**
+	 * @return The time the search could not go beyond, in milliseconds
+	 */
+	public long getLimit() {
+		return mLimit;
+	}
+
+	/**
+	 * @return The time actually spent, in milliseconds
+	 */
+	public long getUsed() {
+		return mUsed;
+	}
+
+	/**
+	 * @return The deepest iteration that completed, or 0 if there was no search
+	 */
+	public int getDepth() {
+		return mDepth;
+	}
+
+	/**
+	 * @return True if the target was extended because the score dropped
+	 */
+	public boolean isExtended() {
+		return mExtended;
+	}
+
+	/**
+	 * @return Why the search stopped
+	 */
+	public Reason getReason() {
+		return mReason;
+	}
+
+	@Override
+	public String toString() {
+		return "seeds " + mSeedsInPlay + " target " + mTarget + "ms limit " + mLimit + "ms used " + mUsed
+				+ "ms depth " + mDepth + " " + mReason + (mExtended ? " extended" : "");
+	}
+}
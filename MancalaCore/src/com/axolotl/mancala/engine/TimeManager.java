@@ -0,0 +1,275 @@
+package com.axolotl.mancala.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shares a clock for a whole game between the moves of one player.
+ *
+ * Each move gets a target time, which is the time left divided by an estimate of the
+ * moves still to play, weighted towards the middle of the game where the decisions
+ * matter most, and a hard limit the search may not pass.  The number of moves left is
+ * estimated from the seeds still in the hollows.  A move with only one choice uses no
+ * time at all.
+ *
+ * While an iterative deepening search runs, the manager stops it once the next
+ * iteration is unlikely to finish within the target.  The target is cut when the best
+ * move has not changed for several iterations, and extended when the score drops, as
+ * a falling score means the search has found a problem that deserves more time.
+ *
+ * Every move is recorded as a TimeDecision so that the constants can be tuned.  The
+ * clock is read through now(), which a subclass can override to run on a clock of its
+ * own, such as a manual clock in tests.
+ */
+public class TimeManager {
+
+	// The fewest moves assumed to be left, so the clock is never spent at once
+	private static final int MIN_MOVES_LEFT = 4;
+
+	// The seeds that leave the hollows with each of the player's moves, roughly
+	private static final int SEEDS_PER_MOVE = 4;
+
+	// The extra share given to a move in the middle of the game, where half the seeds
+	// are still in play
+	private static final double MIDDLEGAME_WEIGHT = 1.0;
+
+	// The most the target of a move can be stretched to reach its hard limit
+	private static final int MAX_STRETCH = 4;
+
+	// The largest part of the time left that one move may use
+	private static final int LIMIT_DIVISOR = 4;
+
+	// The shortest time a move that needs a search is given, in milliseconds
+	private static final long MIN_MOVE_MILLIS = 5;
+
+	// The iterations the best move must survive before the target is cut
+	private static final int STABLE_ITERATIONS = 3;
+
+	// The part of the target left once the best move is stable
+	private static final double STABLE_FACTOR = 0.5;
+
+	// The fall in score, in hundredths of a seed, that extends the target
+	private static final int SCORE_DROP = Evaluator.SEED;
+
+	// How much a fall in score extends the target
+	private static final int EXTENSION = 2;
+
+	// How much longer each iteration takes than all the ones before it, roughly
+	private static final int ITERATION_GROWTH = 2;
+
+	// The time for the whole game, in milliseconds
+	private final long mGameMillis;
+
+	// The time left on the clock, in milliseconds
+	private long mRemaining;
+
+	// The decisions made so far this game
+	private final List<TimeDecision> mDecisions = new ArrayList<TimeDecision>();
+
+	// The time the current move started
+	private long mStart;
+
+	// The seeds in the hollows at the current move
+	private int mSeedsInPlay;
+
+	// The time the current move aims to use
+	private long mTarget;
+
+	// The time the current move may not go beyond
+	private long mLimit;
+
+	// The best move of the last iteration
+	private int mLastMove;
+
+	// The scores of the last two iterations, the earlier first
+	private final int[] mLastScores = new int[2];
+
+	// The iterations completed for the current move
+	private int mIterations;
+
+	// The iterations in a row that have found the same best move
+	private int mStableIterations;
+
+	// Whether the current move's target has been extended
+	private boolean mExtended;
+
+	// Why the current move's search was stopped, or null if it was not stopped
+	private TimeDecision.Reason mStopReason;
+
+	/**
+	 * Constructs a time manager for a game
+	 *
+	 * @param gameMillis The time the player has for the whole game, in milliseconds
+	 */
+	public TimeManager(long gameMillis) {
+		mGameMillis = gameMillis;
+		mRemaining = gameMillis;
+	}
+
+	/**
+	 * Puts the whole game's time back on the clock and forgets the decisions, ready
+	 * for a new game
+	 */
+	public void reset() {
+		mRemaining = mGameMillis;
+		synchronized (mDecisions) {
+			mDecisions.clear();
+		}
+	}
+
+	/**
+	 * @return The time left on the clock, in milliseconds
+	 */
+	public long getRemaining() {
+		return mRemaining;
+	}
+
+	/**
+	 * Returns the time the manager would aim to spend on a position, given the time
+	 * left on the clock
+	 *
+	 * @param position The position, which must not be over
+	 *
+	 * @return The target time in milliseconds
+	 */
+	public long allocate(Position position) {
+
+		int seedsInPlay = position.getSeedsInPlay();
+		int seeds = seedsInPlay + position.getStoreSeeds(0) + position.getStoreSeeds(1);
+		double inPlay = (double) seedsInPlay / Math.max(1, seeds);
+
+		int movesLeft = MIN_MOVES_LEFT + seedsInPlay / SEEDS_PER_MOVE;
+		double weight = 1 + MIDDLEGAME_WEIGHT * 4 * inPlay * (1 - inPlay);
+
+		return Math.max(MIN_MOVE_MILLIS, (long) (mRemaining * weight / movesLeft));
+	}
+
+	/**
+	 * Starts timing a move
+	 *
+	 * @param position The position to move from, which must not be over
+	 *
+	 * @return False if the move is forced and need not be searched
+	 */
+	public boolean startMove(Position position) {
+
+		mStart = now();
+		mSeedsInPlay = position.getSeedsInPlay();
+		mLastMove = -1;
+		mIterations = 0;
+		mStableIterations = 0;
+		mExtended = false;
+		mStopReason = null;
+
+		if (position.getLegalMoves(new int[position.getHollowsPerPlayer()]) == 1) {
+			mTarget = 0;
+			mLimit = 0;
+			return false;
+		}
+
+		mTarget = allocate(position);
+		mLimit = Math.max(MIN_MOVE_MILLIS, Math.min(mTarget * MAX_STRETCH, mRemaining / LIMIT_DIVISOR));
+		mTarget = Math.min(mTarget, mLimit);
+		return true;
+	}
+
+	/**
+	 * @return The time the current move may not go beyond, in milliseconds, to be
+	 *         given to the search as its time limit
+	 */
+	public long getLimit() {
+		return mLimit;
+	}
+
+	/**
+	 * @return The time the current move aims to use, in milliseconds
+	 */
+	public long getTarget() {
+		return mTarget;
+	}
+
+	/**
+	 * Decides after an iteration of the search whether it should go deeper
+	 *
+	 * @param result The result of the iteration just completed
+	 *
+	 * @return True if the search should stop now
+	 */
+	public boolean shouldStop(SearchResult result) {
+
+		if (result.getMove() == mLastMove) {
+			mStableIterations++;
+		} else {
+			mStableIterations = 0;
+		}
+
+		// A falling score earns the move more time, once.  Scores are compared with the
+		// iteration before last, as odd and even depths favour different sides.
+		if (mIterations >= 2 && result.getScore() <= mLastScores[0] - SCORE_DROP && !mExtended) {
+			mTarget = Math.min(mLimit, mTarget * EXTENSION);
+			mExtended = true;
+		}
+
+		mLastMove = result.getMove();
+		mLastScores[0] = mLastScores[1];
+		mLastScores[1] = result.getScore();
+		mIterations++;
+
+		long projected = (now() - mStart) * ITERATION_GROWTH;
+
+		if (projected >= mTarget) {
+			mStopReason = TimeDecision.Reason.Target;
+		} else if (mStableIterations >= STABLE_ITERATIONS && projected >= mTarget * STABLE_FACTOR) {
+			mStopReason = TimeDecision.Reason.Stable;
+		}
+		return mStopReason != null;
+	}
+
+	/**
+	 * Finishes timing a move, taking the time used off the clock and recording the
+	 * decision
+	 *
+	 * @param depth The deepest iteration the search completed, or 0 if it did not
+	 *        search
+	 *
+	 * @return The decision made for the move
+	 */
+	public TimeDecision endMove(int depth) {
+
+		long used = now() - mStart;
+		mRemaining = Math.max(0, mRemaining - used);
+
+		TimeDecision.Reason reason = mStopReason;
+
+		if (mLimit == 0) {
+			reason = TimeDecision.Reason.Forced;
+		} else if (reason == null) {
+			reason = used >= mLimit ? TimeDecision.Reason.Limit : TimeDecision.Reason.Complete;
+		}
+
+		TimeDecision decision = new TimeDecision(mSeedsInPlay, mTarget, mLimit, used, depth, mExtended, reason);
+
+		synchronized (mDecisions) {
+			mDecisions.add(decision);
+		}
+		return decision;
+	}
+
+	/**
+	 * Returns the current time, which the moves are timed by
+	 *
+	 * @return The time in milliseconds
+	 */
+	protected long now() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * @return The decisions made so far this game, in move order
+	 */
+	public List<TimeDecision> getDecisions() {
+		synchronized (mDecisions) {
+			return new ArrayList<TimeDecision>(mDecisions);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * A fixed size hash table of search results, keyed by Position.hash().
+ *
+ * Each entry is packed into a single long holding the best move, the depth searched,
+ * the kind of bound and the score.  The key is stored xor'd with the data, so an entry
+ * torn by two threads writing at once simply fails to match, and the table can be
+ * shared between searches without locking.
+ */
+public class TranspositionTable {
+
+	/**
+	 * The stored score is exact
+	 */
+	public static final int EXACT = 0;
+
+	/**
+	 * The stored score is a lower bound (the search failed high)
+	 */
+	public static final int LOWER_BOUND = 1;
+
+	/**
+	 * The stored score is an upper bound (the search failed low)
+	 */
+	public static final int UPPER_BOUND = 2;
+
+	/**
+	 * Returned by probe when there is no entry for the position
+	 */
+	public static final long MISSING = 0;
+
+	// Set on every stored entry so that it can never equal MISSING
+	private static final long PRESENT = 1L << 62;
+
+	// The keys, xor'd with the data
+	private final long[] mKeys;
+
+	// The packed entries
+	private final long[] mData;
+
+	// Masks a hash down to a slot
+	private final int mMask;
+
+	/**
+	 * Constructs a table with the given number of entries, rounded down to a power
+	 * of two
+	 *
+	 * @param entries The number of entries
+	 */
+	public TranspositionTable(int entries) {
+		int size = Integer.highestOneBit(Math.max(2, entries));
+		mKeys = new long[size];
+		mData = new long[size];
+		mMask = size - 1;
+	}
+
+	/**
+	 * Creates a table using roughly the given amount of memory
+	 *
+	 * @param megabytes The size of the table in megabytes
+	 *
+	 * @return The table
+	 */
+	public static TranspositionTable withMegabytes(int megabytes) {
+		return new TranspositionTable(megabytes * (1024 * 1024 / 16));
+	}
+
+	/**
+	 * @return The number of entries in the table
+	 */
+	public int size() {
+		return mData.length;
+	}
+
+	/**
+	 * Looks up the entry for the given hash
+	 *
+	 * @param hash The position hash
+	 *
+	 * @return The packed entry, or MISSING
+	 */
+	public long probe(long hash) {
+		int slot = (int) hash & mMask;
+		long data = mData[slot];
+		return (mKeys[slot] ^ data) == hash ? data : MISSING;
+	}
+
+	/**
+	 * Stores a search result, replacing the existing entry unless it is for the same
+	 * position and was searched more deeply
+	 *
+	 * @param hash The position hash
+	 *
+	 * @param move The best move, or -1 if not known
+	 *
+	 * @param depth The depth searched
+	 *
+	 * @param bound One of EXACT, LOWER_BOUND or UPPER_BOUND
+	 *
+	 * @param score The score
+	 */
+	public void store(long hash, int move, int depth, int bound, int score) {
+
+		int slot = (int) hash & mMask;
+		long existing = mData[slot];
+
+		if ((mKeys[slot] ^ existing) == hash && getDepth(existing) > depth && bound != EXACT) {
+			return;
+		}
+
+		long data = PRESENT
+				| ((long) (move + 1) & 0x1F) << 40
+				| ((long) Math.min(depth, 0xFF)) << 32
+				| ((long) bound) << 30
+				| (score & 0xFFFFFFFFL) & 0x3FFFFFFFL;
+
+		mData[slot] = data;
+		mKeys[slot] = hash ^ data;
+	}
+
+	/**
+	 * Removes every entry
+	 */
+	public void clear() {
+		for (int i = 0; i < mData.length; i++) {
+			mData[i] = 0;
+			mKeys[i] = 0;
+		}
+	}
+
+	/**
+	 * @param entry A packed entry
+	 * @return The best move stored in the entry, or -1
+	 */
+	public static int getMove(long entry) {
+		return (int) ((entry >>> 40) & 0x1F) - 1;
+	}
+
+	/**
+	 * @param entry A packed entry
+	 * @return The depth stored in the entry
+	 */
+	public static int getDepth(long entry) {
+		return (int) ((entry >>> 32) & 0xFF);
+	}
+
+	/**
+	 * @param entry A packed entry
+	 * @return The kind of bound stored in the entry
+	 */
+	public static int getBound(long entry) {
+		return (int) ((entry >>> 30) & 0x3);
+	}
+
+	/**
+	 * @param entry A packed entry
+	 * @return The score stored in the entry
+	 */
+	public static int getScore(long entry) {
+		// Sign extend the 30 bit score
+		return ((int) (entry << 2)) >> 2;
+	}
+}
@@ -0,0 +1,226 @@
+package com.axolotl.mancala.engine;
+
+/**
+ * Generates complete turns rather than single moves.
+ *
+ * Under the egyptian rules a sowing that ends in the player's own store earns another
+ * move, so one turn can be a chain of several sowings.  The generator follows every
+ * chain until the other side is to move or the game is over, and treats each chain as
+ * a single macro move.  Different chains often leave the same position, as the order
+ * of some extra turns does not matter, so only the first chain to reach each position
+ * is kept.
+ *
+ * The generated turns are held by the generator and overwritten by the next call to
+ * generate, so a search needs one generator for each ply.
+ */
+public class TurnGenerator {
+
+	// The hollows on each side of the board
+	private final int mHollows;
+
+	// The position at the end of each generated turn
+	private Position[] mResults = new Position[0];
+
+	// The hash of each generated position
+	private long[] mHashes = new long[0];
+
+	// The moves making up each generated turn
+	private int[][] mMoves = new int[0][];
+
+	// The number of moves in each generated turn
+	private int[] mLengths = new int[0];
+
+	// The number of turns generated
+	private int mCount;
+
+	// The position after each move of the chain being followed
+	private Position[] mChain = new Position[0];
+
+	// The moves of the chain being followed
+	private int[] mSequence = new int[0];
+
+	// The side whose turn is being generated
+	private int mSide;
+
+	/**
+	 * Constructs a generator for the given board size
+	 *
+	 * @param hollowsPerPlayer The hollows on each side of the board
+	 */
+	public TurnGenerator(int hollowsPerPlayer) {
+		mHollows = hollowsPerPlayer;
+	}
+
+	/**
+	 * Generates every distinct turn the side to move can play
+	 *
+	 * @param position The position, which must not be over
+	 *
+	 * @return The number of turns
+	 */
+	public int generate(Position position) {
+
+		if (position.getHollowsPerPlayer() != mHollows) {
+			throw new IllegalArgumentException("Expected " + mHollows + " hollows per player");
+		}
+
+		mCount = 0;
+		mSide = position.getSideToMove();
+		follow(position, 0);
+		return mCount;
+	}
+
+	/**
+	 * @return The number of turns from the last call to generate
+	 */
+	public int getCount() {
+		return mCount;
+	}
+
+	/**
+	 * Returns the position a turn leaves.  The position is owned by the generator and
+	 * must not be changed.
+	 *
+	 * @param turn The index of the turn
+	 *
+	 * @return The position at the end of the turn
+	 */
+	public Position getPosition(int turn) {
+		return mResults[turn];
+	}
+
+	/**
+	 * @param turn The index of the turn
+	 *
+	 * @return The hash of the position at the end of the turn
+	 */
+	public long getHash(int turn) {
+		return mHashes[turn];
+	}
+
+	/**
+	 * @param turn The index of the turn
+	 *
+	 * @return The number of sowings in the turn
+	 */
+	public int getLength(int turn) {
+		return mLengths[turn];
+	}
+
+	/**
+	 * @param turn The index of the turn
+	 *
+	 * @param index The index of the sowing within the turn
+	 *
+	 * @return The hollow sown, relative to the side to move
+	 */
+	public int getMove(int turn, int index) {
+		return mMoves[turn][index];
+	}
+
+	/**
+	 * @param turn The index of the turn
+	 *
+	 * @return A copy of the hollows sown during the turn, in order
+	 */
+	public int[] getMoves(int turn) {
+		int[] moves = new int[mLengths[turn]];
+		System.arraycopy(mMoves[turn], 0, moves, 0, moves.length);
+		return moves;
+	}
+
+	/**
+	 * Follows every move from a position in the chain, recursing on extra turns
+	 */
+	private void follow(Position position, int length) {
+
+		if (length >= mChain.length) {
+			Position[] chain = new Position[length + 4];
+			System.arraycopy(mChain, 0, chain, 0, mChain.length);
+			for (int i = mChain.length; i < chain.length; i++) {
+				chain[i] = new Position(mHollows);
+			}
+			int[] sequence = new int[chain.length];
+			System.arraycopy(mSequence, 0, sequence, 0, mSequence.length);
+			mChain = chain;
+			mSequence = sequence;
+		}
+
+		final Position child = mChain[length];
+
+		for (int move = 0; move < mHollows; move++) {
+
+			if (!position.isLegal(move)) {
+				continue;
+			}
+
+			child.copyFrom(position);
+			child.play(move);
+			mSequence[length] = move;
+
+			if (!child.isGameOver() && child.getSideToMove() == mSide) {
+				follow(child, length + 1);
+			} else {
+				add(child, length + 1);
+			}
+		}
+	}
+
+	/**
+	 * Records the end of a chain, unless an earlier chain reached the same position
+	 */
+	private void add(Position position, int length) {
+
+		long hash = position.hash();
+
+		for (int i = 0; i < mCount; i++) {
+			if (mHashes[i] == hash && mResults[i].equals(position)) {
+				return;
+			}
+		}
+
+		if (mCount == mResults.length) {
+			grow();
+		}
+
+		if (mResults[mCount] == null) {
+			mResults[mCount] = new Position(mHollows);
+			mMoves[mCount] = new int[4];
+		}
+
+		if (mMoves[mCount].length < length) {
+			mMoves[mCount] = new int[mSequence.length];
+		}
+
+		mResults[mCount].copyFrom(position);
+		mHashes[mCount] = hash;
+		System.arraycopy(mSequence, 0, mMoves[mCount], 0, length);
+		mLengths[mCount] = length;
+		mCount++;
+	}
+
+	/**
+	 * Makes room for more turns.  The positions are only made when a turn first needs
+	 * them, as a rare position with many turns would otherwise fill every ply's
+	 * generator with positions that are never used.
+	 */
+	private void grow() {
+
+		int size = Math.max(mHollows, mResults.length * 2);
+
+		Position[] results = new Position[size];
+		long[] hashes = new long[size];
+		int[][] moves = new int[size][];
+		int[] lengths = new int[size];
+
+		System.arraycopy(mResults, 0, results, 0, mResults.length);
+		System.arraycopy(mHashes, 0, hashes, 0, mHashes.length);
+		System.arraycopy(mMoves, 0, moves, 0, mMoves.length);
+		System.arraycopy(mLengths, 0, lengths, 0, mLengths.length);
+
+		mResults = results;
+		mHashes = hashes;
+		mMoves = moves;
+		mLengths = lengths;
+	}
+}
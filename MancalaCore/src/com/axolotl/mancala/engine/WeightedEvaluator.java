@@ -0,0 +1,272 @@
+package com.axolotl.mancala.engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * An evaluator which scores a position as a weighted sum of simple features, each
+ * measured as the difference between the side to move and the opponent.  The weights
+ * can be fitted to the results of real games by the EvaluationTuner.
+ *
+ * The weights are in hundredths of a seed for each unit of their feature.  The store
+ * weight should stay at SEED, so that the scores of the leaves are comparable with the
+ * exact scores of finished games.
+ */
+public class WeightedEvaluator implements Evaluator {
+
+	/**
+	 * The difference between the stores
+	 */
+	public static final int STORES = 0;
+
+	/**
+	 * The difference between the seeds left in each side's hollows
+	 */
+	public static final int HOLLOW_SEEDS = 1;
+
+	/**
+	 * The difference between the number of moves that earn an extra turn
+	 */
+	public static final int EXTRA_TURNS = 2;
+
+	/**
+	 * The difference between the largest capture each side could make
+	 */
+	public static final int CAPTURES = 3;
+
+	/**
+	 * The difference between the number of empty hollows
+	 */
+	public static final int EMPTY_HOLLOWS = 4;
+
+	/**
+	 * Always one, so that its weight is the value of being the side to move
+	 */
+	public static final int TEMPO = 5;
+
+	/**
+	 * The number of features
+	 */
+	public static final int FEATURES = 6;
+
+	// The names used for the weights in a weights file
+	private static final String[] NAMES = { "stores", "hollowSeeds", "extraTurns", "captures", "emptyHollows",
+			"tempo" };
+
+	// The weights of the features, in hundredths of a seed
+	private final int[] mWeights;
+
+	// The features of the position being scored
+	private final int[] mFeatures = new int[FEATURES];
+
+	/**
+	 * Constructs an evaluator which only counts the stores, and so scores positions
+	 * the same as the StoreEvaluator
+	 */
+	public WeightedEvaluator() {
+		this(new int[] { SEED, 0, 0, 0, 0, 0 });
+	}
+
+	/**
+	 * Constructs an evaluator with the given weights
+	 *
+	 * @param weights The weight of each feature, in hundredths of a seed
+	 */
+	public WeightedEvaluator(int[] weights) {
+
+		if (weights.length != FEATURES) {
+			throw new IllegalArgumentException("Expected " + FEATURES + " weights");
+		}
+		mWeights = weights.clone();
+	}
+
+	/**
+	 * Reads the weights written by write
+	 *
+	 * @param file The weights file
+	 *
+	 * @return The evaluator
+	 *
+	 * @throws IOException If the file cannot be read or a weight is missing
+	 */
+	public static WeightedEvaluator read(File file) throws IOException {
+
+		Properties properties = new Properties();
+		InputStream input = new FileInputStream(file);
+
+		try {
+			properties.load(input);
+		} finally {
+			input.close();
+		}
+
+		int[] weights = new int[FEATURES];
+
+		for (int i = 0; i < FEATURES; i++) {
+
+			String value = properties.getProperty(NAMES[i]);
+
+			if (value == null) {
+				throw new IOException("Missing weight " + NAMES[i] + " in " + file);
+			}
+
+			try {
+				weights[i] = Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid weight " + NAMES[i] + " in " + file);
+			}
+		}
+		return new WeightedEvaluator(weights);
+	}
+
+	/**
+	 * Writes the weights to a file that can be read back by read
+	 *
+	 * @param file The file to write
+	 *
+	 * @param comment A comment for the top of the file, or null
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file, String comment) throws IOException {
+
+		Properties properties = new Properties();
+
+		for (int i = 0; i < FEATURES; i++) {
+			properties.setProperty(NAMES[i], Integer.toString(mWeights[i]));
+		}
+
+		OutputStream output = new FileOutputStream(file);
+
+		try {
+			properties.store(output, comment);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * @return A copy of the weights, in hundredths of a seed
+	 */
+	public int[] getWeights() {
+		return mWeights.clone();
+	}
+
+	/**
+	 * Returns the weighted sum of the features for the side to move
+	 */
+	@Override
+	public int evaluate(Position position) {
+
+		extractFeatures(position, mFeatures);
+
+		int score = 0;
+		for (int i = 0; i < FEATURES; i++) {
+			score += mWeights[i] * mFeatures[i];
+		}
+		return score;
+	}
+
+	/**
+	 * Measures the features of a position from the point of view of the side to move
+	 *
+	 * @param position The position
+	 *
+	 * @param features The array to receive the features, FEATURES long
+	 */
+	public static void extractFeatures(Position position, int[] features) {
+
+		final int side = position.getSideToMove();
+		final int other = 1 - side;
+
+		features[STORES] = position.getStoreDifference(side);
+		features[HOLLOW_SEEDS] = position.getSeedsOnSide(side) - position.getSeedsOnSide(other);
+		features[EXTRA_TURNS] = countExtraTurns(position, side) - countExtraTurns(position, other);
+		features[CAPTURES] = getLargestCapture(position, side) - getLargestCapture(position, other);
+		features[EMPTY_HOLLOWS] = countEmptyHollows(position, side) - countEmptyHollows(position, other);
+		features[TEMPO] = 1;
+	}
+
+	/**
+	 * Returns the weights as a readable list
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < FEATURES; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(NAMES[i]).append('=').append(mWeights[i]);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Counts the hollows whose last seed would land in the side's store
+	 */
+	private static int countExtraTurns(Position position, int side) {
+
+		final int hollows = position.getHollowsPerPlayer();
+		final int ring = 2 * hollows + 1;
+		int count = 0;
+
+		for (int i = 0; i < hollows; i++) {
+			int seeds = position.getHollowSeeds(side, i);
+			if (seeds > 0 && seeds % ring == hollows - i) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the most seeds the side could capture with one move, counting only moves
+	 * that do not go all the way round the board
+	 */
+	private static int getLargestCapture(Position position, int side) {
+
+		final int hollows = position.getHollowsPerPlayer();
+		int largest = 0;
+
+		for (int i = 0; i < hollows; i++) {
+
+			int seeds = position.getHollowSeeds(side, i);
+			int landing = i + seeds;
+
+			if (seeds > 0 && landing < hollows && position.getHollowSeeds(side, landing) == 0) {
+
+				// The opposite hollow gets no seeds from a move that stays on the side
+				int opposite = position.getHollowSeeds(1 - side, hollows - 1 - landing);
+
+				if (opposite > 0) {
+					largest = Math.max(largest, opposite + 1);
+				}
+			}
+		}
+		return largest;
+	}
+
+	/**
+	 * Counts the side's empty hollows
+	 */
+	private static int countEmptyHollows(Position position, int side) {
+
+		final int hollows = position.getHollowsPerPlayer();
+		int count = 0;
+
+		for (int i = 0; i < hollows; i++) {
+			if (position.getHollowSeeds(side, i) == 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
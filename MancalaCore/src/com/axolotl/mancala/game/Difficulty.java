@@ -1,22 +1,49 @@
 package com.axolotl.mancala.game;
 
 /**
- * Determines the difficulty level of the same
+ * Determines the difficulty level of the same.  Each level carries a fixed budget for
+ * the computer players that search, so that the work done for a move is bounded and
+ * does not depend on the speed of the device.
  */
 public enum Difficulty {
 	
 	/**
 	 * Easy difficulty level
 	 */
-	Easy,
+	Easy(2000, 200),
 	
 	/**
 	 * Medium difficulty level
 	 */
-	Medium,
+	Medium(20000, 2000),
 	
 	/**
 	 * Hard difficulty level
 	 */
-	Hard
+	Hard(200000, 20000);
+	
+	// The number of nodes an alpha-beta search may visit for each move
+	private final int mNodeBudget;
+	
+	// The number of playouts a Monte Carlo search may run for each move
+	private final int mPlayoutBudget;
+	
+	private Difficulty(int nodeBudget, int playoutBudget) {
+		mNodeBudget = nodeBudget;
+		mPlayoutBudget = playoutBudget;
+	}
+	
+	/**
+	 * @return The number of nodes an alpha-beta search may visit for each move
+	 */
+	public int getNodeBudget() {
+		return mNodeBudget;
+	}
+	
+	/**
+	 * @return The number of playouts a Monte Carlo search may run for each move
+	 */
+	public int getPlayoutBudget() {
+		return mPlayoutBudget;
+	}
 }
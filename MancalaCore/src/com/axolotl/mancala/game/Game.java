@@ -1,5 +1,7 @@
 package com.axolotl.mancala.game;
 
+import java.util.List;
+
 import com.axolotl.mancala.MancalaException;
 import com.axolotl.mancala.model.Board;
 import com.axolotl.mancala.model.Pit;
@@ -92,4 +94,15 @@ public interface Game {
 	 * @throws MancalaException 
 	 */
 	void makeMove(Pit currentPit) throws MancalaException;
+	
+	/**
+	 * Suggests moves for the player whose turn it is.  Positions already analysed are
+	 * answered at once; others are analysed in the background.
+	 * 
+	 * @param maxMillis The longest to wait for an analysis, or 0 not to wait
+	 * 
+	 * @return The playable hollows with their scores, best first, or null if the
+	 * 		   analysis is not ready yet and should be asked for again later
+	 */
+	List<Hint> getHints(long maxMillis);
 }
@@ -1,9 +1,15 @@
 package com.axolotl.mancala.game;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.engine.HintService;
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.engine.TimeManager;
 import com.axolotl.mancala.model.Board;
 import com.axolotl.mancala.model.BoardImpl;
 import com.axolotl.mancala.model.Marble;
@@ -41,6 +47,19 @@ public class GameImpl implements Game, GamePublisher {
 	// The second player, if the player mode is set to single player
 	private ComputerPlayer mPlayer2;
 	
+	// Analyses positions for hints, or null to use the shared service
+	private HintService mHintService;
+	
+	// Times the computer player's moves, or null for it to use the level's budget
+	private TimeManager mTimeManager;
+	
+	// Draws the seed for each new game
+	private final Random mRandom = new Random();
+	
+	// The seed of the computer player, drawn for each new game and saved with it so
+	// that a restored game plays on as it would have done
+	private long mSeed;
+	
 	/**
 	 * Creates a new instance of the GameImpl class
 	 */
@@ -72,6 +91,14 @@ public class GameImpl implements Game, GamePublisher {
 	public GameMode getGameMode() {
 		return mPlayerMode;
 	}
+	
+	/**
+	 * Gets the seed the computer player chooses between equally good moves with
+	 * @return The seed for this game
+	 */
+	public long getSeed() {
+		return mSeed;
+	}
     /**
 	 * Returns the board in play
 	 * 
@@ -113,9 +140,17 @@ public class GameImpl implements Game, GamePublisher {
 			throw new MancalaException("No mStrategy currently set");
 		
 		mPlayerMode = playerMode;
+		mSeed = mRandom.nextLong();
+		
+		// Make sure the previous computer player is not still thinking
+		if (mPlayer2 != null) {
+			mPlayer2.stopPondering();
+		}
 		
 		if (mPlayerMode == GameMode.OnePlayer) {
 			mPlayer2 = mStrategy.createAIPlayer(PlayerNumber.Two, difficulty);
+			mPlayer2.setSeed(mSeed);
+			startClock();
 		} else {
 			mPlayer2 = null;
 		}
@@ -123,6 +158,7 @@ public class GameImpl implements Game, GamePublisher {
 		mDifficulty = difficulty;
 		mStrategy.setBoard(mBoard);
 		mStrategy.reset();
+		mCurrentGameState = null;
 		
 		notifyNewGame();
 	}
@@ -137,6 +173,66 @@ public class GameImpl implements Game, GamePublisher {
 		mCurrentGameState = getGameStringCore();
 	}
 	
+	/**
+	 * Sets a time manager to share a clock for each game between the computer
+	 * player's moves.  The clock is reset with each new or restored game, as the time
+	 * left is not saved with the game.
+	 * 
+	 * @param manager The time manager, or null for the computer player to use the
+	 *        difficulty level's budget
+	 */
+	public void setTimeManager(TimeManager manager) {
+		mTimeManager = manager;
+	}
+	
+	/**
+	 * Sets the service that analyses positions for hints, such as one shared by all
+	 * the games on a server
+	 * 
+	 * @param service The hint service, or null to use the shared default service
+	 */
+	public void setHintService(HintService service) {
+		mHintService = service;
+	}
+	
+	/**
+	 * Suggests moves for the player whose turn it is
+	 */
+	@Override
+	public List<Hint> getHints(long maxMillis) {
+		
+		PlayerNumber player = mStrategy.getCurrentPlayer();
+		Position position = Position.fromBoard(mBoard, player);
+		
+		if (position.isGameOver()) {
+			return new ArrayList<Hint>();
+		}
+		
+		HintService service = mHintService != null ? mHintService : HintService.getDefault();
+		int[] scores = service.getScores(position, maxMillis);
+		
+		if (scores == null) {
+			return null;
+		}
+		
+		List<Pit> pits = mBoard.getPlayersPits(player);
+		List<Hint> hints = new ArrayList<Hint>();
+		
+		for (int hollow = 0; hollow < scores.length; hollow++) {
+			if (scores[hollow] != HintService.ILLEGAL) {
+				hints.add(new Hint(pits.get(hollow), scores[hollow]));
+			}
+		}
+		
+		// Best first, keeping the board order for equal scores
+		Collections.sort(hints, new Comparator<Hint>() {
+			public int compare(Hint first, Hint second) {
+				return first.getScore() > second.getScore() ? -1 : first.getScore() < second.getScore() ? 1 : 0;
+			}
+		});
+		return hints;
+	}
+	
 	/**
 	 * Adds a GameListener
 	 * 
@@ -260,8 +356,10 @@ public class GameImpl implements Game, GamePublisher {
 			mStrategy.reset();
 			List<Pit> pits = mBoard.getPits();
 			
+			// States saved before the seed was added end with the pits, and are given a
+			// new seed
 			String[] segments = state.split(STATE_DELIMITER);
-			if (segments.length != pits.size() + 3) {
+			if (segments.length != pits.size() + 3 && segments.length != pits.size() + 4) {
 				return;
 			}
 			
@@ -280,10 +378,21 @@ public class GameImpl implements Game, GamePublisher {
 				}
 			}
 			
+			if (mPlayer2 != null) {
+				mPlayer2.stopPondering();
+			}
+			
+			mSeed = segments.length > pits.size() + 3 ? Long.parseLong(segments[pits.size() + 3]) : mRandom.nextLong();
+			
 			if (mPlayerMode == GameMode.OnePlayer) {
 			    mPlayer2 = mStrategy.createAIPlayer(PlayerNumber.Two, mDifficulty);
+			    mPlayer2.setSeed(mSeed);
+			    startClock();
+			} else {
+				mPlayer2 = null;
 			}
 			
+			mCurrentGameState = null;
 			notifyGameRestored();
 		}
 		catch (Exception ex) {
@@ -291,6 +400,17 @@ public class GameImpl implements Game, GamePublisher {
 		}		
 	}
 	
+	/**
+	 * Puts the whole game's time back on the computer player's clock
+	 */
+	private void startClock() {
+		
+		if (mTimeManager != null) {
+			mTimeManager.reset();
+			mPlayer2.setTimeManager(mTimeManager);
+		}
+	}
+	
 	/**
 	 * The main method to construct the game state
 	 * @return
@@ -316,6 +436,11 @@ public class GameImpl implements Game, GamePublisher {
 			builder.append(pit.getNumberOfMarbles());
 			builder.append(STATE_DELIMITER);
 		}
+		
+		// write the computer player's seed
+		builder.append(mSeed);
+		builder.append(STATE_DELIMITER);
+		
 		return builder.toString();
 	}
 }
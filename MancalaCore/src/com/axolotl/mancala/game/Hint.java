@@ -0,0 +1,51 @@
+package com.axolotl.mancala.game;
+
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * A move suggested to the player whose turn it is, with its score
+ */
+public class Hint {
+
+	// The hollow to play
+	private final Pit mPit;
+
+	// The score of playing it
+	private final int mScore;
+
+	/**
+	 * Creates a new hint
+	 *
+	 * @param pit The hollow to play
+	 *
+	 * @param score The score of playing it, in hundredths of a seed
+	 */
+	public Hint(Pit pit, int score) {
+		mPit = pit;
+		mScore = score;
+	}
+
+	/**
+	 * Gets the hollow to play
+	 *
+	 * @return The hollow
+	 */
+	public Pit getPit() {
+		return mPit;
+	}
+
+	/**
+	 * Gets the score of playing the hollow: the number of seeds, in hundredths, by
+	 * which the player is expected to finish ahead
+	 *
+	 * @return The score
+	 */
+	public int getScore() {
+		return mScore;
+	}
+
+	@Override
+	public String toString() {
+		return mPit + " " + mScore;
+	}
+}
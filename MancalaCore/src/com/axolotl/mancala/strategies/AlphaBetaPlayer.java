@@ -0,0 +1,329 @@
+package com.axolotl.mancala.strategies;
+
+import com.axolotl.mancala.engine.AlphaBetaSearch;
+import com.axolotl.mancala.engine.Evaluator;
+import com.axolotl.mancala.engine.Ponderer;
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.engine.SearchListener;
+import com.axolotl.mancala.engine.SearchResult;
+import com.axolotl.mancala.engine.StoreEvaluator;
+import com.axolotl.mancala.engine.TimeManager;
+import com.axolotl.mancala.engine.TranspositionTable;
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * A computer player for the egyptian rules which chooses its moves with an alpha-beta
+ * search.  The depth is counted in complete turns, so that a chain of extra turns does
+ * not use up the player's lookahead, and the leaves are extended with captures and
+ * extra turns so that the search does not stop just short of them.
+ *
+ * A player built for a difficulty level searches as deep as the level's node budget
+ * allows, starting from an empty transposition table each move, so that its move
+ * depends only on the position and the level.  It ponders with a search and table
+ * of their own, made the first time it ponders unless it was given them, searching
+ * each reply just as it would search it on its own turn, so pondering makes it
+ * answer sooner but never changes its move.  As its move depends on nothing else,
+ * players of a level that take turns on one board may share their search and
+ * ponderer, and with them the tables and stacks that take most of the memory.
+ * A player built with a fixed depth keeps its table from move to move and ponders
+ * into that table.  Either kind searches for as long as its time manager allows
+ * instead, if it has one, and a player built for a level then ignores what it
+ * pondered.
+ */
+public class AlphaBetaPlayer extends ComputerPlayer {
+
+	// The largest transposition table, in megabytes, of a player built for a difficulty
+	// level
+	private static final int TABLE_MEGABYTES = 4;
+
+	// The search used to choose each move
+	private final AlphaBetaSearch mSearch;
+
+	// Passes each completed iteration of the search on, set on the search only while
+	// a listener or time manager wants them
+	private final SearchListener mIterationListener;
+
+	// Searches the opponent's likely replies while it is their turn, or null if a
+	// player built for a level has not pondered yet
+	private Ponderer mPonderer;
+
+	// The depth searched to, in turns
+	private final int mDepth;
+
+	// The number of nodes each move may search, or 0 to search to the full depth
+	private final int mNodeBudget;
+
+	// The result of the last search
+	private SearchResult mLastResult;
+
+	// The number of moves answered from pondering
+	private int mPonderHits;
+
+	// Told about the progress of the search, or null
+	private SearchListener mProgressListener;
+
+	/**
+	 * Constructs a player which searches within the node budget of the difficulty level
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 */
+	public AlphaBetaPlayer(Board board, PlayerNumber player, Difficulty level) {
+		this(board, player, level, createSearch(level), null);
+	}
+
+	/**
+	 * Constructs a player which searches within the node budget of the difficulty level
+	 * with the given search and ponderer, such as ones shared by the players of every
+	 * game at the level
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 *
+	 * @param search The search to choose each move with, made by createSearch for the
+	 *        same level
+	 *
+	 * @param ponderer The ponderer to think ahead with, made by createPonderer for the
+	 *        same level, or null to make one the first time the player ponders
+	 */
+	public AlphaBetaPlayer(Board board, PlayerNumber player, Difficulty level, AlphaBetaSearch search,
+			Ponderer ponderer) {
+		this(board, player, level, AlphaBetaSearch.MAX_PLY - 1, level.getNodeBudget(), search, ponderer);
+	}
+
+	/**
+	 * Constructs a new instance of the player
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 *
+	 * @param depth The depth to search to, in turns
+	 *
+	 * @param table The transposition table to use
+	 *
+	 * @param evaluator The evaluator used to score the leaves
+	 */
+	public AlphaBetaPlayer(Board board, PlayerNumber player, Difficulty level, int depth,
+			TranspositionTable table, Evaluator evaluator) {
+		this(board, player, level, depth, 0, new AlphaBetaSearch(table, evaluator), null);
+		mSearch.setSearchByTurns(true);
+		mSearch.setQuiescence(true);
+		mPonderer = createPonderer(table, evaluator, depth);
+	}
+
+	/**
+	 * Constructs a new instance of the player
+	 */
+	private AlphaBetaPlayer(Board board, PlayerNumber player, Difficulty level, int depth, int nodeBudget,
+			AlphaBetaSearch search, Ponderer ponderer) {
+		super(board, player, level);
+		mDepth = depth;
+		mNodeBudget = nodeBudget;
+		mSearch = search;
+		mPonderer = ponderer;
+		mIterationListener = new SearchListener() {
+			public void onIteration(SearchResult result) {
+				reportIteration(result);
+			}
+		};
+	}
+
+	/**
+	 * Makes a search for players built for the difficulty level.  Its transposition
+	 * table is sized to the level's budget, up to a limit, as it is cleared every move.
+	 *
+	 * @param level The difficulty level
+	 *
+	 * @return The search
+	 */
+	public static AlphaBetaSearch createSearch(Difficulty level) {
+		AlphaBetaSearch search = new AlphaBetaSearch(createTable(level), new StoreEvaluator());
+		search.setSearchByTurns(true);
+		search.setQuiescence(true);
+		return search;
+	}
+
+	/**
+	 * Makes a ponderer for players built for the difficulty level, which searches each
+	 * reply as the level's search would
+	 *
+	 * @param level The difficulty level
+	 *
+	 * @return The ponderer
+	 */
+	public static Ponderer createPonderer(Difficulty level) {
+		Ponderer ponderer = createPonderer(createTable(level), new StoreEvaluator(), AlphaBetaSearch.MAX_PLY - 1);
+		ponderer.setNodeLimit(level.getNodeBudget());
+		return ponderer;
+	}
+
+	/**
+	 * @return The result of the last search, or null if the last move did not need one
+	 */
+	public SearchResult getLastResult() {
+		return mLastResult;
+	}
+
+	/**
+	 * @return The number of moves that were answered from pondering
+	 */
+	public int getPonderHits() {
+		return mPonderHits;
+	}
+
+	/**
+	 * @return True if the player is still searching on the opponent's time
+	 */
+	public boolean isPondering() {
+		return mPonderer != null && mPonderer.isPondering();
+	}
+
+	/**
+	 * Starts searching the opponent's likely replies in the background
+	 */
+	@Override
+	public void ponder() {
+
+		if (mPonderer == null) {
+			mPonderer = createPonderer(getDifficulty());
+		}
+
+		PlayerNumber opponent = getPlayerNumber() == PlayerNumber.One ? PlayerNumber.Two : PlayerNumber.One;
+		Position position = Position.fromBoard(getBoard(), opponent);
+
+		if (!position.isGameOver()) {
+			mPonderer.start(position);
+		}
+	}
+
+	/**
+	 * Stops any background searching
+	 */
+	@Override
+	public void stopPondering() {
+		if (mPonderer != null) {
+			mPonderer.stop();
+		}
+	}
+
+	/**
+	 * Chooses the move by searching from the current position, unless the position was
+	 * already searched while pondering.  With a time manager, a forced move is played
+	 * without searching and the search is stopped when the manager decides.
+	 *
+	 * @return The hollow to play
+	 */
+	@Override
+	protected Pit chooseMove() {
+
+		stopPondering();
+
+		Position position = getPosition();
+		TimeManager clock = getTimeManager();
+
+		if (clock != null && !clock.startMove(position)) {
+
+			int[] moves = new int[position.getHollowsPerPlayer()];
+			position.getLegalMoves(moves);
+
+			mLastResult = null;
+			clock.endMove(0);
+
+			return getBoard().getPlayersPits(getPlayerNumber()).get(moves[0]);
+		}
+
+		// A level's pondered results were searched within its node budget, so they do
+		// not stand in for a search against the clock
+		boolean pondered = mPonderer != null && (mNodeBudget == 0 || clock == null);
+		mLastResult = pondered ? mPonderer.getResult(position) : null;
+
+		if (mLastResult != null) {
+			mPonderHits++;
+		} else {
+
+			if (mNodeBudget > 0) {
+				mSearch.getTranspositionTable().clear();
+			}
+			mSearch.setListener(mProgressListener != null || clock != null ? mIterationListener : null);
+			mSearch.setNodeLimit(clock != null ? 0 : mNodeBudget);
+			mSearch.setTimeLimit(clock != null ? clock.getLimit() : 0);
+			mLastResult = mSearch.search(position, mDepth);
+			recordStatistics(mSearch.getStatistics());
+		}
+
+		if (clock != null) {
+			clock.endMove(mLastResult.getDepth());
+		}
+
+		return getBoard().getPlayersPits(getPlayerNumber()).get(mLastResult.getMove());
+	}
+
+	/**
+	 * Makes a transposition table sized for a player built for the difficulty level
+	 */
+	private static TranspositionTable createTable(Difficulty level) {
+		return new TranspositionTable(Math.min(2 * level.getNodeBudget(), TABLE_MEGABYTES * (1024 * 1024 / 16)));
+	}
+
+	/**
+	 * Creates a ponderer searching the way these players do, into the given table
+	 */
+	private static Ponderer createPonderer(TranspositionTable table, Evaluator evaluator, int depth) {
+		Ponderer ponderer = new Ponderer(table, evaluator, depth);
+		ponderer.setSearchByTurns(true);
+		ponderer.setQuiescence(true);
+		return ponderer;
+	}
+
+	/**
+	 * Passes a completed iteration on to the progress listener, and stops the search
+	 * if the time manager decides it has had long enough
+	 */
+	private void reportIteration(SearchResult result) {
+
+		SearchListener listener = mProgressListener;
+
+		if (listener != null) {
+			listener.onIteration(result);
+		}
+
+		TimeManager clock = getTimeManager();
+
+		if (clock != null && clock.shouldStop(result)) {
+			mSearch.abort();
+		}
+	}
+
+	/**
+	 * Passes the listener on to the search.  Moves answered from pondering or by an
+	 * oracle are not reported.
+	 *
+	 * @param listener The listener, or null for none
+	 */
+	@Override
+	protected void setSearchListener(SearchListener listener) {
+		mProgressListener = listener;
+	}
+
+	/**
+	 * This player does not score individual moves, so no strategy is used
+	 *
+	 * @return null
+	 */
+	@Override
+	protected ScoringStrategy getScoringStrategy(Difficulty level) {
+		return null;
+	}
+}
@@ -1,11 +1,20 @@
 package com.axolotl.mancala.strategies;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import com.axolotl.mancala.Predicate;
+import com.axolotl.mancala.engine.MoveOracle;
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.engine.SearchListener;
+import com.axolotl.mancala.engine.SearchStatistics;
+import com.axolotl.mancala.engine.StatisticsRegistry;
+import com.axolotl.mancala.engine.TimeManager;
 import com.axolotl.mancala.game.Difficulty;
 import com.axolotl.mancala.game.PlayerNumber;
 import com.axolotl.mancala.model.Board;
@@ -21,8 +30,12 @@ public abstract class ComputerPlayer {
 	// The board reference
 	private final Board mBoard;
 	
-	// The random instance used to choose when there are multiple options
-	private final Random mRandom = new Random(new Date().getTime());
+	// The random instance used to choose when there are multiple options, reseeded for
+	// each move from the seed and the position
+	private final Random mRandom = new Random();
+	
+	// The seed which, with the position and difficulty, decides the move played
+	private long mSeed;
 	
 	// The player that this strategy player
 	private final PlayerNumber mPlayer;
@@ -32,6 +45,22 @@ public abstract class ComputerPlayer {
 	
 	// The difficulty level
 	private Difficulty mDifficulty;
+	
+	// The oracles consulted before the player chooses a move itself
+	private final List<MoveOracle> mOracles = new ArrayList<MoveOracle>();
+	
+	// Shares the game's clock between the moves, or null to use the level's budget
+	private TimeManager mTimeManager;
+	
+	// The work done choosing the last move, or null if it needed no search
+	private volatile SearchStatistics mLastStatistics;
+	
+	// Adds up the work done for every move, or null
+	private StatisticsRegistry mStatisticsRegistry;
+	
+	// The current position, loaded again for each use so that a move needs no new one,
+	// or null until it is first used
+	private Position mPosition;
 		
 	/**
 	 * Constructs a new instance of the computer player
@@ -58,6 +87,107 @@ public abstract class ComputerPlayer {
 		return mDifficulty;
 	}
 	
+	/**
+	 * Gets the player that this instance represents
+	 * 
+	 * @return The player number
+	 */
+	public PlayerNumber getPlayerNumber() {
+		return mPlayer;
+	}
+	
+	/**
+	 * Sets the seed used to choose between equally good moves.  A player with the same
+	 * seed and difficulty always plays the same move in the same position.
+	 * 
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+	
+	/**
+	 * Gets the seed used to choose between equally good moves
+	 * 
+	 * @return The seed
+	 */
+	public long getSeed() {
+		return mSeed;
+	}
+	
+	/**
+	 * Sets a time manager to share a clock for the whole game between the player's
+	 * moves, in place of the difficulty level's fixed budget.  Players that search
+	 * use it to decide how long to think; the others ignore it.  The clock runs on from
+	 * where it is, so a manager used for an earlier game must be reset first, which
+	 * GameImpl does for the manager it gives its computer player.
+	 * 
+	 * @param manager The time manager, or null to use the level's budget
+	 */
+	public void setTimeManager(TimeManager manager) {
+		mTimeManager = manager;
+	}
+	
+	/**
+	 * Gets the time manager sharing the game's clock between the player's moves
+	 * 
+	 * @return The time manager, or null if the level's budget is used
+	 */
+	public TimeManager getTimeManager() {
+		return mTimeManager;
+	}
+	
+	/**
+	 * Gets the work done by the search that chose the last move played
+	 * 
+	 * @return The statistics, or null if the last move was chosen without a search
+	 */
+	public SearchStatistics getLastStatistics() {
+		return mLastStatistics;
+	}
+	
+	/**
+	 * Sets a registry to add up the work done by the searches for every move, such as
+	 * one shared by all the players on a server
+	 * 
+	 * @param registry The registry, or null for none
+	 */
+	public void setStatisticsRegistry(StatisticsRegistry registry) {
+		mStatisticsRegistry = registry;
+	}
+	
+	/**
+	 * Gets the board that this player is playing on
+	 * 
+	 * @return The board reference
+	 */
+	protected Board getBoard() {
+		return mBoard;
+	}
+	
+	/**
+	 * Adds an oracle, such as an endgame database, that is asked for a move before
+	 * the player chooses one itself.  Oracles are consulted in the order added.
+	 * 
+	 * @param oracle The oracle to add
+	 */
+	public void addOracle(MoveOracle oracle) {
+		mOracles.add(oracle);
+	}
+	
+	/**
+	 * Called when it is the opponent's turn, so that players which search can use the
+	 * time to think ahead.  This implementation does nothing.
+	 */
+	public void ponder() {
+	}
+	
+	/**
+	 * Stops any thinking started by ponder.  This implementation does nothing.
+	 */
+	public void stopPondering() {
+	}
+	
 	/**
 	 * Called when it is the computer's turn to make a move
 	 * 
@@ -65,6 +195,93 @@ public abstract class ComputerPlayer {
 	 */
 	public Pit play() {
 		
+		mLastStatistics = null;
+		
+		Pit known = consultOracles();
+		
+		if (known != null) {
+			return known;
+		}
+		
+		return chooseMove();
+	}
+	
+	/**
+	 * Chooses the computer's move on the given executor, so that the caller is free
+	 * while the computer thinks.  The board must not change until the move is known.
+	 * 
+	 * @param executor The executor to think on
+	 * 
+	 * @return The hollow to play, once it has been chosen
+	 */
+	public Future<Pit> playAsync(Executor executor) {
+		return playAsync(executor, null);
+	}
+	
+	/**
+	 * Chooses the computer's move on the given executor, so that the caller is free
+	 * while the computer thinks.  The board must not change until the move is known.
+	 * Cancelling the future with interruption stops the search.
+	 * 
+	 * @param executor The executor to think on
+	 * 
+	 * @param listener Told about the progress of the search on the executor's thread,
+	 * 		  or null.  Players that do not search deeper and deeper never call it.
+	 * 
+	 * @return The hollow to play, once it has been chosen
+	 */
+	public Future<Pit> playAsync(Executor executor, final SearchListener listener) {
+		
+		FutureTask<Pit> task = new FutureTask<Pit>(new Callable<Pit>() {
+			public Pit call() {
+				
+				setSearchListener(listener);
+				
+				try {
+					return play();
+				} finally {
+					setSearchListener(null);
+				}
+			}
+		});
+		
+		executor.execute(task);
+		return task;
+	}
+	
+	/**
+	 * Asks each oracle in turn for a move in the current position
+	 * 
+	 * @return The hollow suggested by the first oracle that knows the position, or null
+	 */
+	protected Pit consultOracles() {
+		
+		if (mOracles.isEmpty()) {
+			return null;
+		}
+		
+		Position position = getPosition();
+		
+		// Indexed, as an iterator would be garbage on every move
+		for (int i = 0; i < mOracles.size(); i++) {
+			
+			int move = mOracles.get(i).suggestMove(position);
+			
+			if (move != MoveOracle.NO_MOVE) {
+				return mBoard.getPlayersPits(mPlayer).get(move);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Chooses the move to play when no oracle knows the position.  This implementation
+	 * scores each playable hollow with the scoring strategy and picks the best.
+	 * 
+	 * @return The hollow to play
+	 */
+	protected Pit chooseMove() {
+		
 		// Get a list of all available hollows still in play
 		List<Pit> playablePits = mBoard.getPits(new Predicate<Pit>() {
 			public boolean matches(Pit item) {
@@ -76,6 +293,8 @@ public abstract class ComputerPlayer {
 		
 		int maxScore = -1;
 		
+		mRandom.setSeed(getMoveSeed());
+		
 		List<Pit> bestMoves = new ArrayList<Pit>();
 		
 		// Keep track of the hollows with the highest score
@@ -114,6 +333,56 @@ public abstract class ComputerPlayer {
 		}
 	}
 	
+	/**
+	 * Returns the seed for the random choices made for the current move, which depends
+	 * only on the player's seed and the position
+	 * 
+	 * @return The seed for this move
+	 */
+	protected long getMoveSeed() {
+		return mSeed ^ getPosition().hash();
+	}
+	
+	/**
+	 * Returns the current position with this player to move.  The same position is
+	 * loaded again by every call, so it must not be changed or kept.
+	 * 
+	 * @return The current position
+	 */
+	protected Position getPosition() {
+		
+		if (mPosition == null) {
+			mPosition = new Position(mBoard.getNumberOfHollowsPerPlayer());
+		}
+		mPosition.load(mBoard, mPlayer);
+		return mPosition;
+	}
+	
+	/**
+	 * Records the work done by a search made to choose the current move
+	 * 
+	 * @param statistics The statistics of the search
+	 */
+	protected void recordStatistics(SearchStatistics statistics) {
+		
+		mLastStatistics = statistics;
+		
+		StatisticsRegistry registry = mStatisticsRegistry;
+		
+		if (registry != null) {
+			registry.record(statistics);
+		}
+	}
+	
+	/**
+	 * Sets the listener told about the progress of the player's search.  This
+	 * implementation does nothing, as the scoring strategies do not search.
+	 * 
+	 * @param listener The listener, or null for none
+	 */
+	protected void setSearchListener(SearchListener listener) {
+	}
+	
 	/**
 	 * Returns the scoring strategy used for scoring each move.  The strategy should
 	 * be based on the difficulty level supplied
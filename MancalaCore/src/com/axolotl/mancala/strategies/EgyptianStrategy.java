@@ -3,6 +3,11 @@ package com.axolotl.mancala.strategies;
 import java.util.List;
 
 import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.engine.AlphaBetaSearch;
+import com.axolotl.mancala.engine.EndgameSolver;
+import com.axolotl.mancala.engine.EngineService;
+import com.axolotl.mancala.engine.MoveSimulator;
+import com.axolotl.mancala.engine.Ponderer;
 import com.axolotl.mancala.game.Difficulty;
 import com.axolotl.mancala.game.FinalScore;
 import com.axolotl.mancala.game.GamePublisher;
@@ -32,6 +37,23 @@ public class EgyptianStrategy implements MancalaStrategy {
 	// The current player
 	private PlayerNumber mCurrentPlayer = PlayerNumber.One;
 	
+	// Chooses the moves of the AI players for every game, or null for each player to
+	// choose its own
+	private EngineService mEngineService;
+	
+	// Whether the AI players score each move by hand rather than searching
+	private boolean mScoringPlayers;
+	
+	// The searches and ponderers of the searching AI players of each level, shared by
+	// the players of every game as their tables take megabytes to make, or null until
+	// the first player of the level is made
+	private final AlphaBetaSearch[] mSearches = new AlphaBetaSearch[Difficulty.values().length];
+	private final Ponderer[] mPonderers = new Ponderer[Difficulty.values().length];
+	
+	// Solves the endgames for the Hard AI players of every game, or null until the first
+	// one is made
+	private EndgameSolver mEndgameSolver;
+	
 	/**
 	 * Constructs a new instance of the board
 	 * 
@@ -52,13 +74,62 @@ public class EgyptianStrategy implements MancalaStrategy {
 	}
 
 	/**
-	 * Returns an AI player
+	 * Sets a service shared between games to choose the moves of the AI players this
+	 * strategy creates from now on
+	 * 
+	 * @param service The engine service, or null for each player to choose its own moves
+	 */
+	public void setEngineService(EngineService service) {
+		mEngineService = service;
+	}
+
+	/**
+	 * Sets whether the AI players this strategy creates from now on score each move by
+	 * hand, as the original players did, rather than searching within the difficulty
+	 * level's budget
+	 * 
+	 * @param scoringPlayers True for the scoring players, false for the searching
+	 *        players, the default
+	 */
+	public void setScoringPlayers(boolean scoringPlayers) {
+		mScoringPlayers = scoringPlayers;
+	}
+
+	/**
+	 * Returns an AI player, which asks the engine service for its moves if there is one,
+	 * and otherwise searches within the node budget of the difficulty level.  The
+	 * searching players of a level share their search and ponderer with those of
+	 * earlier games, so only the first game at each level makes their tables.
 	 */
 	@Override
 	public ComputerPlayer createAIPlayer(PlayerNumber player, Difficulty level) {
 
-		return new EgyptianPlayer(mBoard, player, level);
-
+		if (mEngineService != null) {
+			return new ServicePlayer(mBoard, player, level, mEngineService);
+		}
+		if (mScoringPlayers) {
+			return new EgyptianPlayer(mBoard, player, level);
+		}
+		
+		// The players take turns on the one board, so they never search at once
+		int index = level.ordinal();
+		
+		if (mSearches[index] == null) {
+			mSearches[index] = AlphaBetaPlayer.createSearch(level);
+			mPonderers[index] = AlphaBetaPlayer.createPonderer(level);
+		}
+		
+		ComputerPlayer computer = new AlphaBetaPlayer(mBoard, player, level, mSearches[index], mPonderers[index]);
+		
+		// The endgame is small enough to solve outright, which a budgeted search
+		// cannot always do
+		if (level == Difficulty.Hard) {
+			if (mEndgameSolver == null) {
+				mEndgameSolver = new EndgameSolver();
+			}
+			computer.addOracle(mEndgameSolver);
+		}
+		return computer;
 	}
 
 	/**
@@ -267,6 +338,9 @@ public class EgyptianStrategy implements MancalaStrategy {
 	 */
 	private class EgyptianPlayer extends ComputerPlayer {
 
+		// Plays the candidate moves for the scoring strategies
+		private MoveSimulator mSimulator;
+
 		/**
 		 * Constructs a new instance of the computer player
 		 * 
@@ -278,6 +352,12 @@ public class EgyptianStrategy implements MancalaStrategy {
 		 */
 		public EgyptianPlayer(Board board, PlayerNumber player, Difficulty level) {
 			super(board, player, level);
+			
+			// The heuristics are weakest at the end of the game, where the tree is small
+			// enough to solve outright
+			if (level == Difficulty.Hard) {
+				addOracle(new EndgameSolver());
+			}
 		}
 
 		/**
@@ -331,14 +411,13 @@ public class EgyptianStrategy implements MancalaStrategy {
 			public int getScoreForMove(Pit pit) {				
 				int score = 1;
 				
-				List<Pit> placements = mBoard.getNextPits(pit, mCurrentPlayer, pit.getNumberOfMarbles());
+				MoveSimulator move = simulate(pit);
 
-				// If the store is in the list of moves, add 1 to the score
-				if (placements.contains(mBoard.getPlayersStore(mCurrentPlayer))) {
+				// If a marble is sown into the store, add 1 to the score
+				if (move.getSownIntoStore() > 0) {
 					score += 1;
 				}
 
-				
 				return score;
 			}			
 		}
@@ -353,42 +432,73 @@ public class EgyptianStrategy implements MancalaStrategy {
 		 * 
 		 * If the final marble ends up in an empty hollow, the adjacent hollows marble count
 		 * is added to the store (assuming that the empty hollow is one of the player's own hollows).
+		 * 
+		 * The move is played out in full, so a sowing that laps the board and comes back
+		 * to the hollow it started from is scored by where it really ends.
 		 */
 		class DifficultScoringStrategy implements ScoringStrategy {
 			
 			@Override
 			public int getScoreForMove(Pit pit) {
 				int score = 0;
-				int marbleCount = pit.getNumberOfMarbles();
 				
-				List<Pit> placements = mBoard.getNextPits(pit, mCurrentPlayer, marbleCount);
+				MoveSimulator move = simulate(pit);
 
-				// If the store is in the list of moves, add 1 to the score
-				if (placements.contains(mBoard.getPlayersStore(mCurrentPlayer))) {
+				// If a marble is sown into the store, add 1 to the score
+				if (move.getSownIntoStore() > 0) {
 					score += 1;
 				}
 
-				// Determine the last hollow in the list
-				Pit lastPit = placements.get(placements.size() - 1);
-
-				if (lastPit instanceof Store) {
+				if (move.isExtraTurn()) {
 
 					// Get another go if the last marble lands in the store
 					score += 5;
 					
-				} else {
+				} else if (move.isCapture()) {
 
-					// Test for a capture, and if there is one, add the number of captured marbles
-					if (lastPit.getPlayerNumber() == mCurrentPlayer && lastPit.getNumberOfMarbles() == 0) {
-					    
-					    score += lastPit.getNumberOfMarbles();
-						score += mBoard.getAdjacentPit(lastPit).getNumberOfMarbles();
-						
-					}
+					// Add the number of captured marbles
+					score += move.getCapturedSeeds();
 				}
 
 				return score;
 			}			
 		}
+		
+		/**
+		 * Reads the board into the simulator once, before the scoring strategies play
+		 * each candidate move on it
+		 * 
+		 * @return The hollow to play
+		 */
+		@Override
+		protected Pit chooseMove() {
+			
+			int hollows = mBoard.getNumberOfHollowsPerPlayer();
+			
+			// Created on first use, as the scoring strategies are made before the
+			// player's own fields are set
+			if (mSimulator == null || mSimulator.getHollowsPerPlayer() != hollows) {
+				mSimulator = new MoveSimulator(hollows);
+			}
+			
+			mSimulator.load(mBoard, mCurrentPlayer);
+			
+			return super.chooseMove();
+		}
+		
+		/**
+		 * Plays a move on a copy of the board loaded for this choice, leaving the board
+		 * itself untouched
+		 * 
+		 * @param pit The hollow to play
+		 * 
+		 * @return The simulator, holding the outcome of the move
+		 */
+		private MoveSimulator simulate(Pit pit) {
+			
+			mSimulator.simulate(mBoard.getPlayersPits(mCurrentPlayer).indexOf(pit));
+			
+			return mSimulator;
+		}
 	}
 }
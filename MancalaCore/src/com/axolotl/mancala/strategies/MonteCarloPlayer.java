@@ -0,0 +1,139 @@
+package com.axolotl.mancala.strategies;
+
+import com.axolotl.mancala.engine.EndgameDatabase;
+import com.axolotl.mancala.engine.MonteCarloSearch;
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.engine.SearchStatistics;
+import com.axolotl.mancala.engine.TimeManager;
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * A computer player for the egyptian rules which chooses its moves using a Monte Carlo
+ * tree search rather than by scoring each move
+ */
+public class MonteCarloPlayer extends ComputerPlayer {
+
+	// The number of tree nodes allowed for each playout in the budget
+	private static final int NODES_PER_PLAYOUT = 3;
+
+	// The tree size used when the search is only limited by time
+	private static final int DEFAULT_CAPACITY = 1 << 20;
+
+	// The search used to choose each move
+	private final MonteCarloSearch mSearch;
+
+	// The maximum number of playouts per move, or 0 for no limit
+	private final int mMaxPlayouts;
+
+	// The maximum time per move in milliseconds, or 0 for no limit
+	private final long mMaxMillis;
+
+	// The position used to copy the board into
+	private Position mPosition;
+
+	/**
+	 * Constructs a single threaded player with the playout budget of the difficulty
+	 * level.  Such a player always plays the same move in the same position for a
+	 * given seed.
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 */
+	public MonteCarloPlayer(Board board, PlayerNumber player, Difficulty level) {
+		this(board, player, level, 1, level.getPlayoutBudget(), 0);
+	}
+
+	/**
+	 * Constructs a new instance of the player
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 *
+	 * @param threads The number of threads to search with
+	 *
+	 * @param maxPlayouts The maximum number of playouts per move, or 0 for no limit
+	 *
+	 * @param maxMillis The maximum time per move in milliseconds, or 0 for no limit
+	 */
+	public MonteCarloPlayer(Board board, PlayerNumber player, Difficulty level, int threads, int maxPlayouts, long maxMillis) {
+		super(board, player, level);
+		mMaxPlayouts = maxPlayouts;
+		mMaxMillis = maxMillis;
+		mSearch = new MonteCarloSearch(threads,
+				maxPlayouts > 0 ? maxPlayouts * NODES_PER_PLAYOUT + 64 : DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Sets an endgame database, which is used both to answer covered positions directly
+	 * and to cut playouts short once they reach a covered position
+	 *
+	 * @param database The endgame database
+	 */
+	public void setEndgameDatabase(EndgameDatabase database) {
+		addOracle(database);
+		mSearch.setEndgameDatabase(database);
+	}
+
+	/**
+	 * Chooses the move by searching from the current position.  The playouts are
+	 * seeded from the player's seed and the position, so a single threaded search
+	 * with only a playout budget can be repeated.  With a time manager, the search is
+	 * given the manager's target time for the move, and a forced move is played
+	 * without searching.
+	 *
+	 * @return The hollow to play
+	 */
+	@Override
+	protected Pit chooseMove() {
+
+		Board board = getBoard();
+
+		if (mPosition == null || mPosition.getHollowsPerPlayer() != board.getNumberOfHollowsPerPlayer()) {
+			mPosition = new Position(board.getNumberOfHollowsPerPlayer());
+		}
+
+		mPosition.load(board, getPlayerNumber());
+		mSearch.setSeed(getMoveSeed());
+
+		TimeManager clock = getTimeManager();
+		long start = System.nanoTime();
+		int move;
+
+		if (clock == null) {
+			move = mSearch.search(mPosition, mMaxPlayouts, mMaxMillis);
+		} else if (clock.startMove(mPosition)) {
+			move = mSearch.search(mPosition, mMaxPlayouts, clock.getTarget());
+			clock.endMove(0);
+		} else {
+			int[] moves = new int[mPosition.getHollowsPerPlayer()];
+			mPosition.getLegalMoves(moves);
+			clock.endMove(0);
+			return board.getPlayersPits(getPlayerNumber()).get(moves[0]);
+		}
+
+		// The tree has no depth or table, and each playout ends in one scored position
+		recordStatistics(new SearchStatistics(mSearch.getNodeCount(), mSearch.getPlayoutCount(), 0, 0, 0, 0,
+				System.nanoTime() - start));
+
+		return board.getPlayersPits(getPlayerNumber()).get(move);
+	}
+
+	/**
+	 * This player does not score individual moves, so no strategy is used
+	 *
+	 * @return null
+	 */
+	@Override
+	protected ScoringStrategy getScoringStrategy(Difficulty level) {
+		return null;
+	}
+}
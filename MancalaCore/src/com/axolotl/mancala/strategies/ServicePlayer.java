@@ -0,0 +1,78 @@
+package com.axolotl.mancala.strategies;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.engine.EngineMove;
+import com.axolotl.mancala.engine.EngineService;
+import com.axolotl.mancala.engine.Position;
+import com.axolotl.mancala.game.Difficulty;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * A computer player which asks a shared EngineService for its moves, so that all it
+ * keeps for its game is the board, the player and the difficulty level
+ */
+public class ServicePlayer extends ComputerPlayer {
+
+	// Chooses the moves
+	private final EngineService mService;
+
+	/**
+	 * Constructs a new instance of the player
+	 *
+	 * @param board The associated board
+	 *
+	 * @param player The player that this instance represents
+	 *
+	 * @param level The difficulty level that this player should adopt
+	 *
+	 * @param service The service that chooses the moves
+	 */
+	public ServicePlayer(Board board, PlayerNumber player, Difficulty level, EngineService service) {
+		super(board, player, level);
+		mService = service;
+	}
+
+	/**
+	 * Chooses the move on one of the service's workers and waits for it, recording the
+	 * work done by the worker's search.  Interrupting the waiting thread cancels the
+	 * request.
+	 *
+	 * @return The hollow to play
+	 */
+	@Override
+	protected Pit chooseMove() {
+
+		Future<EngineMove> request = mService.requestMove(Position.fromBoard(getBoard(), getPlayerNumber()),
+				getDifficulty());
+
+		try {
+			EngineMove move = request.get();
+
+			if (move.getStatistics() != null) {
+				recordStatistics(move.getStatistics());
+			}
+			return getBoard().getPlayersPits(getPlayerNumber()).get(move.getMove());
+		} catch (InterruptedException e) {
+			request.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Interrupted waiting for a move", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("The engine could not choose a move", e.getCause());
+		}
+	}
+
+	/**
+	 * This player does not score individual moves, so no strategy is used
+	 *
+	 * @return null
+	 */
+	@Override
+	protected ScoringStrategy getScoringStrategy(Difficulty level) {
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+package com.axolotl.mancala.tournament;
+
+import java.util.List;
+
+import com.axolotl.mancala.game.FinalScore;
+import com.axolotl.mancala.game.GamePublisher;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Pit;
+
+/**
+ * Keeps what is needed of a game played without a user interface: its final score,
+ * its length and the captures made
+ */
+class GameRecorder implements GamePublisher {
+
+	// The final score, or null while the game is still going
+	private FinalScore mScore;
+
+	// The moves played
+	private int mMoves;
+
+	// The captures made
+	private int mCaptures;
+
+	/**
+	 * @return The final score, or null while the game is still going
+	 */
+	FinalScore getScore() {
+		return mScore;
+	}
+
+	/**
+	 * @return The moves played, counting each sowing
+	 */
+	int getMoves() {
+		return mMoves;
+	}
+
+	/**
+	 * @return The captures made
+	 */
+	int getCaptures() {
+		return mCaptures;
+	}
+
+	/**
+	 * Counts a move played
+	 */
+	void countMove() {
+		mMoves++;
+	}
+
+	public void notifyGameRestored() {
+	}
+
+	public void notifyNewGame() {
+	}
+
+	public void notifyBoardChanged(List<Pit> changedPits) {
+	}
+
+	public void notifyPlayerHasAnotherTurn() {
+	}
+
+	public void notifyCapture(Pit capturedPit) {
+		mCaptures++;
+	}
+
+	public void notifyPlayerChanged(PlayerNumber newPlayer) {
+	}
+
+	public void notifyGameComplete(FinalScore score) {
+		mScore = score;
+	}
+}
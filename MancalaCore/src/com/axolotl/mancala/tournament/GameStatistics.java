@@ -0,0 +1,169 @@
+package com.axolotl.mancala.tournament;
+
+import com.axolotl.mancala.game.FinalScore;
+import com.axolotl.mancala.game.PlayerNumber;
+
+/**
+ * Adds up the outcomes of many games without keeping the games themselves: the
+ * results for the player that moved first, and the distributions of the final score
+ * difference, the length of the games and the captures made in them.
+ *
+ * Each thread of a simulation keeps its own statistics, which are merged once it is
+ * done, so the statistics need no locking.  Merging gives the same totals in any
+ * order.
+ */
+public class GameStatistics {
+
+	// The games won, drawn and lost by the player that moved first
+	private long mWins;
+	private long mDraws;
+	private long mLosses;
+
+	// The first player's final total less the second player's, for each game
+	private final Histogram mDifferences = new Histogram();
+
+	// The moves played in each game, counting each sowing
+	private final Histogram mLengths = new Histogram();
+
+	// The captures made in each game
+	private final Histogram mCaptures = new Histogram();
+
+	/**
+	 * Adds the outcome of a game
+	 *
+	 * @param score The final score
+	 *
+	 * @param moves The moves played, counting each sowing
+	 *
+	 * @param captures The captures made
+	 */
+	public void record(FinalScore score, int moves, int captures) {
+
+		int difference = score.getScore(PlayerNumber.One).getTotalScore()
+				- score.getScore(PlayerNumber.Two).getTotalScore();
+
+		if (difference > 0) {
+			mWins++;
+		} else if (difference < 0) {
+			mLosses++;
+		} else {
+			mDraws++;
+		}
+
+		mDifferences.add(difference);
+		mLengths.add(moves);
+		mCaptures.add(captures);
+	}
+
+	/**
+	 * Adds the games of other statistics to these
+	 *
+	 * @param other The other statistics
+	 */
+	public void merge(GameStatistics other) {
+		mWins += other.mWins;
+		mDraws += other.mDraws;
+		mLosses += other.mLosses;
+		mDifferences.merge(other.mDifferences);
+		mLengths.merge(other.mLengths);
+		mCaptures.merge(other.mCaptures);
+	}
+
+	/**
+	 * @return The number of games
+	 */
+	public long getGames() {
+		return mWins + mDraws + mLosses;
+	}
+
+	/**
+	 * @return The games won by the player that moved first
+	 */
+	public long getFirstPlayerWins() {
+		return mWins;
+	}
+
+	/**
+	 * @return The games drawn
+	 */
+	public long getDraws() {
+		return mDraws;
+	}
+
+	/**
+	 * @return The games lost by the player that moved first
+	 */
+	public long getFirstPlayerLosses() {
+		return mLosses;
+	}
+
+	/**
+	 * @return The share of the games won by the player that moved first
+	 */
+	public double getFirstPlayerWinRate() {
+		long games = getGames();
+		return games == 0 ? 0 : (double) mWins / games;
+	}
+
+	/**
+	 * Returns the 95% interval of the first player's win rate, by the Wilson score
+	 * method, which stays within 0 and 1 even for rates near either end
+	 *
+	 * @return The lower and upper ends of the interval
+	 */
+	public double[] getFirstPlayerWinRateInterval() {
+
+		long games = getGames();
+
+		if (games == 0) {
+			return new double[] { 0, 1 };
+		}
+
+		return TournamentResult.getWilsonInterval(getFirstPlayerWinRate(), games);
+	}
+
+	/**
+	 * @return The share of the points won by the player that moved first
+	 */
+	public double getFirstPlayerScore() {
+		long games = getGames();
+		return games == 0 ? 0.5 : (mWins + 0.5 * mDraws) / games;
+	}
+
+	/**
+	 * @return The distribution of the first player's final total less the second
+	 *         player's
+	 */
+	public Histogram getScoreDifferences() {
+		return mDifferences;
+	}
+
+	/**
+	 * @return The distribution of the moves played in each game
+	 */
+	public Histogram getGameLengths() {
+		return mLengths;
+	}
+
+	/**
+	 * @return The distribution of the captures made in each game
+	 */
+	public Histogram getCaptures() {
+		return mCaptures;
+	}
+
+	@Override
+	public String toString() {
+
+		double[] interval = getFirstPlayerWinRateInterval();
+
+		return String.format("games %d first player %d/%d/%d, win rate %.4f (%.4f to %.4f)%n"
+				+ "score difference %.2f +/- %.2f (%d to %d)%n"
+				+ "moves %.2f +/- %.2f (median %d, %d to %d)%n"
+				+ "captures per game %.3f +/- %.3f",
+				getGames(), mWins, mDraws, mLosses, getFirstPlayerWinRate(), interval[0], interval[1],
+				mDifferences.getMean(), mDifferences.getMeanError(), mDifferences.getMinimum(), mDifferences.getMaximum(),
+				mLengths.getMean(), mLengths.getMeanError(), mLengths.getPercentile(0.5), mLengths.getMinimum(),
+				mLengths.getMaximum(), mCaptures.getMean(), mCaptures.getMeanError());
+	}
+}
@@ -0,0 +1,173 @@
+package com.axolotl.mancala.tournament;
+
+/**
+ * Counts how often each whole number value occurs, growing to fit the values seen, so
+ * that a distribution can be kept without keeping the values themselves
+ */
+public class Histogram {
+
+	// The counts, from the smallest value seen
+	private long[] mCounts = new long[0];
+
+	// The value counted by the first element of the counts
+	private int mOffset;
+
+	// The number of values added, and their sum and sum of squares
+	private long mTotal;
+	private double mSum;
+	private double mSumOfSquares;
+
+	/**
+	 * Counts a value
+	 *
+	 * @param value The value
+	 */
+	public void add(int value) {
+		add(value, 1);
+	}
+
+	/**
+	 * Counts a value a number of times
+	 *
+	 * @param value The value
+	 *
+	 * @param count The times to count it
+	 */
+	public void add(int value, long count) {
+
+		if (count == 0) {
+			return;
+		}
+
+		if (mCounts.length == 0) {
+			mCounts = new long[1];
+			mOffset = value;
+		} else if (value < mOffset) {
+			grow(value, mOffset + mCounts.length - 1);
+		} else if (value >= mOffset + mCounts.length) {
+			grow(mOffset, value);
+		}
+
+		mCounts[value - mOffset] += count;
+		mTotal += count;
+		mSum += (double) value * count;
+		mSumOfSquares += (double) value * value * count;
+	}
+
+	/**
+	 * Adds the counts of another histogram to this one
+	 *
+	 * @param other The other histogram
+	 */
+	public void merge(Histogram other) {
+		for (int i = 0; i < other.mCounts.length; i++) {
+			add(other.mOffset + i, other.mCounts[i]);
+		}
+	}
+
+	/**
+	 * @param value The value
+	 *
+	 * @return The times the value was counted
+	 */
+	public long getCount(int value) {
+		int index = value - mOffset;
+		return index < 0 || index >= mCounts.length ? 0 : mCounts[index];
+	}
+
+	/**
+	 * @return The number of values counted
+	 */
+	public long getTotal() {
+		return mTotal;
+	}
+
+	/**
+	 * @return The smallest value counted, or 0 if there are none
+	 */
+	public int getMinimum() {
+		for (int i = 0; i < mCounts.length; i++) {
+			if (mCounts[i] > 0) {
+				return mOffset + i;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return The largest value counted, or 0 if there are none
+	 */
+	public int getMaximum() {
+		for (int i = mCounts.length - 1; i >= 0; i--) {
+			if (mCounts[i] > 0) {
+				return mOffset + i;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return The mean of the values counted, or 0 if there are none
+	 */
+	public double getMean() {
+		return mTotal == 0 ? 0 : mSum / mTotal;
+	}
+
+	/**
+	 * @return The variance of the values counted
+	 */
+	public double getVariance() {
+		if (mTotal < 2) {
+			return 0;
+		}
+		double mean = getMean();
+		return Math.max(0, (mSumOfSquares - mTotal * mean * mean) / (mTotal - 1));
+	}
+
+	/**
+	 * Returns half the width of the 95% interval around the mean
+	 *
+	 * @return The error of the mean
+	 */
+	public double getMeanError() {
+		return mTotal == 0 ? 0 : TournamentResult.Z_95 * Math.sqrt(getVariance() / mTotal);
+	}
+
+	/**
+	 * Returns the smallest value that at least the given share of the values do not
+	 * exceed
+	 *
+	 * @param fraction The share, from 0 to 1
+	 *
+	 * @return The value, or 0 if there are none
+	 */
+	public int getPercentile(double fraction) {
+
+		long needed = (long) Math.ceil(fraction * mTotal);
+		long seen = 0;
+
+		for (int i = 0; i < mCounts.length; i++) {
+			seen += mCounts[i];
+			if (seen >= needed && seen > 0) {
+				return mOffset + i;
+			}
+		}
+		return getMaximum();
+	}
+
+	/**
+	 * Makes room for the values from the lowest to the highest given
+	 */
+	private void grow(int lowest, int highest) {
+
+		// Grow by at least half again, so that widening one value at a time is cheap
+		int extra = Math.max(highest - lowest + 1 - mCounts.length, mCounts.length / 2);
+		int below = lowest < mOffset ? extra : 0;
+
+		long[] counts = new long[mCounts.length + extra];
+		System.arraycopy(mCounts, 0, counts, below, mCounts.length);
+
+		mCounts = counts;
+		mOffset -= below;
+	}
+}
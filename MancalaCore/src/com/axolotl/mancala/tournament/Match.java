@@ -0,0 +1,187 @@
+package com.axolotl.mancala.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.game.GameResult;
+
+/**
+ * Plays a candidate against a baseline to check whether a change made the candidate
+ * stronger, either for a fixed number of games or until a sequential probability ratio
+ * test reaches a verdict.
+ *
+ * The games come in pairs that start from the same random opening with the colours
+ * swapped, as in a tournament.  With a test, each game is recorded as soon as it
+ * finishes and no new game is started once the test has decided, so a clear result
+ * costs only the games needed to show it.  As the games finish in an order that
+ * depends on the threads, the number of games played can differ from run to run,
+ * although each game is still decided by its own seed.
+ */
+public class Match {
+
+	/**
+	 * The most games played by default
+	 */
+	public static final int DEFAULT_MAX_GAMES = 20000;
+
+	// The names of the candidate and the baseline
+	private final String[] mNames;
+
+	// Makes the candidate's and the baseline's players
+	private final PlayerFactory mCandidate;
+	private final PlayerFactory mBaseline;
+
+	// The number of threads to play on
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The most games to play
+	private int mMaxGames = DEFAULT_MAX_GAMES;
+
+	// The random moves at the start of each game
+	private int mOpeningMoves = Tournament.DEFAULT_OPENING_MOVES;
+
+	// The seed the seed of each pair of games is worked out from
+	private long mSeed;
+
+	/**
+	 * Constructs a match
+	 *
+	 * @param candidateName The name of the candidate
+	 *
+	 * @param candidate Makes the candidate's player for each game
+	 *
+	 * @param baselineName The name of the baseline
+	 *
+	 * @param baseline Makes the baseline's player for each game
+	 */
+	public Match(String candidateName, PlayerFactory candidate, String baselineName, PlayerFactory baseline) {
+		mNames = new String[] { candidateName, baselineName };
+		mCandidate = candidate;
+		mBaseline = baseline;
+	}
+
+	/**
+	 * Sets the number of threads the games are played on
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the most games to play, which is the number played when there is no test
+	 *
+	 * @param games The number of games, which is rounded up to an even number so that
+	 *        each opening is played with both colours
+	 */
+	public void setMaxGames(int games) {
+		mMaxGames = Math.max(2, games + (games & 1));
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of each game
+	 *
+	 * @param moves The number of moves
+	 */
+	public void setOpeningMoves(int moves) {
+		mOpeningMoves = Math.max(0, moves);
+	}
+
+	/**
+	 * Sets the seed the seed of each pair of games is worked out from
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Plays the most games allowed
+	 *
+	 * @return The results, with the candidate as the first entrant
+	 */
+	public TournamentResult run() {
+		return run(null);
+	}
+
+	/**
+	 * Plays games until the test reaches a verdict, or the most games allowed have been
+	 * played
+	 *
+	 * @param sprt The test to update after each game, or null to play every game
+	 *
+	 * @return The results of the games recorded by the test, with the candidate as
+	 *         the first entrant
+	 */
+	public TournamentResult run(final Sprt sprt) {
+
+		final TournamentResult result = new TournamentResult(mNames);
+		final AtomicInteger next = new AtomicInteger();
+		final int games = mMaxGames;
+		final int openingMoves = mOpeningMoves;
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<Void>() {
+				public Void call() {
+					for (int i = next.getAndIncrement(); i < games && !isDecided(sprt); i = next.getAndIncrement()) {
+
+						// Both games of a pair share a seed, and the candidate moves first
+						// in the first of them
+						long seed = Simulation.getGameSeed(mSeed, i / 2);
+						boolean candidateFirst = (i & 1) == 0;
+
+						GameResult outcome = candidateFirst
+								? Tournament.playGame(mCandidate, mBaseline, seed, openingMoves)
+								: Tournament.playGame(mBaseline, mCandidate, seed, openingMoves);
+
+						double score = Tournament.getScore(outcome);
+						double candidateScore = candidateFirst ? score : 1 - score;
+
+						synchronized (result) {
+							if (!isDecided(sprt)) {
+								result.record(0, 1, candidateScore);
+								if (sprt != null) {
+									sprt.record(candidateScore);
+								}
+							}
+						}
+					}
+					return null;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (Future<Void> worker : executor.invokeAll(workers)) {
+				worker.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Match interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Match failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether there is a test and it has reached a verdict
+	 */
+	private static boolean isDecided(Sprt sprt) {
+		return sprt != null && sprt.getVerdict() != Sprt.Verdict.Undecided;
+	}
+}
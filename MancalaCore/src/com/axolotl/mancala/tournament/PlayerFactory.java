@@ -0,0 +1,28 @@
+package com.axolotl.mancala.tournament;
+
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+/**
+ * Makes a fresh computer player for each game of a tournament.  Games are played on
+ * several threads at once, so a factory must not share a player, or anything else that
+ * is not thread safe, between the players it makes.
+ */
+public interface PlayerFactory {
+
+	/**
+	 * Makes a player for a game
+	 *
+	 * @param board The board the game is played on
+	 *
+	 * @param strategy The strategy playing the game on the board, for factories that
+	 *        make their players with createAIPlayer
+	 *
+	 * @param player The side the player takes
+	 *
+	 * @return The player
+	 */
+	ComputerPlayer createPlayer(Board board, MancalaStrategy strategy, PlayerNumber player);
+}
@@ -0,0 +1,144 @@
+package com.axolotl.mancala.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.axolotl.mancala.MancalaException;
+
+/**
+ * Plays a large number of games between two computer players and gathers statistics
+ * on their outcomes, such as how often the player that moves first wins.
+ *
+ * Each thread adds its games to statistics of its own, which are merged at the end,
+ * so the memory used does not grow with the number of games.  Every game has a seed
+ * worked out from the simulation's seed and the game's number, so the totals are the
+ * same on any number of threads.
+ */
+public class Simulation {
+
+	// Makes the player that moves first in every game
+	private final PlayerFactory mFirst;
+
+	// Makes the player that moves second in every game
+	private final PlayerFactory mSecond;
+
+	// The number of threads to play on
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The random moves at the start of each game
+	private int mOpeningMoves;
+
+	// The seed the seed of each game is worked out from
+	private long mSeed;
+
+	/**
+	 * Constructs a simulation
+	 *
+	 * @param first Makes the player that moves first
+	 *
+	 * @param second Makes the player that moves second
+	 */
+	public Simulation(PlayerFactory first, PlayerFactory second) {
+		mFirst = first;
+		mSecond = second;
+	}
+
+	/**
+	 * Sets the number of threads the games are played on
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of each game, none by
+	 * default
+	 *
+	 * @param moves The number of moves
+	 */
+	public void setOpeningMoves(int moves) {
+		mOpeningMoves = Math.max(0, moves);
+	}
+
+	/**
+	 * Sets the seed the seed of each game is worked out from
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Plays the games
+	 *
+	 * @param games The number of games to play
+	 *
+	 * @return The statistics of all the games
+	 */
+	public GameStatistics run(final long games) {
+
+		final AtomicLong next = new AtomicLong();
+		List<Callable<GameStatistics>> workers = new ArrayList<Callable<GameStatistics>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<GameStatistics>() {
+				public GameStatistics call() {
+
+					GameStatistics statistics = new GameStatistics();
+
+					for (long game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+
+						GameRecorder recorder = new GameRecorder();
+						Tournament.playGame(mFirst, mSecond, getGameSeed(mSeed, game), mOpeningMoves, recorder);
+
+						statistics.record(recorder.getScore(), recorder.getMoves(), recorder.getCaptures());
+					}
+					return statistics;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+		GameStatistics total = new GameStatistics();
+
+		try {
+			for (Future<GameStatistics> result : executor.invokeAll(workers)) {
+				total.merge(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Simulation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Simulation failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		return total;
+	}
+
+	/**
+	 * Works out the seed of a game from the simulation's seed and the game's number,
+	 * mixing the bits so that neighbouring games have unrelated seeds
+	 *
+	 * @param seed The simulation's seed
+	 *
+	 * @param game The game's number
+	 *
+	 * @return The game's seed
+	 */
+	static long getGameSeed(long seed, long game) {
+		long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
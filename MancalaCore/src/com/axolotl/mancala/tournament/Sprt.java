@@ -0,0 +1,198 @@
+package com.axolotl.mancala.tournament;
+
+/**
+ * A sequential probability ratio test of whether one player is stronger than another,
+ * updated after each game so that a match can stop as soon as the answer is clear.
+ *
+ * The test weighs the hypothesis that the candidate is elo0 stronger than the baseline
+ * against the hypothesis that it is elo1 stronger, using the log likelihood ratio of
+ * the points scored so far under a normal approximation.  It passes once the ratio
+ * favours elo1 strongly enough to keep the chance of a false pass below alpha, and
+ * fails once it favours elo0 strongly enough to keep the chance of a false fail below
+ * beta.
+ *
+ * The test is thread safe, so workers playing games in parallel can each record their
+ * results as they finish.
+ */
+public class Sprt {
+
+	/**
+	 * The outcome of the test so far
+	 */
+	public enum Verdict {
+
+		/**
+		 * Neither hypothesis is favoured strongly enough yet
+		 */
+		Undecided,
+
+		/**
+		 * The candidate is stronger by elo1, rather than elo0
+		 */
+		Passed,
+
+		/**
+		 * The candidate is stronger only by elo0, rather than elo1
+		 */
+		Failed
+	}
+
+	// The games added to each result before working out the variance, so that a run
+	// of identical results at the start does not give a variance of nothing
+	private static final double PRIOR_GAMES = 0.5;
+
+	// The expected points per game under each hypothesis
+	private final double mScore0;
+	private final double mScore1;
+
+	// The log likelihood ratios at which the test fails and passes
+	private final double mLowerBound;
+	private final double mUpperBound;
+
+	// The games won, drawn and lost by the candidate
+	private int mWins;
+	private int mDraws;
+	private int mLosses;
+
+	// The outcome, fixed once decided
+	private Verdict mVerdict = Verdict.Undecided;
+
+	/**
+	 * Constructs a test
+	 *
+	 * @param elo0 The rating difference of the hypothesis the test fails on
+	 *
+	 * @param elo1 The rating difference of the hypothesis the test passes on, which
+	 *        must be greater than elo0
+	 *
+	 * @param alpha The largest chance of passing when the difference is elo0
+	 *
+	 * @param beta The largest chance of failing when the difference is elo1
+	 */
+	public Sprt(double elo0, double elo1, double alpha, double beta) {
+
+		if (elo1 <= elo0) {
+			throw new IllegalArgumentException("elo1 must be greater than elo0");
+		}
+		if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+			throw new IllegalArgumentException("The error rates must be between 0 and 1");
+		}
+
+		mScore0 = toScore(elo0);
+		mScore1 = toScore(elo1);
+		mLowerBound = Math.log(beta / (1 - alpha));
+		mUpperBound = Math.log((1 - beta) / alpha);
+	}
+
+	/**
+	 * Adds the result of a game, unless the test has already decided
+	 *
+	 * @param score The points won by the candidate: 1, 0.5 or 0
+	 *
+	 * @return The outcome of the test after the game
+	 */
+	public synchronized Verdict record(double score) {
+
+		if (mVerdict != Verdict.Undecided) {
+			return mVerdict;
+		}
+
+		if (score > 0.5) {
+			mWins++;
+		} else if (score < 0.5) {
+			mLosses++;
+		} else {
+			mDraws++;
+		}
+
+		double llr = getLogLikelihoodRatio();
+
+		if (llr >= mUpperBound) {
+			mVerdict = Verdict.Passed;
+		} else if (llr <= mLowerBound) {
+			mVerdict = Verdict.Failed;
+		}
+		return mVerdict;
+	}
+
+	/**
+	 * @return The outcome of the test so far
+	 */
+	public synchronized Verdict getVerdict() {
+		return mVerdict;
+	}
+
+	/**
+	 * @return The log likelihood ratio of the games so far, positive when they favour
+	 *         elo1
+	 */
+	public synchronized double getLogLikelihoodRatio() {
+
+		double wins = mWins + PRIOR_GAMES;
+		double draws = mDraws + PRIOR_GAMES;
+		double losses = mLosses + PRIOR_GAMES;
+		double games = wins + draws + losses;
+
+		double score = (wins + 0.5 * draws) / games;
+		double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+				+ losses * score * score) / games;
+
+		int played = mWins + mDraws + mLosses;
+		return played * (mScore1 - mScore0) * (2 * score - mScore0 - mScore1) / (2 * variance);
+	}
+
+	/**
+	 * @return The log likelihood ratio at or below which the test fails
+	 */
+	public double getLowerBound() {
+		return mLowerBound;
+	}
+
+	/**
+	 * @return The log likelihood ratio at or above which the test passes
+	 */
+	public double getUpperBound() {
+		return mUpperBound;
+	}
+
+	/**
+	 * @return The games recorded
+	 */
+	public synchronized int getGames() {
+		return mWins + mDraws + mLosses;
+	}
+
+	/**
+	 * @return The games the candidate won
+	 */
+	public synchronized int getWins() {
+		return mWins;
+	}
+
+	/**
+	 * @return The games drawn
+	 */
+	public synchronized int getDraws() {
+		return mDraws;
+	}
+
+	/**
+	 * @return The games the candidate lost
+	 */
+	public synchronized int getLosses() {
+		return mLosses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s after %d games (%d/%d/%d), LLR %.2f (%.2f, %.2f)", mVerdict, getGames(), mWins,
+				mDraws, mLosses, getLogLikelihoodRatio(), mLowerBound, mUpperBound);
+	}
+
+	/**
+	 * Returns the points per game expected from a rating difference
+	 */
+	private static double toScore(double elo) {
+		return 1 / (1 + Math.pow(10, -elo / 400));
+	}
+}
@@ -0,0 +1,280 @@
+package com.axolotl.mancala.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axolotl.mancala.MancalaException;
+import com.axolotl.mancala.game.FinalScore;
+import com.axolotl.mancala.game.GameResult;
+import com.axolotl.mancala.game.PlayerNumber;
+import com.axolotl.mancala.model.Board;
+import com.axolotl.mancala.model.BoardImpl;
+import com.axolotl.mancala.model.Pit;
+import com.axolotl.mancala.strategies.ComputerPlayer;
+import com.axolotl.mancala.strategies.EgyptianStrategy;
+import com.axolotl.mancala.strategies.MancalaStrategy;
+
+/**
+ * Plays a round robin between computer players to compare their strength.
+ *
+ * Every pair of entrants plays the same number of games, in pairs that start from the
+ * same opening with the colours swapped, so neither gets the better of the first move.
+ * The openings are a few random moves, which keeps players that always choose the
+ * same move from playing the same game over and over.  Each game is decided by its own
+ * seed, which chooses the opening and seeds both players, so any game can be replayed
+ * on its own and a tournament with the same seed gives the same result on any number
+ * of threads.
+ *
+ * The games are handed out one at a time to a pool of threads, so a thread that
+ * finishes a short game takes the next one rather than waiting on the others.
+ */
+public class Tournament {
+
+	/**
+	 * The number of random moves played before the players take over, by default
+	 */
+	public static final int DEFAULT_OPENING_MOVES = 4;
+
+	// The names of the entrants
+	private final List<String> mNames = new ArrayList<String>();
+
+	// Makes the players of each entrant
+	private final List<PlayerFactory> mFactories = new ArrayList<PlayerFactory>();
+
+	// The number of threads to play on
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+
+	// The games played between each pair of entrants
+	private int mGamesPerPairing = 20;
+
+	// The random moves at the start of each game
+	private int mOpeningMoves = DEFAULT_OPENING_MOVES;
+
+	// Chooses the seed of every game
+	private long mSeed;
+
+	/**
+	 * Adds an entrant
+	 *
+	 * @param name The name to report the entrant by
+	 *
+	 * @param factory Makes the entrant's player for each game
+	 */
+	public void addEntrant(String name, PlayerFactory factory) {
+		mNames.add(name);
+		mFactories.add(factory);
+	}
+
+	/**
+	 * Sets the number of threads the games are played on
+	 *
+	 * @param threads The number of threads
+	 */
+	public void setThreads(int threads) {
+		mThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the number of games each pair of entrants plays
+	 *
+	 * @param games The number of games, which is rounded up to an even number so that
+	 *        each opening is played with both colours
+	 */
+	public void setGamesPerPairing(int games) {
+		mGamesPerPairing = Math.max(2, games + (games & 1));
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of each game
+	 *
+	 * @param moves The number of moves
+	 */
+	public void setOpeningMoves(int moves) {
+		mOpeningMoves = Math.max(0, moves);
+	}
+
+	/**
+	 * Sets the seed the seeds of the games are drawn from
+	 *
+	 * @param seed The seed
+	 */
+	public void setSeed(long seed) {
+		mSeed = seed;
+	}
+
+	/**
+	 * Plays every game of the tournament
+	 *
+	 * @return The results
+	 */
+	public TournamentResult run() {
+
+		final List<int[]> pairings = new ArrayList<int[]>();
+		final List<Long> seeds = new ArrayList<Long>();
+		Random random = new Random(mSeed);
+
+		// Each opening is played twice, with the entrants swapping sides
+		for (int one = 0; one < mFactories.size(); one++) {
+			for (int two = one + 1; two < mFactories.size(); two++) {
+				for (int game = 0; game < mGamesPerPairing; game += 2) {
+
+					Long seed = Long.valueOf(random.nextLong());
+
+					pairings.add(new int[] { one, two });
+					seeds.add(seed);
+					pairings.add(new int[] { two, one });
+					seeds.add(seed);
+				}
+			}
+		}
+
+		final double[] scores = new double[pairings.size()];
+		final AtomicInteger next = new AtomicInteger();
+		final int openingMoves = mOpeningMoves;
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < mThreads; t++) {
+			workers.add(new Callable<Void>() {
+				public Void call() {
+					for (int i = next.getAndIncrement(); i < scores.length; i = next.getAndIncrement()) {
+
+						int[] pairing = pairings.get(i);
+						GameResult result = playGame(mFactories.get(pairing[0]), mFactories.get(pairing[1]),
+								seeds.get(i).longValue(), openingMoves);
+
+						scores[i] = getScore(result);
+					}
+					return null;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+
+		try {
+			for (Future<Void> worker : executor.invokeAll(workers)) {
+				worker.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MancalaException("Tournament interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MancalaException("Tournament failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		TournamentResult result = new TournamentResult(mNames.toArray(new String[mNames.size()]));
+
+		for (int i = 0; i < scores.length; i++) {
+			result.record(pairings.get(i)[0], pairings.get(i)[1], scores[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Plays one game between two players on a board of its own
+	 *
+	 * @param first Makes the player that moves first
+	 *
+	 * @param second Makes the player that moves second
+	 *
+	 * @param seed Chooses the opening and seeds the players
+	 *
+	 * @param openingMoves The number of random moves played before the players take
+	 *        over
+	 *
+	 * @return The result of the game
+	 */
+	public static GameResult playGame(PlayerFactory first, PlayerFactory second, long seed, int openingMoves) {
+		return playGame(first, second, seed, openingMoves, new GameRecorder()).getResult();
+	}
+
+	/**
+	 * Plays one game between two players on a board of its own, recording its events
+	 *
+	 * @param first Makes the player that moves first
+	 *
+	 * @param second Makes the player that moves second
+	 *
+	 * @param seed Chooses the opening and seeds the players
+	 *
+	 * @param openingMoves The number of random moves played before the players take
+	 *        over
+	 *
+	 * @param recorder Told about the game's events, which must be new
+	 *
+	 * @return The final score
+	 */
+	static FinalScore playGame(PlayerFactory first, PlayerFactory second, long seed, int openingMoves,
+			GameRecorder recorder) {
+
+		Board board = new BoardImpl();
+		EgyptianStrategy strategy = new EgyptianStrategy(board);
+
+		strategy.setGamePublisher(recorder);
+		strategy.reset();
+		strategy.setInitialPlayer(PlayerNumber.One);
+
+		Random random = new Random(seed);
+
+		for (int move = 0; move < openingMoves && recorder.getScore() == null; move++) {
+			strategy.makeMove(chooseRandomMove(board.getPlayersPits(strategy.getCurrentPlayer()), random));
+			recorder.countMove();
+		}
+
+		ComputerPlayer one = first.createPlayer(board, strategy, PlayerNumber.One);
+		ComputerPlayer two = second.createPlayer(board, strategy, PlayerNumber.Two);
+
+		one.setSeed(random.nextLong());
+		two.setSeed(random.nextLong());
+
+		while (recorder.getScore() == null) {
+			ComputerPlayer player = strategy.getCurrentPlayer() == PlayerNumber.One ? one : two;
+			strategy.makeMove(player.play());
+			recorder.countMove();
+		}
+		return recorder.getScore();
+	}
+
+	/**
+	 * Returns the points won by the player that moved first
+	 *
+	 * @param result The result of a game
+	 *
+	 * @return 1 for a win, 0.5 for a draw and 0 for a loss
+	 */
+	public static double getScore(GameResult result) {
+		switch (result) {
+		case Player1Wins:
+			return 1;
+		case Player2Wins:
+			return 0;
+		case Draw:
+		default:
+			return 0.5;
+		}
+	}
+
+	/**
+	 * Picks one of the hollows holding seeds at random
+	 */
+	private static Pit chooseRandomMove(List<Pit> pits, Random random) {
+
+		List<Pit> playable = new ArrayList<Pit>();
+
+		for (Pit pit : pits) {
+			if (pit.getNumberOfMarbles() > 0) {
+				playable.add(pit);
+			}
+		}
+		return playable.get(random.nextInt(playable.size()));
+	}
+}
@@ -0,0 +1,294 @@
+package com.axolotl.mancala.tournament;
+
+/**
+ * The wins, draws and losses between every pair of entrants in a tournament, and the
+ * Elo ratings they imply.
+ *
+ * Each entrant's rating is its performance against the rest of the field, taken from
+ * its share of the points, so the ratings are relative and a field of equal players
+ * rates 0.  The error bars are 95% intervals from the spread of the game results.
+ */
+public class TournamentResult {
+
+	/**
+	 * The z value of a two sided 95% interval
+	 */
+	public static final double Z_95 = 1.96;
+
+	// The rating given to an entrant that won or lost every game
+	private static final double MAX_ELO = 1000;
+
+	// The names of the entrants
+	private final String[] mNames;
+
+	// The games each entrant won and drew against each other, by row
+	private final int[][] mWins;
+	private final int[][] mDraws;
+
+	/**
+	 * Constructs an empty result
+	 *
+	 * @param names The names of the entrants
+	 */
+	public TournamentResult(String[] names) {
+		mNames = names.clone();
+		mWins = new int[names.length][names.length];
+		mDraws = new int[names.length][names.length];
+	}
+
+	/**
+	 * Records the result of a game
+	 *
+	 * @param one The entrant that played first
+	 *
+	 * @param two The entrant that played second
+	 *
+	 * @param score The points won by the first entrant: 1, 0.5 or 0
+	 */
+	void record(int one, int two, double score) {
+		if (score > 0.5) {
+			mWins[one][two]++;
+		} else if (score < 0.5) {
+			mWins[two][one]++;
+		} else {
+			mDraws[one][two]++;
+			mDraws[two][one]++;
+		}
+	}
+
+	/**
+	 * @return The number of entrants
+	 */
+	public int getEntrants() {
+		return mNames.length;
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @return The entrant's name
+	 */
+	public String getName(int entrant) {
+		return mNames[entrant];
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @param opponent The opponent
+	 *
+	 * @return The games the entrant won against the opponent
+	 */
+	public int getWins(int entrant, int opponent) {
+		return mWins[entrant][opponent];
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @param opponent The opponent
+	 *
+	 * @return The games the entrant drew with the opponent
+	 */
+	public int getDraws(int entrant, int opponent) {
+		return mDraws[entrant][opponent];
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @param opponent The opponent
+	 *
+	 * @return The games the entrant lost to the opponent
+	 */
+	public int getLosses(int entrant, int opponent) {
+		return mWins[opponent][entrant];
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @return The games the entrant played
+	 */
+	public int getGames(int entrant) {
+		int games = 0;
+		for (int opponent = 0; opponent < mNames.length; opponent++) {
+			games += mWins[entrant][opponent] + mDraws[entrant][opponent] + mWins[opponent][entrant];
+		}
+		return games;
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @return The share of the points the entrant won, from 0 to 1
+	 */
+	public double getScore(int entrant) {
+
+		int wins = 0;
+		int draws = 0;
+
+		for (int opponent = 0; opponent < mNames.length; opponent++) {
+			wins += mWins[entrant][opponent];
+			draws += mDraws[entrant][opponent];
+		}
+
+		int games = getGames(entrant);
+		return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+	}
+
+	/**
+	 * @param entrant The entrant
+	 *
+	 * @return The entrant's rating against the rest of the field
+	 */
+	public double getElo(int entrant) {
+		return toElo(getScore(entrant));
+	}
+
+	/**
+	 * Returns half the width of the 95% interval around an entrant's rating
+	 *
+	 * @param entrant The entrant
+	 *
+	 * @return The error of the rating
+	 */
+	public double getEloError(int entrant) {
+
+		int wins = 0;
+		int draws = 0;
+		int losses = 0;
+
+		for (int opponent = 0; opponent < mNames.length; opponent++) {
+			wins += mWins[entrant][opponent];
+			draws += mDraws[entrant][opponent];
+			losses += mWins[opponent][entrant];
+		}
+		return getEloError(wins, draws, losses);
+	}
+
+	/**
+	 * Returns the rating difference between two entrants from their games together
+	 *
+	 * @param entrant The entrant
+	 *
+	 * @param opponent The opponent
+	 *
+	 * @return How much stronger the entrant is than the opponent
+	 */
+	public double getElo(int entrant, int opponent) {
+
+		int wins = getWins(entrant, opponent);
+		int draws = getDraws(entrant, opponent);
+		int games = wins + draws + getLosses(entrant, opponent);
+
+		return games == 0 ? 0 : toElo((wins + 0.5 * draws) / games);
+	}
+
+	/**
+	 * Converts a share of the points into the rating difference that would be
+	 * expected to score it
+	 *
+	 * @param score The share of the points, from 0 to 1
+	 *
+	 * @return The rating difference, at most MAX_ELO either way
+	 */
+	public static double toElo(double score) {
+		if (score <= 0) {
+			return -MAX_ELO;
+		}
+		if (score >= 1) {
+			return MAX_ELO;
+		}
+		return Math.max(-MAX_ELO, Math.min(MAX_ELO, -400 * Math.log10(1 / score - 1)));
+	}
+
+	/**
+	 * Returns half the width of the 95% interval of the rating implied by a set of
+	 * results.  The interval of the share of the points is worked out by the Wilson
+	 * score method, treating each game as a win or a loss, which overstates the error
+	 * a little when there are draws, but keeps the interval from closing up when every
+	 * game had the same result.
+	 *
+	 * @param wins The games won
+	 *
+	 * @param draws The games drawn
+	 *
+	 * @param losses The games lost
+	 *
+	 * @return The error of the rating
+	 */
+	public static double getEloError(int wins, int draws, int losses) {
+
+		int games = wins + draws + losses;
+
+		if (games == 0) {
+			return MAX_ELO;
+		}
+
+		double[] interval = getWilsonInterval((wins + 0.5 * draws) / games, games);
+
+		return (toElo(interval[1]) - toElo(interval[0])) / 2;
+	}
+
+	/**
+	 * Returns the 95% interval of a rate by the Wilson score method, which stays
+	 * within 0 and 1 and has some width even for rates of exactly 0 or 1
+	 *
+	 * @param rate The rate seen
+	 *
+	 * @param trials The number of trials the rate was seen over, more than 0
+	 *
+	 * @return The lower and upper ends of the interval
+	 */
+	static double[] getWilsonInterval(double rate, long trials) {
+
+		double z = Z_95;
+		double divisor = 1 + z * z / trials;
+		double centre = (rate + z * z / (2 * trials)) / divisor;
+		double width = z * Math.sqrt(rate * (1 - rate) / trials + z * z / (4.0 * trials * trials)) / divisor;
+
+		return new double[] { Math.max(0, centre - width), Math.min(1, centre + width) };
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder();
+		int width = 8;
+
+		for (String name : mNames) {
+			width = Math.max(width, name.length() + 2);
+		}
+
+		builder.append(pad("", width));
+		for (String name : mNames) {
+			builder.append(pad(name, width));
+		}
+		builder.append(pad("Elo", 16)).append('\n');
+
+		for (int i = 0; i < mNames.length; i++) {
+
+			builder.append(pad(mNames[i], width));
+
+			for (int j = 0; j < mNames.length; j++) {
+				String cell = i == j ? "-" : getWins(i, j) + "/" + getDraws(i, j) + "/" + getLosses(i, j);
+				builder.append(pad(cell, width));
+			}
+
+			builder.append(String.format("%+.0f +/- %.0f", getElo(i), getEloError(i))).append('\n');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Pads a string with spaces to the given width
+	 */
+	private static String pad(String text, int width) {
+		StringBuilder builder = new StringBuilder(text);
+		while (builder.length() < width) {
+			builder.append(' ');
+		}
+		return builder.toString();
+	}
+}